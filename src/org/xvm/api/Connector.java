@@ -3,7 +3,11 @@ package org.xvm.api;
 import java.io.File;
 import java.io.IOException;
 
+import java.lang.ref.WeakReference;
+
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.Constants;
@@ -47,14 +51,57 @@ public class Connector
 
         ModuleStructure moduleRoot = repository.loadModule(Constants.ECSTASY_MODULE);
 
-        f_templates  = new TemplateRegistry(moduleRoot);
-        f_heapGlobal = new ObjectHeap(moduleRoot.getConstantPool(), f_templates);
+        ObjectHeap heapCore = ensureCoreHeap(moduleRoot);
+
+        f_templates  = new TemplateRegistry(heapCore.f_templates);
+        f_heapGlobal = new ObjectHeap(moduleRoot.getConstantPool(), f_templates, heapCore);
+        }
+
+    /**
+     * Obtain the core heap (and the core template registry) for the specified core module. If the
+     * module is shared across the process (see {@link org.xvm.asm.FileStructure#loadShared}),
+     * so are the core templates, and the compositions and constant handles built for the core
+     * module's own constants; anything that belongs to the modules loaded by this Connector is
+     * kept by this Connector's own heap and registry.
+     *
+     * @param moduleRoot  the core Ecstasy module
+     *
+     * @return the core heap
+     */
+    private static ObjectHeap ensureCoreHeap(ModuleStructure moduleRoot)
+        {
+        boolean fShared = moduleRoot.getFileStructure().isShared();
+        if (fShared)
+            {
+            synchronized (s_mapSharedHeaps)
+                {
+                WeakReference<ObjectHeap> ref  = s_mapSharedHeaps.get(moduleRoot);
+                ObjectHeap                heap = ref == null ? null : ref.get();
+                if (heap == null)
+                    {
+                    heap = createCoreHeap(moduleRoot);
+                    s_mapSharedHeaps.put(moduleRoot, new WeakReference<>(heap));
+                    }
+                return heap;
+                }
+            }
+        return createCoreHeap(moduleRoot);
+        }
+
+    /**
+     * Create a new core heap (and the core template registry) for the specified core module.
+     */
+    private static ObjectHeap createCoreHeap(ModuleStructure moduleRoot)
+        {
+        TemplateRegistry templates = new TemplateRegistry(moduleRoot);
+        ObjectHeap       heap      = new ObjectHeap(moduleRoot.getConstantPool(), templates);
 
         ConstantPool.setCurrentPool(moduleRoot.getConstantPool());
 
-        f_templates.loadNativeTemplates(moduleRoot);
+        templates.loadNativeTemplates(moduleRoot);
 
         ConstantPool.setCurrentPool(null);
+        return heap;
         }
 
     /**
@@ -178,12 +225,12 @@ public class Connector
     private final Runtime f_runtime;
 
     /**
-     * The template registry.
+     * The template registry of this Connector.
      */
     private final TemplateRegistry f_templates;
 
     /**
-     * The template registry.
+     * The global heap of this Connector.
      */
     private final ObjectHeap f_heapGlobal;
 
@@ -196,4 +243,10 @@ public class Connector
      * Status indicator.
      */
     private boolean m_fStarted;
+
+    /**
+     * The core heaps for the shared core modules.
+     */
+    private static final Map<ModuleStructure, WeakReference<ObjectHeap>> s_mapSharedHeaps =
+            new WeakHashMap<>();
     }
@@ -790,7 +790,8 @@ public abstract class Component
         Map<String, Component> map = m_childByName;
         if (map == null)
             {
-            map = new ListMap<>();
+            // the names are Strings, so the map can index the children by name
+            map = new ListMap<>(true);
 
             // store the map on every one of the siblings (including this component)
             for (Iterator<Component> siblings = siblings(); siblings.hasNext(); )
@@ -805,30 +806,45 @@ public abstract class Component
         }
 
     /**
-     * Make sure that any deferred child deserialization is complete
+     * Make sure that any deferred child deserialization is complete.
+     * <p/>
+     * The deferred deserialization bytes are shared by all siblings, so they also serve as the
+     * monitor that serializes the deserialization across threads. The bytes are released only
+     * after all of the children have been deserialized, which publishes them to any thread that
+     * subsequently observes the released state.
      */
     protected void ensureChildren()
         {
-        if (m_abChildren != null)
+        byte[] ab = m_abChildren;
+        if (ab != null && !Thread.holdsLock(ab))
             {
-            // first grab the deferred deserialization bytes and then make sure neither this nor any
-            // sibling retains hold of it (since it indicates that deserialization is deferred)
-            byte[] ab = m_abChildren;
-            for (Iterator<Component> siblings = siblings(); siblings.hasNext(); )
+            synchronized (ab)
                 {
-                siblings.next().m_abChildren = null;
-                }
+                if (m_abChildren != ab)
+                    {
+                    // another thread has already read in the children
+                    return;
+                    }
 
-            // now read in the children
-            DataInput in = new DataInputStream(new ByteArrayInputStream(ab));
-            try
-                {
-                disassembleChildren(in, true);
-                }
-            catch (IOException e)
-                {
-                throw new IllegalStateException("IOException occurred in " + getIdentityConstant()
-                        + " during deferred read of child components", e);
+                // now read in the children; the recursive calls to ensureChildren() on this
+                // thread (e.g. from addChild) are no-ops, since this thread holds the monitor
+                DataInput in = new DataInputStream(new ByteArrayInputStream(ab));
+                try
+                    {
+                    disassembleChildren(in, true);
+                    }
+                catch (IOException e)
+                    {
+                    throw new IllegalStateException("IOException occurred in " + getIdentityConstant()
+                            + " during deferred read of child components", e);
+                    }
+
+                // make sure neither this nor any sibling retains hold of the bytes (since it
+                // indicates that deserialization is deferred)
+                for (Iterator<Component> siblings = siblings(); siblings.hasNext(); )
+                    {
+                    siblings.next().m_abChildren = null;
+                    }
                 }
             }
         }
@@ -3430,9 +3446,10 @@ public abstract class Component
     /**
      * This is a non-deserialized form of all of the children. When a Component is read from disk,
      * it can optionally lazily deserialize its children. This is possible because the "children"
-     * block is length-encoded.
+     * block is length-encoded. The field is volatile, since the deferred deserialization can be
+     * triggered concurrently by any number of threads; see {@link #ensureChildren()}.
      */
-    private byte[] m_abChildren;
+    private volatile byte[] m_abChildren;
 
     /**
      * This holds all of the children of all of the siblings, except for methods (because they are
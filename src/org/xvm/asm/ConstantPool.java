@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.Vector;
 
 import org.xvm.asm.Constant.Format;
@@ -82,6 +83,23 @@ public class ConstantPool
         return i == -1 ? null : m_listConst.get(i);
         }
 
+    /**
+     * @return all of the file nodes (FSNodeConstants of the FSFile format) in this pool, in the
+     *         order that they appear in the pool
+     */
+    public FSNodeConstant[] getFileNodes()
+        {
+        List<FSNodeConstant> listFiles = new ArrayList<>();
+        for (Constant constant : m_listConst)
+            {
+            if (constant.getFormat() == Format.FSFile)
+                {
+                listFiles.add((FSNodeConstant) constant);
+                }
+            }
+        return listFiles.toArray(FSNodeConstant.NO_NODES);
+        }
+
     /**
      * Register a Constant. This is used when a new Constant is created by the ConstantPool, but it
      * can also be used directly by a consumer, and it's used during the bulk (re-)registration of
@@ -2925,6 +2943,74 @@ public class ConstantPool
         }
 
 
+    /**
+     * Retain the positions that the specified constants have in the pool of a previous build of the
+     * same module, when this pool is assembled. Since the ops refer to the constants by their
+     * positions in the pool, this is what allows the code that was compiled into the previous pool
+     * to be used as is by a method in this pool (see {@link MethodStructure#adoptCode}).
+     * <p/>
+     * A position can only be retained if, when the pool is assembled, there are enough used
+     * constants to fill all the positions up to it; this has to be checked before the pool is
+     * assembled (see {@link FileStructure#findUnretainablePositions}).
+     *
+     * @param poolPrev    the ConstantPool of the previous build
+     * @param aconstPrev  the constants from the previous pool
+     * @param aconst      the corresponding constants registered with this pool
+     *
+     * @return false iff the positions cannot be retained, because they conflict with the positions
+     *         that are already being retained
+     */
+    public boolean retainPositions(ConstantPool poolPrev, Constant[] aconstPrev, Constant[] aconst)
+        {
+        if (m_poolPrev == null)
+            {
+            m_poolPrev         = poolPrev;
+            m_mapRetainedConst = new HashMap<>();
+            m_mapRetainedPos   = new IdentityHashMap<>();
+            }
+        else if (m_poolPrev != poolPrev)
+            {
+            return false;
+            }
+
+        Map<Integer, Constant> mapConst = m_mapRetainedConst;
+        Map<Constant, Integer> mapPos   = m_mapRetainedPos;
+        Map<Integer, Constant> mapNew   = new HashMap<>();
+        for (int i = 0, c = aconst.length; i < c; ++i)
+            {
+            Integer  nPos     = aconstPrev[i].getPosition();
+            Constant constant = aconst[i];
+            Constant constAt  = mapConst.containsKey(nPos) ? mapConst.get(nPos) : mapNew.get(nPos);
+            Integer  nPosOf   = mapPos.get(constant);
+            if (constAt != null && constAt != constant || nPosOf != null && !nPosOf.equals(nPos)
+                    || constAt == null && mapNew.containsValue(constant))
+                {
+                return false;
+                }
+            mapNew.put(nPos, constant);
+            }
+
+        for (Map.Entry<Integer, Constant> entry : mapNew.entrySet())
+            {
+            mapConst.put(entry.getKey(), entry.getValue());
+            mapPos.put(entry.getValue(), entry.getKey());
+            }
+        return true;
+        }
+
+    /**
+     * Stop retaining the positions of the constants from the pool of a previous build. This is used
+     * when the code that required some of the positions is going to be compiled after all; any
+     * code that is still being re-used has to retain its positions again.
+     */
+    public void releasePositions()
+        {
+        m_poolPrev         = null;
+        m_mapRetainedConst = null;
+        m_mapRetainedPos   = null;
+        }
+
+
     // ----- methods exposed to FileStructure ------------------------------------------------------
 
     /**
@@ -2954,7 +3040,7 @@ public class ConstantPool
         assert m_fRecurseReg;
         m_fRecurseReg = false;
 
-        if (fOptimize)
+        if (fOptimize || m_poolPrev != null)
             {
             optimize();
             }
@@ -3119,6 +3205,11 @@ public class ConstantPool
                 ? Comparator.<Constant>naturalOrder()
                 : Constant.MFU_ORDER);
 
+        if (m_poolPrev != null)
+            {
+            aconst = retainPositions(aconst, cAfter);
+            }
+
         // mark each constant with its new position and add to the list
         list.clear();
         for (int i = 0; i < cAfter; ++i)
@@ -3134,6 +3225,123 @@ public class ConstantPool
         }
 
 
+    /**
+     * Called instead of {@link #postRegisterAll} after all of the Constants have been registered by
+     * the bulk registration process, in order to determine (without re-ordering the constants)
+     * which of the positions that are retained from a previous build could not be retained.
+     *
+     * @return the positions that cannot be retained; never null
+     */
+    protected Set<Integer> postRegisterRetained()
+        {
+        assert m_fRecurseReg;
+        m_fRecurseReg = false;
+
+        if (m_poolPrev == null)
+            {
+            return Collections.emptySet();
+            }
+
+        ArrayList<Constant> list   = m_listConst;
+        Constant[]          aconst = new Constant[list.size()];
+        int                 cUsed  = 0;
+        for (Constant constant : list)
+            {
+            if (constant.hasRefs())
+                {
+                aconst[cUsed++] = constant;
+                }
+            }
+
+        return collectRetained(aconst, cUsed, new Constant[cUsed]);
+        }
+
+    /**
+     * Re-order the specified constants, such that each retained constant gets its position from
+     * the previous pool, and all the other constants fill in the remaining positions.
+     *
+     * @param aconst  the used constants of this pool, in the order of the most frequently used
+     * @param cConst  the number of constants in the array
+     *
+     * @return the re-ordered constants
+     */
+    private Constant[] retainPositions(Constant[] aconst, int cConst)
+        {
+        Constant[]   aconstNew = new Constant[cConst];
+        Set<Integer> setFailed = collectRetained(aconst, cConst, aconstNew);
+        if (!setFailed.isEmpty())
+            {
+            // the compiler checks the positions before the pool is assembled (see
+            // FileStructure#findUnretainablePositions), and compiles the code instead
+            throw new IllegalStateException("unable to retain positions " + setFailed);
+            }
+
+        Set<Constant> setRetained = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Constant constant : aconstNew)
+            {
+            if (constant != null)
+                {
+                setRetained.add(constant);
+                }
+            }
+
+        int iNext = 0;
+        for (int i = 0; i < cConst; ++i)
+            {
+            Constant constant = aconst[i];
+            if (!setRetained.contains(constant))
+                {
+                while (aconstNew[iNext] != null)
+                    {
+                    ++iNext;
+                    }
+                aconstNew[iNext++] = constant;
+                }
+            }
+
+        return aconstNew;
+        }
+
+    /**
+     * Place each retained constant at its retained position.
+     *
+     * @param aconst     the used constants of this pool
+     * @param cConst     the number of constants in the array
+     * @param aconstNew  the array to place the retained constants into
+     *
+     * @return the positions that cannot be retained, either because the retained constant is not
+     *         used, or because there are not enough used constants to fill all the positions up
+     *         to the retained one
+     */
+    private Set<Integer> collectRetained(Constant[] aconst, int cConst, Constant[] aconstNew)
+        {
+        // the constants have been re-registered, so a retained constant may have been replaced by
+        // an equal one
+        Map<Constant, Constant> mapUsed = new HashMap<>();
+        for (int i = 0; i < cConst; ++i)
+            {
+            mapUsed.put(aconst[i], aconst[i]);
+            }
+
+        Set<Integer>  setFailed   = new TreeSet<>();
+        Set<Constant> setRetained = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Integer, Constant> entry : m_mapRetainedConst.entrySet())
+            {
+            int      nPos     = entry.getKey();
+            Constant constant = mapUsed.get(entry.getValue());
+            if (constant == null || nPos >= cConst || !setRetained.add(constant))
+                {
+                setFailed.add(nPos);
+                }
+            else
+                {
+                aconstNew[nPos] = constant;
+                }
+            }
+        return setFailed;
+        }
+
+
     // ----- internal ------------------------------------------------------------------------------
 
     /**
@@ -3672,6 +3880,22 @@ public class ConstantPool
      */
     private transient boolean m_fRecurseReg;
 
+    /**
+     * The ConstantPool of a previous build, some of whose constant positions are retained by this
+     * pool.
+     */
+    private transient ConstantPool m_poolPrev;
+
+    /**
+     * The retained constants by their positions.
+     */
+    private transient Map<Integer, Constant> m_mapRetainedConst;
+
+    /**
+     * The positions of the retained constants.
+     */
+    private transient Map<Constant, Integer> m_mapRetainedPos;
+
     private transient ModuleConstant    m_valEcstasy;
     private transient ClassConstant     m_clzObject;
     private transient ClassConstant     m_clzInner;
@@ -24,7 +24,7 @@ public interface Constants
      * version that can be written by this implementation. (Newer minor versions
      * can be safely read.)
      */
-    public static final int VERSION_MINOR_CUR = 0;
+    public static final int VERSION_MINOR_CUR = 2;
 
 
     // ----- names ---------------------------------------------------------------------------------
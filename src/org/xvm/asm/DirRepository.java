@@ -240,7 +240,9 @@ public class DirRepository
             {
             try
                 {
-                FileStructure struct = new FileStructure(file);
+                // modules from a read-only repository are shared with any other repository that
+                // has the identical module file
+                FileStructure struct = m_fRO ? FileStructure.loadShared(file) : new FileStructure(file);
                 XvmStructure top = struct.getModule();
                 if (top instanceof ModuleStructure)
                     {
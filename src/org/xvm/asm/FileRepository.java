@@ -239,7 +239,9 @@ public class FileRepository
         {
         try
             {
-            FileStructure struct = new FileStructure(file);
+            // modules from a read-only repository are shared with any other repository that
+            // has the identical module file
+            FileStructure struct = fRO ? FileStructure.loadShared(file) : new FileStructure(file);
             XvmStructure top = struct.getModule();
             if (top instanceof ModuleStructure)
                 {
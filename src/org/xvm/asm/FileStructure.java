@@ -2,6 +2,7 @@ package org.xvm.asm;
 
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
@@ -13,16 +14,31 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 
+import java.lang.ref.WeakReference;
+
+import java.nio.file.Files;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
+import org.xvm.asm.constants.FSNodeConstant;
 import org.xvm.asm.constants.ModuleConstant;
 
+import org.xvm.runtime.TemplateRegistry;
+
 import org.xvm.util.LinkedIterator;
 
+import static org.xvm.util.Handy.byteArrayToHexString;
 import static org.xvm.util.Handy.intToHexString;
 import static org.xvm.util.Handy.readIndex;
+import static org.xvm.util.Handy.readMagnitude;
+import static org.xvm.util.Handy.readPackedLong;
 import static org.xvm.util.Handy.toInputStream;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -142,6 +158,97 @@ public class FileStructure
             }
         }
 
+    /**
+     * Obtain a FileStructure for an existing file. If the file contains the core Ecstasy module,
+     * the FileStructure is shared with any other caller in this process that loads a
+     * byte-identical file; a shared FileStructure must be treated as read-only, since it could be
+     * in use by any number of run-time containers at the same time. Any other module is always
+     * loaded into a new FileStructure, so that its run-time state (see {@link #getTemplates()})
+     * stays private to a single Connector.
+     *
+     * @param file  the file that contains the existing FileStructure
+     *
+     * @return the (potentially shared) FileStructure
+     *
+     * @throws IOException  if an IOException occurs while reading the FileStructure
+     */
+    public static FileStructure loadShared(File file)
+            throws IOException
+        {
+        byte[] ab      = Files.readAllBytes(file.toPath());
+        String sDigest = computeDigest(ab);
+
+        synchronized (s_mapShared)
+            {
+            WeakReference<FileStructure> ref    = s_mapShared.get(sDigest);
+            FileStructure                struct = ref == null ? null : ref.get();
+            if (struct == null)
+                {
+                s_mapShared.values().removeIf(refOld -> refOld.get() == null);
+
+                struct = new FileStructure(new ByteArrayInputStream(ab), true, true);
+                struct.file = file;
+                if (struct.getModuleName().equals(ECSTASY_MODULE))
+                    {
+                    struct.m_fShared = true;
+                    s_mapShared.put(sDigest, new WeakReference<>(struct));
+                    }
+                }
+            return struct;
+            }
+        }
+
+    /**
+     * @return true iff this FileStructure is shared by all the callers that load a byte-identical
+     *         core module file (see {@link #loadShared(File)})
+     */
+    public boolean isShared()
+        {
+        return m_fShared;
+        }
+
+    /**
+     * @return the run-time template registry of the Connector that this FileStructure's module
+     *         belongs to, or null if the module has not been registered with any (e.g. the shared
+     *         core module)
+     */
+    public TemplateRegistry getTemplates()
+        {
+        return m_templates;
+        }
+
+    /**
+     * Register this FileStructure's module with the specified run-time template registry, unless
+     * it is already registered with another one.
+     *
+     * @param templates  the template registry of the Connector that uses this module
+     *
+     * @return true iff the module is now registered with the specified registry
+     */
+    public synchronized boolean registerTemplates(TemplateRegistry templates)
+        {
+        if (m_templates == null)
+            {
+            m_templates = templates;
+            }
+        return m_templates == templates;
+        }
+
+    /**
+     * @return the hex string of the SHA-256 digest of the specified bytes
+     */
+    private static String computeDigest(byte[] ab)
+        {
+        try
+            {
+            return byteArrayToHexString(MessageDigest.getInstance("SHA-256").digest(ab));
+            }
+        catch (NoSuchAlgorithmException e)
+            {
+            throw new IllegalStateException(e);
+            }
+        }
+
 
     // ----- serialization -------------------------------------------------------------------------
 
@@ -642,8 +749,12 @@ public class FileStructure
      */
     public static boolean isFileVersionSupported(int nVerMajor, int nVerMinor)
         {
-        if (nVerMajor == VERSION_MAJOR_CUR && nVerMinor == VERSION_MINOR_CUR)
+        if (nVerMajor == VERSION_MAJOR_CUR && nVerMinor <= VERSION_MINOR_CUR)
             {
+            // minor version 1 added a list of the compiler-resolved types at the end of the file,
+            // which is no longer written and is skipped when read
+            // minor version 2 dropped that list, and moved the file contents from the constant
+            // pool into the resource section at the end of the file
             return true;
             }
 
@@ -756,6 +867,21 @@ public class FileStructure
             {
             throw new IOException("the file does not contain a primary module");
             }
+
+        if (nMinorVer == 1)
+            {
+            // skip the dependency hash and the indexes of the resolved types
+            readPackedLong(in);
+            for (int i = 0, c = readMagnitude(in); i < c; i++)
+                {
+                readIndex(in);
+                }
+            }
+
+        if (nMinorVer >= 2)
+            {
+            FSNodeConstant.disassembleContents(in, pool);
+            }
         }
 
     /**
@@ -769,6 +895,21 @@ public class FileStructure
         pool.postRegisterAll(fOptimize);
         }
 
+    /**
+     * Re-registers all referenced constants with the pool, without re-ordering them, and determines
+     * which of the positions that the pool retains from a previous build (see
+     * {@link ConstantPool#retainPositions}) could not be retained when the pool is assembled.
+     *
+     * @return the positions that cannot be retained; never null
+     */
+    public Set<Integer> findUnretainablePositions()
+        {
+        ConstantPool pool = this.pool;
+        pool.preRegisterAll();
+        registerConstants(pool);
+        return pool.postRegisterRetained();
+        }
+
     @Override
     protected void registerConstants(ConstantPool pool)
         {
@@ -786,6 +927,8 @@ public class FileStructure
         pool.assemble(out);
         writePackedLong(out, getModule().getIdentityConstant().getPosition());
         assembleChildren(out);
+
+        FSNodeConstant.assembleContents(out, pool.getFileNodes());
         }
 
     @Override
@@ -955,5 +1098,20 @@ public class FileStructure
      */
     private int nMinorVer;
 
+    /**
+     * True iff this FileStructure is shared across the process (see {@link #loadShared(File)}).
+     */
+    private boolean m_fShared;
+
     private transient ErrorListener m_errs;
+
+    /**
+     * The run-time template registry that this FileStructure's module belongs to.
+     */
+    private transient volatile TemplateRegistry m_templates;
+
+    /**
+     * The shared FileStructures keyed by the digest of their binary content.
+     */
+    private static final Map<String, WeakReference<FileStructure>> s_mapShared = new HashMap<>();
     }
@@ -537,6 +537,46 @@ public class MethodStructure
         return code;
         }
 
+    /**
+     * Use the compiled code of the specified method as the code for this method. This is used by
+     * an incremental build to avoid re-compiling a method body that has not changed; the caller is
+     * responsible for ensuring that the two methods have the same signature and that the
+     * declarations that the code depends on have not changed.
+     *
+     * @param method  a compiled method from the FileStructure of a previous build of the module
+     *
+     * @return true iff the code was adopted; false if the method has to be compiled instead
+     */
+    public boolean adoptCode(MethodStructure method)
+        {
+        assert method.m_abOps != null;
+
+        ConstantPool pool       = getConstantPool();
+        Constant[]   aconstPrev = method.m_aconstLocal == null
+                ? Constant.NO_CONSTS
+                : method.m_aconstLocal;
+        Constant[]   aconst     = new Constant[aconstPrev.length];
+        for (int i = 0, c = aconstPrev.length; i < c; ++i)
+            {
+            aconst[i] = pool.register(aconstPrev[i]);
+            }
+
+        // the ops refer to the constants by their positions in the pool of the previous build
+        if (!pool.retainPositions(method.getConstantPool(), aconstPrev, aconst))
+            {
+            return false;
+            }
+
+        resetRuntimeInfo();
+
+        m_aconstLocal = aconst;
+        m_abOps       = method.m_abOps.clone();
+        m_FHasCode    = true;
+
+        markModified();
+        return true;
+        }
+
     /**
      * @return the op-code array for this method
      */
@@ -77,6 +77,29 @@ public abstract class Op
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * @return the op-code of this op, or {@link #OP_SYNTHETIC} for the ops synthesized by the
+     *         runtime, which don't have one; the value is calculated once and then cached
+     */
+    public int getOpCodeIndex()
+        {
+        int nIndex = m_nOpCodeIndex;
+        if (nIndex == 0)
+            {
+            int nOp;
+            try
+                {
+                nOp = getOpCode();
+                }
+            catch (UnsupportedOperationException e)
+                {
+                nOp = OP_SYNTHETIC;
+                }
+            m_nOpCodeIndex = nIndex = nOp + 1;
+            }
+        return nIndex - 1;
+        }
+
     /**
      * Process this op.
      *
@@ -2021,6 +2044,11 @@ public abstract class Op
      */
     public static final Op[] NO_OPS = new Op[0];
 
+    /**
+     * The {@link #getOpCodeIndex() op-code index} of the ops that don't have an op-code.
+     */
+    public static final int OP_SYNTHETIC = 0x100;
+
     private static final long REACHABLE_BIT        = 0x8000_0000_0000_0000L;
     private static final long NECESSARY_BIT        = 0x4000_0000_0000_0000L;
     private static final long REDUNDANT_BIT        = 0x2000_0000_0000_0000L;
@@ -2037,4 +2065,9 @@ public abstract class Op
      * A bunch of internal info munged into a long.
      */
     private long m_lStruct;
+
+    /**
+     * The cached op-code index plus one, or zero if not yet calculated.
+     */
+    private int m_nOpCodeIndex;
     }
\ No newline at end of file
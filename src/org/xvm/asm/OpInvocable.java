@@ -8,6 +8,7 @@ import java.io.IOException;
 import org.xvm.asm.Constants.Access;
 
 import org.xvm.asm.constants.MethodConstant;
+import org.xvm.asm.constants.SignatureConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Frame;
@@ -132,7 +133,18 @@ public abstract class OpInvocable extends Op
             return m_chain = new CallChain(method);
             }
 
-        Object nid = idMethod.resolveNestedIdentity(frame.poolContext(), frame.getGenericsResolver());
+        // the nested identity of a non-generic method doesn't depend on the frame; cache it, so a
+        // polymorphic call site only pays for the dispatch table lookup
+        Object nid = m_nid;
+        if (nid == null)
+            {
+            nid = idMethod.resolveNestedIdentity(frame.poolContext(), frame.getGenericsResolver());
+            if (nid instanceof SignatureConstant &&
+                    !idMethod.getSignature().containsGenericTypes())
+                {
+                m_nid = nid;
+                }
+            }
 
         CallChain chain = clazz.getMethodCallChain(nid);
         if (chain.getDepth() == 0)
@@ -262,4 +274,5 @@ public abstract class OpInvocable extends Op
 
     private TypeComposition m_clazz;       // cached class
     private CallChain       m_chain;       // cached call chain
+    private Object          m_nid;         // cached frame-independent nested identity
     }
@@ -348,6 +348,43 @@ public class Register
         return m_fEffectivelyFinal;
         }
 
+    /**
+     * Mark the register as having been captured (read-only) by a lambda.
+     */
+    public void markCaptured()
+        {
+        m_fCaptured = true;
+        }
+
+    /**
+     * Mark the register as being assigned to. If the register has already been captured, this
+     * indicates that the capture cannot use the value of the register.
+     */
+    public void markAssigned()
+        {
+        if (m_fCaptured)
+            {
+            m_fAssignedAfterCapture = true;
+            }
+        }
+
+    /**
+     * Mark the register as "escaping" via a Var, i.e. as potentially being assigned at any point.
+     */
+    public void markEscaped()
+        {
+        m_fAssignedAfterCapture = true;
+        }
+
+    /**
+     * @return true iff this register is known not to be assigned to after it has been captured,
+     *         which allows a capture to use the register value (instead of a Ref)
+     */
+    public boolean isFinalAfterCapture()
+        {
+        return m_fCaptured && !m_fAssignedAfterCapture;
+        }
+
     /**
      * @return true iff this is a normal (not D_VAR), readable and writable, local variable (and
      *         not the stack)
@@ -668,6 +705,30 @@ public class Register
             return Register.this.isEffectivelyFinal();
             }
 
+        @Override
+        public void markCaptured()
+            {
+            Register.this.markCaptured();
+            }
+
+        @Override
+        public void markAssigned()
+            {
+            Register.this.markAssigned();
+            }
+
+        @Override
+        public void markEscaped()
+            {
+            Register.this.markEscaped();
+            }
+
+        @Override
+        public boolean isFinalAfterCapture()
+            {
+            return Register.this.isFinalAfterCapture();
+            }
+
         @Override
         public boolean isNormal()
             {
@@ -729,6 +790,16 @@ public class Register
      */
     private boolean m_fEffectivelyFinal;
 
+    /**
+     * Captured (read-only) by a lambda flag.
+     */
+    private boolean m_fCaptured;
+
+    /**
+     * Assigned (or potentially assigned) after being captured flag.
+     */
+    private boolean m_fAssignedAfterCapture;
+
     /**
      * A record of whether the register was created without its index being known.
      */
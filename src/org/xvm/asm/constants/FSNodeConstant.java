@@ -5,10 +5,21 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import java.lang.ref.SoftReference;
+
 import java.nio.file.attribute.FileTime;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import java.util.function.Consumer;
 
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
 import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
 
@@ -22,6 +33,12 @@ import static org.xvm.util.Handy.writePackedLong;
 
 /**
  * Represent an entire filing system directory stored in the constant pool.
+ * <p/>
+ * The contents of the files are not stored in the constant pool itself; instead, they are
+ * compressed and stored in the resource section of the FileStructure (see
+ * {@link #assembleContents} and {@link #disassembleContents}), and only decompressed on demand.
+ * Note that the compressed contents are read into memory together with the rest of the file; only
+ * the decompression is deferred.
  */
 public class FSNodeConstant
         extends ValueConstant
@@ -91,7 +108,7 @@ public class FSNodeConstant
         m_constName     = pool.ensureStringConstant(sName);
         m_constCreated  = pool.ensureDateTimeConstant(ftCreated);
         m_constModified = pool.ensureDateTimeConstant(ftModified);
-        m_constData     = pool.ensureByteStringConstant(ab);
+        m_contents      = Contents.compress(ab);
         }
 
     /**
@@ -146,7 +163,11 @@ public class FSNodeConstant
         m_iName     = readMagnitude(in);
         m_iCreated  = readMagnitude(in);
         m_iModified = readMagnitude(in);
-        m_iData     = readMagnitude(in);
+
+        // starting with minor version 2, the file contents are in the resource section
+        m_iData     = format == Format.FSFile && pool.getFileStructure().getFileMinorVersion() >= 2
+                ? -1
+                : readMagnitude(in);
         }
 
     @Override
@@ -157,7 +178,21 @@ public class FSNodeConstant
         m_constName     = (StringConstant ) pool.getConstant(m_iName    );
         m_constCreated  = (LiteralConstant) pool.getConstant(m_iCreated );
         m_constModified = (LiteralConstant) pool.getConstant(m_iModified);
-        m_constData     =                   pool.getConstant(m_iData    );
+
+        if (m_iData >= 0)
+            {
+            Constant constData = pool.getConstant(m_iData);
+            if (m_fmt == Format.FSFile)
+                {
+                // an older format that stored the file bytes in the constant pool
+                byte[] ab = ((UInt8ArrayConstant) constData).getValue();
+                m_contents = new Contents(ab, ab.length);
+                }
+            else
+                {
+                m_constData = constData;
+                }
+            }
         }
 
 
@@ -222,11 +257,27 @@ public class FSNodeConstant
         return aFSNode;
         }
 
+    /**
+     * Obtain the contents of the file, decompressing them if necessary. The caller must treat the
+     * returned value as immutable.
+     *
+     * @return the bytes of the file
+     */
     public byte[] getFileBytes()
         {
         assert m_fmt == Format.FSFile;
 
-        return ((UInt8ArrayConstant) m_constData).getValue();
+        return ensureContents().getBytes();
+        }
+
+    /**
+     * @return the size of the file in bytes, without decompressing its contents
+     */
+    public int getFileSize()
+        {
+        assert m_fmt == Format.FSFile;
+
+        return ensureContents().f_cbFile;
         }
 
     public FSNodeConstant getLinkTarget()
@@ -235,6 +286,72 @@ public class FSNodeConstant
         return (FSNodeConstant) m_constData;
         }
 
+    /**
+     * @return the file contents
+     *
+     * @throws IllegalStateException if the contents have not been loaded
+     */
+    private Contents ensureContents()
+        {
+        Contents contents = m_contents;
+        if (contents == null)
+            {
+            throw new IllegalStateException("missing contents for " + getValueString());
+            }
+        return contents;
+        }
+
+
+    // ----- resource section ----------------------------------------------------------------------
+
+    /**
+     * Write the (compressed) contents of the specified file nodes to the resource section of a
+     * FileStructure.
+     *
+     * @param out     the DataOutput to write to
+     * @param aFiles  the FSFile nodes in the constant pool
+     *
+     * @throws IOException  if an issue occurs writing the contents
+     */
+    public static void assembleContents(DataOutput out, FSNodeConstant[] aFiles)
+            throws IOException
+        {
+        writePackedLong(out, aFiles.length);
+        for (FSNodeConstant node : aFiles)
+            {
+            Contents contents = node.ensureContents();
+            byte[]   abStored = contents.f_abStored;
+
+            writePackedLong(out, node.getPosition());
+            writePackedLong(out, contents.f_cbFile);
+            writePackedLong(out, abStored.length);
+            out.write(abStored);
+            }
+        }
+
+    /**
+     * Read the (compressed) contents of the file nodes from the resource section of a
+     * FileStructure. The contents are not decompressed until they are requested.
+     *
+     * @param in    the DataInput to read from
+     * @param pool  the ConstantPool that contains the file nodes
+     *
+     * @throws IOException  if an issue occurs reading the contents
+     */
+    public static void disassembleContents(DataInput in, ConstantPool pool)
+            throws IOException
+        {
+        for (int i = 0, c = readMagnitude(in); i < c; i++)
+            {
+            FSNodeConstant node     = (FSNodeConstant) pool.getConstant(readMagnitude(in));
+            int            cbFile   = readMagnitude(in);
+            byte[]         abStored = new byte[readMagnitude(in)];
+            in.readFully(abStored);
+
+            node.m_contents = new Contents(abStored, cbFile);
+            }
+        }
+
 
     // ----- run-time support  ---------------------------------------------------------------------
 
@@ -299,7 +416,7 @@ public class FSNodeConstant
         return     m_constName    .containsUnresolved()
                 || m_constCreated .containsUnresolved()
                 || m_constModified.containsUnresolved()
-                || m_constData    .containsUnresolved();
+                || m_constData != null && m_constData.containsUnresolved();
         }
 
     @Override
@@ -308,7 +425,10 @@ public class FSNodeConstant
         visitor.accept(m_constName    );
         visitor.accept(m_constCreated );
         visitor.accept(m_constModified);
-        visitor.accept(m_constData    );
+        if (m_constData != null)
+            {
+            visitor.accept(m_constData);
+            }
         }
 
     @Override
@@ -330,7 +450,9 @@ public class FSNodeConstant
                 nResult = this.m_constModified.compareTo(nodeThat.m_constModified);
                 if (nResult == 0)
                     {
-                    nResult = this.m_constData.compareTo(nodeThat.m_constData);
+                    nResult = m_fmt == Format.FSFile
+                            ? this.m_contents.compareTo(nodeThat.m_contents)
+                            : this.m_constData.compareTo(nodeThat.m_constData);
                     }
                 }
             }
@@ -374,7 +496,11 @@ public class FSNodeConstant
         writePackedLong(out, m_constName    .getPosition());
         writePackedLong(out, m_constCreated .getPosition());
         writePackedLong(out, m_constModified.getPosition());
-        writePackedLong(out, m_constData    .getPosition());
+        if (m_constData != null)
+            {
+            // the file contents are written to the resource section instead
+            writePackedLong(out, m_constData.getPosition());
+            }
         }
 
     @Override
@@ -402,10 +528,11 @@ public class FSNodeConstant
         int nHash = m_nHash;
         if (nHash == 0)
             {
+            // the file contents may not be loaded yet, so they are not part of the hash
             nHash =   m_constName    .hashCode()
                     ^ m_constCreated .hashCode()
                     ^ m_constModified.hashCode()
-                    ^ m_constData    .hashCode();
+                    ^ (m_constData == null ? 0 : m_constData.hashCode());
             m_nHash = nHash;
             }
         return nHash;
@@ -470,13 +597,18 @@ public class FSNodeConstant
      * <ul><li>
      * For an <b>FSDir</b> node, this is an ArrayConstant of FSNodeConstant values;
      * </li><li>
-     * For an <b>FSFile</b> node, this is an UInt8ArrayConstant containing the file bytes;
+     * For an <b>FSFile</b> node, this is null; see {@link #m_contents};
      * </li><li>
      * For an <b>FSLink</b> node, this is an FSNodeConstant value that is linked to.
      * </li></ul>
      */
     private Constant m_constData;
 
+    /**
+     * For an <b>FSFile</b> node, the file contents; otherwise null.
+     */
+    private Contents m_contents;
+
     /**
      * Cached hash code.
      */
@@ -486,5 +618,209 @@ public class FSNodeConstant
      * The ObjectHandle representing this singleton's value.
      */
     private transient ObjectHandle m_handle;
-    }
 
+
+    // ----- inner class: Contents -----------------------------------------------------------------
+
+    /**
+     * The contents of a file, as stored in the resource section. The contents are compressed
+     * unless compression doesn't make them smaller; the decompressed bytes are softly cached.
+     */
+    private static class Contents
+            implements Comparable<Contents>
+        {
+        /**
+         * @param abStored  the stored bytes, which are compressed iff they are fewer than cbFile
+         * @param cbFile    the size of the file in bytes
+         */
+        Contents(byte[] abStored, int cbFile)
+            {
+            f_abStored = abStored;
+            f_cbFile   = cbFile;
+            }
+
+        /**
+         * Create the Contents for the specified file bytes.
+         *
+         * @param ab  the bytes of the file
+         *
+         * @return the (possibly compressed) Contents
+         */
+        static Contents compress(byte[] ab)
+            {
+            int      cb       = ab.length;
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try
+                {
+                deflater.setInput(ab);
+                deflater.finish();
+
+                // only keep the compressed form if it is actually smaller
+                byte[] abBuf = new byte[cb];
+                int    cbBuf = 0;
+                while (!deflater.finished() && cbBuf < cb)
+                    {
+                    cbBuf += deflater.deflate(abBuf, cbBuf, cb - cbBuf);
+                    }
+
+                Contents contents = deflater.finished() && cbBuf < cb
+                        ? new Contents(Arrays.copyOf(abBuf, cbBuf), cb)
+                        : new Contents(ab, cb);
+                contents.m_refBytes = new SoftReference<>(ab);
+                return contents;
+                }
+            finally
+                {
+                deflater.end();
+                }
+            }
+
+        /**
+         * @return true iff the stored bytes are compressed
+         */
+        boolean isCompressed()
+            {
+            return f_abStored.length < f_cbFile;
+            }
+
+        /**
+         * @return the file bytes if they are not compressed or are cached; otherwise null
+         */
+        byte[] getCachedBytes()
+            {
+            if (!isCompressed())
+                {
+                return f_abStored;
+                }
+
+            SoftReference<byte[]> refBytes = m_refBytes;
+            return refBytes == null ? null : refBytes.get();
+            }
+
+        /**
+         * @return the file bytes, decompressing them if necessary
+         */
+        byte[] getBytes()
+            {
+            byte[] ab = getCachedBytes();
+            if (ab == null)
+                {
+                Inflater inflater = new Inflater();
+                try
+                    {
+                    ab = new byte[f_cbFile];
+                    inflater.setInput(f_abStored);
+
+                    int cb = 0;
+                    while (cb < f_cbFile && !inflater.finished())
+                        {
+                        int cbChunk = inflater.inflate(ab, cb, f_cbFile - cb);
+                        if (cbChunk == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                            {
+                            break;
+                            }
+                        cb += cbChunk;
+                        }
+
+                    if (cb != f_cbFile)
+                        {
+                        throw new IllegalStateException("corrupt file contents");
+                        }
+                    }
+                catch (DataFormatException e)
+                    {
+                    throw new IllegalStateException("corrupt file contents", e);
+                    }
+                finally
+                    {
+                    inflater.end();
+                    }
+
+                m_refBytes = new SoftReference<>(ab);
+                }
+
+            if (isCompressed())
+                {
+                retain(this, ab);
+                }
+            return ab;
+            }
+
+        @Override
+        public int compareTo(Contents that)
+            {
+            if (this == that)
+                {
+                return 0;
+                }
+
+            byte[] abThis = this.f_abStored;
+            byte[] abThat = that.f_abStored;
+            int    nDiff  = this.f_cbFile - that.f_cbFile;
+            if (nDiff == 0)
+                {
+                nDiff = abThis.length - abThat.length;
+                }
+            for (int of = 0, cb = abThis.length; nDiff == 0 && of < cb; ++of)
+                {
+                nDiff = abThis[of] - abThat[of];
+                }
+            return nDiff;
+            }
+
+        /**
+         * Hold on to the most recently used decompressed contents, up to the cache limit; beyond
+         * that, the decompressed contents are only softly reachable.
+         *
+         * @param contents  the contents that were just used
+         * @param ab        the decompressed bytes
+         */
+        private static void retain(Contents contents, byte[] ab)
+            {
+            synchronized (s_mapRecent)
+                {
+                if (s_mapRecent.put(contents, ab) == null)
+                    {
+                    s_cbRecent += ab.length;
+
+                    Iterator<Map.Entry<Contents, byte[]>> iter = s_mapRecent.entrySet().iterator();
+                    while (s_cbRecent > CACHE_BYTES && iter.hasNext())
+                        {
+                        s_cbRecent -= iter.next().getValue().length;
+                        iter.remove();
+                        }
+                    }
+                }
+            }
+
+        /**
+         * The stored (compressed or not) bytes.
+         */
+        final byte[] f_abStored;
+
+        /**
+         * The size of the (decompressed) file.
+         */
+        final int f_cbFile;
+
+        /**
+         * The decompressed bytes, if any.
+         */
+        private volatile SoftReference<byte[]> m_refBytes;
+
+        /**
+         * The maximum number of decompressed bytes to hold strongly.
+         */
+        private static final long CACHE_BYTES = Long.getLong("xvm.resource.cache", 16L << 20);
+
+        /**
+         * The most recently used decompressed contents, in access order.
+         */
+        private static final Map<Contents, byte[]> s_mapRecent = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * The total number of bytes in {@link #s_mapRecent}.
+         */
+        private static long s_cbRecent;
+        }
+    }
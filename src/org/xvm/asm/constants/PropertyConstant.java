@@ -14,6 +14,8 @@ import org.xvm.asm.ConstantPool;
 import org.xvm.asm.GenericTypeResolver;
 import org.xvm.asm.PropertyStructure;
 
+import org.xvm.runtime.SelectorRegistry;
+
 
 /**
  * Represent a property constant, which identifies a particular property structure.
@@ -165,6 +167,19 @@ public class PropertyConstant
         return sig;
         }
 
+    /**
+     * @return the virtual dispatch selector for this property (see {@link SelectorRegistry})
+     */
+    public int getSelector()
+        {
+        int nSelector = m_nSelector;
+        if (nSelector < 0)
+            {
+            nSelector = m_nSelector = SelectorRegistry.ensureSelector(this);
+            }
+        return nSelector;
+        }
+
     /**
      * @return a TypeConstant representing a formal type represented by this property,
      *         which must be a type parameter
@@ -373,4 +388,9 @@ public class PropertyConstant
      * Cached constraint type.
      */
     protected transient TypeConstant m_typeConstraint;
+
+    /**
+     * Cached virtual dispatch selector (see {@link SelectorRegistry}).
+     */
+    private transient int m_nSelector = -1;
     }
@@ -14,6 +14,8 @@ import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.GenericTypeResolver;
 
+import org.xvm.runtime.SelectorRegistry;
+
 import static org.xvm.util.Handy.readMagnitude;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -210,6 +212,19 @@ public class SignatureConstant
         return m_fProperty;
         }
 
+    /**
+     * @return the virtual dispatch selector for this signature (see {@link SelectorRegistry})
+     */
+    public int getSelector()
+        {
+        int nSelector = m_nSelector;
+        if (nSelector < 0)
+            {
+            nSelector = m_nSelector = SelectorRegistry.ensureSelector(this);
+            }
+        return nSelector;
+        }
+
     /**
      * @return true iff this signature contains any generic types
      */
@@ -898,4 +913,9 @@ public class SignatureConstant
      * Cached comparison result.
      */
     private transient int m_nCmpPrev;
+
+    /**
+     * Cached virtual dispatch selector (see {@link SelectorRegistry}).
+     */
+    private transient int m_nSelector = -1;
     }
@@ -10,6 +10,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.xvm.asm.Annotation;
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Component;
@@ -112,8 +114,8 @@ public class TypeInfo
 
         // pre-populate the method lookup caches
         // and determine if this type is implicitly abstract
-        f_cacheById  = new HashMap<>(mapMethods);
-        f_cacheByNid = new HashMap<>(mapVirtMethods);
+        f_cacheById  = new ConcurrentHashMap<>(mapMethods);
+        f_cacheByNid = new ConcurrentHashMap<>(mapVirtMethods);
 
         for (Entry<MethodConstant, MethodInfo> entry : mapMethods.entrySet())
             {
@@ -2457,7 +2459,7 @@ public class TypeInfo
      */
     private transient Map<SignatureConstant, MethodInfo> m_mapMethodsBySignature;
 
-    // cached query results REVIEW for thread safety
+    // cached query results; these are populated at run-time by concurrent services
     // REVIEW is this a reasonable way to cache these?
     private final Map<MethodConstant, MethodInfo> f_cacheById;
     private final Map<Object, MethodInfo>         f_cacheByNid;
@@ -2,26 +2,45 @@ package org.xvm.compiler;
 
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
 
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 
+import org.xvm.asm.Component;
 import org.xvm.asm.DirRepository;
 import org.xvm.asm.ErrorList;
 import org.xvm.asm.FileRepository;
 import org.xvm.asm.FileStructure;
 import org.xvm.asm.LinkedRepository;
+import org.xvm.asm.MethodStructure;
 import org.xvm.asm.ModuleRepository;
 import org.xvm.asm.ModuleStructure;
 
+import org.xvm.compiler.ast.AstNode;
+import org.xvm.compiler.ast.MethodDeclarationStatement;
 import org.xvm.compiler.ast.StatementBlock;
 import org.xvm.compiler.ast.Statement;
 import org.xvm.compiler.ast.TypeCompositionStatement;
@@ -84,20 +103,25 @@ import static org.xvm.util.Handy.indentLines;
  * <li>{@code -strict} - convert warnings to errors</li>
  * <li>{@code -nowarn} - suppress warnings</li>
  * <li>{@code -verbose} - provide information about the work being done by the compilation process</li>
+ * <li>{@code -noidx} - do not write a build index ({@code .xtc.idx}) next to each compiled module,
+ *   and do not re-use the code of the unchanged methods from a previous build</li>
  * </ul>
  */
 public class CommandLine
     {
-    protected String[]              args            = null;
-    protected List<File>            sources         = new ArrayList<>();
-    protected Options               opts            = new Options();
-    protected List<String>          deferred        = new ArrayList<>();
-    protected boolean               error           = false;
-    protected Map<File, Node>       modules         = new ListMap<>();
-    protected Map<String, Compiler> modulesByName   = new HashMap<>();
-    protected BuildRepository       repoBuild       = new BuildRepository();
-    protected ModuleRepository      repoPath;
-    protected ModuleRepository      repoResult;
+    protected String[]                   args          = null;
+    protected List<File>                 sources       = new ArrayList<>();
+    protected Options                    opts          = new Options();
+    protected List<String>               deferred      = new ArrayList<>();
+    protected boolean                    error         = false;
+    protected Map<File, Node>            modules       = new ListMap<>();
+    protected Map<String, Compiler>      modulesByName = new HashMap<>();
+    protected Map<String, FileStructure> modulesPrev   = new HashMap<>();
+    protected Map<String, BuildIndex>    indexesPrev   = new HashMap<>();
+    protected Map<Node, BuildIndex>      indexes       = new HashMap<>();
+    protected BuildRepository            repoBuild     = new BuildRepository();
+    protected ModuleRepository           repoPath;
+    protected ModuleRepository           repoResult;
 
     public static void main(String[] args)
         {
@@ -149,6 +173,9 @@ public class CommandLine
             checkCompilerErrors();
             checkTerminalFailure();
 
+            // collect the build indexes, and re-use the unchanged code from the previous build
+            reuseCode();
+
             // assembling the actual code
             generateCode();
             checkCompilerErrors();
@@ -312,6 +339,10 @@ public class CommandLine
                         {
                         opts.verbose = true;
                         }
+                    else if (s.equals("-noidx"))
+                        {
+                        opts.buildIndex = false;
+                        }
                     else if (s.startsWith("-"))
                         {
                         deferred.add("xtc: unknown option: " + s);
@@ -769,6 +800,66 @@ public class CommandLine
             }
         }
 
+    /**
+     * Collect the build index for each module being compiled, and for each module that was
+     * compiled before, whose declarations are unchanged and whose dependencies have not changed
+     * either, arrange for the code of each method with an unchanged body to be re-used from the
+     * previous build instead of being re-compiled.
+     */
+    protected void reuseCode()
+        {
+        if (!opts.buildIndex)
+            {
+            return;
+            }
+
+        for (Node module : modules.values())
+            {
+            BuildIndex index = new BuildIndex(module.getType());
+            indexes.put(module, index);
+
+            String        sModule    = module.name();
+            FileStructure structPrev = modulesPrev.get(sModule);
+            BuildIndex    indexPrev  = indexesPrev.get(sModule);
+            if (structPrev == null || !index.isCompatible(indexPrev))
+                {
+                continue;
+                }
+
+            Compiler                     compiler   = modulesByName.get(sModule);
+            Map<String, MethodStructure> mapMethods = new HashMap<>();
+            BuildIndex.collectMethods(structPrev.getModule(), mapMethods);
+
+            int cMethods = index.getMethodCount();
+            int cReused  = 0;
+            for (int i = 0; i < cMethods; ++i)
+                {
+                MethodDeclarationStatement stmt       = index.getMethod(i);
+                MethodStructure            method     = (MethodStructure) stmt.getComponent();
+                MethodStructure            methodPrev = mapMethods.get(indexPrev.getMethodPath(i));
+                if (method != null && methodPrev != null
+                        && index.getBodyHash(i).equals(indexPrev.getBodyHash(i))
+                        && methodPrev.getName().equals(method.getName())
+                        && methodPrev.getParamCount() == method.getParamCount()
+                        && methodPrev.getReturnCount() == method.getReturnCount()
+                        && methodPrev.hasCode() && !methodPrev.hasChildren())
+                    {
+                    compiler.reuseCode(stmt, methodPrev);
+                    ++cReused;
+                    }
+                }
+
+            if (opts.verbose)
+                {
+                out("xtc: Re-using the code of " + cReused + " of " + cMethods
+                        + " methods in module " + sModule);
+                }
+            }
+
+        modulesPrev.clear();
+        indexesPrev.clear();
+        }
+
     /**
      * After names/dependencies are resolved, generate the actual code.
      */
@@ -837,6 +928,18 @@ public class CommandLine
                 try
                     {
                     struct.writeTo(file);
+
+                    // an index from an earlier build must not be used with this module file
+                    File       fileIndex = BuildIndex.fileFor(file);
+                    BuildIndex index     = indexes.get(module);
+                    if (index == null)
+                        {
+                        fileIndex.delete();
+                        }
+                    else
+                        {
+                        index.writeTo(fileIndex);
+                        }
                     }
                 catch (IOException e)
                     {
@@ -851,17 +954,22 @@ public class CommandLine
         }
 
     /**
-     * Load modules from disk.
+     * Load modules from disk. A compiled module is re-used if it is newer than its source, and
+     * if every module that it depends on is being re-used as well and has not been compiled after
+     * it; the re-used modules are removed from the set of the modules to compile, so that only the
+     * modules that are out of date (and the modules that depend on them) get recompiled. For an out
+     * of date module whose dependencies have not changed, the previously compiled module and its
+     * {@link BuildIndex} are retained, so that the code of its unchanged methods can be re-used
+     * (see {@link #reuseCode()}).
      *
      * @return true iff all the modules were loaded and saved into the build repository
      */
     protected boolean readModules()
         {
-        int                 cModules   = modules.size();
-        List<FileStructure> listFiles  = new ArrayList<>(cModules);
-        BuildRepository     repoTemp   = new BuildRepository();
-        File                fileRoot   = null;
-        ModuleStructure     structRoot = null;
+        Map<File, FileStructure> mapReuse  = new ListMap<>();
+        Map<File, FileStructure> mapPrev   = new ListMap<>();
+        Map<String, Long>        mapTime   = new HashMap<>();
+        Set<String>              setStale  = new HashSet<>();
 
         for (File fileSrc : modules.keySet())
             {
@@ -883,50 +991,156 @@ public class CommandLine
                 file = new File(file, sName + ".xtc");
                 }
 
-            boolean fUseExisting = file.exists() && module.lastModified() <= file.lastModified();
-            if (fUseExisting)
+            FileStructure structFile = null;
+            BuildIndex    indexPrev  = null;
+            boolean       fCurrent   = module.lastModified() <= file.lastModified();
+            if (file.exists() && (fCurrent || (indexPrev = loadBuildIndex(file)) != null))
                 {
                 try
                     {
-                    FileStructure   structFile   = new FileStructure(file);
-                    ModuleStructure structModule = structFile.getModule();
-                    repoTemp.storeModule(structModule);
-                    listFiles.add(structFile);
-
-                    if (structModule.getName().equals(Constants.ECSTASY_MODULE))
-                        {
-                        fileRoot   = fileSrc;
-                        structRoot = structModule;
-                        }
+                    structFile = loadFileStructure(file);
                     }
                 catch (Exception e)
                     {
-                    fUseExisting = false;
+                    structFile = null;
                     }
                 }
 
-            if (!fUseExisting)
+            if (structFile == null)
+                {
+                setStale.add(module.name());
+                }
+            else if (fCurrent)
+                {
+                mapReuse.put(fileSrc, structFile);
+                mapTime.put(structFile.getModuleName(), file.lastModified());
+                }
+            else
+                {
+                // the module has to be re-compiled, but the code of its unchanged methods may be
+                // re-used from the previous build
+                setStale.add(module.name());
+                mapPrev.put(fileSrc, structFile);
+                mapTime.put(structFile.getModuleName(), file.lastModified());
+                indexesPrev.put(structFile.getModuleName(), indexPrev);
+                }
+            }
+
+        // a module that depends on a module that has to be compiled (or that has been compiled
+        // after it) has to be compiled as well
+        boolean fChanged = !setStale.isEmpty() && !mapReuse.isEmpty();
+        while (fChanged)
+            {
+            fChanged = false;
+            for (Iterator<Map.Entry<File, FileStructure>> iter = mapReuse.entrySet().iterator();
+                    iter.hasNext(); )
                 {
-                if (structRoot != null)
+                FileStructure structFile = iter.next().getValue();
+                String        sModule    = structFile.getModuleName();
+                for (String sDep : structFile.moduleNames())
                     {
-                    // the root Ecstasy module has no external dependencies and doesn't have
-                    // to be recompiled
-                    modules.remove(fileRoot);
-                    repoBuild.storeModule(structRoot);
+                    if (setStale.contains(sDep) || mapTime.containsKey(sDep)
+                            && mapTime.get(sDep) > mapTime.get(sModule))
+                        {
+                        iter.remove();
+                        setStale.add(sModule);
+                        mapTime.remove(sModule);
+                        fChanged = true;
+                        break;
+                        }
                     }
-                return false;
                 }
-            module.checkErrors();
+            }
+
+        // the code of a previously compiled module can only be re-used if none of the modules that
+        // it depends on has changed since
+        for (FileStructure structFile : mapPrev.values())
+            {
+            String  sModule = structFile.getModuleName();
+            boolean fReuse  = true;
+            for (String sDep : structFile.moduleNames())
+                {
+                if (!sDep.equals(sModule) && (setStale.contains(sDep) || mapTime.containsKey(sDep)
+                        && mapTime.get(sDep) > mapTime.get(sModule)))
+                    {
+                    fReuse = false;
+                    break;
+                    }
+                }
+
+            if (fReuse)
+                {
+                modulesPrev.put(sModule, structFile);
+                }
+            else
+                {
+                indexesPrev.remove(sModule);
+                }
             }
 
         // link the modules
-        for (FileStructure structFile : listFiles)
+        BuildRepository repoTemp = new BuildRepository();
+        for (FileStructure structFile : mapReuse.values())
+            {
+            repoTemp.storeModule(structFile.getModule());
+            }
+        for (FileStructure structFile : mapReuse.values())
             {
             structFile.linkModules(repoTemp);
             }
-
         repoBuild.storeAll(repoTemp);
-        return true;
+
+        for (File fileSrc : mapReuse.keySet())
+            {
+            if (setStale.isEmpty())
+                {
+                modules.get(fileSrc).checkErrors();
+                }
+            else
+                {
+                // the module is up to date and doesn't have to be recompiled
+                modules.remove(fileSrc);
+                }
+            }
+
+        return setStale.isEmpty();
+        }
+
+    /**
+     * Read a compiled module file.
+     *
+     * @param file  the module (.xtc) file
+     *
+     * @return the FileStructure for the module file
+     *
+     * @throws IOException  if the file cannot be read
+     */
+    protected FileStructure loadFileStructure(File file)
+            throws IOException
+        {
+        return new FileStructure(file);
+        }
+
+    /**
+     * Read the build index that was written next to a compiled module file.
+     *
+     * @param file  the module (.xtc) file
+     *
+     * @return the BuildIndex for the module file, or null if there is no (valid) build index, or
+     *         if the build indexes are disabled
+     */
+    protected BuildIndex loadBuildIndex(File file)
+        {
+        File fileIndex = BuildIndex.fileFor(file);
+        if (opts.buildIndex && fileIndex.exists())
+            {
+            try
+                {
+                return new BuildIndex(fileIndex);
+                }
+            catch (IOException e) {}
+            }
+        return null;
         }
 
     /**
@@ -998,7 +1212,7 @@ public class CommandLine
                  opts.strictLevel == Options.Strictness.Stickler)))
             {
             err("xtc: Terminating.");
-            System.exit(1);
+            exit(1);
             throw new IllegalStateException();
             }
 
@@ -1007,6 +1221,16 @@ public class CommandLine
         deferred.clear();
         }
 
+    /**
+     * Terminate the compilation process.
+     *
+     * @param nCode  the exit code
+     */
+    protected void exit(int nCode)
+        {
+        System.exit(nCode);
+        }
+
     public void checkCompilerErrors()
         {
         for (Compiler compiler : modulesByName.values())
@@ -1512,6 +1736,307 @@ public class CommandLine
         }
 
 
+    // ----- inner class: BuildIndex ---------------------------------------------------------------
+
+    /**
+     * The information that allows a module to be re-built incrementally: a hash of the module's
+     * declarations (all of its source code except for the method bodies), and for each method body,
+     * in the order of the declarations, a hash of the body and the identity of the method that it
+     * was compiled into. A BuildIndex is stored next to the compiled module file.
+     */
+    public static class BuildIndex
+        {
+        /**
+         * Collect the build index for the specified module.
+         *
+         * @param stmtModule  the module's parse tree
+         */
+        public BuildIndex(TypeCompositionStatement stmtModule)
+            {
+            Map<Source, List<StatementBlock>> mapBodies = new LinkedHashMap<>();
+            collectBodies(stmtModule, mapBodies);
+
+            MessageDigest digestDecl = createDigest();
+            for (Map.Entry<Source, List<StatementBlock>> entry : mapBodies.entrySet())
+                {
+                Source               source = entry.getKey();
+                String               sText  = source.toRawString();
+                List<StatementBlock> list   = entry.getValue();
+                list.sort(Comparator.comparingInt(body -> offsetOf(body.getStartPosition())));
+
+                update(digestDecl, String.valueOf(source.getFileName()));
+                int of = 0;
+                for (StatementBlock body : list)
+                    {
+                    int ofStart = offsetOf(body.getStartPosition());
+                    if (ofStart >= of)
+                        {
+                        update(digestDecl, sText.substring(of, ofStart));
+                        update(digestDecl, "{}");
+                        of = offsetOf(body.getEndPosition());
+                        }
+                    }
+                update(digestDecl, sText.substring(of));
+                }
+            m_sDecl = toHash(digestDecl);
+
+            int cMethods = m_listMethods.size();
+            m_asBody = new String[cMethods];
+            for (int i = 0; i < cMethods; ++i)
+                {
+                StatementBlock body       = m_listMethods.get(i).getBody();
+                MessageDigest  digestBody = createDigest();
+                update(digestBody, Source.calculateLine(body.getStartPosition()) + ":");
+                update(digestBody, body.getSource().toRawString().substring(
+                        offsetOf(body.getStartPosition()), offsetOf(body.getEndPosition())));
+                m_asBody[i] = toHash(digestBody);
+                }
+            }
+
+        /**
+         * Read a build index from the specified file.
+         *
+         * @param file  the build index file
+         *
+         * @throws IOException  if the file cannot be read or is not a valid build index
+         */
+        public BuildIndex(File file)
+                throws IOException
+            {
+            Properties props = new Properties();
+            try (InputStream in = new FileInputStream(file))
+                {
+                props.load(in);
+                }
+
+            try
+                {
+                int cMethods = Integer.parseInt(props.getProperty("count"));
+                m_sDecl    = props.getProperty("decl");
+                m_asBody   = new String[cMethods];
+                m_asMethod = new String[cMethods];
+                for (int i = 0; i < cMethods; ++i)
+                    {
+                    m_asBody  [i] = props.getProperty("body."   + i);
+                    m_asMethod[i] = props.getProperty("method." + i);
+                    if (m_asBody[i] == null || m_asMethod[i] == null)
+                        {
+                        throw new IOException("missing method " + i);
+                        }
+                    }
+                }
+            catch (RuntimeException e)
+                {
+                throw new IOException(e);
+                }
+
+            if (m_sDecl == null)
+                {
+                throw new IOException("missing declaration hash");
+                }
+            }
+
+        /**
+         * Determine the name of the build index file for a compiled module file.
+         *
+         * @param file  the module (.xtc) file
+         *
+         * @return the build index file
+         */
+        public static File fileFor(File file)
+            {
+            return new File(file.getPath() + ".idx");
+            }
+
+        /**
+         * Store this build index, which must have been collected from a module that has since been
+         * compiled.
+         *
+         * @param file  the build index file
+         *
+         * @throws IOException  if the file cannot be written
+         */
+        public void writeTo(File file)
+                throws IOException
+            {
+            Properties props = new Properties();
+            int        cMethods = getMethodCount();
+            props.setProperty("decl",  m_sDecl);
+            props.setProperty("count", String.valueOf(cMethods));
+            for (int i = 0; i < cMethods; ++i)
+                {
+                props.setProperty("body."   + i, m_asBody[i]);
+                props.setProperty("method." + i, getMethodPath(i));
+                }
+
+            try (OutputStream out = new FileOutputStream(file))
+                {
+                props.store(out, null);
+                }
+            }
+
+        /**
+         * Determine if the code of the methods with unchanged bodies in a module with the specified
+         * previous build index can be re-used, i.e. if the declarations have not changed.
+         *
+         * @param that  the previous build index (or null)
+         *
+         * @return true iff the method indexes of the two build indexes correspond to each other
+         */
+        public boolean isCompatible(BuildIndex that)
+            {
+            return that != null && this.m_sDecl.equals(that.m_sDecl)
+                    && this.getMethodCount() == that.getMethodCount();
+            }
+
+        /**
+         * @return the number of method bodies in the module
+         */
+        public int getMethodCount()
+            {
+            return m_asBody.length;
+            }
+
+        /**
+         * @param i  the method index
+         *
+         * @return the hash of the i-th method body
+         */
+        public String getBodyHash(int i)
+            {
+            return m_asBody[i];
+            }
+
+        /**
+         * @param i  the method index
+         *
+         * @return the i-th method declaration (only for a collected build index)
+         */
+        public MethodDeclarationStatement getMethod(int i)
+            {
+            return m_listMethods.get(i);
+            }
+
+        /**
+         * @param i  the method index
+         *
+         * @return the path of the method that the i-th method body was compiled into
+         */
+        public String getMethodPath(int i)
+            {
+            if (m_asMethod != null)
+                {
+                return m_asMethod[i];
+                }
+
+            Component method = m_listMethods.get(i).getComponent();
+            return method == null ? "" : method.getIdentityConstant().getPathString();
+            }
+
+        /**
+         * Collect all of the methods of the specified compiled component, by their path.
+         *
+         * @param component   the component (e.g. a module)
+         * @param mapMethods  the map to collect the methods into
+         */
+        public static void collectMethods(Component component,
+                                          Map<String, MethodStructure> mapMethods)
+            {
+            if (component instanceof MethodStructure)
+                {
+                mapMethods.put(component.getIdentityConstant().getPathString(),
+                        (MethodStructure) component);
+                }
+
+            for (Component child : component.children())
+                {
+                collectMethods(child, mapMethods);
+                }
+            }
+
+        /**
+         * Collect the method declarations that have bodies (without looking into the bodies
+         * themselves), and the bodies by the source that contains them.
+         */
+        private void collectBodies(AstNode node, Map<Source, List<StatementBlock>> mapBodies)
+            {
+            if (node instanceof TypeCompositionStatement)
+                {
+                mapBodies.computeIfAbsent(node.getSource(), source -> new ArrayList<>());
+                }
+
+            if (node instanceof MethodDeclarationStatement)
+                {
+                MethodDeclarationStatement stmt = (MethodDeclarationStatement) node;
+                StatementBlock             body = stmt.getBody();
+                if (body != null)
+                    {
+                    m_listMethods.add(stmt);
+                    mapBodies.computeIfAbsent(body.getSource(), source -> new ArrayList<>())
+                             .add(body);
+                    }
+                }
+
+            for (AstNode child : node.children())
+                {
+                if (!(node instanceof MethodDeclarationStatement
+                        && child == ((MethodDeclarationStatement) node).getBody()))
+                    {
+                    collectBodies(child, mapBodies);
+                    }
+                }
+            }
+
+        private static int offsetOf(long lPos)
+            {
+            // see Source#setPosition()
+            return ((int) (lPos >>> 40)) & 0xFFFFFF;
+            }
+
+        private static MessageDigest createDigest()
+            {
+            try
+                {
+                return MessageDigest.getInstance("SHA-256");
+                }
+            catch (NoSuchAlgorithmException e)
+                {
+                throw new IllegalStateException(e);
+                }
+            }
+
+        private static void update(MessageDigest digest, String s)
+            {
+            digest.update(s.getBytes(StandardCharsets.UTF_8));
+            }
+
+        private static String toHash(MessageDigest digest)
+            {
+            return Handy.byteArrayToHexString(digest.digest());
+            }
+
+        /**
+         * The hash of the module's declarations.
+         */
+        private String m_sDecl;
+
+        /**
+         * The hashes of the method bodies.
+         */
+        private String[] m_asBody;
+
+        /**
+         * The paths of the compiled methods (only for a build index that was read from a file).
+         */
+        private String[] m_asMethod;
+
+        /**
+         * The method declarations (only for a collected build index).
+         */
+        private List<MethodDeclarationStatement> m_listMethods = new ArrayList<>();
+        }
+
+
     // ----- inner class: Options ------------------------------------------------------------------
 
     /**
@@ -1524,6 +2049,7 @@ public class CommandLine
         boolean includeSrc  = true;
         boolean includeDbg  = true;
         boolean includeDoc  = true;
+        boolean buildIndex  = true;
 
         enum Strictness {None, Suppressed, Normal, Stickler};
         Strictness strictLevel = Strictness.Normal;
@@ -1569,6 +2095,8 @@ public class CommandLine
               .append(includeDbg)
               .append("\nincludeDoc=")
               .append(includeDoc)
+              .append("\nbuildIndex=")
+              .append(buildIndex)
               .append("\nstrictLevel=")
               .append(strictLevel.name())
               .append("\nmodulePath=");
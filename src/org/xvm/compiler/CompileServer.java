@@ -0,0 +1,585 @@
+package org.xvm.compiler;
+
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.nio.file.attribute.PosixFilePermissions;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xvm.asm.FileStructure;
+
+import org.xvm.util.Handy;
+
+
+/**
+ * A compilation daemon ("xtcd") for the prototype Ecstasy compiler. The daemon keeps a warm JVM
+ * and an in-memory cache of the compiled modules that it has loaded and that do not depend on any
+ * other module (most importantly, the Ecstasy core module, together with its constant pool and the
+ * TypeInfo that has been computed for its types), so that the subsequent builds skip both the JVM
+ * start-up and the re-loading of the unchanged modules.
+ *
+ * <p/>Start the daemon:
+ *
+ * <p/>{@code  java -cp <classes> org.xvm.compiler.CompileServer -server [-port 7188]}
+ *
+ * <p/>Submit a build to the daemon; all other arguments are the {@link CommandLine} arguments, and
+ * the exit code of this process is the exit code of the build:
+ *
+ * <p/>{@code  java -cp <classes> org.xvm.compiler.CompileServer [-port 7188] ./path/to/module.x}
+ *
+ * <p/>A cached module is re-used only as long as its {@code .xtc} file has the same timestamp and
+ * size as it had when the module was loaded. The modules that depend on other modules are not
+ * cached, since they get linked to (and compute their TypeInfo against) the modules of a particular
+ * build; neither are the sources, since the compiler mutates the parse trees as it compiles them.
+ * The builds are processed one at a time, since the compiler writes its diagnostics to
+ * {@link System#out} and {@link System#err}.
+ *
+ * <p/>To capture the output of a build, the daemon replaces {@link System#out} and
+ * {@link System#err} for the entire process while the build runs. The CompileServer must therefore
+ * only be used as a stand-alone daemon process; it must not be embedded in a process that writes
+ * to the standard streams from any other thread (such as an IDE or a running Ecstasy runtime), as
+ * that output would be sent to the client of the build that happens to be in progress.
+ *
+ * <p/>The daemon only accepts the connections on the loopback interface, and only from the clients
+ * that can read its token file ({@code ~/.xtcd/<port>.token}), which is created readable by the
+ * owner only; the token is a random secret that is generated anew every time the daemon starts.
+ *
+ * <p/>The protocol is trivial: the client sends the token and then the arguments, one per line
+ * (with the relative paths already resolved against the client's working directory), followed by
+ * an empty line; the daemon responds with a four-byte exit code followed by the UTF-8 encoded build
+ * output. A request that is not authentic, not complete within {@link #REQUEST_TIMEOUT_MILLIS},
+ * or larger than the protocol limits is dropped without a response.
+ */
+public class CompileServer
+    {
+    public static void main(String[] asArg)
+            throws IOException
+        {
+        int          nPort   = DEFAULT_PORT;
+        boolean      fServer = false;
+        List<String> listArg = new ArrayList<>();
+        for (int i = 0, c = asArg.length; i < c; i++)
+            {
+            String s = asArg[i];
+            if (s.equals("-server"))
+                {
+                fServer = true;
+                }
+            else if (s.equals("-port") && i + 1 < c)
+                {
+                nPort = Integer.parseInt(asArg[++i]);
+                }
+            else
+                {
+                listArg.add(s);
+                }
+            }
+
+        if (fServer)
+            {
+            new CompileServer(nPort).serve();
+            }
+        else
+            {
+            System.exit(submit(nPort, resolveArgs(listArg), System.out));
+            }
+        }
+
+    /**
+     * Construct the compilation daemon.
+     *
+     * @param nPort  the local port to listen on
+     */
+    public CompileServer(int nPort)
+        {
+        f_nPort = nPort;
+        }
+
+
+    // ----- server --------------------------------------------------------------------------------
+
+    /**
+     * Accept and process the build requests until the process is terminated.
+     *
+     * @throws IOException  if the server socket cannot be opened
+     */
+    public void serve()
+            throws IOException
+        {
+        try (ServerSocket socket = new ServerSocket(f_nPort, 50, InetAddress.getLoopbackAddress()))
+            {
+            publishToken();
+            CommandLine.out("xtcd: listening on port " + f_nPort);
+            while (true)
+                {
+                try (Socket conn = socket.accept())
+                    {
+                    conn.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+                    process(conn);
+                    }
+                catch (IOException e)
+                    {
+                    CommandLine.err("xtcd: " + e);
+                    }
+                }
+            }
+        }
+
+    /**
+     * Process a single build request.
+     *
+     * @param conn  the client connection
+     *
+     * @throws IOException  if the communication with the client fails
+     */
+    protected void process(Socket conn)
+            throws IOException
+        {
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+
+        String sToken = readLine(in);
+        if (sToken == null || !MessageDigest.isEqual(
+                sToken.getBytes(StandardCharsets.UTF_8), m_sToken.getBytes(StandardCharsets.UTF_8)))
+            {
+            throw new IOException("rejected a connection without a valid token");
+            }
+
+        List<String> listArg = new ArrayList<>();
+        for (String s = readLine(in); s != null && s.length() > 0; s = readLine(in))
+            {
+            if (listArg.size() >= MAX_ARGS)
+                {
+                throw new IOException("rejected a request with too many arguments");
+                }
+            listArg.add(s);
+            }
+
+        // the build itself is not subject to the request timeout
+        conn.setSoTimeout(0);
+
+        ByteArrayOutputStream buf      = new ByteArrayOutputStream();
+        long                  ldtStart = System.currentTimeMillis();
+        int                   nExit    = compile(listArg.toArray(new String[0]),
+                                           new PrintStream(buf, true, "UTF-8"));
+        CommandLine.out("xtcd: build " + listArg + " completed with exit code " + nExit + " in "
+                + (System.currentTimeMillis() - ldtStart) + "ms");
+
+        DataOutputStream out = new DataOutputStream(conn.getOutputStream());
+        out.writeInt(nExit);
+        buf.writeTo(out);
+        out.flush();
+        }
+
+    /**
+     * Generate the token for this daemon instance and write it into the token file, which only the
+     * owner of the daemon process can read.
+     *
+     * @throws IOException  if the token file cannot be written
+     */
+    protected void publishToken()
+            throws IOException
+        {
+        byte[] ab = new byte[32];
+        new SecureRandom().nextBytes(ab);
+        m_sToken = Handy.byteArrayToHexString(ab);
+
+        Path path = getTokenFile(f_nPort).toPath();
+        Path dir  = path.getParent();
+        if (dir.getFileSystem().supportedFileAttributeViews().contains("posix"))
+            {
+            if (!Files.isDirectory(dir))
+                {
+                Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(
+                        PosixFilePermissions.fromString("rwx------")));
+                }
+            Files.deleteIfExists(path);
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------")));
+            }
+        else
+            {
+            Files.createDirectories(dir);
+            Files.deleteIfExists(path);
+            Files.createFile(path);
+
+            File file = path.toFile();
+            if (!file.setReadable(false, false) || !file.setReadable(true, true))
+                {
+                throw new IOException("cannot restrict the access to " + file);
+                }
+            }
+        Files.write(path, m_sToken.getBytes(StandardCharsets.UTF_8));
+        path.toFile().deleteOnExit();
+        }
+
+    /**
+     * Run a build within this process.
+     *
+     * @param asArg  the CommandLine arguments
+     * @param out    the stream to direct the build output to
+     *
+     * @return the exit code of the build
+     */
+    protected synchronized int compile(String[] asArg, PrintStream out)
+        {
+        PrintStream outOrig = System.out;
+        PrintStream errOrig = System.err;
+        System.setOut(out);
+        System.setErr(out);
+        try
+            {
+            new Build(asArg).build();
+            return 0;
+            }
+        catch (Terminated e)
+            {
+            return e.f_nExit;
+            }
+        catch (RuntimeException | AssertionError | StackOverflowError e)
+            {
+            e.printStackTrace(out);
+            return 2;
+            }
+        finally
+            {
+            out.flush();
+            System.setOut(outOrig);
+            System.setErr(errOrig);
+            }
+        }
+
+    /**
+     * Load the specified module file, re-using the previously loaded FileStructure if the file has
+     * not changed since it was loaded. Only the modules without any dependencies are cached.
+     *
+     * @param file  the module (.xtc) file
+     *
+     * @return the FileStructure for the module file
+     *
+     * @throws IOException  if the file cannot be read
+     */
+    protected FileStructure loadModule(File file)
+            throws IOException
+        {
+        File         fileKey   = file.getCanonicalFile();
+        long         lModified = fileKey.lastModified();
+        long         cb        = fileKey.length();
+        CachedModule cached    = f_mapModules.get(fileKey);
+        if (cached != null && cached.f_lModified == lModified && cached.f_cb == cb)
+            {
+            return cached.f_struct;
+            }
+
+        FileStructure struct = new FileStructure(fileKey);
+        if (struct.moduleNames().size() == 1)
+            {
+            f_mapModules.put(fileKey, new CachedModule(struct, lModified, cb));
+            }
+        else
+            {
+            f_mapModules.remove(fileKey);
+            }
+        return struct;
+        }
+
+
+    // ----- client --------------------------------------------------------------------------------
+
+    /**
+     * Resolve all the paths in the specified CommandLine arguments against the current working
+     * directory, since the daemon has a working directory of its own.
+     *
+     * @param listArg  the CommandLine arguments
+     *
+     * @return the arguments with all the paths made absolute
+     *
+     * @throws IOException  if a path cannot be resolved
+     */
+    protected static List<String> resolveArgs(List<String> listArg)
+            throws IOException
+        {
+        List<String> listResolved = new ArrayList<>();
+        boolean      fSource      = false;
+        String       sContinued   = null;
+        for (String s : listArg)
+            {
+            if (s == null || s.length() == 0)
+                {
+                continue;
+                }
+
+            if (s.equals("-D") || s.equals("-M"))
+                {
+                sContinued = s;
+                }
+            else if (s.startsWith("-D") || "-D".equals(sContinued))
+                {
+                String sPath = s.startsWith("-D") ? s.substring(2) : s;
+                listResolved.add("-D" + resolvePaths(sPath));
+                sContinued = null;
+                }
+            else if (s.startsWith("-M") || "-M".equals(sContinued))
+                {
+                String       sPath = s.startsWith("-M") ? s.substring(2) : s;
+                List<String> list  = new ArrayList<>();
+                for (String sEach : Handy.parseDelimitedString(sPath, File.pathSeparatorChar))
+                    {
+                    list.add(resolvePaths(sEach));
+                    }
+                listResolved.add("-M" + String.join(File.pathSeparator, list));
+                sContinued = null;
+                }
+            else if (s.startsWith("-"))
+                {
+                listResolved.add(s);
+                }
+            else
+                {
+                for (File file : CommandLine.resolvePath(s))
+                    {
+                    listResolved.add(file.getAbsolutePath());
+                    }
+                fSource = true;
+                }
+            }
+
+        if (!fSource)
+            {
+            // the compiler searches for the module starting with the current directory
+            listResolved.add(new File("module.x").getAbsolutePath());
+            }
+
+        return listResolved;
+        }
+
+    /**
+     * @return the absolute form of the specified path string, which may contain wildcards
+     */
+    private static String resolvePaths(String sPath)
+            throws IOException
+        {
+        List<String> list = new ArrayList<>();
+        for (File file : CommandLine.resolvePath(sPath))
+            {
+            list.add(file.getAbsolutePath());
+            }
+        return list.isEmpty() ? sPath : String.join(File.pathSeparator, list);
+        }
+
+    /**
+     * Submit a build to the daemon and copy the build output to the specified stream.
+     *
+     * @param nPort    the port that the daemon is listening on
+     * @param listArg  the CommandLine arguments, with all the paths already resolved
+     * @param out      the stream to copy the build output to
+     *
+     * @return the exit code of the build
+     *
+     * @throws IOException  if the communication with the daemon fails
+     */
+    public static int submit(int nPort, List<String> listArg, OutputStream out)
+            throws IOException
+        {
+        File fileToken = getTokenFile(nPort);
+        if (!fileToken.isFile())
+            {
+            throw new IOException("no daemon is running on port " + nPort + " (missing "
+                    + fileToken + ")");
+            }
+        String sToken = new String(Files.readAllBytes(fileToken.toPath()), StandardCharsets.UTF_8);
+
+        try (Socket conn = new Socket(InetAddress.getLoopbackAddress(), nPort))
+            {
+            Writer writer = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(sToken);
+            writer.write('\n');
+            for (String s : listArg)
+                {
+                writer.write(s);
+                writer.write('\n');
+                }
+            writer.write('\n');
+            writer.flush();
+
+            DataInputStream in    = new DataInputStream(conn.getInputStream());
+            int             nExit = in.readInt();
+            copy(in, out);
+            out.flush();
+            return nExit;
+            }
+        }
+
+    /**
+     * @return the token file of the daemon listening on the specified port
+     */
+    protected static File getTokenFile(int nPort)
+        {
+        return new File(new File(System.getProperty("user.home"), ".xtcd"), nPort + ".token");
+        }
+
+    /**
+     * Read a single line of a request, which must not exceed {@link #MAX_LINE} characters.
+     *
+     * @return the line (without the line terminator), or null at the end of the stream
+     */
+    private static String readLine(Reader in)
+            throws IOException
+        {
+        StringBuilder sb = new StringBuilder();
+        for (int ch = in.read(); ch != '\n'; ch = in.read())
+            {
+            if (ch < 0)
+                {
+                return sb.length() == 0 ? null : sb.toString();
+                }
+            if (sb.length() >= MAX_LINE)
+                {
+                throw new IOException("rejected a request with a line that is too long");
+                }
+            sb.append((char) ch);
+            }
+        return sb.toString();
+        }
+
+    /**
+     * Copy the remainder of the input stream to the output stream.
+     */
+    private static void copy(InputStream in, OutputStream out)
+            throws IOException
+        {
+        byte[] ab = new byte[8192];
+        for (int cb = in.read(ab); cb >= 0; cb = in.read(ab))
+            {
+            out.write(ab, 0, cb);
+            }
+        }
+
+
+    // ----- inner classes -------------------------------------------------------------------------
+
+    /**
+     * The CommandLine for a single build within the daemon.
+     */
+    protected class Build
+            extends CommandLine
+        {
+        protected Build(String[] args)
+            {
+            super(args);
+            }
+
+        @Override
+        protected void exit(int nCode)
+            {
+            throw new Terminated(nCode);
+            }
+
+        @Override
+        protected FileStructure loadFileStructure(File file)
+                throws IOException
+            {
+            return loadModule(file);
+            }
+        }
+
+    /**
+     * Thrown instead of exiting the process when a build within the daemon terminates.
+     */
+    protected static class Terminated
+            extends RuntimeException
+        {
+        protected Terminated(int nExit)
+            {
+            super(null, null, false, false);
+            f_nExit = nExit;
+            }
+
+        protected final int f_nExit;
+
+        private static final long serialVersionUID = 1L;
+        }
+
+    /**
+     * A loaded module file, together with the file state it was loaded from.
+     */
+    protected static class CachedModule
+        {
+        protected CachedModule(FileStructure struct, long lModified, long cb)
+            {
+            f_struct    = struct;
+            f_lModified = lModified;
+            f_cb        = cb;
+            }
+
+        protected final FileStructure f_struct;
+        protected final long          f_lModified;
+        protected final long          f_cb;
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The default port that the daemon listens on.
+     */
+    public static final int DEFAULT_PORT = 7188;
+
+    /**
+     * The time allowed for a client to send its request.
+     */
+    public static final int REQUEST_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * The maximum number of arguments in a request.
+     */
+    protected static final int MAX_ARGS = 4096;
+
+    /**
+     * The maximum length of a line in a request.
+     */
+    protected static final int MAX_LINE = 64 * 1024;
+
+    /**
+     * The local port that the daemon listens on.
+     */
+    protected final int f_nPort;
+
+    /**
+     * The secret that the clients have to present; generated when the daemon starts serving.
+     */
+    protected String m_sToken;
+
+    /**
+     * The loaded modules, keyed by the canonical module file.
+     */
+    protected final Map<File, CachedModule> f_mapModules = new HashMap<>();
+    }
@@ -1,15 +1,23 @@
 package org.xvm.compiler;
 
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
 import org.xvm.asm.Component;
+import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.ErrorList;
 import org.xvm.asm.FileStructure;
+import org.xvm.asm.MethodStructure;
 import org.xvm.asm.ModuleRepository;
 
 import org.xvm.asm.constants.IdentityConstant;
 
 import org.xvm.compiler.ast.AstNode;
+import org.xvm.compiler.ast.MethodDeclarationStatement;
 import org.xvm.compiler.ast.StageMgr;
 import org.xvm.compiler.ast.TypeCompositionStatement;
 
@@ -269,6 +277,40 @@ public class Compiler
         return m_mgr.isComplete() || m_errs.isAbortDesired();
         }
 
+    /**
+     * Arrange for the specified method to use the code of a previously compiled method instead of
+     * compiling its body. This is used by an incremental build; if the code cannot be used after
+     * all, the body is compiled.
+     *
+     * @param stmt        the method declaration
+     * @param methodPrev  the method from the previous build of the module
+     */
+    public void reuseCode(MethodDeclarationStatement stmt, MethodStructure methodPrev)
+        {
+        validateCompiler();
+        ensureReached(Stage.Validated);
+
+        stmt.reuseCode(methodPrev);
+        m_listReused.add(stmt);
+        }
+
+    /**
+     * @return the methods that use the code of a previously compiled method, instead of having
+     *         their bodies compiled
+     */
+    public List<MethodDeclarationStatement> getReusedMethods()
+        {
+        List<MethodDeclarationStatement> list = new ArrayList<>();
+        for (MethodDeclarationStatement stmt : m_listReused)
+            {
+            if (stmt.getReusedCode() != null)
+                {
+                list.add(stmt);
+                }
+            }
+        return list;
+        }
+
     /**
      * This stage finishes the compilation by emitting any necessary code and any remaining
      * structures.
@@ -307,6 +349,11 @@ public class Compiler
             {
             setStage(Stage.Emitted);
 
+            if (m_errs.getSeverity().compareTo(Severity.ERROR) < 0)
+                {
+                compileUnretainedCode();
+                }
+
             if (m_errs.getSeverity().compareTo(Severity.ERROR) < 0)
                 {
                 // "purge" the constant pool and do a final validation on the entire module structure
@@ -400,6 +447,67 @@ public class Compiler
             }
         }
 
+    /**
+     * The code that is re-used from a previous build (see {@link #reuseCode}) refers to the
+     * constants by the positions that they had in the previous build, so the constant pool has to
+     * retain those positions. A position cannot be retained if the module now has fewer constants
+     * than that; compile the bodies of the methods whose code refers to such a position instead,
+     * until all the remaining positions can be retained.
+     */
+    private void compileUnretainedCode()
+        {
+        List<MethodDeclarationStatement> listReused = getReusedMethods();
+        while (!listReused.isEmpty())
+            {
+            Set<Integer> setPos = m_structFile.findUnretainablePositions();
+            if (setPos.isEmpty())
+                {
+                return;
+                }
+
+            List<MethodDeclarationStatement> listCompile = new ArrayList<>();
+            for (Iterator<MethodDeclarationStatement> iter = listReused.iterator(); iter.hasNext(); )
+                {
+                MethodDeclarationStatement stmt   = iter.next();
+                Constant[]                 aconst = stmt.getReusedCode().getLocalConstants();
+                for (Constant constant : aconst == null ? Constant.NO_CONSTS : aconst)
+                    {
+                    if (setPos.contains(constant.getPosition()))
+                        {
+                        listCompile.add(stmt);
+                        iter.remove();
+                        break;
+                        }
+                    }
+                }
+
+            if (listCompile.isEmpty())
+                {
+                // none of the re-used code refers to the positions; this is not expected to
+                // happen, but compiling all of it guarantees progress
+                listCompile.addAll(listReused);
+                listReused.clear();
+                }
+
+            // the positions retained by the code that is still re-used have to be retained again
+            m_structFile.getConstantPool().releasePositions();
+            for (Iterator<MethodDeclarationStatement> iter = listReused.iterator(); iter.hasNext(); )
+                {
+                MethodDeclarationStatement stmt = iter.next();
+                if (!stmt.adoptCode())
+                    {
+                    listCompile.add(stmt);
+                    iter.remove();
+                    }
+                }
+
+            for (MethodDeclarationStatement stmt : listCompile)
+                {
+                stmt.compileBody(m_errs);
+                }
+            }
+        }
+
     /**
      * Start a stage processing.
      */
@@ -445,6 +553,11 @@ public class Compiler
      */
     private FileStructure m_structFile;
 
+    /**
+     * The methods that have been arranged to use the code of a previously compiled method.
+     */
+    private final List<MethodDeclarationStatement> m_listReused = new ArrayList<>();
+
     /**
      * Within a compiler stage that may not complete in a single pass, a manager is responsible for
      * getting all of the nodes to complete that stage.
@@ -1201,6 +1201,38 @@ public abstract class AstNode
         return mapNamed == null ? Collections.EMPTY_MAP : mapNamed;
         }
 
+    /**
+     * Determine the order to test the fit of the specified arguments in. Fitting an unvalidated
+     * lambda requires validating a copy of its body, so the lambdas go last.
+     *
+     * @param listExprArgs  the argument expressions
+     *
+     * @return the indexes of the arguments in the order to test them in
+     */
+    private static int[] orderArgsByFitCost(List<Expression> listExprArgs)
+        {
+        int   cArgs = listExprArgs == null ? 0 : listExprArgs.size();
+        int[] aiArg = new int[cArgs];
+        int   iNext = 0;
+        for (int i = 0; i < cArgs; ++i)
+            {
+            Expression exprArg = listExprArgs.get(i);
+            if (!(exprArg instanceof LambdaExpression) || exprArg.isValidated())
+                {
+                aiArg[iNext++] = i;
+                }
+            }
+        for (int i = 0; i < cArgs; ++i)
+            {
+            Expression exprArg = listExprArgs.get(i);
+            if (exprArg instanceof LambdaExpression && !exprArg.isValidated())
+                {
+                aiArg[iNext++] = i;
+                }
+            }
+        return aiArg;
+        }
+
     /**
      * Helper method to collect matching methods.
      */
@@ -1285,11 +1317,15 @@ public abstract class AstNode
                 sigMethod = sigMethod.resolveGenericTypes(pool, mapTypeParams::get);
                 }
 
+            // fit the lambdas last, so that a method that doesn't fit any of the other arguments
+            // doesn't cause the lambda bodies to be validated
             TypeConstant[] atypeParam = sigMethod.getRawParams();
+            int[]          aiArg      = orderArgsByFitCost(listExprArgs);
             boolean        fConvert   = false;
             TypeFit        fit        = TypeFit.Fit;
-            for (int i = 0; i < cArgs; ++i)
+            for (int iArg = 0; iArg < cArgs; ++iArg)
                 {
+                int          i         = aiArg[iArg];
                 Expression   exprArg   = listExprArgs.get(i);
                 TypeConstant typeParam = atypeParam[cTypeParams + i];
                 TypeConstant typeArg   = atypeArgs[i];
@@ -982,6 +982,12 @@ public class Context
         if (isVarWritable(sName))
             {
             setVarAssignment(sName, getVarAssignment(sName).applyAssignment());
+
+            Argument arg = getVar(sName);
+            if (arg instanceof Register)
+                {
+                ((Register) arg).markAssigned();
+                }
             }
         else if (tokName != null && errs != null)
             {
@@ -2358,6 +2364,14 @@ public class Context
             m_typeLeft = typeLeft;
             }
 
+        /**
+         * @return the type from which this context draws additional names
+         */
+        public TypeConstant getInferringType()
+            {
+            return m_typeLeft;
+            }
+
         @Override
         public Context enterList()
             {
@@ -2561,6 +2575,13 @@ public class Context
         protected Assignment promote(String sName, Assignment asnInner, Assignment asnOuter)
             {
             ensureCaptureMap().put(sName, true);
+
+            // the variable can now be assigned whenever the capturing code runs
+            Argument arg = getOuterContext().getVar(sName);
+            if (arg instanceof Register)
+                {
+                ((Register) arg).markEscaped();
+                }
             return asnOuter.applyAssignmentFromCapture();
             }
 
@@ -4,12 +4,15 @@ package org.xvm.compiler.ast;
 import java.lang.reflect.Field;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.xvm.asm.Argument;
 import org.xvm.asm.Component;
@@ -42,7 +45,10 @@ import org.xvm.compiler.Compiler.Stage;
 import org.xvm.compiler.Token;
 import org.xvm.compiler.Token.Id;
 
+import org.xvm.compiler.ast.Context.BlackholeContext;
+import org.xvm.compiler.ast.Context.Branch;
 import org.xvm.compiler.ast.Context.CaptureContext;
+import org.xvm.compiler.ast.Context.InferringContext;
 import org.xvm.compiler.ast.StatementBlock.TargetInfo;
 
 import org.xvm.util.Severity;
@@ -503,6 +509,31 @@ public class LambdaExpression
             return finishValidation(typeRequired, null, TypeFit.NoFit, null, errs);
             }
 
+        if (isWithinBlackhole(ctx))
+            {
+            // this is a copy of a lambda nested within the body of an enclosing lambda that is
+            // being fitted (see computeReturnTypes); the copy is discarded with that body, so only
+            // its type matters, and that is shared by all the copies of this lambda
+            TypeConstant[] atypeRets =
+                    extractReturnTypes(ctx, atypeParams, asParams, atypeReqReturns);
+            if (atypeRets == null)
+                {
+                return finishValidation(typeRequired, null, TypeFit.NoFit, null, errs);
+                }
+
+            if (atypeRets.length == 0 && cReqReturns > 0)
+                {
+                log(errs, Severity.ERROR, Compiler.RETURN_EXPECTED);
+                return finishValidation(typeRequired, null, TypeFit.NoFit, null, errs);
+                }
+
+            return finishValidation(typeRequired, pool.buildFunctionType(atypeParams, atypeRets),
+                    TypeFit.Fit, null, errs);
+            }
+
+        // the memoized fit information is no longer needed by this lambda
+        m_memoReturnTypes = null;
+
         m_typeRequired = typeRequired;
         m_lambda       = instantiateLambda(errs);
 
@@ -574,6 +605,26 @@ public class LambdaExpression
             m_mapRegisters    = ctxLambda.ensureRegisterMap();
             m_fLambdaIsMethod = ctxLambda.isLambdaMethod();
 
+            // record the read-only captures, so that any subsequent assignment to the captured
+            // variables can be detected; within a loop, an assignment that precedes the lambda
+            // in the source code may still follow the capture, so assume the worst
+            boolean fLoop = isWithinLoop();
+            for (Entry<String, Boolean> entry : m_mapCapture.entrySet())
+                {
+                Register reg = m_mapRegisters.get(entry.getKey());
+                if (reg != null && !entry.getValue())
+                    {
+                    if (fLoop)
+                        {
+                        reg.markEscaped();
+                        }
+                    else
+                        {
+                        reg.markCaptured();
+                        }
+                    }
+                }
+
             // if the lambda requires "this", there is no need to capture the generic types
             m_mapGenerics = m_fLambdaIsMethod
                     ? Collections.EMPTY_MAP
@@ -687,6 +738,13 @@ public class LambdaExpression
 
     /**
      * Extract the return types from this lambda expression without changing its state.
+     * <p/>
+     * The same lambda is usually asked the same question many times before it gets validated
+     * (e.g. for each overload candidate of the method it's passed to), and a lambda nested within
+     * another lambda is asked it again for every copy of the enclosing lambda's body that is being
+     * fitted. The answer depends only on the parameter and return types and on the types of the
+     * names that the lambda body resolves outside of itself, so the results are memoized by those
+     * types in a memo that is shared by all the copies of this lambda.
      *
      * @param ctx          the context
      * @param atypeParams  the type parameters
@@ -699,6 +757,126 @@ public class LambdaExpression
                                                 TypeConstant[] atypeParams, String[] asParams,
                                                 TypeConstant[] atypeReturns)
         {
+        ReturnTypeMemo memo = m_memoReturnTypes;
+        if (memo == null)
+            {
+            m_memoReturnTypes = memo = new ReturnTypeMemo();
+            }
+
+        // the copies of an enclosing lambda's body are validated in new contexts, but all of them
+        // are nested within the same context of the outermost lambda
+        Context ctxBase = getBaseContext(ctx);
+        if (memo.m_ctxBase != ctxBase)
+            {
+            memo.m_ctxBase = ctxBase;
+            memo.f_setNames.clear();
+            memo.f_mapTypes.clear();
+            }
+
+        Map<List<Object>, TypeConstant[]> mapMemo = memo.f_mapTypes;
+        if (!mapMemo.isEmpty())
+            {
+            List<Object> listKey = buildMemoKey(ctx, memo.f_setNames, atypeParams, atypeReturns);
+            if (mapMemo.containsKey(listKey))
+                {
+                return mapMemo.get(listKey);
+                }
+            }
+
+        // the calculation resolves the same names as any prior calculation did for as long as
+        // those names resolve to the same types; otherwise the set of names only grows, which
+        // makes the keys of the prior calculations unreachable rather than wrong
+        Set<String>    setNames    = memo.f_setNames;
+        TypeConstant[] atypeResult = computeReturnTypes(ctx, atypeParams, asParams, atypeReturns,
+                                                        setNames);
+        mapMemo.put(buildMemoKey(ctx, setNames, atypeParams, atypeReturns), atypeResult);
+        return atypeResult;
+        }
+
+    /**
+     * Build the key for the memoized return types.
+     *
+     * @param ctx           the context
+     * @param setNames      the names resolved by the lambda body outside of itself
+     * @param atypeParams   the type parameters
+     * @param atypeReturns  (optional) the required return types
+     *
+     * @return the key
+     */
+    private static List<Object> buildMemoKey(Context ctx, Set<String> setNames,
+                                             TypeConstant[] atypeParams,
+                                             TypeConstant[] atypeReturns)
+        {
+        List<Object> listKey = new ArrayList<>(2 + 2 * setNames.size());
+        listKey.add(Arrays.asList(atypeParams));
+        listKey.add(atypeReturns == null ? null : Arrays.asList(atypeReturns));
+        for (String sName : setNames)
+            {
+            Argument arg = ctx.resolveName(sName);
+            listKey.add(sName);
+            listKey.add(arg == null ? null : arg.getType());
+            }
+        return listKey;
+        }
+
+    /**
+     * @param ctx  the context
+     *
+     * @return the context that the outermost lambda enclosing the specified context is being
+     *         validated in (or the context itself if there is no enclosing lambda), disregarding
+     *         the inferring and black-hole contexts created for each fit
+     */
+    private static Context getBaseContext(Context ctx)
+        {
+        Context ctxBase = null;
+        for ( ; ctx != null; ctx = ctx.getOuterContext())
+            {
+            if (ctx instanceof LambdaContext)
+                {
+                ctxBase = null;
+                }
+            else if (ctxBase == null && !(ctx instanceof InferringContext)
+                                     && !(ctx instanceof BlackholeContext))
+                {
+                ctxBase = ctx;
+                }
+            }
+        return ctxBase;
+        }
+
+    /**
+     * @param ctx  the context
+     *
+     * @return true iff the context is a part of a black-hole context used to calculate the return
+     *         types of an enclosing lambda
+     */
+    private static boolean isWithinBlackhole(Context ctx)
+        {
+        for ( ; ctx != null; ctx = ctx.getOuterContext())
+            {
+            if (ctx instanceof BlackholeContext)
+                {
+                return true;
+                }
+            }
+        return false;
+        }
+
+    /**
+     * Calculate the return types by validating a copy of the lambda body.
+     *
+     * @param ctx           the context
+     * @param atypeParams   the type parameters
+     * @param asParams      the parameter names
+     * @param atypeReturns  (optional) the required return types
+     * @param setNames      the set to add the names resolved by the body outside of itself to
+     *
+     * @return an array of return types; null if the return types could not be calculated
+     */
+    private TypeConstant[] computeReturnTypes(Context ctx,
+                                              TypeConstant[] atypeParams, String[] asParams,
+                                              TypeConstant[] atypeReturns, Set<String> setNames)
+        {
         // clone the body (to avoid damaging the original) and validate it to calculate its type
         StatementBlock blockTemp = (StatementBlock) body.clone();
         ErrorListener  errs      = m_errs == null ? ErrorListener.BLACKHOLE : m_errs;
@@ -710,10 +888,11 @@ public class LambdaExpression
             }
 
         // use a black-hole context (to avoid damaging the original)
-        ctx       = ctx.enterBlackhole();
-        ctx       = enterCapture(ctx, blockTemp, atypeParams, asParams);
-        blockTemp = (StatementBlock) blockTemp.validate(ctx, errs);
-        ctx       = ctx.exit();
+        LambdaContext ctxLambda =
+                enterCapture(ctx.enterBlackhole(), blockTemp, atypeParams, asParams);
+        blockTemp = (StatementBlock) blockTemp.validate(ctxLambda, errs);
+        ctxLambda.exit();
+        setNames.addAll(ctxLambda.getOuterNames());
 
         try
             {
@@ -815,6 +994,8 @@ public class LambdaExpression
         {
         super.discard(fRecurse);
 
+        m_memoReturnTypes = null;
+
         if (m_lambda != null)
             {
             m_lambda.getParent().removeChild(m_lambda);
@@ -828,6 +1009,8 @@ public class LambdaExpression
         // the reference to the lambda's method structure should not be a part of the cloned state
         LambdaExpression exprClone = (LambdaExpression) super.clone();
         exprClone.m_lambda = null;
+
+        // the memoized fit information, however, is shared with the clone
         return exprClone;
         }
 
@@ -930,6 +1113,28 @@ public class LambdaExpression
         return lambda;
         }
 
+    /**
+     * @return true iff this lambda is nested within a loop of the containing method
+     */
+    protected boolean isWithinLoop()
+        {
+        for (AstNode node = getParent(); node != null; node = node.getParent())
+            {
+            if (node instanceof WhileStatement
+                    || node instanceof ForStatement
+                    || node instanceof ForEachStatement)
+                {
+                return true;
+                }
+
+            if (node instanceof MethodDeclarationStatement)
+                {
+                return false;
+                }
+            }
+        return false;
+        }
+
     /**
      * Determine if MBIND and/or FBIND is necessary. If MBIND is necessary, then make the structure
      * used for the lambda into a method (not a function). If FBIND is necessary, then build the
@@ -1022,10 +1227,13 @@ public class LambdaExpression
                         argCapture     = regVar;
                         fImplicitDeref = true;
                         }
-                    else if (argCapture instanceof Register && !((Register) argCapture).isEffectivelyFinal())
+                    else if (argCapture instanceof Register
+                            && !((Register) argCapture).isEffectivelyFinal()
+                            && !((Register) argCapture).isFinalAfterCapture())
                         {
                         // it's a read-only capture, but since we were unable to prove that the
-                        // register was effectively final, we need to capture the Ref
+                        // register was effectively final (or at least that it isn't assigned
+                        // after being captured), we need to capture the Ref
                         typeCapture = pool.ensureParameterizedTypeConstant(pool.typeRef(), typeCapture);
                         Register regVal = (Register) argCapture;
                         Register regVar = new Register(typeCapture, Op.A_STACK);
@@ -1290,6 +1498,53 @@ public class LambdaExpression
             super.markVarRead(fNested, sName, tokName, errs);
             }
 
+        @Override
+        protected Argument getVar(String sName, Token name, Branch branch, ErrorListener errs)
+            {
+            if (getLocalVar(sName, branch) == null)
+                {
+                ensureOuterNames().add(sName);
+                }
+            return super.getVar(sName, name, branch, errs);
+            }
+
+        @Override
+        protected Argument resolveReservedName(String sName, Token name, ErrorListener errs)
+            {
+            ensureOuterNames().add(sName);
+            return super.resolveReservedName(sName, name, errs);
+            }
+
+        @Override
+        protected Argument resolveRegularName(Context ctxFrom, String sName, Token name, ErrorListener errs)
+            {
+            ensureOuterNames().add(sName);
+            return super.resolveRegularName(ctxFrom, sName, name, errs);
+            }
+
+        /**
+         * @return the names that were looked up outside of this context
+         */
+        public Set<String> getOuterNames()
+            {
+            return m_setOuterNames == null
+                    ? Collections.EMPTY_SET
+                    : m_setOuterNames;
+            }
+
+        /**
+         * @return the set of names that were looked up outside of this context
+         */
+        protected Set<String> ensureOuterNames()
+            {
+            Set<String> set = m_setOuterNames;
+            if (set == null)
+                {
+                m_setOuterNames = set = new HashSet<>();
+                }
+            return set;
+            }
+
         /**
          * @return true iff the lambda is built as a method (and not as a function) in order to
          *         capture the "this" object reference
@@ -1328,6 +1583,7 @@ public class LambdaExpression
 
         private TypeConstant[] m_atypeParams;
         private String[]       m_asParams;
+        private Set<String>    m_setOuterNames;
         }
 
 
@@ -1384,10 +1640,37 @@ public class LambdaExpression
      * The reserved names captured by the lambda.
      */
     private transient boolean              m_fLambdaIsMethod;
+    /**
+     * The memoized return types, shared by all the clones of this lambda. Private to
+     * extractReturnTypes().
+     */
+    private transient ReturnTypeMemo       m_memoReturnTypes = new ReturnTypeMemo();
     /**
      * A cached array of bound arguments. Private to calculateBindings().
      */
     private transient Argument[]           m_aBindArgs = NO_RVALUES;
 
+    /**
+     * The return types calculated by extractReturnTypes() for a lambda and all of its clones.
+     */
+    private static class ReturnTypeMemo
+        {
+        /**
+         * The context outside of all the enclosing lambdas that the return types were calculated
+         * in.
+         */
+        private Context m_ctxBase;
+
+        /**
+         * The names resolved by the lambda body outside of itself, in a predictable order.
+         */
+        private final Set<String> f_setNames = new TreeSet<>();
+
+        /**
+         * The return types keyed by the parameter and return types and by the types of the names.
+         */
+        private final Map<List<Object>, TypeConstant[]> f_mapTypes = new HashMap<>();
+        }
+
     private static final Field[] CHILD_FIELDS = fieldsForNames(LambdaExpression.class, "params", "paramNames", "body");
     }
@@ -262,6 +262,70 @@ public class MethodDeclarationStatement
         return null;
         }
 
+    /**
+     * @return the body of the method, or null if the method has no body
+     */
+    public StatementBlock getBody()
+        {
+        return body;
+        }
+
+    /**
+     * Instead of compiling the body of this method, use the code of the specified previously
+     * compiled method. This is used by an incremental build for a method whose body and signature
+     * (and every declaration that it could depend on) are known to be unchanged.
+     *
+     * @param methodPrev  the previously compiled method
+     */
+    public void reuseCode(MethodStructure methodPrev)
+        {
+        assert body != null && !methodPrev.hasChildren();
+
+        m_methodPrev = methodPrev;
+        }
+
+    /**
+     * @return the previously compiled method whose code has been adopted by this method, or null
+     *         if the body of this method has been compiled
+     */
+    public MethodStructure getReusedCode()
+        {
+        return m_methodPrev;
+        }
+
+    /**
+     * Adopt the code of the previously compiled method that this method re-uses, if any.
+     *
+     * @return true iff the code has been adopted; otherwise, the body has to be compiled
+     */
+    public boolean adoptCode()
+        {
+        MethodStructure methodPrev = m_methodPrev;
+        if (methodPrev != null && ((MethodStructure) getComponent()).adoptCode(methodPrev))
+            {
+            return true;
+            }
+
+        m_methodPrev = null;
+        return false;
+        }
+
+    /**
+     * Compile the body of this method after all, instead of using the code that it has adopted
+     * from the previous build.
+     *
+     * @param errs  the error list to log to
+     *
+     * @return true iff the body has been compiled successfully
+     */
+    public boolean compileBody(ErrorListener errs)
+        {
+        assert body != null;
+
+        m_methodPrev = null;
+        return body.compileMethod(((MethodStructure) getComponent()).createCode(), errs);
+        }
+
     // ----- code container methods ----------------------------------------------------------------
 
     @Override
@@ -695,7 +759,7 @@ public class MethodDeclarationStatement
                 }
             }
 
-        if (body != null && !body.compileMethod(method.createCode(), errs))
+        if (body != null && !adoptCode() && !body.compileMethod(method.createCode(), errs))
             {
             // the compilation has failed; no further progress is possible
             mgr.deferChildren();
@@ -1107,6 +1171,9 @@ public class MethodDeclarationStatement
     // complementary statement for the constructor points to the finalizer and vice versa
     private transient MethodDeclarationStatement m_stmtComplement;
 
+    // the previously compiled method whose code is reused by an incremental build
+    private transient MethodStructure m_methodPrev;
+
     private static final Field[] CHILD_FIELDS = fieldsForNames(MethodDeclarationStatement.class,
             "condition", "annotations", "typeParams", "returns", "redundant", "params", "body");
     }
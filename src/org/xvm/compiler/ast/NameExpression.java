@@ -1856,6 +1856,11 @@ public class NameExpression
                 {
                 // assert !reg.isPredefined(); // REVIEW GG: see SoftVar.x
                 m_plan = Plan.RegisterRef;
+                if (m_fAssignable)
+                    {
+                    // the Var for the register can be used to assign it at any point
+                    reg.markEscaped();
+                    }
                 return reg.ensureRegType(pool, !m_fAssignable);
                 }
             else
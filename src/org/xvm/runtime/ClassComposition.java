@@ -19,11 +19,14 @@ import org.xvm.asm.constants.AccessTypeConstant;
 import org.xvm.asm.constants.PropertyClassTypeConstant;
 import org.xvm.asm.constants.PropertyConstant;
 import org.xvm.asm.constants.PropertyInfo;
+import org.xvm.asm.constants.SignatureConstant;
 import org.xvm.asm.constants.TypeConstant;
 import org.xvm.asm.constants.TypeInfo;
 
 import org.xvm.runtime.ObjectHandle.GenericHandle;
 
+import org.xvm.runtime.template.xConst;
+import org.xvm.runtime.template.xConst.FieldPlan;
 import org.xvm.runtime.template.xString;
 import org.xvm.runtime.template.xString.StringHandle;
 
@@ -69,9 +72,6 @@ public class ClassComposition
         f_typeRevealed = typeInception;
         f_mapCompositions = new ConcurrentHashMap<>();
         f_mapProxies = new ConcurrentHashMap<>();
-        f_mapMethods = new ConcurrentHashMap<>();
-        f_mapGetters = new ConcurrentHashMap<>();
-        f_mapSetters = new ConcurrentHashMap<>();
         f_mapFields  = f_template.isGenericHandle() ? createFieldLayout() : null;
         }
 
@@ -88,9 +88,6 @@ public class ClassComposition
         f_typeRevealed = typeRevealed;
         f_mapCompositions = f_clzInception.f_mapCompositions;
         f_mapProxies = f_clzInception.f_mapProxies;
-        f_mapMethods = f_clzInception.f_mapMethods;
-        f_mapGetters = f_clzInception.f_mapGetters;
-        f_mapSetters = f_clzInception.f_mapSetters;
         f_mapFields = f_clzInception.f_mapFields;
         m_methodInit = f_clzInception.m_methodInit;
         }
@@ -159,9 +156,15 @@ public class ClassComposition
         assert handle.getComposition() == this;
 
         // retain the access modifier of the revealed type on the origin
-        return isInception()
-            ? handle
-            : handle.cloneAs(f_clzInception).ensureAccess(handle.getType().getAccess());
+        if (isInception())
+            {
+            return handle;
+            }
+
+        ObjectHandle hOrigin = handle instanceof GenericHandle
+            ? ((GenericHandle) handle).ensureView(f_clzInception)
+            : handle.cloneAs(f_clzInception);
+        return hOrigin.ensureAccess(handle.getType().getAccess());
         }
 
     @Override
@@ -169,9 +172,16 @@ public class ClassComposition
         {
         assert handle.getComposition() == this;
 
-        return access == f_typeRevealed.getAccess()
-            ? handle
-            : handle.cloneAs(ensureAccess(access));
+        if (access == f_typeRevealed.getAccess())
+            {
+            return handle;
+            }
+
+        // the access compositions are cached, so the corresponding views can be cached as well
+        ClassComposition clzAccess = ensureAccess(access);
+        return handle instanceof GenericHandle
+            ? ((GenericHandle) handle).ensureView(clzAccess)
+            : handle.cloneAs(clzAccess);
         }
 
     @Override
@@ -288,45 +298,190 @@ public class ClassComposition
     public CallChain getMethodCallChain(Object nidMethod)
         {
         // we only cache the PUBLIC access chains; all others are cached at the op-code level
-        return f_mapMethods.computeIfAbsent(nidMethod,
-            nid ->
+        ClassComposition clzInception = f_clzInception;
+        if (!(nidMethod instanceof SignatureConstant))
+            {
+            // a nested identity (a method of a property or a local class) has no selector
+            Map<Object, CallChain> mapNested = clzInception.ensureNestedMethods();
+            CallChain chain = mapNested.get(nidMethod);
+            if (chain == null)
                 {
-                TypeInfo info = isStruct()
-                        ? f_typeStructure.ensureTypeInfo()
-                        : f_typeInception.ensureTypeInfo();
-                return new CallChain(info.getOptimizedMethodChain(nid));
+                chain = new CallChain(ensureDispatchTypeInfo().getOptimizedMethodChain(nidMethod));
+                mapNested.put(nidMethod, chain);
                 }
-            );
+            return chain;
+            }
+
+        int       nSelector = ((SignatureConstant) nidMethod).getSelector();
+        CallChain chain     = getChain(clzInception.m_aaChainMethods, nSelector);
+        if (chain == null)
+            {
+            chain = new CallChain(ensureDispatchTypeInfo().getOptimizedMethodChain(nidMethod));
+            clzInception.storeChain(VT_METHOD, nSelector, chain);
+            }
+        return chain;
         }
 
     @Override
     public CallChain getPropertyGetterChain(PropertyConstant idProp)
         {
-        return f_mapGetters.computeIfAbsent(idProp,
-            id ->
-                {
-                TypeInfo     info = f_typeInception.ensureTypeInfo();
-                PropertyInfo prop = info.findProperty(id);
+        int              nSelector    = idProp.getSelector();
+        ClassComposition clzInception = f_clzInception;
+        CallChain        chain        = getChain(clzInception.m_aaChainGetters, nSelector);
+        if (chain != null)
+            {
+            return chain;
+            }
+
+        TypeInfo     info = f_typeInception.ensureTypeInfo();
+        PropertyInfo prop = info.findProperty(idProp);
+        if (prop == null)
+            {
+            return null;
+            }
 
-                return prop == null
-                        ? null
-                        : new CallChain(info.getOptimizedGetChain(prop.getIdentity()));
-                });
+        chain = new CallChain(info.getOptimizedGetChain(prop.getIdentity()));
+        clzInception.storeChain(VT_GETTER, nSelector, chain);
+        return chain;
         }
 
     @Override
     public CallChain getPropertySetterChain(PropertyConstant idProp)
         {
-        return f_mapSetters.computeIfAbsent(idProp,
-            id ->
+        int              nSelector    = idProp.getSelector();
+        ClassComposition clzInception = f_clzInception;
+        CallChain        chain        = getChain(clzInception.m_aaChainSetters, nSelector);
+        if (chain != null)
+            {
+            return chain;
+            }
+
+        TypeInfo     info = f_typeInception.ensureTypeInfo();
+        PropertyInfo prop = info.findProperty(idProp);
+        if (prop == null)
+            {
+            return null;
+            }
+
+        chain = new CallChain(info.getOptimizedSetChain(prop.getIdentity()));
+        clzInception.storeChain(VT_SETTER, nSelector, chain);
+        return chain;
+        }
+
+    /**
+     * @return the TypeInfo to compute the method call chains from
+     */
+    private TypeInfo ensureDispatchTypeInfo()
+        {
+        return isStruct()
+                ? f_typeStructure.ensureTypeInfo()
+                : f_typeInception.ensureTypeInfo();
+        }
+
+    /**
+     * @return the map of method call chains for the nested method identities
+     */
+    private Map<Object, CallChain> ensureNestedMethods()
+        {
+        Map<Object, CallChain> mapNested = m_mapNestedMethods;
+        if (mapNested == null)
+            {
+            synchronized (this)
                 {
-                TypeInfo     info = f_typeInception.ensureTypeInfo();
-                PropertyInfo prop = info.findProperty(id);
+                mapNested = m_mapNestedMethods;
+                if (mapNested == null)
+                    {
+                    m_mapNestedMethods = mapNested = new ConcurrentHashMap<>();
+                    }
+                }
+            }
+        return mapNested;
+        }
 
-                return prop == null
-                        ? null
-                        : new CallChain(info.getOptimizedSetChain(prop.getIdentity()));
-                });
+    /**
+     * Look up a chain in one of the dispatch tables.
+     *
+     * @param aaChain    the dispatch table pages
+     * @param nSelector  the selector (see {@link SelectorRegistry})
+     *
+     * @return the chain for the selector, or null if it has not been stored yet
+     */
+    private static CallChain getChain(CallChain[][] aaChain, int nSelector)
+        {
+        int iPage = nSelector >>> PAGE_BITS;
+        if (iPage < aaChain.length)
+            {
+            CallChain[] aChain = aaChain[iPage];
+            if (aChain != null)
+                {
+                return aChain[nSelector & PAGE_MASK];
+                }
+            }
+        return null;
+        }
+
+    /**
+     * Store the specified chain into one of the dispatch tables of this (inception) composition.
+     * <p/>
+     * The selectors are assigned process-wide, so a table is split into pages of
+     * {@code PAGE_SIZE} selectors and only the pages that are dispatched against are allocated.
+     * A page (and the page array) is never modified once published: a store copies it, so the
+     * tables are read without synchronization.
+     *
+     * @param nTable     one of VT_METHOD, VT_GETTER or VT_SETTER
+     * @param nSelector  the selector for the method or property identity
+     * @param chain      the chain to store
+     */
+    private synchronized void storeChain(int nTable, int nSelector, CallChain chain)
+        {
+        assert f_clzInception == this;
+
+        CallChain[][] aaChain;
+        switch (nTable)
+            {
+            case VT_METHOD:
+                aaChain = m_aaChainMethods;
+                break;
+
+            case VT_GETTER:
+                aaChain = m_aaChainGetters;
+                break;
+
+            case VT_SETTER:
+                aaChain = m_aaChainSetters;
+                break;
+
+            default:
+                throw new IllegalArgumentException("table=" + nTable);
+            }
+
+        int iPage = nSelector >>> PAGE_BITS;
+        aaChain = iPage < aaChain.length
+                ? aaChain.clone()
+                : Arrays.copyOf(aaChain, iPage + 1);
+
+        CallChain[] aChain = aaChain[iPage];
+        aChain = aChain == null
+                ? new CallChain[PAGE_SIZE]
+                : aChain.clone();
+
+        aChain[nSelector & PAGE_MASK] = chain;
+        aaChain[iPage] = aChain;
+
+        switch (nTable)
+            {
+            case VT_METHOD:
+                m_aaChainMethods = aaChain;
+                break;
+
+            case VT_GETTER:
+                m_aaChainGetters = aaChain;
+                break;
+
+            case VT_SETTER:
+                m_aaChainSetters = aaChain;
+                break;
+            }
         }
 
     @Override
@@ -512,6 +667,24 @@ public class ClassComposition
         return mapFields.isEmpty() ? null : mapFields;
         }
 
+    /**
+     * @return the cached native field support for this const class (see {@link xConst})
+     */
+    public FieldPlan getConstFieldPlan()
+        {
+        return f_clzInception.m_planConst;
+        }
+
+    /**
+     * Cache the native field support for this const class.
+     *
+     * @param plan  the field plan
+     */
+    public void setConstFieldPlan(FieldPlan plan)
+        {
+        f_clzInception.m_planConst = plan;
+        }
+
     /**
      * @return the compile-time type for a given property name
      */
@@ -591,14 +764,18 @@ public class ClassComposition
      */
     private final Map<TypeConstant, ProxyComposition> f_mapProxies;
 
-    // cached method call chain by nid (the top-most method first)
-    private final Map<Object, CallChain> f_mapMethods;
+    // virtual method dispatch table (the top-most method first) indexed by the selector; only the
+    // inception composition's table is used
+    private volatile CallChain[][] m_aaChainMethods = NO_PAGES;
 
-    // cached property getter call chain by property id (the top-most method first)
-    private final Map<PropertyConstant, CallChain> f_mapGetters;
+    // virtual property getter dispatch table (the top-most method first)
+    private volatile CallChain[][] m_aaChainGetters = NO_PAGES;
 
-    // cached property setter call chain by property id (the top-most method first)
-    private final Map<PropertyConstant, CallChain> f_mapSetters;
+    // virtual property setter dispatch table (the top-most method first)
+    private volatile CallChain[][] m_aaChainSetters = NO_PAGES;
+
+    // method call chains for the nested identities, which have no selectors
+    private volatile Map<Object, CallChain> m_mapNestedMethods;
 
     // cached list of field names
     private List<String> m_listNames;
@@ -609,9 +786,23 @@ public class ClassComposition
     // cached auto-generated structure initializer
     private MethodStructure m_methodInit;
 
+    // cached native equals/compare/hashCode support for const classes; only the inception
+    // composition's plan is used
+    private FieldPlan m_planConst;
+
     /**
      * Rank comparator for new Map.Entry<PropertyConstant, PropertyInfo> objects.
      */
     public static Comparator<Map.Entry<PropertyConstant, PropertyInfo>> RANKER =
         Comparator.comparingInt(e -> e.getValue().getRank());
+
+    private static final int VT_METHOD = 0;
+    private static final int VT_GETTER = 1;
+    private static final int VT_SETTER = 2;
+
+    private static final int PAGE_BITS = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final CallChain[][] NO_PAGES = new CallChain[0][];
     }
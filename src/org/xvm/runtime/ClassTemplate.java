@@ -232,7 +232,14 @@ public abstract class ClassTemplate
         assert typeInception.normalizeParameters(pool).equals(typeInception);
         assert typeMask.normalizeParameters(pool).equals(typeMask);
 
-        ClassComposition clz = m_mapCompositions.computeIfAbsent(typeInception, (typeI) ->
+        // the compositions of a core template for the types that come from a Connector's own
+        // modules are held by that Connector's registry
+        TemplateRegistry templates = f_templates.getOwner(typeInception);
+        Map<TypeConstant, ClassComposition> mapCompositions = templates == f_templates
+                ? m_mapCompositions
+                : templates.ensureCompositions(this);
+
+        ClassComposition clz = mapCompositions.computeIfAbsent(typeInception, (typeI) ->
             {
             OpSupport support = typeI.isAnnotated() && typeI.isIntoVariableType()
                     ? typeI.getOpSupport(f_templates)
@@ -457,6 +464,79 @@ public abstract class ClassTemplate
         return Op.R_NEXT;
         }
 
+    /**
+     * Create an immutable copy of the specified mutable object, so it could be sent over the
+     * service boundaries. The copy is deep and cycle-safe: any object reachable from the target
+     * is copied at most once, while immutable objects and services are shared rather than copied.
+     *
+     * @param hTarget    the mutable (non-service) object handle to copy
+     * @param mapCopies  the copies made so far, keyed by the original handles (identity based)
+     *
+     * @return an immutable copy of the object or null if the object cannot be copied
+     */
+    public ObjectHandle createFrozenCopy(ObjectHandle hTarget, Map<ObjectHandle, ObjectHandle> mapCopies)
+        {
+        // only plain (non-native) objects are copied; anything that carries a native state or
+        // has Ref-annotated properties must be proxied instead
+        if (hTarget.getClass() != GenericHandle.class || hTarget.isStruct())
+            {
+            return null;
+            }
+
+        GenericHandle   hSrc  = (GenericHandle) hTarget;
+        TypeComposition clz   = hSrc.getComposition();
+        GenericHandle   hCopy = new GenericHandle(clz);
+
+        mapCopies.put(hSrc, hCopy);
+
+        Map<Object, ObjectHandle> mapFields = hCopy.getFields();
+        for (Map.Entry<Object, ObjectHandle> entry : hSrc.getFields().entrySet())
+            {
+            Object       nid    = entry.getKey();
+            ObjectHandle hValue = entry.getValue();
+
+            if (clz.isInflated(nid) || !mapFields.containsKey(nid))
+                {
+                return null;
+                }
+
+            if (hValue != null)
+                {
+                hValue = copyForSend(hValue, mapCopies);
+                if (hValue == null)
+                    {
+                    return null;
+                    }
+                }
+            mapFields.put(nid, hValue);
+            }
+
+        hCopy.makeImmutable();
+        return hCopy;
+        }
+
+    /**
+     * Obtain a value that could be sent over the service boundaries in place of the specified one.
+     *
+     * @param hValue     the value to send
+     * @param mapCopies  the copies made so far, keyed by the original handles (identity based)
+     *
+     * @return the value itself if it is immutable or a service, an immutable copy of the value,
+     *         or null if the value cannot be copied
+     */
+    public static ObjectHandle copyForSend(ObjectHandle hValue, Map<ObjectHandle, ObjectHandle> mapCopies)
+        {
+        if (!hValue.isMutable() || hValue.isService())
+            {
+            return hValue;
+            }
+
+        ObjectHandle hCopy = mapCopies.get(hValue);
+        return hCopy == null
+                ? hValue.getTemplate().createFrozenCopy(hValue, mapCopies)
+                : hCopy;
+        }
+
     /**
      * Create a proxy handle that could be sent over the service boundaries.
      *
@@ -1,16 +1,23 @@
 package org.xvm.runtime;
 
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.Constants;
+import org.xvm.asm.FileStructure;
 import org.xvm.asm.LinkerContext;
 import org.xvm.asm.MethodStructure;
 import org.xvm.asm.ModuleRepository;
@@ -21,6 +28,7 @@ import org.xvm.asm.constants.IdentityConstant;
 import org.xvm.asm.constants.MethodConstant;
 import org.xvm.asm.constants.ModuleConstant;
 import org.xvm.asm.constants.PropertyConstant;
+import org.xvm.asm.constants.SingletonConstant;
 import org.xvm.asm.constants.TypeConstant;
 import org.xvm.asm.constants.TypeInfo;
 import org.xvm.asm.constants.VersionConstant;
@@ -65,6 +73,8 @@ public class Container
         f_idModule   = f_moduleApp.getIdentityConstant();
         f_templates  = templates;
         f_heapGlobal = heapGlobal;
+
+        templates.registerModule(f_moduleApp);
         }
 
     public void start()
@@ -228,6 +238,11 @@ public class Container
         f_mapResources.put(new InjectionKey("homeDir", typeDirectory), this::ensureHomeDir);
         f_mapResources.put(new InjectionKey("curDir" , typeDirectory), this::ensureCurDir);
         f_mapResources.put(new InjectionKey("tmpDir" , typeDirectory), this::ensureTmpDir);
+
+        // +++ RTDocCodec
+        TypeConstant typeDocCodec = f_templates.getTemplate("web.json.DocCodec").getCanonicalType();
+
+        f_mapResources.put(new InjectionKey("jsonCodec", typeDocCodec), this::ensureDocCodec);
         }
 
     protected ObjectHandle ensureDefaultClock(Frame frame)
@@ -299,6 +314,45 @@ public class Container
         return hStorage;
         }
 
+    protected ObjectHandle ensureDocCodec(Frame frame)
+        {
+        ObjectHandle hCodec = m_hDocCodec;
+        if (hCodec == null)
+            {
+            ClassTemplate    templateCodec = f_templates.getTemplate("_native.web.json.RTDocCodec");
+            ClassComposition clzCodec      = templateCodec.getCanonicalClass();
+            MethodStructure  constructor   = templateCodec.f_struct.findConstructor();
+
+            switch (templateCodec.construct(frame, constructor, clzCodec,
+                                            null, Utils.OBJECTS_NONE, A_STACK))
+                {
+                case Op.R_NEXT:
+                    hCodec = frame.popStack();
+                    break;
+
+                case Op.R_EXCEPTION:
+                    break;
+
+                case Op.R_CALL:
+                    {
+                    Frame frameNext = frame.m_frameNext;
+                    frameNext.addContinuation(frameCaller ->
+                        {
+                        m_hDocCodec = frameCaller.peekStack();
+                        return Op.R_NEXT;
+                        });
+                    return new DeferredCallHandle(frameNext);
+                    }
+
+                default:
+                    throw new IllegalStateException();
+                }
+            m_hDocCodec = hCodec;
+            }
+
+        return hCodec;
+        }
+
     protected ObjectHandle ensureFileStore(Frame frame)
         {
         ObjectHandle hStore = m_hFileStore;
@@ -455,8 +509,26 @@ public class Container
 
     public ServiceContext createServiceContext(String sName, ModuleStructure module)
         {
-        return new ServiceContext(this, module, sName,
+        ServiceContext context = new ServiceContext(this, module, sName,
             f_runtime.f_idProducer.getAndIncrement());
+        f_setServices.add(context);
+        return context;
+        }
+
+    /**
+     * @return a snapshot of the metrics for all live services in this container
+     */
+    public List<ServiceContext.Metrics> getServiceMetrics()
+        {
+        List<ServiceContext.Metrics> listMetrics = new ArrayList<>();
+        synchronized (f_setServices)
+            {
+            for (ServiceContext context : f_setServices)
+                {
+                listMetrics.add(context.getMetrics());
+                }
+            }
+        return listMetrics;
         }
 
     /**
@@ -479,6 +551,63 @@ public class Container
         return fnResource == null ? null : fnResource.apply(frame);
         }
 
+    /**
+     * Obtain the value of the specified singleton as seen by this container.
+     *
+     * @param constSingleton  the singleton constant
+     *
+     * @return the singleton handle or null if the singleton has not been initialized yet
+     */
+    public ObjectHandle getSingletonHandle(SingletonConstant constSingleton)
+        {
+        ObjectHandle hValue = constSingleton.getHandle();
+        return hValue == null && isShared(constSingleton)
+                ? f_mapSingletons.get(constSingleton)
+                : hValue;
+        }
+
+    /**
+     * Mark the specified singleton as being initialized by this container.
+     *
+     * @param constSingleton  the singleton constant
+     *
+     * @return false iff the singleton has already been marked as "initializing"
+     */
+    public boolean markSingletonInitializing(SingletonConstant constSingleton)
+        {
+        return isShared(constSingleton)
+                ? f_setSingletonsInitializing.add(constSingleton)
+                : constSingleton.markInitializing();
+        }
+
+    /**
+     * Set the value of the specified singleton for this container.
+     *
+     * @param constSingleton  the singleton constant
+     * @param hValue          the singleton value
+     */
+    public void setSingletonHandle(SingletonConstant constSingleton, ObjectHandle hValue)
+        {
+        if (isShared(constSingleton))
+            {
+            f_mapSingletons.put(constSingleton, hValue);
+            f_setSingletonsInitializing.remove(constSingleton);
+            }
+        else
+            {
+            constSingleton.setHandle(hValue);
+            }
+        }
+
+    /**
+     * @return true iff the specified constant comes from a module that is shared across the
+     *         process, in which case the singleton values must be local to the container
+     */
+    private static boolean isShared(SingletonConstant constSingleton)
+        {
+        return constSingleton.getConstantPool().getFileStructure().isShared();
+        }
+
     public ServiceContext getMainContext()
         {
         return m_contextMain;
@@ -613,6 +742,7 @@ public class Container
     private ObjectHandle m_hHomeDir;
     private ObjectHandle m_hCurDir;
     private ObjectHandle m_hTmpDir;
+    private ObjectHandle m_hDocCodec;
 
     /**
      * A counter tracking both the number of services which have pending invocations to process
@@ -622,4 +752,22 @@ public class Container
     public final AtomicLong f_pendingWorkCount = new AtomicLong();
 
     final Map<InjectionKey, Function<Frame, ObjectHandle>> f_mapResources = new HashMap<>();
+
+    /**
+     * The values of the singletons that belong to the modules shared across the process; they
+     * are container specific (see {@link FileStructure#loadShared}).
+     */
+    private final Map<SingletonConstant, ObjectHandle> f_mapSingletons = new ConcurrentHashMap<>();
+
+    /**
+     * The shared module singletons that are being initialized by this container.
+     */
+    private final Set<SingletonConstant> f_setSingletonsInitializing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * All the service contexts created by this container; the services that are no longer
+     * referenced are automatically removed.
+     */
+    private final Set<ServiceContext> f_setServices =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
     }
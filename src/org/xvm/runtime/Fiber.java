@@ -57,9 +57,12 @@ public class Fiber
     // "a response has arrived" notification and get stuck waiting
     public volatile boolean m_fResponded;
 
-    // Metrics: the timestamp (in nanos) when the fiber execution has started
+    // Metrics: the CPU time (in nanos) of the executing thread when the fiber execution has started
     private long m_nanoStarted;
 
+    // Metrics: the total CPU time (in nanos) this fiber has been running
+    private long m_cRuntimeNanos;
+
     /**
      * The timeout (timestamp) that this fiber is subject to (optional).
      */
@@ -169,25 +172,45 @@ public class Fiber
                 throw new IllegalArgumentException();
 
             case Running:
-                m_nanoStarted = System.nanoTime();
+                m_nanoStarted = ServiceContext.getThreadCpuNanos();
                 m_frame = null;
                 break;
 
             case Waiting:
             case Paused:
             case Yielded:
-                long cNanos = System.nanoTime() - m_nanoStarted;
-                m_nanoStarted = 0;
-                f_context.m_cRuntimeNanos += cNanos;
+                recordRuntime();
                 m_frame = f_context.getCurrentFrame();
                 break;
 
             case Terminated:
+                recordRuntime();
                 m_frame = null;
                 break;
             }
         }
 
+    // accumulate the CPU time used since the fiber execution has started
+    private void recordRuntime()
+        {
+        long nanoStarted = m_nanoStarted;
+        if (nanoStarted != 0)
+            {
+            long cNanos = ServiceContext.getThreadCpuNanos() - nanoStarted;
+            m_nanoStarted = 0;
+            m_cRuntimeNanos += cNanos;
+            f_context.m_cRuntimeNanos += cNanos;
+            }
+        }
+
+    /**
+     * @return the total CPU time (in nanos) this fiber has been running
+     */
+    public long getRuntimeNanos()
+        {
+        return m_cRuntimeNanos;
+        }
+
     // the fiber is not ready for execution if it is waiting, not responded and not timed-out
     public boolean isReady()
         {
@@ -212,6 +235,10 @@ public class Fiber
             {
             iResult = frame.raiseException(xException.timedOut(frame, "The service has timed-out"));
             }
+        else if (f_context.isOutOfMemory())
+            {
+            iResult = frame.raiseException(xException.outOfMemory(frame));
+            }
         else if (m_status == FiberStatus.Waiting)
             {
             assert frame == m_frame;
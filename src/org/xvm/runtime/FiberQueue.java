@@ -1,6 +1,9 @@
 package org.xvm.runtime;
 
 
+import java.util.function.Consumer;
+
+
 /**
  * {@link FiberQueue} represents a queue-like data structure holding all pending Fibers and
  * facilitating a quick selection algorithm for the scheduler.
@@ -12,7 +15,7 @@ public class FiberQueue
 
     private int m_ixHead = -1; // head
     private int m_ixTail = 0;  // past the tail - insertion point
-    private int m_cSize = 0;
+    private volatile int m_cSize = 0;
 
     // cached indexes of the top fiber for a given priority
     // [2] a waiting fiber that is marked as "ready"
@@ -47,6 +50,24 @@ public class FiberQueue
         return m_cSize == 0;
         }
 
+    // the size could be read from outside of the service thread
+    public int size()
+        {
+        return m_cSize;
+        }
+
+    // perform the specified action for the frame of each fiber in the queue
+    public void forEach(Consumer<Frame> action)
+        {
+        for (Frame frame : m_aFrame)
+            {
+            if (frame != null)
+                {
+                action.accept(frame);
+                }
+            }
+        }
+
     // get the first of the waiting fibers that is either "ready" or timed-out
     public Frame getWaitingReady()
         {
@@ -28,6 +28,7 @@ import org.xvm.runtime.template.xBoolean;
 import org.xvm.runtime.template.xException;
 import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xRef.RefHandle;
+import org.xvm.runtime.template.xVar;
 
 import org.xvm.runtime.template._native.reflect.xRTFunction;
 import org.xvm.runtime.template._native.reflect.xRTFunction.FullyBoundHandle;
@@ -590,6 +591,12 @@ public class Frame
                 case VAR_DYNAMIC_REF:
                     {
                     RefHandle hVar = (RefHandle) f_ahVar[nVar];
+                    if (hVar.isDirect() && hVar.getVarSupport() instanceof xVar)
+                        {
+                        // a captured register or a cell; no need to go through the VarSupport
+                        hVar.setDirectReferent(hValue);
+                        return Op.R_NEXT;
+                        }
                     // TODO: consider moving the "transfer the referent" logic here (see xVar)
                     // TODO: check the "weak" assignment (here or inside)
                     return hVar.getVarSupport().setReferent(this, hVar, hValue);
@@ -1257,6 +1264,16 @@ public class Frame
                     case VAR_DYNAMIC_REF:
                         {
                         RefHandle hRef = (RefHandle) hValue;
+                        if (hRef.isDirect())
+                            {
+                            // a captured register or a cell; no need to go through the VarSupport
+                            ObjectHandle hReferent = hRef.getDirectReferent();
+                            if (hReferent != null)
+                                {
+                                return hReferent;
+                                }
+                            }
+
                         switch (hRef.getVarSupport().getReferent(this, hRef, Op.A_STACK))
                             {
                             case Op.R_NEXT:
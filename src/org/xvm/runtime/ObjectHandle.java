@@ -6,6 +6,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import java.util.function.Consumer;
+
 import org.xvm.asm.Constant;
 import org.xvm.asm.Constants;
 import org.xvm.asm.Op;
@@ -35,6 +37,12 @@ public abstract class ObjectHandle
     protected TypeComposition m_clazz;
     protected boolean m_fMutable = false;
 
+    /**
+     * The service that an immutable handle is charged to once it has been passed to another
+     * service; null if the handle has never left the service that created it.
+     */
+    private ServiceContext m_ctxOwner;
+
     public static final ObjectHandle DEFAULT = new ObjectHandle(null)
         {
         @Override
@@ -119,6 +127,51 @@ public abstract class ObjectHandle
         return m_clazz.getTemplate();
         }
 
+    /**
+     * @return an estimate of the heap memory (in bytes) held by this handle itself, not including
+     *         any of the handles it refers to
+     */
+    public long getByteSize()
+        {
+        return BYTES_HANDLE;
+        }
+
+    /**
+     * Pass all the handles this handle directly refers to (e.g. the field values or the array
+     * elements) to the specified consumer; used to estimate the memory retained by a service.
+     *
+     * @param consumer  the consumer of the referred handles (null values are allowed)
+     */
+    public void forEachReferent(Consumer<ObjectHandle> consumer)
+        {
+        }
+
+    /**
+     * Record the service that passes this handle to another service. Only the first such service
+     * is recorded, and only for immutable handles (the mutable ones are never shared).
+     *
+     * @param ctx  the sending service context
+     */
+    public void markShared(ServiceContext ctx)
+        {
+        if (m_ctxOwner == null && !isMutable())
+            {
+            m_ctxOwner = ctx;
+            }
+        }
+
+    /**
+     * @param ctx  a service context
+     *
+     * @return true iff this is an immutable handle that has been passed to the specified service
+     *         by another service
+     */
+    public boolean isForeign(ServiceContext ctx)
+        {
+        ServiceContext ctxOwner = m_ctxOwner;
+        return ctxOwner != null && ctxOwner != ctx && !isMutable();
+        }
+
     /**
      * @return the OpSupport for the inception type of this handle
      */
@@ -292,6 +345,43 @@ public abstract class ObjectHandle
             m_mapFields.put(sProp, hValue);
             }
 
+        /**
+         * @return the cached hash value of this object or null if it has not been computed yet
+         */
+        public JavaLong getCachedHash()
+            {
+            return m_hHash;
+            }
+
+        @Override
+        public long getByteSize()
+            {
+            Map<Object, ObjectHandle> mapFields = m_mapFields;
+            return mapFields == null
+                    ? BYTES_HANDLE
+                    : 2 * BYTES_HANDLE + mapFields.size() * BYTES_FIELD;
+            }
+
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            Map<Object, ObjectHandle> mapFields = m_mapFields;
+            if (mapFields != null)
+                {
+                mapFields.values().forEach(consumer);
+                }
+            }
+
+        /**
+         * Cache the hash value of this object; only allowed for immutable (const) objects.
+         *
+         * @param hHash  the hash value
+         */
+        public void setCachedHash(JavaLong hHash)
+            {
+            m_hHash = hHash;
+            }
+
         @Override
         public ObjectHandle cloneAs(TypeComposition clazz)
             {
@@ -299,6 +389,9 @@ public abstract class ObjectHandle
 
             GenericHandle hClone = (GenericHandle) super.cloneAs(clazz);
 
+            // the clone is not a view of this object until it's explicitly linked by ensureView()
+            hClone.m_hNextView = null;
+
             if (fCloneFields && m_mapFields != null)
                 {
                 for (Map.Entry<Object, ObjectHandle> entry : m_mapFields.entrySet())
@@ -318,6 +411,61 @@ public abstract class ObjectHandle
             return hClone;
             }
 
+        /**
+         * Obtain a view of this object for the specified composition (e.g. the same object with a
+         * different access). All the views of an object share the same fields, so a view that has
+         * been created once is reused rather than cloned again.
+         * <p/>
+         * A new view is only remembered by a mutable, non-struct handle:
+         * <ul>
+         *   <li>the struct handle of a newly constructed object is discarded once the construction
+         *       completes, and remembering its public view would tie the struct to the object's
+         *       lifetime instead;</li>
+         *   <li>an immutable object may be shared by many services, so its views are never
+         *       modified; since all the views of an object are frozen together (see
+         *       {@link #makeImmutable()}), the views remembered before the object was frozen
+         *       remain valid.</li>
+         * </ul>
+         *
+         * @param clazz  the composition for the view; must be a cached (canonical) instance
+         *
+         * @return a handle for this object with the specified composition
+         */
+        public GenericHandle ensureView(TypeComposition clazz)
+            {
+            for (GenericHandle hView = m_hNextView; hView != null && hView != this;
+                    hView = hView.m_hNextView)
+                {
+                if (hView.m_clazz == clazz)
+                    {
+                    return hView;
+                    }
+                }
+
+            GenericHandle hView = (GenericHandle) cloneAs(clazz);
+            if (m_fMutable && !isStruct())
+                {
+                // the views form a ring
+                GenericHandle hNext = m_hNextView;
+                hView.m_hNextView = hNext == null ? this : hNext;
+                m_hNextView       = hView;
+                }
+            return hView;
+            }
+
+        @Override
+        public void makeImmutable()
+            {
+            // all the views of an object share its state, so they are frozen together
+            super.makeImmutable();
+
+            for (GenericHandle hView = m_hNextView; hView != null && hView != this;
+                    hView = hView.m_hNextView)
+                {
+                hView.m_fMutable = false;
+                }
+            }
+
         @Override
         public List<String> validateFields()
             {
@@ -383,8 +531,8 @@ public abstract class ObjectHandle
             TypeComposition clzAs = getComposition().revealAs(typeAs);
             if (clzAs != null)
                 {
-                // TODO: consider holding to the original object and returning it
-                return (GenericHandle) cloneAs(clzAs);
+                // the revealed handle is a view of this object, so it is frozen together with it
+                return clzAs == getComposition() ? this : ensureView(clzAs);
                 }
             return null;
             }
@@ -436,6 +584,12 @@ public abstract class ObjectHandle
         // not null only if this object was explicitly "masked as"
         private Container m_owner;
 
+        // the next view of the same object (see ensureView); null if there are no other views
+        private GenericHandle m_hNextView;
+
+        // the cached hash value (see getCachedHash)
+        private JavaLong m_hHash;
+
         /**
          * Synthetic property holding a reference to a parent instance.
          */
@@ -545,6 +699,19 @@ public abstract class ObjectHandle
         public Mutability m_mutability;
         public int m_cSize;
 
+        /**
+         * The index of the first element in the backing storage; could only be non-zero for a
+         * handle that shares the storage with another array (e.g. a slice).
+         */
+        public int m_ofStart;
+
+        /**
+         * Indicates that the backing storage may be shared with another array handle. A shared
+         * storage is never modified in place; a handle must call {@link #ensureExclusive()} before
+         * making any changes to it.
+         */
+        public boolean m_fShared;
+
         protected ArrayHandle(TypeComposition clzArray, Mutability mutability)
             {
             super(clzArray);
@@ -558,6 +725,41 @@ public abstract class ObjectHandle
         abstract public ObjectHandle getElement(int ix);
         abstract public void deleteElement(int ix);
 
+        /**
+         * @param cStorage  the length of the backing storage
+         *
+         * @return the number of storage elements this handle is charged for: the entire storage
+         *         if it's private to this handle, or only the elements it spans if the storage is
+         *         shared (e.g. by a number of slices)
+         */
+        protected int getChargedLength(int cStorage)
+            {
+            return m_fShared ? m_cSize : cStorage;
+            }
+
+        /**
+         * Replace the backing storage with a private copy of the specified capacity, resetting
+         * the start offset to zero.
+         *
+         * @param cCapacity  the desired capacity (no less than the current size)
+         */
+        abstract protected void detach(int cCapacity);
+
+        /**
+         * Ensure that the backing storage is exclusively owned by this handle, and therefore
+         * could be modified in place.
+         */
+        public void ensureExclusive()
+            {
+            if (m_fShared)
+                {
+                detach(m_cSize);
+
+                m_ofStart = 0;
+                m_fShared = false;
+                }
+            }
+
         @Override
         public void makeImmutable()
             {
@@ -751,7 +953,7 @@ public abstract class ObjectHandle
             return Utils.initConstants(frameCaller, Collections.singletonList(f_constSingleton),
                 frame ->
                     {
-                    frame.pushStack(f_constSingleton.getHandle());
+                    frame.pushStack(frame.f_context.f_container.getSingletonHandle(f_constSingleton));
                     return continuation.proceed(frame);
                     });
             }
@@ -901,6 +1103,14 @@ public abstract class ObjectHandle
         return getIdentityId(lHandle) != 0;
         }
 
+    /**
+     * The estimated size of a handle and of an array object (including the object headers), and of
+     * a field entry of a {@link GenericHandle}; used to account for the memory held by a service.
+     */
+    public final static int BYTES_HANDLE = 32;
+    public final static int BYTES_ARRAY  = 16;
+    public final static int BYTES_FIELD  = 32;
+
     // bits 0-26: type id
     private final static long MASK_TYPE       = 0x07FF_FFFF;
 
@@ -3,7 +3,10 @@ package org.xvm.runtime;
 
 import java.util.concurrent.ConcurrentHashMap;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
@@ -30,12 +33,33 @@ public class ObjectHeap
     public final TemplateRegistry f_templates;
     public final ConstantPool f_poolRoot;
 
+    // the heap for the constants of the core module's pool; null if this is the core heap itself
+    public final ObjectHeap f_heapCore;
+
     private Map<Constant, ObjectHandle> m_mapConstants = new ConcurrentHashMap<>();
 
+    // the cached constant handles (by identity), which are not charged to any service's memory
+    private Set<ObjectHandle> m_setConstHandles =
+            Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+
+    /**
+     * Construct the core heap, which only holds the handles for the constants from the core
+     * module's pool.
+     */
     public ObjectHeap(ConstantPool pool, TemplateRegistry templates)
+        {
+        this(pool, templates, null);
+        }
+
+    /**
+     * Construct a Connector heap, which delegates the constants from the core module's pool to
+     * the specified core heap.
+     */
+    public ObjectHeap(ConstantPool pool, TemplateRegistry templates, ObjectHeap heapCore)
         {
         f_poolRoot = pool;
         f_templates = templates;
+        f_heapCore = heapCore;
         }
 
     /**
@@ -59,6 +83,14 @@ public class ObjectHeap
                 }
             }
 
+        ObjectHeap heapCore = f_heapCore;
+        if (heapCore != null && constValue.getConstantPool() == heapCore.f_poolRoot)
+            {
+            // the core heap may be shared with other Connectors; it must not see any constant
+            // (and therefore any class or singleton) that belongs to this Connector's modules
+            return heapCore.ensureConstHandle(frame, constValue);
+            }
+
         // NOTE: we cannot use computeIfAbsent, since createConstHandle can be recursive,
         // and ConcurrentHashMap is not recursion friendly
         Map<Constant, ObjectHandle> mapConstants = m_mapConstants;
@@ -68,14 +100,32 @@ public class ObjectHeap
             return hValue;
             }
 
+        if (heapCore != null)
+            {
+            // a constant that is equal to one from the core module's pool can only refer to the
+            // core classes, so the core heap's handle for it (if any) can be used as well
+            hValue = heapCore.m_mapConstants.get(constValue);
+            if (hValue != null)
+                {
+                return hValue;
+                }
+            }
+
         if (constValue instanceof SingletonConstant)
             {
             SingletonConstant constSingleton = (SingletonConstant) constValue;
 
             hValue = constSingleton.getHandle();
-            return hValue == null
-                ? new DeferredSingletonHandle(constSingleton)
-                : saveConstHandle(constValue, hValue);
+            if (hValue == null)
+                {
+                // the singletons of the shared modules are container specific, so they are
+                // never cached by the (shared) heap
+                hValue = frame.f_context.f_container.getSingletonHandle(constSingleton);
+                return hValue == null
+                    ? new DeferredSingletonHandle(constSingleton)
+                    : hValue;
+                }
+            return saveConstHandle(constValue, hValue);
             }
 
         // support for the "local property" mode
@@ -126,7 +176,23 @@ public class ObjectHeap
     private ObjectHandle saveConstHandle(Constant constValue, ObjectHandle hValue)
         {
         ObjectHandle hValue0 = m_mapConstants.putIfAbsent(constValue, hValue);
-        return hValue0 == null ? hValue : hValue0;
+        if (hValue0 == null)
+            {
+            m_setConstHandles.add(hValue);
+            return hValue;
+            }
+        return hValue0;
+        }
+
+    /**
+     * @param hValue  a handle
+     *
+     * @return true iff the specified handle is a constant cached by this heap
+     */
+    public boolean isConstHandle(ObjectHandle hValue)
+        {
+        return m_setConstHandles.contains(hValue)
+            || f_heapCore != null && f_heapCore.isConstHandle(hValue);
         }
 
     /**
@@ -0,0 +1,547 @@
+package org.xvm.runtime;
+
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.MethodConstant;
+
+
+/**
+ * An opt-in sampling profiler for the interpreter.
+ * <p/>
+ * The profiler is enabled by the "xvm.profile" system property, which specifies the path prefix of
+ * the report files. While enabled:
+ * <ul>
+ *   <li>a sampler thread periodically snapshots the frame stack of every service that is currently
+ *       executing on a worker thread; the services are never stopped for that, since the frame
+ *       stack is only ever walked via the immutable {@link Frame#f_framePrev} links;</li>
+ *   <li>every service counts the ops it executes by op-code, without any synchronization.</li>
+ * </ul>
+ * When the runtime shuts down (or the JVM exits), the profiler produces two files:
+ * <ul>
+ *   <li>"&lt;prefix&gt;.folded" - the samples in the collapsed-stack format, as consumed by the
+ *       flame graph tools;</li>
+ *   <li>"&lt;prefix&gt;.txt" - the top methods by the number of samples, with the hottest line
+ *       numbers for each, followed by the op-code histogram.</li>
+ * </ul>
+ * Additional system properties: "xvm.profile.interval" is the sampling interval in microseconds
+ * (default 1000) and "xvm.profile.top" is the number of methods to report (default 30).
+ */
+public class Profiler
+    {
+    /**
+     * Construct the profiler.
+     *
+     * @param sPrefix          the path prefix for the report files
+     * @param cIntervalMicros  the sampling interval in microseconds
+     * @param cTop             the number of methods to report
+     */
+    protected Profiler(String sPrefix, long cIntervalMicros, int cTop)
+        {
+        f_sPrefix        = sPrefix;
+        f_cIntervalNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(1, cIntervalMicros));
+        f_cTop           = Math.max(1, cTop);
+        }
+
+    /**
+     * @return a new profiler if the profiling is enabled; null otherwise
+     */
+    public static Profiler create()
+        {
+        String sPrefix = System.getProperty("xvm.profile");
+        if (sPrefix == null)
+            {
+            return null;
+            }
+
+        if (sPrefix.isEmpty())
+            {
+            sPrefix = "xvm-profile";
+            }
+
+        return new Profiler(sPrefix,
+                Long.parseLong(System.getProperty("xvm.profile.interval", "1000")),
+                Integer.parseInt(System.getProperty("xvm.profile.top", "30")));
+        }
+
+
+    // ----- life cycle ----------------------------------------------------------------------------
+
+    /**
+     * Start the sampler thread.
+     */
+    public synchronized void start()
+        {
+        if (m_threadSampler == null)
+            {
+            Thread thread = new Thread(this::sample, "Profiler");
+            thread.setDaemon(true);
+            m_threadSampler = thread;
+            thread.start();
+
+            java.lang.Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "Profiler-Report"));
+            }
+        }
+
+    /**
+     * Stop the sampler thread and write out the reports; subsequent calls do nothing.
+     */
+    public void stop()
+        {
+        Thread thread;
+        synchronized (this)
+            {
+            thread = m_threadSampler;
+            if (thread == null || m_fStopped)
+                {
+                return;
+                }
+            m_fStopped = true;
+            }
+
+        try
+            {
+            thread.join(TimeUnit.NANOSECONDS.toMillis(f_cIntervalNanos) + 1000);
+            }
+        catch (InterruptedException e)
+            {
+            Thread.currentThread().interrupt();
+            }
+
+        report();
+        }
+
+    /**
+     * Register a service context with the profiler.
+     *
+     * @param context  the service context
+     *
+     * @return the array of op-code execution counters that the service context should increment
+     */
+    public long[] register(ServiceContext context)
+        {
+        OpCounts counts = new OpCounts(context, f_queueGone);
+        synchronized (f_setOpCounts)
+            {
+            f_setOpCounts.add(counts);
+            }
+        f_setContexts.add(context);
+        return counts.f_alCount;
+        }
+
+    /**
+     * Fold the op-code counters of the service contexts that are gone into the totals.
+     */
+    protected void foldOpCounts()
+        {
+        Reference<? extends ServiceContext> ref;
+        while ((ref = f_queueGone.poll()) != null)
+            {
+            long[] alCount = ((OpCounts) ref).f_alCount;
+            synchronized (f_setOpCounts)
+                {
+                if (f_setOpCounts.remove(ref))
+                    {
+                    for (int i = 0; i <= Op.OP_SYNTHETIC; i++)
+                        {
+                        f_alTotalCounts[i] += alCount[i];
+                        }
+                    }
+                }
+            }
+        }
+
+
+    /**
+     * Count the execution of the specified op.
+     *
+     * @param alCount  the op-code execution counters (see {@link #register})
+     * @param op       the op that is about to be executed
+     */
+    public static void countOp(long[] alCount, Op op)
+        {
+        alCount[op.getOpCodeIndex()]++;
+        }
+
+
+    // ----- sampling ------------------------------------------------------------------------------
+
+    /**
+     * The sampler thread loop.
+     */
+    protected void sample()
+        {
+        List<ServiceContext> listContexts = new ArrayList<>();
+        List<Frame>          listFrames   = new ArrayList<>();
+        StringBuilder        sb           = new StringBuilder();
+
+        while (!m_fStopped)
+            {
+            LockSupport.parkNanos(f_cIntervalNanos);
+
+            foldOpCounts();
+
+            listContexts.clear();
+            synchronized (f_setContexts)
+                {
+                listContexts.addAll(f_setContexts);
+                }
+
+            synchronized (this)
+                {
+                for (ServiceContext context : listContexts)
+                    {
+                    if (context.isExecuting())
+                        {
+                        sampleStack(context, listFrames, sb);
+                        }
+                    }
+                }
+            }
+        }
+
+    /**
+     * Record a sample of the specified service's frame stack.
+     */
+    private void sampleStack(ServiceContext context, List<Frame> listFrames, StringBuilder sb)
+        {
+        // the current frame and the iPC values are read without synchronization; the sample may be
+        // slightly stale, but the frames themselves are always consistent
+        listFrames.clear();
+        for (Frame frame = context.getCurrentFrame(); frame != null; frame = frame.f_framePrev)
+            {
+            if (frame.f_function != null)
+                {
+                listFrames.add(frame);
+                }
+            }
+
+        int cFrames = listFrames.size();
+        if (cFrames == 0)
+            {
+            return;
+            }
+
+        ++m_cSamples;
+
+        // collapsed stack: "service;outermost;...;innermost"
+        sb.setLength(0);
+        sb.append(context.f_sName.replace(';', ','));
+        for (int i = cFrames - 1; i >= 0; i--)
+            {
+            MethodStructure method = listFrames.get(i).f_function;
+            sb.append(';').append(getMethodName(method));
+            }
+        f_mapStacks.merge(sb.toString(), 1L, Long::sum);
+
+        // per-method counts; a recursive method is counted only once toward the total
+        Set<MethodConstant> setSeen = cFrames > 1 ? new HashSet<>() : null;
+        for (int i = 0; i < cFrames; i++)
+            {
+            Frame           frame  = listFrames.get(i);
+            MethodStructure method = frame.f_function;
+            MethodConstant  id     = method.getIdentityConstant();
+
+            if (setSeen == null || setSeen.add(id))
+                {
+                MethodSamples samples = f_mapMethods.computeIfAbsent(id, k -> new MethodSamples(method));
+                samples.m_cTotal++;
+                if (i == 0)
+                    {
+                    samples.m_cSelf++;
+                    samples.f_mapSelfPC.merge(frame.m_iPC, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+    /**
+     * @return the name of the specified method as it appears in the collapsed stacks
+     */
+    private String getMethodName(MethodStructure method)
+        {
+        return f_mapNames.computeIfAbsent(method,
+                m -> m.getIdentityConstant().getPathString().replace(';', ','));
+        }
+
+
+    // ----- reporting -----------------------------------------------------------------------------
+
+    /**
+     * Write out the collapsed stacks and the method report.
+     */
+    protected synchronized void report()
+        {
+        try (PrintStream out = new PrintStream(new FileOutputStream(f_sPrefix + ".folded")))
+            {
+            for (Map.Entry<String, Long> entry : f_mapStacks.entrySet())
+                {
+                out.print(entry.getKey());
+                out.print(' ');
+                out.println(entry.getValue());
+                }
+            }
+        catch (IOException e)
+            {
+            System.err.println("Failed to write the profile: " + e);
+            }
+
+        try (PrintStream out = new PrintStream(new FileOutputStream(f_sPrefix + ".txt")))
+            {
+            reportMethods(out);
+            out.println();
+            reportOps(out);
+            }
+        catch (IOException e)
+            {
+            System.err.println("Failed to write the profile: " + e);
+            return;
+            }
+
+        System.err.println("Profile written to " + f_sPrefix + ".folded and " + f_sPrefix + ".txt");
+        }
+
+    /**
+     * Print the top methods by the number of samples.
+     */
+    private void reportMethods(PrintStream out)
+        {
+        long cSamples = m_cSamples;
+
+        out.println("Samples: " + cSamples + " (interval="
+                + TimeUnit.NANOSECONDS.toMicros(f_cIntervalNanos) + "us)");
+        out.println();
+        out.println("   self%   total%  method");
+
+        List<MethodSamples> listMethods = new ArrayList<>(f_mapMethods.values());
+        listMethods.sort((s1, s2) -> s1.m_cSelf == s2.m_cSelf
+                ? Long.compare(s2.m_cTotal, s1.m_cTotal)
+                : Long.compare(s2.m_cSelf,  s1.m_cSelf));
+
+        for (int i = 0, c = Math.min(f_cTop, listMethods.size()); i < c; i++)
+            {
+            MethodSamples   samples = listMethods.get(i);
+            MethodStructure method  = samples.f_method;
+
+            out.println(String.format("%7.2f%% %7.2f%%  %s",
+                    percent(samples.m_cSelf, cSamples), percent(samples.m_cTotal, cSamples),
+                    method.getIdentityConstant().getPathString()));
+
+            // the line numbers are only calculated now, since that requires scanning the ops
+            Map<Integer, Long> mapLines = new HashMap<>();
+            int                cOps     = method.getOps() == null ? 0 : method.getOps().length;
+            for (Map.Entry<Integer, Long> entry : samples.f_mapSelfPC.entrySet())
+                {
+                int iPC   = Math.min(entry.getKey(), cOps - 1);
+                int nLine = iPC < 0 ? 0 : method.calculateLineNumber(iPC);
+                mapLines.merge(nLine, entry.getValue(), Long::sum);
+                }
+
+            List<Map.Entry<Integer, Long>> listLines = new ArrayList<>(mapLines.entrySet());
+            listLines.sort((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()));
+            for (int j = 0, cj = Math.min(5, listLines.size()); j < cj; j++)
+                {
+                Map.Entry<Integer, Long> entry = listLines.get(j);
+                int                      nLine = entry.getKey();
+                out.println(String.format("%18s  %s: %d", "",
+                        nLine > 0 ? "line " + nLine : "unknown line", entry.getValue()));
+                }
+            }
+        }
+
+    /**
+     * Print the op-code execution histogram.
+     */
+    private void reportOps(PrintStream out)
+        {
+        foldOpCounts();
+
+        long[] alTotal;
+        synchronized (f_setOpCounts)
+            {
+            alTotal = f_alTotalCounts.clone();
+            for (OpCounts counts : f_setOpCounts)
+                {
+                long[] alCount = counts.f_alCount;
+                for (int i = 0; i <= Op.OP_SYNTHETIC; i++)
+                    {
+                    alTotal[i] += alCount[i];
+                    }
+                }
+            }
+
+        long cTotal = 0;
+        List<Integer> listOps = new ArrayList<>();
+        for (int i = 0; i <= Op.OP_SYNTHETIC; i++)
+            {
+            if (alTotal[i] > 0)
+                {
+                cTotal += alTotal[i];
+                listOps.add(i);
+                }
+            }
+        listOps.sort((n1, n2) -> Long.compare(alTotal[n2], alTotal[n1]));
+
+        out.println("Ops executed: " + cTotal);
+        out.println();
+        out.println("         count       %  op");
+        for (int nOp : listOps)
+            {
+            out.println(String.format("%14d %6.2f%%  %s",
+                    alTotal[nOp], percent(alTotal[nOp], cTotal),
+                    nOp == Op.OP_SYNTHETIC ? "<synthetic>" : Op.toName(nOp)));
+            }
+        }
+
+    private static double percent(long c, long cTotal)
+        {
+        return cTotal == 0 ? 0.0 : c * 100.0 / cTotal;
+        }
+
+
+    // ----- inner class: MethodSamples ------------------------------------------------------------
+
+    /**
+     * The samples collected for a method.
+     */
+    protected static class MethodSamples
+        {
+        protected MethodSamples(MethodStructure method)
+            {
+            f_method = method;
+            }
+
+        /**
+         * The method.
+         */
+        protected final MethodStructure f_method;
+
+        /**
+         * The number of samples with the method at the top of the stack.
+         */
+        protected long m_cSelf;
+
+        /**
+         * The number of samples with the method anywhere on the stack.
+         */
+        protected long m_cTotal;
+
+        /**
+         * The "self" sample counts by iPC.
+         */
+        protected final Map<Integer, Long> f_mapSelfPC = new HashMap<>();
+        }
+
+
+    // ----- inner class: OpCounts -----------------------------------------------------------------
+
+    /**
+     * The op-code counters of a service context, indexed by {@link Op#getOpCodeIndex()}; the
+     * reference is enqueued once the service context is gone.
+     */
+    protected static class OpCounts
+            extends WeakReference<ServiceContext>
+        {
+        protected OpCounts(ServiceContext context, ReferenceQueue<ServiceContext> queue)
+            {
+            super(context, queue);
+            }
+
+        /**
+         * The counters.
+         */
+        protected final long[] f_alCount = new long[Op.OP_SYNTHETIC + 1];
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The path prefix of the report files.
+     */
+    private final String f_sPrefix;
+
+    /**
+     * The sampling interval.
+     */
+    private final long f_cIntervalNanos;
+
+    /**
+     * The number of methods to report.
+     */
+    private final int f_cTop;
+
+    /**
+     * The profiled service contexts; the services that are no longer referenced are automatically
+     * removed.
+     */
+    private final Set<ServiceContext> f_setContexts =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * The op-code counters of the registered service contexts that are not known to be gone.
+     */
+    private final Set<OpCounts> f_setOpCounts = new HashSet<>();
+
+    /**
+     * The queue of the op-code counters whose service contexts are gone.
+     */
+    private final ReferenceQueue<ServiceContext> f_queueGone = new ReferenceQueue<>();
+
+    /**
+     * The op-code counts of the service contexts that are gone (guarded by f_setOpCounts).
+     */
+    private final long[] f_alTotalCounts = new long[Op.OP_SYNTHETIC + 1];
+
+    /**
+     * The collapsed stacks and their sample counts.
+     */
+    private final Map<String, Long> f_mapStacks = new HashMap<>();
+
+    /**
+     * The samples by method.
+     */
+    private final Map<MethodConstant, MethodSamples> f_mapMethods = new HashMap<>();
+
+    /**
+     * The cached method names.
+     */
+    private final Map<MethodStructure, String> f_mapNames = new HashMap<>();
+
+    /**
+     * The total number of samples.
+     */
+    private long m_cSamples;
+
+    /**
+     * The sampler thread.
+     */
+    private Thread m_threadSampler;
+
+    /**
+     * Set to true to stop the sampler thread.
+     */
+    private volatile boolean m_fStopped;
+    }
@@ -1,6 +1,7 @@
 package org.xvm.runtime;
 
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -15,6 +16,23 @@ public class Runtime
     {
     final public ThreadPoolExecutor f_daemons;
 
+    /**
+     * The executor for blocking operations (e.g. file I/O), which must never run on the workers.
+     * The number of its threads is limited by the "xvm.io.threads" system property (by default,
+     * four times the number of workers).
+     */
+    final public ExecutorService f_executorIO;
+
+    /**
+     * The number of blocking operations that have been submitted but not yet completed.
+     */
+    final AtomicInteger f_cPendingIO = new AtomicInteger();
+
+    /**
+     * The sampling profiler; null unless enabled by the "xvm.profile" system property.
+     */
+    final public Profiler f_profiler = Profiler.create();
+
     // service id producer
     final AtomicInteger f_idProducer = new AtomicInteger();
 
@@ -42,10 +60,32 @@ public class Runtime
         // TODO: replace with a fair scheduling based ExecutorService; and a concurrent blocking queue
         f_daemons = new ThreadPoolExecutor(parallelism, parallelism,
             0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+
+        // the I/O threads mostly wait, so there can be more of them than the workers, but their
+        // number is bounded; the excess operations are queued, and the idle threads time out
+        int cThreadsIO = Integer.parseInt(System.getProperty("xvm.io.threads", "0"));
+        if (cThreadsIO <= 0) {
+            cThreadsIO = 4 * parallelism;
+        }
+
+        ThreadGroup groupIO = new ThreadGroup("IO");
+        ThreadPoolExecutor executorIO = new ThreadPoolExecutor(cThreadsIO, cThreadsIO,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(groupIO, r);
+                thread.setDaemon(true);
+                thread.setName("IO@" + thread.hashCode());
+                return thread;
+            });
+        executorIO.allowCoreThreadTimeOut(true);
+        f_executorIO = executorIO;
         }
 
     public void start()
         {
+        if (f_profiler != null)
+            {
+            f_profiler.start();
+            }
         }
 
     /**
@@ -59,15 +99,43 @@ public class Runtime
         m_lastSubmitNanos = System.nanoTime();
         }
 
+    /**
+     * Submit a blocking operation for processing by the I/O executor.
+     *
+     * @param task the task to process
+     */
+    void submitIO(Runnable task)
+        {
+        f_cPendingIO.incrementAndGet();
+        f_executorIO.submit(() ->
+            {
+            try
+                {
+                task.run();
+                }
+            finally
+                {
+                f_cPendingIO.decrementAndGet();
+                }
+            });
+        }
+
     public void shutdown()
         {
         f_daemons.shutdown();
+        f_executorIO.shutdown();
+
+        if (f_profiler != null)
+            {
+            f_profiler.stop();
+            }
         }
 
     public boolean isIdle()
         {
         // TODO: very naive; replace
         return m_lastSubmitNanos < System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10)
-            && f_daemons.getActiveCount() == 0;
+            && f_daemons.getActiveCount() == 0
+            && f_cPendingIO.get() == 0;
         }
     }
@@ -0,0 +1,58 @@
+package org.xvm.runtime;
+
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.xvm.asm.Constant;
+
+
+/**
+ * The selector registry assigns a dense, process-wide index to every method signature and
+ * property that is used for a virtual dispatch. The selector is used by the
+ * {@link ClassComposition} to index its call chain tables.
+ * <p/>
+ * Equal constants from different pools get the same selector, so there is no need for separate
+ * interface tables: an interface method has the same selector as the corresponding class method.
+ * The registry only holds the constants weakly; once a constant is collected, an equal constant
+ * that is registered later may get a new selector, but a selector is never re-used for a
+ * different signature or property.
+ */
+public final class SelectorRegistry
+    {
+    private SelectorRegistry()
+        {
+        }
+
+    /**
+     * Obtain the selector for the specified signature or property, assigning a new one if
+     * necessary. The caller is expected to cache the selector on the constant.
+     *
+     * @param id  a SignatureConstant or PropertyConstant
+     *
+     * @return the selector index
+     */
+    public static int ensureSelector(Constant id)
+        {
+        synchronized (s_mapSelectors)
+            {
+            Integer index = s_mapSelectors.get(id);
+            if (index == null)
+                {
+                index = s_cSelectors++;
+                s_mapSelectors.put(id, index);
+                }
+            return index;
+            }
+        }
+
+    /**
+     * The selectors by the constants they were assigned for.
+     */
+    private static final Map<Constant, Integer> s_mapSelectors = new WeakHashMap<>();
+
+    /**
+     * The number of assigned selectors.
+     */
+    private static int s_cSelectors;
+    }
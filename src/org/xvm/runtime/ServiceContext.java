@@ -4,11 +4,21 @@ package org.xvm.runtime;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Consumer;
 
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.MethodStructure;
@@ -28,6 +38,7 @@ import org.xvm.runtime.template.collections.xTuple;
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
 import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xModule.ModuleHandle;
 import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xService;
 import org.xvm.runtime.template.xService.PropertyOperation;
@@ -59,6 +70,10 @@ public class ServiceContext
         f_pool          = module.getConstantPool();
         f_queueMsg      = new ConcurrentLinkedQueue<>();
         f_queueResponse = new ConcurrentLinkedQueue<>();
+        f_nanoCreated   = System.nanoTime();
+
+        Profiler profiler = container.f_runtime.f_profiler;
+        f_alOpCounts = profiler == null ? null : profiler.register(this);
         }
 
     /**
@@ -78,10 +93,33 @@ public class ServiceContext
 
             if (frame != null)
                 {
+                long cBytesStart = getThreadAllocatedBytes();
 
                 try (var x = ConstantPool.withPool(frame.poolContext()))
                     {
-                    frame = execute(frame);
+                    if (f_alOpCounts == null)
+                        {
+                        frame = execute(frame);
+                        }
+                    else
+                        {
+                        m_fExecuting = true;
+                        try
+                            {
+                            frame = execute(frame);
+                            }
+                        finally
+                            {
+                            m_fExecuting = false;
+                            }
+                        }
+
+                    if (ALLOCATION_BEAN != null)
+                        {
+                        // the reservations are now accounted for by the actual allocations
+                        m_cBytesAllocated += getThreadAllocatedBytes() - cBytesStart;
+                        m_cBytesPending    = 0;
+                        }
 
                     if (frame != null)
                         {
@@ -190,6 +228,14 @@ public class ServiceContext
         return m_frameCurrent;
         }
 
+    /**
+     * @return true iff the service is being profiled and is currently executing on a worker thread
+     */
+    public boolean isExecuting()
+        {
+        return m_fExecuting;
+        }
+
     public static ServiceContext getCurrentContext()
         {
         return s_tloContext.get()[0];
@@ -202,7 +248,11 @@ public class ServiceContext
 
     public ServiceContext createContext(String sName)
         {
-        return f_container.createServiceContext(sName, f_module);
+        ServiceContext context = f_container.createServiceContext(sName, f_module);
+
+        // a service created by this service is subject to the same memory limit
+        context.m_cBytesLimit = m_cBytesLimit;
+        return context;
         }
 
     public ServiceHandle getService()
@@ -223,6 +273,7 @@ public class ServiceContext
 
     public void addRequest(Message msg)
         {
+        f_cPendingMessages.incrementAndGet();
         f_queueMsg.add(msg);
         ensureScheduled();
         }
@@ -255,6 +306,8 @@ public class ServiceContext
         Message message;
         while ((message = qMsg.poll()) != null)
             {
+            f_cPendingMessages.decrementAndGet();
+
             Frame frame = message.createFrame(this);
 
             suspendFiber(frame);
@@ -366,8 +419,9 @@ public class ServiceContext
                 throw new IllegalStateException();
             }
 
-        Op[] aOp = frame.f_aOp;
-        int  nOps = 0;
+        Op[]   aOp       = frame.f_aOp;
+        int    nOps      = 0;
+        long[] alOpCount = f_alOpCounts;
 
     nextOp:
         while (true)
@@ -382,6 +436,11 @@ public class ServiceContext
                     return frame;
                     }
 
+                if (alOpCount != null)
+                    {
+                    Profiler.countOp(alOpCount, aOp[iPC]);
+                    }
+
                 iPC = aOp[iPC].process(frame, iPCLast = iPC);
 
                 if (iPC == Op.R_NEXT)
@@ -562,6 +621,291 @@ public class ServiceContext
         return !f_queueMsg.isEmpty() || !f_queueSuspended.isEmpty() || m_frameCurrent != null;
         }
 
+    /**
+     * @return the wall-clock time (in nanos) since this service context has been created
+     */
+    public long getUpTimeNanos()
+        {
+        return System.nanoTime() - f_nanoCreated;
+        }
+
+    /**
+     * @return the total CPU time (in nanos) this service has been running, or zero if the CPU time
+     *         of the threads cannot be measured
+     */
+    public long getRuntimeNanos()
+        {
+        return m_cRuntimeNanos;
+        }
+
+    /**
+     * @return the number of requests that are pending or suspended for this service
+     */
+    public int getBacklogDepth()
+        {
+        return Math.max(0, f_cPendingMessages.get()) + f_queueSuspended.size();
+        }
+
+    /**
+     * @return the number of bytes allocated by the worker threads while executing on behalf of
+     *         this service, or zero if the JVM doesn't support thread allocation accounting
+     */
+    public long getBytesAllocated()
+        {
+        return m_cBytesAllocated;
+        }
+
+    /**
+     * @return an estimate of the memory footprint of this service: the memory retained by the
+     *         service as of the last {@link #gc() measurement}, plus all the memory allocated
+     *         (or reserved) since then, some of which may already be garbage
+     */
+    public long getBytesReserved()
+        {
+        return m_cBytesRetained + getBytesSinceGc();
+        }
+
+    /**
+     * @return the number of bytes allocated or reserved since the last measurement
+     */
+    private long getBytesSinceGc()
+        {
+        return Math.max(0, m_cBytesAllocated - m_cBytesAllocatedAtGc) + m_cBytesPending;
+        }
+
+    /**
+     * @return the maximum memory footprint (in bytes) allowed for this service; zero if unlimited
+     */
+    public long getBytesLimit()
+        {
+        return m_cBytesLimit;
+        }
+
+    /**
+     * Limit the memory footprint of this service. When the limit is exceeded, the service's fibers
+     * fail with an OutOfMemory exception (raised at the next execution slice) until the footprint
+     * falls back under the limit.
+     *
+     * @param cBytes  the maximum memory footprint in bytes; zero for unlimited
+     */
+    public void setBytesLimit(long cBytes)
+        {
+        m_cBytesLimit = Math.max(0, cBytes);
+        }
+
+    /**
+     * Re-measure the memory retained by this service, which resets the estimate of the memory
+     * footprint. Since the measurement walks the entire graph of objects retained by the service,
+     * a request to re-measure is ignored unless the previous measurement is stale (see
+     * {@link #isMeasurementStale()}), so a service cannot monopolize a worker thread by calling
+     * this method in a loop. Must be called on the service's own thread.
+     */
+    public void gc()
+        {
+        if (isMeasurementStale())
+            {
+            measure();
+            }
+        }
+
+    /**
+     * Check whether this service is allowed to allocate the specified amount of memory without
+     * exceeding its memory limit, and if so, account for the allocation ahead of time. This allows
+     * the runtime to refuse a large allocation (e.g. a huge array) before it's made, instead of
+     * detecting the overrun at the next execution slice (or failing the entire JVM). Must be
+     * called on the service's own thread.
+     * <p/>
+     * An allocation is never refused based on the estimate alone: the estimate only grows between
+     * the measurements, so the service may have released enough memory since the last one. The
+     * retained memory is therefore always re-measured before the allocation is refused.
+     *
+     * @param cBytes  the size of the allocation (in bytes)
+     *
+     * @return true iff the allocation is allowed
+     */
+    public boolean reserveBytes(long cBytes)
+        {
+        long cLimit = m_cBytesLimit;
+        if (cLimit > 0 && getBytesReserved() + cBytes > cLimit)
+            {
+            measure();
+            if (getBytesReserved() + cBytes > cLimit)
+                {
+                return false;
+                }
+            }
+        m_cBytesPending += cBytes;
+        return true;
+        }
+
+    /**
+     * Check whether this service has exceeded its memory limit. Since the footprint estimate only
+     * grows between the measurements, the retained memory is re-measured before reporting a
+     * service as being out of memory. To amortize the cost of the measurements (and to allow a
+     * service that is over its limit to run the code that releases the memory), the retained
+     * memory is not re-measured until the service allocates at least 1/16th of its limit.
+     *
+     * @return true iff the memory retained by this service exceeds its limit
+     */
+    public boolean isOutOfMemory()
+        {
+        long cLimit = m_cBytesLimit;
+        if (cLimit > 0 && getBytesSinceGc() > Math.max(cLimit - m_cBytesRetained, cLimit >>> 4))
+            {
+            measure();
+            return m_cBytesRetained > cLimit;
+            }
+        return false;
+        }
+
+    /**
+     * The last measurement is considered stale when the service has allocated at least 1/16th of
+     * its memory limit (and no less than {@link #GC_MIN_BYTES}) since then, or when at least
+     * {@link #GC_MIN_MILLIS} have elapsed (which also covers a JVM that doesn't track the thread
+     * allocations).
+     *
+     * @return true iff the retained memory should be re-measured
+     */
+    private boolean isMeasurementStale()
+        {
+        long cThreshold = Math.max(m_cBytesLimit >>> 4, GC_MIN_BYTES);
+        return getBytesSinceGc() >= cThreshold ||
+               System.nanoTime() - m_nanosGc >= GC_MIN_MILLIS * 1_000_000L;
+        }
+
+    /**
+     * Unconditionally re-measure the memory retained by this service.
+     */
+    private void measure()
+        {
+        m_cBytesAllocatedAtGc = m_cBytesAllocated;
+        m_cBytesPending       = 0;
+        m_cBytesRetained      = measureRetainedBytes();
+        m_nanosGc             = System.nanoTime();
+        }
+
+    /**
+     * Estimate the memory retained by this service, which is the memory held by the handles that
+     * are reachable from the service itself and from the frames of its fibers. The handles that
+     * belong to other services, the module handles, the cached constants and the immutable objects
+     * passed in by other services are shared, so they are not charged to this service.
+     *
+     * @return the estimated number of bytes
+     */
+    private long measureRetainedBytes()
+        {
+        Map<ObjectHandle, ObjectHandle> mapVisited = new IdentityHashMap<>();
+        Deque<ObjectHandle>             stack      = new ArrayDeque<>();
+
+        Consumer<ObjectHandle> visit = h ->
+            {
+            if (h != null && mapVisited.put(h, h) == null)
+                {
+                stack.push(h);
+                }
+            };
+        Consumer<Frame> visitFrames = frame ->
+            {
+            for (; frame != null; frame = frame.f_framePrev)
+                {
+                visit.accept(frame.f_hThis);
+                for (ObjectHandle hVar : frame.f_ahVar)
+                    {
+                    visit.accept(hVar);
+                    }
+                }
+            };
+
+        visit.accept(m_hService);
+        visitFrames.accept(m_frameCurrent);
+        f_queueSuspended.forEach(visitFrames);
+
+        ObjectHeap heap   = f_heapGlobal;
+        long       cBytes = 0;
+        while (!stack.isEmpty())
+            {
+            ObjectHandle hValue = stack.pop();
+
+            if (hValue instanceof ServiceHandle && ((ServiceHandle) hValue).f_context != this ||
+                hValue instanceof ModuleHandle ||
+                !hValue.isMutable() && (hValue.isForeign(this) || heap.isConstHandle(hValue)))
+                {
+                continue;
+                }
+
+            cBytes += hValue.getByteSize();
+
+            hValue.forEachReferent(visit);
+            }
+        return cBytes;
+        }
+
+    /**
+     * @return a snapshot of this service's metrics
+     */
+    public Metrics getMetrics()
+        {
+        return new Metrics(f_sName, f_nId, getUpTimeNanos(), getRuntimeNanos(),
+            getBacklogDepth(), isContended(), getBytesAllocated(), getBytesReserved());
+        }
+
+    /**
+     * Run the specified blocking operation (e.g. file I/O) on the runtime's I/O executor, so that
+     * it never stalls a runtime worker. The result is handed back to this service through the
+     * response queue, so the returned future completes on the service's own thread.
+     * <p/>
+     * The operation must not create or touch any ObjectHandle: it runs concurrently with this
+     * service, and the handles for its result are to be made by this service once the future
+     * completes. Any exception thrown by the operation completes the future exceptionally.
+     *
+     * @param fiber      the calling fiber
+     * @param operation  the blocking operation
+     *
+     * @return the future result of the operation
+     */
+    public <T> CompletableFuture<T> invokeBlocking(Fiber fiber, BlockingOperation<T> operation)
+        {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        f_container.f_runtime.submitIO(() ->
+            {
+            T         result = null;
+            Throwable eFail  = null;
+            try
+                {
+                result = operation.run();
+                }
+            catch (Throwable e)
+                {
+                eFail = e;
+                }
+
+            f_queueResponse.add(new Response<>(fiber, result, eFail, future));
+
+            // don't run the service on the I/O thread; hand it off to the runtime's workers
+            if (tryAcquireSchedulingLock())
+                {
+                f_container.schedule(this);
+                }
+            });
+        return future;
+        }
+
+    /**
+     * A blocking operation to be executed by {@link #invokeBlocking}.
+     */
+    @FunctionalInterface
+    public interface BlockingOperation<T>
+        {
+        /**
+         * @return the result of the operation (a plain Java value)
+         *
+         * @throws Exception if the operation failed
+         */
+        T run()
+                throws Exception;
+        }
+
     // send and asynchronous "call later" message to this context
     public int callLater(FunctionHandle hFunction, ObjectHandle[] ahArg)
         {
@@ -586,6 +930,7 @@ public class ServiceContext
         {
         CompletableFuture<ServiceHandle> future = new CompletableFuture<>();
 
+        markShared(frameCaller.f_context, ahArg);
         addRequest(new ConstructRequest(frameCaller, constructor, clazz, future, ahArg));
 
         return future;
@@ -601,6 +946,7 @@ public class ServiceContext
         {
         CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
 
+        markShared(frameCaller.f_context, ahArg);
         addRequest(new Invoke1Request(frameCaller, hFunction, hService, ahArg, cReturns, future));
 
         if (cReturns == 0)
@@ -617,6 +963,7 @@ public class ServiceContext
         {
         CompletableFuture<ObjectHandle[]> future = new CompletableFuture<>();
 
+        markShared(frameCaller.f_context, ahArg);
         addRequest(new InvokeNRequest(frameCaller, hFunction, hService, ahArg, cReturns, future));
 
         if (cReturns == 0)
@@ -644,6 +991,7 @@ public class ServiceContext
         {
         CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
 
+        markShared(frameCaller.f_context, hValue);
         addRequest(new PropertyOpRequest(frameCaller, idProp, hValue, 0, future, op));
 
         frameCaller.f_fiber.registerUncapturedRequest(future);
@@ -698,6 +1046,22 @@ public class ServiceContext
 
     // ----- helpers ------
 
+    // record the specified service as the owner of the immutable values it passes to another
+    // service, so that the memory they hold is not charged to the receiving service
+    private static void markShared(ServiceContext ctx, ObjectHandle... ahValue)
+        {
+        if (ahValue != null)
+            {
+            for (ObjectHandle hValue : ahValue)
+                {
+                if (hValue != null)
+                    {
+                    hValue.markShared(ctx);
+                    }
+                }
+            }
+        }
+
     // send the specified number of return values back to the caller
     protected static int sendResponse(Fiber fiberCaller, Frame frame,
                                       CompletableFuture future, int cReturns)
@@ -716,12 +1080,13 @@ public class ServiceContext
 
                 if (hException == null && hReturn.isMutable() && !hReturn.isService())
                     {
-                    hReturn = hReturn.getTemplate().createProxyHandle(frame.f_context, hReturn, null);
+                    hReturn = makeSendable(frame, hReturn, new IdentityHashMap<>());
                     if (hReturn == null)
                         {
                         hException = xException.mutableObject(frame);
                         }
                     }
+                markShared(frame.f_context, hReturn);
                 fiberCaller.f_context.respond(new Response(fiberCaller, hReturn, hException, future));
                 break;
                 }
@@ -736,12 +1101,14 @@ public class ServiceContext
                     hTuple = (TupleHandle) ahReturn[0];
 
                     ahReturn = hTuple.m_ahValue;
+
+                    Map<ObjectHandle, ObjectHandle> mapCopies = new IdentityHashMap<>();
                     for (int i = 0, c = ahReturn.length; i < c; i++)
                         {
                         ObjectHandle hReturn = ahReturn[i];
                         if (hReturn.isMutable() && !hReturn.isService())
                             {
-                            hReturn = hReturn.getTemplate().createProxyHandle(frame.f_context, hReturn, null);
+                            hReturn = makeSendable(frame, hReturn, mapCopies);
                             if (hReturn == null)
                                 {
                                 hException = xException.mutableObject(frame);
@@ -751,6 +1118,7 @@ public class ServiceContext
                             ahReturn[i] = hReturn;
                             }
                         }
+                    markShared(frame.f_context, ahReturn);
                     }
                 fiberCaller.f_context.respond(new Response(fiberCaller, hTuple, hException, future));
                 break;
@@ -763,12 +1131,13 @@ public class ServiceContext
                 ExceptionHandle hException = frame.m_hException;
                 if (hException == null)
                     {
+                    Map<ObjectHandle, ObjectHandle> mapCopies = new IdentityHashMap<>();
                     for (int i = 0, c = ahReturn.length; i < c; i++)
                         {
                         ObjectHandle hReturn = ahReturn[i];
                         if (hReturn.isMutable() && !hReturn.isService())
                             {
-                            hReturn = hReturn.getTemplate().createProxyHandle(frame.f_context, hReturn, null);
+                            hReturn = makeSendable(frame, hReturn, mapCopies);
                             if (hReturn == null)
                                 {
                                 hException = xException.mutableObject(frame);
@@ -778,6 +1147,7 @@ public class ServiceContext
                             ahReturn[i] = hReturn;
                             }
                         }
+                    markShared(frame.f_context, ahReturn);
                     }
                 fiberCaller.f_context.respond(new Response(fiberCaller, ahReturn, hException, future));
                 break;
@@ -786,14 +1156,91 @@ public class ServiceContext
         return Op.R_NEXT;
         }
 
+    /**
+     * Obtain a replacement for the specified mutable return value that could be sent across the
+     * service boundary: either a proxy or an immutable copy.
+     *
+     * @param frame      the current frame
+     * @param hValue     the mutable return value
+     * @param mapCopies  the copies made so far, keyed by the original handles
+     *
+     * @return the replacement value or null if the value cannot be sent
+     */
+    private static ObjectHandle makeSendable(Frame frame, ObjectHandle hValue,
+                                             Map<ObjectHandle, ObjectHandle> mapCopies)
+        {
+        ObjectHandle hProxy = hValue.getTemplate().createProxyHandle(frame.f_context, hValue, null);
+        return hProxy == null
+                ? ClassTemplate.copyForSend(hValue, mapCopies)
+                : hProxy;
+        }
+
     @Override
     public String toString()
         {
         return "Service \"" + f_sName + "\" (id=" + f_nId + ')';
         }
 
+    /**
+     * @return the number of bytes allocated so far by the current thread or zero if unknown
+     */
+    private static long getThreadAllocatedBytes()
+        {
+        com.sun.management.ThreadMXBean bean = ALLOCATION_BEAN;
+        return bean == null ? 0 : bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+    /**
+     * @return the CPU time (in nanos) used by the current thread, or zero if not supported
+     */
+    static long getThreadCpuNanos()
+        {
+        ThreadMXBean bean = CPU_TIME_BEAN;
+        return bean == null ? 0 : bean.getCurrentThreadCpuTime();
+        }
+
     // --- inner classes
 
+    /**
+     * An immutable snapshot of the service metrics.
+     */
+    public static class Metrics
+        {
+        public final String  f_sName;
+        public final int     f_nId;
+        public final long    f_cUpNanos;
+        public final long    f_cRuntimeNanos;
+        public final int     f_cBacklog;
+        public final boolean f_fContended;
+        public final long    f_cBytesAllocated;
+        public final long    f_cBytesReserved;
+
+        public Metrics(String sName, int nId, long cUpNanos, long cRuntimeNanos,
+                       int cBacklog, boolean fContended, long cBytesAllocated, long cBytesReserved)
+            {
+            f_sName           = sName;
+            f_nId             = nId;
+            f_cUpNanos        = cUpNanos;
+            f_cRuntimeNanos   = cRuntimeNanos;
+            f_cBacklog        = cBacklog;
+            f_fContended      = fContended;
+            f_cBytesAllocated = cBytesAllocated;
+            f_cBytesReserved  = cBytesReserved;
+            }
+
+        @Override
+        public String toString()
+            {
+            return "Service \"" + f_sName + "\" (id=" + f_nId + ')'
+                + ": upTime=" + f_cUpNanos / 1_000_000 + "ms"
+                + ", cpuTime=" + f_cRuntimeNanos / 1_000_000 + "ms"
+                + ", backlog=" + f_cBacklog
+                + ", contended=" + f_fContended
+                + ", bytesAllocated=" + f_cBytesAllocated
+                + ", bytesReserved=" + f_cBytesReserved;
+            }
+        }
+
     public abstract static class Message
         {
         public final Fiber           f_fiberCaller;
@@ -1167,6 +1614,7 @@ public class ServiceContext
         private final Fiber                f_fiberCaller;
         private final T                    f_return;
         private final ExceptionHandle      f_hException;
+        private final Throwable            f_eFail;
         private final CompletableFuture<T> f_future;
 
         public Response(Fiber fiberCaller, T returnValue, ExceptionHandle hException,
@@ -1176,6 +1624,21 @@ public class ServiceContext
 
             f_fiberCaller = fiberCaller;
             f_hException  = hException;
+            f_eFail       = null;
+            f_return      = returnValue;
+            f_future      = future;
+            }
+
+        /**
+         * Construct a response for a blocking operation (see {@link #invokeBlocking}), whose
+         * result is a Java value (possibly null) and whose failure is a Java exception.
+         */
+        public Response(Fiber fiberCaller, T returnValue, Throwable eFail,
+                        CompletableFuture<T> future)
+            {
+            f_fiberCaller = fiberCaller;
+            f_hException  = null;
+            f_eFail       = eFail;
             f_return      = returnValue;
             f_future      = future;
             }
@@ -1185,13 +1648,17 @@ public class ServiceContext
             {
             f_fiberCaller.m_fResponded = true;
 
-            if (f_hException == null)
+            if (f_hException != null)
                 {
-                f_future.complete(f_return);
+                f_future.completeExceptionally(f_hException.getException());
+                }
+            else if (f_eFail != null)
+                {
+                f_future.completeExceptionally(f_eFail);
                 }
             else
                 {
-                f_future.completeExceptionally(f_hException.getException());
+                f_future.complete(f_return);
                 }
             }
         }
@@ -1222,8 +1689,39 @@ public class ServiceContext
      */
     public long m_cTimeoutMillis;
 
-    // Metrics: the total time (in nanos) this service has been running
-    protected long m_cRuntimeNanos;
+    // Metrics: the timestamp (in nanos) when this service context was created
+    private final long f_nanoCreated;
+
+    // Metrics: the total CPU time (in nanos) this service has been running
+    protected volatile long m_cRuntimeNanos;
+
+    // Metrics: the total number of bytes allocated while running this service
+    private volatile long m_cBytesAllocated;
+
+    // Metrics: the memory retained by this service as of the last measurement
+    private volatile long m_cBytesRetained;
+
+    // Metrics: the value of m_cBytesAllocated at the time of the last measurement
+    private volatile long m_cBytesAllocatedAtGc;
+
+    // Metrics: the memory reserved by the current execution slice (see reserveBytes), which is
+    // not yet included in m_cBytesAllocated
+    private volatile long m_cBytesPending;
+
+    // Metrics: the timestamp (in nanos) of the last measurement
+    private volatile long m_nanosGc;
+
+    // the maximum memory footprint allowed for this service; zero if unlimited
+    private volatile long m_cBytesLimit = DEFAULT_BYTES_LIMIT;
+
+    // Metrics: the number of messages that have been added, but not yet picked up
+    private final AtomicInteger f_cPendingMessages = new AtomicInteger();
+
+    // Profiling: the op-code execution counters; null unless the runtime has a profiler
+    private final long[] f_alOpCounts;
+
+    // Profiling: true while the service is executing on a worker thread
+    private volatile boolean m_fExecuting;
 
     private Frame m_frameCurrent;
     private FiberQueue f_queueSuspended = new FiberQueue(); // suspended fibers
@@ -1248,6 +1746,50 @@ public class ServiceContext
         }
     private volatile ServiceStatus m_status = ServiceStatus.Idle;
 
+    /**
+     * The default memory limit for the services (zero if unlimited), specified in bytes by the
+     * "xvm.service.memoryLimit" system property.
+     */
+    private final static long DEFAULT_BYTES_LIMIT =
+            Long.parseLong(System.getProperty("xvm.service.memoryLimit", "0"));
+
+    /**
+     * The minimum number of bytes allocated and the minimum time elapsed (either one suffices)
+     * between two measurements of the retained memory that are requested via {@link #gc()}.
+     */
+    private final static long GC_MIN_BYTES  = 1L << 20;
+    private final static long GC_MIN_MILLIS = 1000;
+
+    /**
+     * The ThreadMXBean used to sample the thread allocations (null if not supported).
+     */
+    private final static com.sun.management.ThreadMXBean ALLOCATION_BEAN;
+
+    /**
+     * The ThreadMXBean used to sample the thread CPU time (null if not supported).
+     */
+    private final static ThreadMXBean CPU_TIME_BEAN;
+
+    static
+        {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        CPU_TIME_BEAN = bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled()
+                ? bean
+                : null;
+
+        com.sun.management.ThreadMXBean beanAlloc = null;
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            {
+            beanAlloc = (com.sun.management.ThreadMXBean) bean;
+            if (!beanAlloc.isThreadAllocatedMemorySupported() ||
+                !beanAlloc.isThreadAllocatedMemoryEnabled())
+                {
+                beanAlloc = null;
+                }
+            }
+        ALLOCATION_BEAN = beanAlloc;
+        }
+
     final static ThreadLocal<ServiceContext[]> s_tloContext = ThreadLocal.withInitial(() -> new ServiceContext[1]);
 
     /**
@@ -14,7 +14,9 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Component;
+import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
+import org.xvm.asm.FileStructure;
 import org.xvm.asm.ModuleStructure;
 import org.xvm.asm.TypedefStructure;
 
@@ -34,22 +36,121 @@ import org.xvm.runtime.template.xService;
 
 /**
  * The template registry.
+ *
+ * There are two kinds of registries: the core registry holds the templates for the classes of the
+ * core module, and the compositions and templates for the types from the core module's constant
+ * pool, and may be shared by any number of Connectors (see {@link FileStructure#loadShared});
+ * a Connector registry holds everything else, i.e. all the run-time structures that could refer
+ * to the Connector's own modules. A Connector registry delegates the core classes to its core
+ * registry, while the core registry forwards any request for a type that comes from a module
+ * registered with a Connector (see {@link #registerModule}) to that Connector's registry.
  */
 public class TemplateRegistry
     {
     public final ModuleStructure f_moduleRoot;
     public final Adapter f_adapter;
 
+    // the core registry; null if this is the core registry itself
+    public final TemplateRegistry f_templatesCore;
+
     // cache - IdentityConstant by name (only for core classes)
     private final Map<String, IdentityConstant> f_mapIdByName = new ConcurrentHashMap<>();
 
     // cache - ClassTemplates by type
     private final Map<TypeConstant, ClassTemplate> f_mapTemplatesByType = new ConcurrentHashMap<>();
 
+    // cache - ClassCompositions of the core templates for the types from the registered modules
+    private final Map<ClassTemplate, Map<TypeConstant, ClassComposition>> f_mapCompositions =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Construct the core registry.
+     *
+     * @param moduleRoot  the core module
+     */
     public TemplateRegistry(ModuleStructure moduleRoot)
         {
-        f_moduleRoot = moduleRoot;
-        f_adapter = new Adapter(this, moduleRoot);
+        f_moduleRoot    = moduleRoot;
+        f_adapter       = new Adapter(this, moduleRoot);
+        f_templatesCore = null;
+        }
+
+    /**
+     * Construct a Connector registry.
+     *
+     * @param templatesCore  the core registry to delegate the core classes to
+     */
+    public TemplateRegistry(TemplateRegistry templatesCore)
+        {
+        f_moduleRoot    = templatesCore.f_moduleRoot;
+        f_adapter       = templatesCore.f_adapter;
+        f_templatesCore = templatesCore;
+        }
+
+    /**
+     * Register the specified module and all the modules it depends on, except the core module,
+     * with this Connector registry. If a module is already registered with another Connector
+     * (i.e. the same FileStructure was handed out to both), it stays with that one.
+     *
+     * @param module  the module to register
+     */
+    public void registerModule(ModuleStructure module)
+        {
+        assert f_templatesCore != null;
+
+        FileStructure file = module.getFileStructure();
+        if (module.getIdentityConstant().isEcstasyModule()
+                || file.getTemplates() == this || !file.registerTemplates(this))
+            {
+            return;
+            }
+
+        for (String sModule : file.moduleNames())
+            {
+            ModuleStructure moduleDep = file.getModule(sModule);
+            if (moduleDep.isFingerprint())
+                {
+                moduleDep = moduleDep.getFingerprintOrigin();
+                }
+
+            if (moduleDep != null && moduleDep.getFileStructure() != file)
+                {
+                registerModule(moduleDep);
+                }
+            }
+        }
+
+    /**
+     * Find the registry that the run-time structures for the specified constant belong to.
+     *
+     * @param constant  a constant
+     *
+     * @return the Connector registry the constant's module is registered with, or this registry
+     */
+    TemplateRegistry getOwner(Constant constant)
+        {
+        if (f_templatesCore == null)
+            {
+            TemplateRegistry templates = constant.getConstantPool().getFileStructure().getTemplates();
+            if (templates != null)
+                {
+                return templates;
+                }
+            }
+        return this;
+        }
+
+    /**
+     * Obtain the map of the compositions for the specified core template that are specific to
+     * this Connector registry.
+     *
+     * @param template  the core template
+     *
+     * @return the ClassCompositions keyed by the inception type
+     */
+    Map<TypeConstant, ClassComposition> ensureCompositions(ClassTemplate template)
+        {
+        return f_mapCompositions.computeIfAbsent(template, t -> new ConcurrentHashMap<>());
         }
 
     public void loadNativeTemplates(ModuleStructure moduleRoot)
@@ -161,7 +262,14 @@ public class TemplateRegistry
 
     public void registerNativeTemplate(TypeConstant type, ClassTemplate template)
         {
-        f_mapTemplatesByType.putIfAbsent(type, template);
+        if (f_templatesCore == null)
+            {
+            f_mapTemplatesByType.putIfAbsent(type, template);
+            }
+        else
+            {
+            f_templatesCore.registerNativeTemplate(type, template);
+            }
         }
 
     // ----- templates and structures -----
@@ -185,6 +293,11 @@ public class TemplateRegistry
     // this call (id by name) can only come from the root module
     public IdentityConstant getIdentityConstant(String sName)
         {
+        if (f_templatesCore != null)
+            {
+            return f_templatesCore.getIdentityConstant(sName);
+            }
+
         try
             {
             return f_mapIdByName.computeIfAbsent(sName, s ->
@@ -208,6 +321,12 @@ public class TemplateRegistry
         ClassTemplate template = f_mapTemplatesByType.get(typeActual);
         if (template == null)
             {
+            TemplateRegistry templatesOwner = getOwner(typeActual);
+            if (templatesOwner != this)
+                {
+                return templatesOwner.getTemplate(typeActual);
+                }
+
             if (typeActual.isSingleDefiningConstant())
                 {
                 TypeConstant typeResolved = typeActual.isAutoNarrowing(false)
@@ -228,52 +347,83 @@ public class TemplateRegistry
 
     public ClassTemplate getTemplate(IdentityConstant constClass)
         {
-        return f_mapTemplatesByType.computeIfAbsent(constClass.getType(), type ->
+        ClassTemplate template = f_mapTemplatesByType.get(constClass.getType());
+        if (template != null)
             {
-            Component struct = constClass.getComponent();
-            ClassStructure structClass = (ClassStructure) struct;
-            if (structClass == null)
-                {
-                throw new RuntimeException("Missing class structure: " + constClass);
-                }
+            return template;
+            }
 
-            ClassTemplate template;
-            switch (structClass.getFormat())
+        boolean fCore = constClass.getModuleConstant().isEcstasyModule();
+        if (f_templatesCore == null)
+            {
+            TemplateRegistry templatesOwner = fCore ? this : getOwner(constClass);
+            if (templatesOwner != this)
                 {
-                case ENUMVALUE:
-                case ENUM:
-                    template = new xEnum(this, structClass, false);
-                    template.initDeclared();
-                    break;
-
-                case MIXIN:
-                    template = new Mixin(this, structClass, false);
-                    break;
-
-                case CLASS:
-                case INTERFACE:
-                    template = new xObject(this, structClass, false);
-                    break;
-
-                case SERVICE:
-                    template = new xService(this, structClass, false);
-                    break;
-
-                case CONST:
-                    template = structClass.isException()
-                            ? new xException(this, structClass, false)
-                            : new xConst(this, structClass, false);
-                    break;
-
-                case MODULE:
-                    template = new xModule(this, structClass, false);
-                    break;
-
-                default:
-                    throw new UnsupportedOperationException("Format is not supported: " + structClass);
+                return templatesOwner.getTemplate(constClass);
                 }
+            }
+        else if (fCore)
+            {
+            template = f_templatesCore.getTemplate(constClass);
+            f_mapTemplatesByType.putIfAbsent(constClass.getType(), template);
             return template;
-            });
+            }
+
+        ClassStructure structClass = (ClassStructure) constClass.getComponent();
+        if (structClass == null)
+            {
+            throw new RuntimeException("Missing class structure: " + constClass);
+            }
+
+        if (f_templatesCore != null)
+            {
+            // a module that has not been registered yet (e.g. a dynamically loaded one)
+            structClass.getFileStructure().registerTemplates(this);
+            }
+
+        // the core registry must not hold on to the constants from any other pool
+        return f_mapTemplatesByType.computeIfAbsent(structClass.getIdentityConstant().getType(),
+            type -> createTemplate(structClass));
+        }
+
+    private ClassTemplate createTemplate(ClassStructure structClass)
+        {
+        ClassTemplate template;
+        switch (structClass.getFormat())
+            {
+            case ENUMVALUE:
+            case ENUM:
+                template = new xEnum(this, structClass, false);
+                template.initDeclared();
+                break;
+
+            case MIXIN:
+                template = new Mixin(this, structClass, false);
+                break;
+
+            case CLASS:
+            case INTERFACE:
+                template = new xObject(this, structClass, false);
+                break;
+
+            case SERVICE:
+                template = new xService(this, structClass, false);
+                break;
+
+            case CONST:
+                template = structClass.isException()
+                        ? new xException(this, structClass, false)
+                        : new xConst(this, structClass, false);
+                break;
+
+            case MODULE:
+                template = new xModule(this, structClass, false);
+                break;
+
+            default:
+                throw new UnsupportedOperationException("Format is not supported: " + structClass);
+            }
+        return template;
         }
 
     // produce a ClassComposition based on the specified TypeConstant
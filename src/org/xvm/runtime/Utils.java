@@ -638,9 +638,11 @@ public abstract class Utils
         {
         boolean fMainContext = false;
 
+        Container container = frame.f_context.f_container;
+
         for (SingletonConstant constSingleton : listSingletons)
             {
-            ObjectHandle hValue = constSingleton.getHandle();
+            ObjectHandle hValue = container.getSingletonHandle(constSingleton);
             if (hValue != null)
                 {
                 continue;
@@ -673,7 +675,7 @@ public abstract class Utils
                 }
 
             // we are on the main context and can actually perform the initialization
-            if (!constSingleton.markInitializing())
+            if (!container.markSingletonInitializing(constSingleton))
                 {
                 // this can only happen if we are called recursively
                 return frame.raiseException("Circular initialization");
@@ -732,7 +734,7 @@ public abstract class Utils
             switch (iResult)
                 {
                 case Op.R_NEXT:
-                    constSingleton.setHandle(frame.popStack());
+                    container.setSingletonHandle(constSingleton, frame.popStack());
                     break; // next constant
 
                 case Op.R_EXCEPTION:
@@ -741,7 +743,7 @@ public abstract class Utils
                 case Op.R_CALL:
                     frame.m_frameNext.addContinuation(frameCaller ->
                         {
-                        constSingleton.setHandle(frameCaller.popStack());
+                        container.setSingletonHandle(constSingleton, frameCaller.popStack());
                         return initConstants(frameCaller, listSingletons, continuation);
                         });
                     return Op.R_CALL;
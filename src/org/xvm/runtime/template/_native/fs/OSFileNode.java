@@ -7,6 +7,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import java.util.function.Function;
+
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constants.Access;
 import org.xvm.asm.MethodStructure;
@@ -58,6 +63,10 @@ public abstract class OSFileNode
         s_constructorDir  = s_clzOSDir.getTemplate().f_struct.findConstructor();
         s_constructorFile = s_clzOSFile.getTemplate().f_struct.findConstructor();
 
+        ClassTemplate templatePath = f_templates.getTemplate("fs.Path");
+        s_clzPath         = templatePath.getCanonicalClass();
+        s_constructorPath = templatePath.f_struct.findConstructor(pool().typeString());
+
         markNativeProperty("store");
         markNativeProperty("pathString");
         markNativeProperty("exists");
@@ -93,7 +102,7 @@ public abstract class OSFileNode
                     }
                 catch (IOException e)
                     {
-                    return raisePathException(frame, e, hNode);
+                    return raisePathException(frame, e, hNode.f_path);
                     }
                 }
 
@@ -106,7 +115,7 @@ public abstract class OSFileNode
                     }
                 catch (IOException e)
                     {
-                    return raisePathException(frame, e, hNode);
+                    return raisePathException(frame, e, hNode.f_path);
                     }
                 }
 
@@ -119,7 +128,7 @@ public abstract class OSFileNode
                     }
                 catch (IOException e)
                     {
-                    return raisePathException(frame, e, hNode);
+                    return raisePathException(frame, e, hNode.f_path);
                     }
                 }
 
@@ -132,7 +141,7 @@ public abstract class OSFileNode
                     }
                 catch (IOException e)
                     {
-                    return raisePathException(frame, e, hNode);
+                    return raisePathException(frame, e, hNode.f_path);
                     }
                 }
             }
@@ -166,10 +175,159 @@ public abstract class OSFileNode
 
     // ----- helper methods ------------------------------------------------------------------------
 
-    protected int raisePathException(Frame frame, IOException e, NodeHandle hNode)
+    /**
+     * Perform the specified blocking file operation on the runtime's I/O executor, parking the
+     * calling fiber until the operation completes, and then hand the operation result to the
+     * specified handler on the service thread.
+     *
+     * @param frame      the current frame
+     * @param path       the path of the file the operation works on (reported if it fails)
+     * @param operation  the file operation, which must not create or touch any ObjectHandle
+     * @param handler    the handler for the operation result, which makes the handles for it
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    static <T> int invokeIO(Frame frame, Path path, FileOperation<T> operation,
+                            ResultHandler<T> handler)
         {
-        // TODO: how to get the natural Path efficiently from hNode.f_path?
-        return frame.raiseException(xException.pathException(frame, e.getMessage(), xNullable.NULL));
+        CompletableFuture<T> cfIO = frame.f_context.invokeBlocking(frame.f_fiber, operation::run);
+
+        // the future completes on the service thread; the result (or the failure) is turned into
+        // the Ecstasy handles only by the continuation
+        Frame frameWait = Utils.createWaitFrame(frame,
+                cfIO.handle((result, e) -> xNullable.NULL), Op.A_IGNORE);
+        frameWait.addContinuation(frameCaller ->
+            {
+            T result;
+            try
+                {
+                result = cfIO.getNow(null);
+                }
+            catch (CompletionException e)
+                {
+                Throwable eCause = e.getCause();
+                return eCause instanceof IOException
+                        ? raisePathException(frameCaller, (IOException) eCause, path)
+                        : frameCaller.raiseException(xException.makeHandle(frameCaller,
+                                String.valueOf(eCause)));
+                }
+            return handler.handle(frameCaller, result);
+            });
+        return frame.call(frameWait);
+        }
+
+    /**
+     * Perform the specified blocking file operation on the runtime's I/O executor, parking the
+     * calling fiber until the operation completes, and then convert the operation result to a
+     * handle on the service thread.
+     *
+     * @param frame      the current frame
+     * @param path       the path of the file the operation works on (reported if it fails)
+     * @param operation  the file operation, which must not create or touch any ObjectHandle
+     * @param convert    the function that makes the handle for the operation result
+     * @param iReturn    the register id to place the handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    static <T> int invokeIO(Frame frame, Path path, FileOperation<T> operation,
+                            Function<T, ObjectHandle> convert, int iReturn)
+        {
+        return invokeIO(frame, path, operation, (frameCaller, result) ->
+            frameCaller.assignValue(iReturn, convert.apply(result)));
+        }
+
+    /**
+     * Perform the specified blocking file operation that has no result on the runtime's I/O
+     * executor, parking the calling fiber until the operation completes.
+     *
+     * @param frame      the current frame
+     * @param path       the path of the file the operation works on (reported if it fails)
+     * @param operation  the file operation, which must not create or touch any ObjectHandle
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    static int invokeIO(Frame frame, Path path, VoidFileOperation operation)
+        {
+        return invokeIO(frame, path, () ->
+            {
+            operation.run();
+            return null;
+            }, (frameCaller, result) -> Op.R_NEXT);
+        }
+
+    /**
+     * A blocking file operation to be executed by {@link #invokeIO}.
+     */
+    @FunctionalInterface
+    interface FileOperation<T>
+        {
+        /**
+         * @return the result of the operation (a plain Java value)
+         */
+        T run()
+                throws IOException;
+        }
+
+    /**
+     * A blocking file operation with no result to be executed by {@link #invokeIO}.
+     */
+    @FunctionalInterface
+    interface VoidFileOperation
+        {
+        void run()
+                throws IOException;
+        }
+
+    /**
+     * The handler for the result of a {@link FileOperation}, which is called on the service
+     * thread.
+     */
+    @FunctionalInterface
+    interface ResultHandler<T>
+        {
+        /**
+         * @param frame   the current frame
+         * @param result  the result of the operation
+         *
+         * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+         */
+        int handle(Frame frame, T result);
+        }
+
+    /**
+     * Raise a PathException for the specified I/O failure.
+     *
+     * @param frame  the current frame
+     * @param e      the I/O exception
+     * @param path   the path of the file that the failed operation worked on
+     *
+     * @return one of the {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    static int raisePathException(Frame frame, IOException e, Path path)
+        {
+        String         sMsg  = e.getMessage();
+        ObjectHandle[] ahArg = Utils.ensureSize(Utils.OBJECTS_NONE, s_constructorPath.getMaxVars());
+        ahArg[0] = xString.makeHandle(path.toString());
+
+        switch (s_clzPath.getTemplate().construct(
+                    frame, s_constructorPath, s_clzPath, null, ahArg, Op.A_STACK))
+            {
+            case Op.R_NEXT:
+                return frame.raiseException(
+                    xException.pathException(frame, sMsg, frame.popStack()));
+
+            case Op.R_CALL:
+                frame.m_frameNext.addContinuation(frameCaller ->
+                    frameCaller.raiseException(
+                        xException.pathException(frameCaller, sMsg, frameCaller.popStack())));
+                return Op.R_CALL;
+
+            case Op.R_EXCEPTION:
+                return Op.R_EXCEPTION;
+
+            default:
+                throw new IllegalStateException();
+            }
         }
 
 
@@ -201,4 +359,7 @@ public abstract class OSFileNode
     private static ClassComposition s_clzOSFile;
     private static ClassComposition s_clzOSFileStruct;
     private static MethodStructure  s_constructorFile;
+
+    private static ClassComposition s_clzPath;
+    private static MethodStructure  s_constructorPath;
     }
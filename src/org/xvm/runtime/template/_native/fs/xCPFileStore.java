@@ -157,7 +157,7 @@ public class xCPFileStore
                 return lSum;
 
             case FSFile:
-                return node.getFileBytes().length;
+                return node.getFileSize();
 
             case FSLink:
                 return calcSize(node.getLinkTarget());
@@ -1,23 +1,34 @@
 package org.xvm.runtime.template._native.fs;
 
 
-import java.io.FileOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
 
+import java.nio.channels.FileChannel;
+
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
-import org.xvm.asm.ClassStructure;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
-import org.xvm.asm.Op;
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
 
+import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.TemplateRegistry;
 
+import org.xvm.runtime.template.xEnum;
+import org.xvm.runtime.template.xEnum.EnumHandle;
+
+import org.xvm.runtime.template.collections.xArray.GenericArrayHandle;
 import org.xvm.runtime.template.collections.xArray.Mutability;
 import org.xvm.runtime.template.collections.xByteArray;
-
-import org.xvm.util.Handy;
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
 
 
 /**
@@ -38,6 +49,8 @@ public class xOSFile
 
         markNativeProperty("contents");
 
+        markNativeMethod("open", null, null);
+
         getCanonicalType().invalidateTypeInfo();
         }
 
@@ -51,15 +64,8 @@ public class xOSFile
                 {
                 Path path = hNode.f_path;
 
-                try
-                    {
-                    byte[] ab = Handy.readFileBytes(path.toFile());
-                    return frame.assignValue(iReturn, xByteArray.makeHandle(ab, Mutability.Constant));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, hNode);
-                    }
+                return invokeIO(frame, path, () -> Files.readAllBytes(path),
+                    ab -> xByteArray.makeHandle(ab, Mutability.Constant), iReturn);
                 }
             }
 
@@ -74,18 +80,146 @@ public class xOSFile
         switch (sPropName)
             {
             case "contents":
-                try
+                {
+                Path            path   = hNode.f_path;
+                ByteArrayHandle hBytes = (ByteArrayHandle) hValue;
+                byte[]          ab     = hBytes.m_abValue;
+                int             of     = hBytes.m_ofStart;
+                int             cb     = hBytes.m_cSize;
+
+                if (hBytes.isMutable())
                     {
-                    Path             path = hNode.f_path;
-                    FileOutputStream out  = new FileOutputStream(path.toFile());
-                    out.write(((xByteArray.ByteArrayHandle) hValue).m_abValue);
+                    // the I/O happens concurrently with the service; don't let it see any changes
+                    ab = Arrays.copyOfRange(ab, of, of + cb);
+                    of = 0;
                     }
-                catch (IOException e)
+
+                byte[] abWrite = ab;
+                int    ofWrite = of;
+                return invokeIO(frame, path, () ->
                     {
-                    return raisePathException(frame, e, hNode);
-                    }
-                return Op.R_NEXT;
+                    try (OutputStream out = Files.newOutputStream(path))
+                        {
+                        out.write(abWrite, ofWrite, cb);
+                        }
+                    });
+                }
             }
         return super.invokeNativeSet(frame, hTarget, sPropName, hValue);
         }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        NodeHandle hNode = (NodeHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "open":  // (read, write...)
+                {
+                Path            path    = hNode.f_path;
+                Set<OpenOption> setOpts = new HashSet<>();
+                boolean         fRead   = false;
+                boolean         fWrite  = false;
+                boolean         fAppend = false;
+
+                ClassComposition clzChannel = xOSFileChannel.ensureChannelClass();
+
+                switch (getOptionName(ahArg[0]))
+                    {
+                    case "Read":
+                    case "Exclusive":
+                        setOpts.add(StandardOpenOption.READ);
+                        fRead = true;
+                        break;
+                    }
+
+                GenericArrayHandle haWrite = (GenericArrayHandle) ahArg[1];
+                for (int i = 0, c = haWrite.m_cSize; i < c; i++)
+                    {
+                    String sOpt = getOptionName(haWrite.m_ahValue[haWrite.m_ofStart + i]);
+                    if (!sOpt.equals("NoWrite"))
+                        {
+                        fWrite = true;
+                        }
+
+                    switch (sOpt)
+                        {
+                        case "Ensure":
+                            setOpts.add(StandardOpenOption.CREATE);
+                            break;
+
+                        case "Create":
+                            setOpts.add(StandardOpenOption.CREATE_NEW);
+                            break;
+
+                        case "Sparse":
+                            setOpts.add(StandardOpenOption.CREATE_NEW);
+                            setOpts.add(StandardOpenOption.SPARSE);
+                            break;
+
+                        case "Temp":
+                            setOpts.add(StandardOpenOption.CREATE_NEW);
+                            setOpts.add(StandardOpenOption.DELETE_ON_CLOSE);
+                            break;
+
+                        case "Truncate":
+                            setOpts.add(StandardOpenOption.TRUNCATE_EXISTING);
+                            break;
+
+                        case "Append":
+                            fAppend = true;
+                            break;
+
+                        case "SyncData":
+                            setOpts.add(StandardOpenOption.DSYNC);
+                            break;
+
+                        case "SyncAll":
+                            setOpts.add(StandardOpenOption.SYNC);
+                            break;
+                        }
+                    }
+
+                if (fWrite)
+                    {
+                    setOpts.add(StandardOpenOption.WRITE);
+
+                    // Java doesn't allow APPEND together with READ; a channel that is also
+                    // readable appends by writing at the current end of the file instead (see
+                    // xOSFileChannel "writeAt")
+                    if (fAppend && !fRead)
+                        {
+                        setOpts.add(StandardOpenOption.APPEND);
+                        }
+                    }
+
+                boolean fReadable = fRead;
+                boolean fWritable = fWrite;
+                boolean fAppendTo = fAppend && fWrite;
+                return invokeIO(frame, path, () ->
+                    {
+                    FileChannel channel = FileChannel.open(path, setOpts);
+                    if (fAppendTo)
+                        {
+                        channel.position(channel.size());
+                        }
+                    return channel;
+                    }, channel -> xOSFileChannel.makeHandle(clzChannel, channel, path,
+                            fReadable, fWritable, fAppendTo), iReturn);
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    /**
+     * @return the name of the specified ReadOption or WriteOption
+     */
+    private static String getOptionName(ObjectHandle hOption)
+        {
+        EnumHandle hEnum = (EnumHandle) hOption;
+        return ((xEnum) hEnum.getTemplate()).getNameByOrdinal(hEnum.getOrdinal());
+        }
     }
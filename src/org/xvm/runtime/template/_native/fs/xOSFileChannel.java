@@ -0,0 +1,440 @@
+package org.xvm.runtime.template._native.fs;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.FileChannel;
+
+import java.nio.file.Path;
+
+import java.util.Arrays;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.collections.xArray.GenericArrayHandle;
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * Native OSFileChannel implementation, which is backed by a {@link FileChannel}.
+ */
+public class xOSFileChannel
+        extends ClassTemplate
+    {
+    public static xOSFileChannel INSTANCE;
+
+    public xOSFileChannel(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        markNativeProperty("readable");
+        markNativeProperty("writable");
+        markNativeProperty("size");
+        markNativeProperty("position");
+
+        markNativeMethod("readAt", null, null);
+        markNativeMethod("map", null, null);
+        markNativeMethod("writeAt", null, null);
+        markNativeMethod("flush", null, null);
+        markNativeMethod("close", null, null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        try
+            {
+            switch (sPropName)
+                {
+                case "readable":
+                    return frame.assignValue(iReturn, xBoolean.makeHandle(hChannel.f_fRead));
+
+                case "writable":
+                    return frame.assignValue(iReturn, xBoolean.makeHandle(hChannel.f_fWrite));
+
+                case "size":
+                    return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.f_channel.size()));
+
+                case "position":
+                    return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.f_channel.position()));
+                }
+            }
+        catch (IOException e)
+            {
+            return OSFileNode.raisePathException(frame, e, hChannel.f_path);
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNativeSet(Frame frame, ObjectHandle hTarget, String sPropName, ObjectHandle hValue)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        FileChannel   channel  = hChannel.f_channel;
+        long          lValue   = ((JavaLong) hValue).getValue();
+
+        switch (sPropName)
+            {
+            case "size":
+                return OSFileNode.invokeIO(frame, hChannel.f_path, () ->
+                    {
+                    long cbOld = channel.size();
+                    if (lValue < cbOld)
+                        {
+                        channel.truncate(lValue);
+                        }
+                    else if (lValue > cbOld)
+                        {
+                        // extend the file by writing its last byte
+                        channel.write(ByteBuffer.allocate(1), lValue - 1);
+                        }
+                    });
+
+            case "position":
+                try
+                    {
+                    channel.position(lValue);
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return OSFileNode.raisePathException(frame, e, hChannel.f_path);
+                    }
+            }
+
+        return super.invokeNativeSet(frame, hTarget, sPropName, hValue);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        FileChannel   channel  = hChannel.f_channel;
+
+        switch (method.getName())
+            {
+            case "flush":
+                return OSFileNode.invokeIO(frame, hChannel.f_path, () -> channel.force(true));
+
+            case "close":
+                try
+                    {
+                    channel.close();
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return OSFileNode.raisePathException(frame, e, hChannel.f_path);
+                    }
+
+            case "map":  // (position, count)
+                {
+                long lPos   = ((JavaLong) ahArg[0]).getValue();
+                long cBytes = ((JavaLong) ahArg[1]).getValue();
+
+                if (lPos < 0)
+                    {
+                    return frame.raiseException(xException.outOfBounds(frame, lPos, 0));
+                    }
+                if (cBytes < 0)
+                    {
+                    return frame.raiseException(
+                        xException.illegalArgument(frame, "Negative count: " + cBytes));
+                    }
+
+                // a read-only mapping cannot extend the file
+                try
+                    {
+                    long cbFile = channel.size();
+                    if (lPos + cBytes > cbFile)
+                        {
+                        return frame.raiseException(xException.outOfBounds(frame, "Region "
+                            + lPos + ".." + (lPos + cBytes) + " exceeds the file size " + cbFile));
+                        }
+                    }
+                catch (IOException e)
+                    {
+                    return OSFileNode.raisePathException(frame, e, hChannel.f_path);
+                    }
+
+                ClassComposition clzBuffer = xOSMappedBuffer.ensureBufferClass();
+                return OSFileNode.invokeIO(frame, hChannel.f_path, () ->
+                    xOSMappedBuffer.map(channel, lPos, cBytes),
+                    aBuffer -> xOSMappedBuffer.makeHandle(clzBuffer, aBuffer, cBytes), iReturn);
+                }
+
+            case "writeAt":  // (position, arrays)
+                {
+                long           lPos    = ((JavaLong) ahArg[0]).getValue();
+                ObjectHandle[] ahArray = toArrayOfHandles((GenericArrayHandle) ahArg[1]);
+                ByteBuffer[]   aBuffer = new ByteBuffer[ahArray.length];
+
+                for (int i = 0, c = ahArray.length; i < c; i++)
+                    {
+                    ByteArrayHandle hBytes = (ByteArrayHandle) ahArray[i];
+                    byte[]          ab     = hBytes.m_abValue;
+                    int             of     = hBytes.m_ofStart;
+                    int             cb     = hBytes.m_cSize;
+
+                    // the I/O happens concurrently with the service; don't let it see any changes
+                    aBuffer[i] = hBytes.isMutable()
+                            ? ByteBuffer.wrap(Arrays.copyOfRange(ab, of, of + cb))
+                            : ByteBuffer.wrap(ab, of, cb);
+                    }
+
+                if (hChannel.f_fAppend)
+                    {
+                    return OSFileNode.invokeIO(frame, hChannel.f_path, () ->
+                        append(channel, aBuffer, !hChannel.f_fRead), xInt64::makeHandle, iReturn);
+                    }
+
+                return OSFileNode.invokeIO(frame, hChannel.f_path, () ->
+                    {
+                    long lNext = lPos;
+                    for (ByteBuffer buffer : aBuffer)
+                        {
+                        while (buffer.hasRemaining())
+                            {
+                            lNext += channel.write(buffer, lNext);
+                            }
+                        }
+                    return lNext - lPos;
+                    }, xInt64::makeHandle, iReturn);
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        FileChannel   channel  = hChannel.f_channel;
+
+        switch (method.getName())
+            {
+            case "readAt":  // (position, bytes)
+                {
+                long            lPos   = ((JavaLong) ahArg[0]).getValue();
+                ByteArrayHandle hBytes = (ByteArrayHandle) ahArg[1];
+
+                switch (hBytes.m_mutability)
+                    {
+                    case Constant:
+                        return frame.raiseException(xException.immutableObject(frame));
+
+                    case Persistent:
+                        return frame.raiseException(xException.unsupportedOperation(frame));
+                    }
+
+                // the I/O thread must not touch the array, which the service may concurrently
+                // modify; read into a private buffer and copy it on the service thread
+                ByteBuffer buffer = ByteBuffer.allocate(hBytes.m_cSize);
+
+                return OSFileNode.invokeIO(frame, hChannel.f_path, () ->
+                    {
+                    long lNext = lPos;
+                    int  cb;
+                    while (buffer.hasRemaining() && (cb = channel.read(buffer, lNext)) >= 0)
+                        {
+                        lNext += cb;
+                        }
+                    return lNext == lPos && buffer.hasRemaining() ? -1 : lNext - lPos;
+                    }, (frameCaller, cRead) ->
+                        assignReadResult(frameCaller, hBytes, buffer, cRead, aiReturn));
+                }
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    /**
+     * Copy the bytes read by the "readAt" operation into the target array and assign the
+     * conditional result.
+     *
+     * @param cRead  the number of bytes read, or -1 for the end of the file
+     */
+    private static int assignReadResult(Frame frame, ByteArrayHandle hBytes, ByteBuffer buffer,
+                                        long cRead, int[] aiReturn)
+        {
+        if (cRead < 0)
+            {
+            return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+            }
+
+        if (hBytes.m_mutability == Mutability.Constant)
+            {
+            // the array was frozen while the read was in progress
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        // the array could have shrunk while the read was in progress
+        int cCopy = (int) Math.min(cRead, hBytes.m_cSize);
+        hBytes.ensureExclusive();
+        System.arraycopy(buffer.array(), 0, hBytes.m_abValue, hBytes.m_ofStart, cCopy);
+        return frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(cCopy));
+        }
+
+    /**
+     * @return the element handles of the specified array
+     */
+    private static ObjectHandle[] toArrayOfHandles(GenericArrayHandle hArray)
+        {
+        return Arrays.copyOfRange(hArray.m_ahValue, hArray.m_ofStart, hArray.m_ofStart + hArray.m_cSize);
+        }
+
+    /**
+     * Obtain the class composition for the channel handles. This must be called on a service
+     * thread, since it may need to use the current constant pool.
+     *
+     * @return the class composition for FileChannel handles
+     */
+    public static ClassComposition ensureChannelClass()
+        {
+        ClassComposition clz = s_clzChannel;
+        if (clz == null)
+            {
+            ConstantPool pool = INSTANCE.pool();
+            s_clzChannel = clz = INSTANCE.ensureClass(INSTANCE.getCanonicalType(),
+                    pool.ensureEcstasyTypeConstant("fs.FileChannel"));
+            }
+        return clz;
+        }
+
+    /**
+     * Write the specified buffers at the end of the file of a channel that was opened in the
+     * "Append" mode, without modifying the channel's position.
+     * <p/>
+     * A write-only channel was opened with the {@link java.nio.file.StandardOpenOption#APPEND}
+     * option, so the file system appends the bytes atomically; Java doesn't support that option
+     * for a readable channel, so the bytes are written at what is the end of the file at the
+     * time of the write. In either case, the writes via the same channel are serialized.
+     *
+     * @param channel  the file channel
+     * @param aBuffer  the buffers to write
+     * @param fAtomic  true iff the channel was opened with the APPEND option
+     *
+     * @return the number of bytes written
+     */
+    private static long append(FileChannel channel, ByteBuffer[] aBuffer, boolean fAtomic)
+            throws IOException
+        {
+        synchronized (channel)
+            {
+            long cb = 0;
+            if (fAtomic)
+                {
+                long lPos = channel.position();
+                for (ByteBuffer buffer : aBuffer)
+                    {
+                    while (buffer.hasRemaining())
+                        {
+                        cb += channel.write(buffer);
+                        }
+                    }
+                channel.position(lPos);
+                }
+            else
+                {
+                long lNext = channel.size();
+                for (ByteBuffer buffer : aBuffer)
+                    {
+                    while (buffer.hasRemaining())
+                        {
+                        int cbWrite = channel.write(buffer, lNext);
+                        lNext += cbWrite;
+                        cb    += cbWrite;
+                        }
+                    }
+                }
+            return cb;
+            }
+        }
+
+    /**
+     * Create a handle for the specified FileChannel.
+     *
+     * @param clz      the class composition (see {@link #ensureChannelClass()})
+     * @param channel  the file channel
+     * @param path     the path of the file
+     * @param fRead    true iff the channel was opened for reading
+     * @param fWrite   true iff the channel was opened for writing
+     * @param fAppend  true iff the channel was opened for writing in the "Append" mode
+     *
+     * @return the channel handle
+     */
+    public static ChannelHandle makeHandle(ClassComposition clz, FileChannel channel, Path path,
+                                           boolean fRead, boolean fWrite, boolean fAppend)
+        {
+        // note: no need to initialize the struct because there are no natural fields
+        return new ChannelHandle(clz, channel, path, fRead, fWrite, fAppend);
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * A handle to a native FileChannel.
+     */
+    public static class ChannelHandle
+            extends GenericHandle
+        {
+        protected ChannelHandle(ClassComposition clz, FileChannel channel, Path path,
+                                boolean fRead, boolean fWrite, boolean fAppend)
+            {
+            super(clz);
+
+            f_channel = channel;
+            f_path    = path;
+            f_fRead   = fRead;
+            f_fWrite  = fWrite;
+            f_fAppend = fAppend;
+            }
+
+        protected final FileChannel f_channel;
+        protected final Path        f_path;
+        protected final boolean     f_fRead;
+        protected final boolean     f_fWrite;
+        protected final boolean     f_fAppend;
+        }
+
+    private static ClassComposition s_clzChannel;
+    }
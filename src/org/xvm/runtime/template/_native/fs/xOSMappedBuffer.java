@@ -0,0 +1,202 @@
+package org.xvm.runtime.template._native.fs;
+
+
+import java.io.IOException;
+
+import java.nio.MappedByteBuffer;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.MethodStructure;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.numbers.xInt64;
+import org.xvm.runtime.template.numbers.xUInt8;
+
+
+/**
+ * Native OSMappedBuffer implementation: a read-only Buffer<Byte> over a memory-mapped region of a
+ * file. Since a single mapping cannot exceed 2GB, a larger region is mapped as a number of
+ * consecutive chunks.
+ */
+public class xOSMappedBuffer
+        extends ClassTemplate
+    {
+    public static xOSMappedBuffer INSTANCE;
+
+    public xOSMappedBuffer(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        markNativeProperty("capacity");
+
+        markNativeMethod("byteAt", null, null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        MappedBufferHandle hBuffer = (MappedBufferHandle) hTarget;
+
+        switch (sPropName)
+            {
+            case "capacity":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hBuffer.f_cbRegion));
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        MappedBufferHandle hBuffer = (MappedBufferHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "byteAt":
+                {
+                long lIndex = ((JavaLong) hArg).getValue();
+                if (lIndex < 0 || lIndex >= hBuffer.f_cbRegion)
+                    {
+                    return frame.raiseException(
+                        xException.outOfBounds(frame, lIndex, hBuffer.f_cbRegion));
+                    }
+
+                MappedByteBuffer buffer = hBuffer.f_aBuffer[(int) (lIndex >>> CHUNK_BITS)];
+                return frame.assignValue(iReturn,
+                    xUInt8.makeHandle(((long) buffer.get((int) (lIndex & CHUNK_MASK))) & 0xFF));
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    /**
+     * Map the specified region of a file. This is a blocking operation that must be executed on an
+     * I/O thread.
+     *
+     * @param channel  the file channel
+     * @param lPos     the file position of the region
+     * @param cbRegion the size of the region
+     *
+     * @return the mapped chunks of the region
+     */
+    public static MappedByteBuffer[] map(FileChannel channel, long lPos, long cbRegion)
+            throws IOException
+        {
+        int                cChunks = (int) ((cbRegion + CHUNK_MASK) >>> CHUNK_BITS);
+        MappedByteBuffer[] aBuffer = new MappedByteBuffer[cChunks];
+        for (int i = 0; i < cChunks; i++)
+            {
+            long of = (long) i << CHUNK_BITS;
+            aBuffer[i] = channel.map(MapMode.READ_ONLY, lPos + of,
+                                     Math.min(CHUNK_SIZE, cbRegion - of));
+            }
+        return aBuffer;
+        }
+
+    /**
+     * Create a handle for a region of a file mapped by {@link #map}. This must be called on a
+     * service thread.
+     *
+     * @param clz      the class composition (see {@link #ensureBufferClass()})
+     * @param aBuffer  the mapped chunks of the region
+     * @param cbRegion the size of the region
+     *
+     * @return the buffer handle
+     */
+    public static MappedBufferHandle makeHandle(ClassComposition clz, MappedByteBuffer[] aBuffer,
+                                                long cbRegion)
+        {
+        MappedBufferHandle hBuffer = new MappedBufferHandle(clz, aBuffer, cbRegion);
+        hBuffer.setField("position", xInt64.makeHandle(0));
+        hBuffer.setField("limit",    xInt64.makeHandle(cbRegion));
+        hBuffer.setField("mark",     xInt64.makeHandle(-1));
+        return hBuffer;
+        }
+
+    /**
+     * Obtain the class composition for the buffer handles. This must be called on a service
+     * thread, since it may need to use the current constant pool.
+     *
+     * @return the class composition for Buffer<Byte> handles
+     */
+    public static ClassComposition ensureBufferClass()
+        {
+        ClassComposition clz = s_clzBuffer;
+        if (clz == null)
+            {
+            ConstantPool pool = INSTANCE.pool();
+            s_clzBuffer = clz = INSTANCE.ensureClass(INSTANCE.getCanonicalType(),
+                    pool.ensureParameterizedTypeConstant(
+                        pool.ensureEcstasyTypeConstant("io.Buffer"), pool.typeByte()));
+            }
+        return clz;
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * A handle to a read-only buffer over a mapped file region.
+     */
+    public static class MappedBufferHandle
+            extends GenericHandle
+        {
+        protected MappedBufferHandle(ClassComposition clz, MappedByteBuffer[] aBuffer,
+                                     long cbRegion)
+            {
+            super(clz);
+
+            f_aBuffer  = aBuffer;
+            f_cbRegion = cbRegion;
+            }
+
+        @Override
+        public long getByteSize()
+            {
+            // the mapped region is not a part of the heap
+            return super.getByteSize() + BYTES_ARRAY + 4L * f_aBuffer.length;
+            }
+
+        protected final MappedByteBuffer[] f_aBuffer;
+        protected final long               f_cbRegion;
+        }
+
+    /**
+     * The size of a single mapping.
+     */
+    private static final int  CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static ClassComposition s_clzBuffer;
+    }
@@ -12,8 +12,11 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.ConstantPool;
@@ -28,9 +31,8 @@ import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.Utils;
 
 import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xIntArray;
 import org.xvm.runtime.template.xBoolean;
-import org.xvm.runtime.template.xException;
-import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xService;
 import org.xvm.runtime.template.xString;
 import org.xvm.runtime.template.xString.StringHandle;
@@ -38,8 +40,6 @@ import org.xvm.runtime.template.xString.StringHandle;
 import org.xvm.runtime.template._native.reflect.xRTFunction;
 import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 
-import org.xvm.runtime.template.numbers.xInt64;
-
 
 /**
  * Native OSStorage implementation.
@@ -55,7 +55,7 @@ public class xOSStorage
     @Override
     public void initDeclared()
         {
-        s_methodOnEvent = f_struct.findMethod("onEvent", null, null);
+        s_methodOnEvents = f_struct.findMethod("onEvents", null, null);
 
         markNativeProperty("homeDir");
         markNativeProperty("curDir");
@@ -121,30 +121,27 @@ public class xOSStorage
         {
         ServiceHandle hStorage = (ServiceHandle) hTarget;
 
-        if (frame.f_context != hStorage.f_context)
-            {
-            return xRTFunction.makeAsyncNativeHandle(method).
-                call1(frame, hTarget, new ObjectHandle[] {hArg}, iReturn);
-            }
-
+        // the file system operations don't touch the storage service state, so they are
+        // performed on the I/O executor directly on behalf of the calling fiber, without
+        // funneling all the calls through the storage service
         switch (method.getName())
             {
             case "names":
                 {
                 StringHandle hPathString = (StringHandle) hArg;
 
-                Path     path   = Paths.get(hPathString.getStringValue());
-                String[] asName = path.toFile().list();
-                int      cNames = asName == null ? 0 : asName.length;
-
-                StringHandle[] ahName = new StringHandle[cNames];
-                int i = 0;
-                for (String sName : asName)
+                Path path = Paths.get(hPathString.getStringValue());
+                return OSFileNode.invokeIO(frame, path, () -> path.toFile().list(), asName ->
                     {
-                    ahName[i++] = xString.makeHandle(sName);
-                    }
-
-                return frame.assignValue(iReturn, xArray.makeStringArrayHandle(ahName));
+                    int cNames = asName == null ? 0 : asName.length;
+
+                    StringHandle[] ahName = new StringHandle[cNames];
+                    for (int i = 0; i < cNames; i++)
+                        {
+                        ahName[i] = xString.makeHandle(asName[i]);
+                        }
+                    return xArray.makeStringArrayHandle(ahName);
+                    }, iReturn);
                 }
 
             case "createFile":  // (pathString)
@@ -152,20 +149,9 @@ public class xOSStorage
                 StringHandle hPathString = (StringHandle) hArg;
 
                 Path path = Paths.get(hPathString.getStringValue());
-                if (Files.exists(path) && !Files.isDirectory(path))
-                    {
-                    return frame.assignValue(iReturn, xBoolean.FALSE);
-                    }
-
-                try
-                    {
-                    return frame.assignValue(iReturn,
-                        xBoolean.makeHandle(path.toFile().createNewFile()));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, path.toString());
-                    }
+                return OSFileNode.invokeIO(frame, path, () ->
+                    !Files.isDirectory(path) && path.toFile().createNewFile(),
+                    xBoolean::makeHandle, iReturn);
                 }
 
             case "createDir":  // (pathString)
@@ -173,20 +159,8 @@ public class xOSStorage
                 StringHandle hPathString = (StringHandle) hArg;
 
                 Path path = Paths.get(hPathString.getStringValue());
-                if (Files.exists(path) && Files.isDirectory(path))
-                    {
-                    return frame.assignValue(iReturn, xBoolean.FALSE);
-                    }
-
-                try
-                    {
-                    return frame.assignValue(iReturn,
-                        xBoolean.makeHandle(path.toFile().createNewFile()));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, path.toString());
-                    }
+                return OSFileNode.invokeIO(frame, path, () ->
+                    path.toFile().mkdir(), xBoolean::makeHandle, iReturn);
                 }
 
             case "delete":  // (pathString)
@@ -194,15 +168,19 @@ public class xOSStorage
                 StringHandle hPathString = (StringHandle) hArg;
 
                 Path path = Paths.get(hPathString.getStringValue());
-                if (!Files.exists(path))
-                    {
-                    return frame.assignValue(iReturn, xBoolean.FALSE);
-                    }
-
-                return frame.assignValue(iReturn,
-                    xBoolean.makeHandle(path.toFile().delete()));
+                return OSFileNode.invokeIO(frame, path, () ->
+                    path.toFile().delete(), xBoolean::makeHandle, iReturn);
                 }
+            }
 
+        if (frame.f_context != hStorage.f_context)
+            {
+            return xRTFunction.makeAsyncNativeHandle(method).
+                call1(frame, hTarget, new ObjectHandle[] {hArg}, iReturn);
+            }
+
+        switch (method.getName())
+            {
             case "watch":  // (pathStringDir)
                 {
                 StringHandle hPathStringDir = (StringHandle) hArg;
@@ -215,7 +193,7 @@ public class xOSStorage
                     }
                 catch (IOException e)
                     {
-                    return raisePathException(frame, e, pathDir.toString());
+                    return OSFileNode.raisePathException(frame, e, pathDir);
                     }
                 }
             }
@@ -294,12 +272,6 @@ public class xOSStorage
         return daemonWatch;
         }
 
-    protected int raisePathException(Frame frame, IOException e, String sPath)
-        {
-        // TODO: how to get the natural Path efficiently from sPath?
-        return frame.raiseException(xException.pathException(frame, e.getMessage(), xNullable.NULL));
-        }
-
     protected static class WatchServiceDaemon
             extends Thread
         {
@@ -338,7 +310,12 @@ public class xOSStorage
                 ConstantPool.setCurrentPool(f_pool);
                 while (true)
                     {
-                    processKey(f_service.take());
+                    long cWait = getFlushDelay();
+
+                    processKey(cWait < 0
+                            ? f_service.take()
+                            : f_service.poll(cWait, TimeUnit.MILLISECONDS));
+                    flushEvents();
                     }
                 }
             catch (InterruptedException e)
@@ -347,6 +324,10 @@ public class xOSStorage
                 }
             }
 
+        /**
+         * Collect the events for the specified key into the pending batch of the corresponding
+         * WatchContext.
+         */
         protected void processKey(WatchKey key)
             {
             if (key == null)
@@ -354,32 +335,88 @@ public class xOSStorage
                 return;
                 }
 
+            WatchContext context = f_mapWatches.get(key);
             for (WatchEvent event : key.pollEvents())
                 {
-                int iKind = getKindId(event.kind());
-                if (iKind < 0)
+                if (context == null)
                     {
                     continue;
                     }
 
-                WatchContext context = f_mapWatches.get(key);
+                int iKind = getKindId(event.kind());
+                switch (iKind)
+                    {
+                    case -2:
+                        break;
 
-                Path pathDir      = context.pathDir;
-                Path pathRelative = (Path) event.context();
-                Path pathAbsolute = pathDir.resolve(pathRelative);
+                    case -1:
+                        context.markOverflow();
+                        break;
 
-                FunctionHandle hfnOnEvent =
-                        xRTFunction.makeHandle(s_methodOnEvent).bindTarget(context.hStorage);
+                    default:
+                        context.addEvent(context.pathDir.resolve((Path) event.context()), iKind);
+                        break;
+                    }
+                }
+            key.reset();
+            }
 
-                StringHandle hPathDir  = xString.makeHandle(pathDir.toString());
-                StringHandle hPathNode = xString.makeHandle(pathAbsolute.toString());
+        /**
+         * @return the number of milliseconds until the earliest pending batch is due, or -1 if
+         *         there are no pending batches
+         */
+        protected long getFlushDelay()
+            {
+            long ldtDue = Long.MAX_VALUE;
+            for (WatchContext context : f_mapWatches.values())
+                {
+                if (context.isPending())
+                    {
+                    ldtDue = Math.min(ldtDue, context.ldtDue);
+                    }
+                }
+            return ldtDue == Long.MAX_VALUE
+                    ? -1
+                    : Math.max(0, ldtDue - System.currentTimeMillis());
+            }
 
-                context.hStorage.f_context.callLater(hfnOnEvent, new ObjectHandle[]
+        /**
+         * Deliver all the batches whose debounce window has elapsed; each batch is sent to the
+         * storage service as a single "onEvents" call.
+         */
+        protected void flushEvents()
+            {
+            long ldtNow = System.currentTimeMillis();
+            for (WatchContext context : f_mapWatches.values())
+                {
+                if (context.isPending() && context.ldtDue <= ldtNow)
                     {
-                    hPathDir, hPathNode, xBoolean.TRUE, xInt64.makeHandle(iKind)
-                    });
+                    Map<Path, Integer> mapEvents = context.mapEvents;
+                    int                cEvents   = mapEvents.size();
+                    StringHandle[]     ahNode    = new StringHandle[cEvents];
+                    long[]             alKind    = new long[cEvents];
+                    int                i         = 0;
+                    for (Map.Entry<Path, Integer> entry : mapEvents.entrySet())
+                        {
+                        ahNode[i] = xString.makeHandle(entry.getKey().toString());
+                        alKind[i] = entry.getValue();
+                        i++;
+                        }
+
+                    FunctionHandle hfnOnEvents =
+                            xRTFunction.makeHandle(s_methodOnEvents).bindTarget(context.hStorage);
+
+                    context.hStorage.f_context.callLater(hfnOnEvents, new ObjectHandle[]
+                        {
+                        xString.makeHandle(context.pathDir.toString()),
+                        xArray.makeStringArrayHandle(ahNode),
+                        xIntArray.makeIntArrayHandle(alKind),
+                        xBoolean.makeHandle(context.fOverflow)
+                        });
+
+                    context.reset();
+                    }
                 }
-            key.reset();
             }
 
         /**
@@ -409,6 +446,10 @@ public class xOSStorage
 
         // ----- WatchContext class --------------------------------------------------------------
 
+        /**
+         * The WatchContext holds the events for a watched directory that are collected during
+         * the current debounce window; it's only accessed by the daemon thread.
+         */
         private static class WatchContext
             {
             public WatchContext(Path pathDir, ServiceHandle hStorage)
@@ -416,8 +457,58 @@ public class xOSStorage
                 this.pathDir  = pathDir;
                 this.hStorage = hStorage;
                 }
+
+            /**
+             * Add an event for the specified path; a later event for the same path replaces the
+             * kind of an earlier one.
+             */
+            public void addEvent(Path path, int iKind)
+                {
+                ensureDue();
+                mapEvents.put(path, iKind);
+                }
+
+            /**
+             * Record the fact that some events have been lost.
+             */
+            public void markOverflow()
+                {
+                ensureDue();
+                fOverflow = true;
+                }
+
+            /**
+             * @return true iff there is a batch to deliver
+             */
+            public boolean isPending()
+                {
+                return ldtDue != 0L;
+                }
+
+            /**
+             * Start a new debounce window.
+             */
+            public void reset()
+                {
+                mapEvents = new LinkedHashMap<>();
+                fOverflow = false;
+                ldtDue    = 0L;
+                }
+
+            private void ensureDue()
+                {
+                if (ldtDue == 0L)
+                    {
+                    ldtDue = System.currentTimeMillis() + DEBOUNCE_MILLIS;
+                    }
+                }
+
             public final Path          pathDir;
             public final ServiceHandle hStorage;
+
+            public Map<Path, Integer> mapEvents = new LinkedHashMap<>();
+            public boolean            fOverflow;
+            public long               ldtDue;
             }
 
         private final ConstantPool                f_pool;
@@ -427,7 +518,13 @@ public class xOSStorage
 
     // ----- constants -----------------------------------------------------------------------------
 
-    private static MethodStructure s_methodOnEvent;
+    /**
+     * The debounce window (in milliseconds) used to coalesce the file system events; configured
+     * by the "xvm.watch.debounce" system property.
+     */
+    private static final long DEBOUNCE_MILLIS = Long.getLong("xvm.watch.debounce", 100L);
+
+    private static MethodStructure s_methodOnEvents;
 
     private static WatchServiceDaemon s_daemonWatch;
     }
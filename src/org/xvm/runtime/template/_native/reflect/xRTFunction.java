@@ -1,8 +1,13 @@
 package org.xvm.runtime.template._native.reflect;
 
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import java.util.concurrent.CompletableFuture;
 
+import java.util.function.Consumer;
+
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
@@ -16,6 +21,7 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.ArrayHandle;
@@ -186,7 +192,7 @@ public class xRTFunction
                 int ixPrev = Integer.MAX_VALUE;
                 for (int i = 0, c = haOrdinals.m_cSize; i < c; i++)
                     {
-                    int     ix      = (int) haOrdinals.m_alValue[i];
+                    int     ix      = (int) haOrdinals.getValue(i);
                     boolean fAdjust = ix > ixPrev;
 
                     ixPrev = ix;
@@ -517,6 +523,12 @@ public class xRTFunction
             return m_hDelegate.isMutable();
             }
 
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            consumer.accept(m_hDelegate);
+            }
+
         @Override
         protected int call1Impl(Frame frame, ObjectHandle hTarget, ObjectHandle[] ahVar, int iReturn)
             {
@@ -649,6 +661,14 @@ public class xRTFunction
             return m_hArg.isMutable() || super.isMutable();
             }
 
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            super.forEachReferent(consumer);
+
+            consumer.accept(m_hArg);
+            }
+
         @Override
         protected int calculateShift(int iArg)
             {
@@ -774,6 +794,21 @@ public class xRTFunction
             return super.isMutable();
             }
 
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            super.forEachReferent(consumer);
+
+            if (f_ahArg != null)
+                {
+                for (ObjectHandle hArg : f_ahArg)
+                    {
+                    consumer.accept(hArg);
+                    }
+                }
+            consumer.accept(m_next);
+            }
+
         @Override
         protected void addBoundArguments(ObjectHandle[] ahVar)
             {
@@ -975,6 +1010,12 @@ public class xRTFunction
             f_ctx = ctx;
             }
 
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            // the proxied function belongs to (and is charged to) the origin service
+            }
+
         // ----- FunctionHandle interface ----------------------------------------------------------
 
         @Override
@@ -1070,12 +1111,15 @@ public class xRTFunction
     // ----- helpers -------------------------------------------------------------------------------
 
     /**
-     * @return true iff all the arguments are immutable
+     * Replace all mutable arguments with proxies or immutable copies.
+     *
+     * @return true iff all the arguments could be sent across the service boundary
      */
     private static boolean validateImmutable(ServiceContext ctx, MethodStructure method,
                                              ObjectHandle[] ahArg)
         {
         // Note: this logic could be moved to ServiceContext.sendInvokeXXX()
+        Map<ObjectHandle, ObjectHandle> mapCopies = null;
         for (int i = 0, c = ahArg.length; i < c; i++)
             {
             ObjectHandle hArg = ahArg[i];
@@ -1087,12 +1131,21 @@ public class xRTFunction
 
             if (hArg.isMutable() && !hArg.isService())
                 {
-                hArg = hArg.getTemplate().createProxyHandle(ctx, hArg, method.getParamTypes()[i]);
-                if (hArg == null)
+                ObjectHandle hProxy = hArg.getTemplate().createProxyHandle(ctx, hArg, method.getParamTypes()[i]);
+                if (hProxy == null)
                     {
-                    return false;
+                    if (mapCopies == null)
+                        {
+                        // the copies are shared by all the arguments to preserve the aliasing
+                        mapCopies = new IdentityHashMap<>();
+                        }
+                    hProxy = ClassTemplate.copyForSend(hArg, mapCopies);
+                    if (hProxy == null)
+                        {
+                        return false;
+                        }
                     }
-                ahArg[i] = hArg;
+                ahArg[i] = hProxy;
                 }
             }
         return true;
@@ -2,6 +2,9 @@ package org.xvm.runtime.template._native.reflect;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.xvm.asm.ClassStructure;
@@ -370,6 +373,68 @@ public class xRTType
             {
             return getType().getParamType(1);
             }
+
+        /**
+         * @return the reflection cache for the current TypeInfo of the data type
+         */
+        public ReflectionCache ensureReflectionCache()
+            {
+            TypeInfo        info  = getDataType().ensureTypeInfo();
+            ReflectionCache cache = m_cache;
+            if (cache == null || cache.f_info != info)
+                {
+                // the TypeInfo has been (re)built; anything computed earlier is stale
+                m_cache = cache = new ReflectionCache(info);
+                }
+            return cache;
+            }
+
+        /**
+         * The reflection results for this type.
+         */
+        private volatile ReflectionCache m_cache;
+        }
+
+    /**
+     * The reflection results (the immutable arrays of constructors, functions, methods and
+     * properties) for a type, computed once per {@link TypeInfo}.
+     */
+    public static class ReflectionCache
+        {
+        protected ReflectionCache(TypeInfo info)
+            {
+            f_info = info;
+            }
+
+        /**
+         * @return the PropertyHandle for the specified property name or null
+         */
+        public PropertyHandle getPropertyHandle(String sName)
+            {
+            return m_mapProperties.get(sName);
+            }
+
+        /**
+         * @return the MethodHandles for the specified method name (an empty list if none)
+         */
+        public List<MethodHandle> getMethodHandles(String sName)
+            {
+            return m_mapMethods.getOrDefault(sName, Collections.emptyList());
+            }
+
+        /**
+         * The TypeInfo the cached results were computed from.
+         */
+        protected final TypeInfo f_info;
+
+        protected volatile ArrayHandle m_haConstructors;
+        protected volatile ArrayHandle m_haFunctions;
+        protected volatile ArrayHandle m_haMethods;
+        protected volatile ArrayHandle m_haProperties;
+
+        // the name indexes; assigned before the corresponding arrays
+        protected volatile Map<String, List<MethodHandle>> m_mapMethods;
+        protected volatile Map<String, PropertyHandle>     m_mapProperties;
         }
 
 
@@ -449,8 +514,15 @@ public class xRTType
         //         container from its parent container, or loaded in a container that is nested
         //         within this container)
         // TODO verify that pure type is not newable
+        ReflectionCache cache  = hType.ensureReflectionCache();
+        ArrayHandle     hArray = cache.m_haConstructors;
+        if (hArray != null)
+            {
+            return frame.assignValue(iReturn, hArray);
+            }
+
         TypeConstant typeTarget = hType.getDataType();
-        TypeInfo     infoTarget = typeTarget.ensureTypeInfo();
+        TypeInfo     infoTarget = cache.f_info;
 
         // each of the generated constructor functions (not the "construct" functions) for a virtual
         // child will require a parent reference to be passed as the first argument
@@ -551,7 +623,7 @@ public class xRTType
             ahFunctions = new FunctionHandle[0];
             }
 
-        ArrayHandle hArray = ensureFunctionArrayTemplate().createArrayHandle(
+        cache.m_haConstructors = hArray = ensureFunctionArrayTemplate().createArrayHandle(
                 ensureConstructorArray(typeTarget, typeParent), ahFunctions);
         return frame.assignValue(iReturn, hArray);
         }
@@ -690,8 +762,14 @@ public class xRTType
      */
     public int getPropertyFunctions(Frame frame, TypeHandle hType, int iReturn)
         {
-        TypeConstant                    typeTarget  = hType.getDataType();
-        Map<MethodConstant, MethodInfo> mapMethods  = typeTarget.ensureTypeInfo().getMethods();
+        ReflectionCache cache  = hType.ensureReflectionCache();
+        ArrayHandle     hArray = cache.m_haFunctions;
+        if (hArray != null)
+            {
+            return frame.assignValue(iReturn, hArray);
+            }
+
+        Map<MethodConstant, MethodInfo> mapMethods  = cache.f_info.getMethods();
         ArrayList<FunctionHandle>       listHandles = new ArrayList<>(mapMethods.size());
         for (Map.Entry<MethodConstant, MethodInfo> entry : mapMethods.entrySet())
             {
@@ -703,7 +781,7 @@ public class xRTType
                 }
             }
         FunctionHandle[] ahFunctions = listHandles.toArray(new FunctionHandle[0]);
-        ArrayHandle      hArray      = ensureFunctionArrayTemplate().createArrayHandle(
+        cache.m_haFunctions = hArray = ensureFunctionArrayTemplate().createArrayHandle(
                 ensureFunctionArray(), ahFunctions);
         return frame.assignValue(iReturn, hArray);
         }
@@ -713,49 +791,89 @@ public class xRTType
      */
     public int getPropertyMethods(Frame frame, TypeHandle hType, int iReturn)
         {
-        TypeConstant                    typeTarget  = hType.getDataType();
-        Map<MethodConstant, MethodInfo> mapMethods  = typeTarget.ensureTypeInfo().getMethods();
-        ArrayList<MethodHandle>         listHandles = new ArrayList<>(mapMethods.size());
-        for (Map.Entry<MethodConstant, MethodInfo> entry : mapMethods.entrySet())
+        return frame.assignValue(iReturn, ensureMethodHandles(hType).m_haMethods);
+        }
+
+    /**
+     * Implements property: properties.get()
+     */
+    public int getPropertyProperties(Frame frame, TypeHandle hType, int iReturn)
+        {
+        return frame.assignValue(iReturn, ensurePropertyHandles(hType).m_haProperties);
+        }
+
+    /**
+     * Obtain the reflection cache for the specified type with the method handles computed.
+     *
+     * @param hType  the type handle
+     *
+     * @return the ReflectionCache holding the array of methods and the methods indexed by name
+     */
+    public ReflectionCache ensureMethodHandles(TypeHandle hType)
+        {
+        ReflectionCache cache = hType.ensureReflectionCache();
+        if (cache.m_haMethods == null)
             {
-            MethodConstant idMethod = entry.getKey();
-            MethodInfo     info     = entry.getValue();
-            if (!info.isFunction() && !info.isConstructor() && idMethod.getNestedDepth() == 2)
+            TypeConstant                    typeTarget  = hType.getDataType();
+            Map<MethodConstant, MethodInfo> mapMethods  = cache.f_info.getMethods();
+            ArrayList<MethodHandle>         listHandles = new ArrayList<>(mapMethods.size());
+            Map<String, List<MethodHandle>> mapByName   = new HashMap<>();
+            for (Map.Entry<MethodConstant, MethodInfo> entry : mapMethods.entrySet())
                 {
-                listHandles.add(xRTMethod.makeHandle(typeTarget, idMethod));
+                MethodConstant idMethod = entry.getKey();
+                MethodInfo     info     = entry.getValue();
+                if (!info.isFunction() && !info.isConstructor() && idMethod.getNestedDepth() == 2)
+                    {
+                    MethodHandle hMethod = xRTMethod.makeHandle(typeTarget, idMethod);
+                    listHandles.add(hMethod);
+                    mapByName.computeIfAbsent(idMethod.getName(), s -> new ArrayList<>()).add(hMethod);
+                    }
                 }
+            MethodHandle[] ahMethods = listHandles.toArray(new MethodHandle[0]);
+
+            cache.m_mapMethods = mapByName;
+            cache.m_haMethods  = ensureMethodArrayTemplate().createArrayHandle(
+                    ensureMethodArray(typeTarget), ahMethods);
             }
-        MethodHandle[] ahMethods = listHandles.toArray(new MethodHandle[0]);
-        ArrayHandle    hArray    = ensureMethodArrayTemplate().createArrayHandle(
-                ensureMethodArray(typeTarget), ahMethods);
-        return frame.assignValue(iReturn, hArray);
+        return cache;
         }
 
     /**
-     * Implements property: properties.get()
+     * Obtain the reflection cache for the specified type with the property handles computed.
+     *
+     * @param hType  the type handle
+     *
+     * @return the ReflectionCache holding the array of properties and the properties indexed by
+     *         name
      */
-    public int getPropertyProperties(Frame frame, TypeHandle hType, int iReturn)
+    public ReflectionCache ensurePropertyHandles(TypeHandle hType)
         {
-        TypeConstant                        typeTarget = hType.getDataType();
-        TypeInfo                            infoTarget = typeTarget.ensureTypeInfo();
-        Map<PropertyConstant, PropertyInfo> mapProps   = infoTarget.getProperties();
-        ArrayList<ObjectHandle>             listProps  = new ArrayList<>(mapProps.size());
-        ConstantPool                        pool       = frame.poolContext();
-        for (Map.Entry<PropertyConstant, PropertyInfo> entry : mapProps.entrySet())
+        ReflectionCache cache = hType.ensureReflectionCache();
+        if (cache.m_haProperties == null)
             {
-            PropertyConstant idProp   = entry.getKey();
-            PropertyInfo     infoProp = entry.getValue();
-            if (!infoProp.isConstant() && idProp.getNestedDepth() == 1)
+            TypeConstant                        typeTarget = hType.getDataType();
+            Map<PropertyConstant, PropertyInfo> mapProps   = cache.f_info.getProperties();
+            ArrayList<ObjectHandle>             listProps  = new ArrayList<>(mapProps.size());
+            Map<String, PropertyHandle>         mapByName  = new HashMap<>();
+            for (Map.Entry<PropertyConstant, PropertyInfo> entry : mapProps.entrySet())
                 {
-                TypeConstant  typeProperty = entry.getKey().getValueType(typeTarget);
-                PropertyHandle hProperty   = xRTProperty.INSTANCE.makeHandle(typeProperty);
+                PropertyConstant idProp   = entry.getKey();
+                PropertyInfo     infoProp = entry.getValue();
+                if (!infoProp.isConstant() && idProp.getNestedDepth() == 1)
+                    {
+                    TypeConstant   typeProperty = idProp.getValueType(typeTarget);
+                    PropertyHandle hProperty    = xRTProperty.INSTANCE.makeHandle(typeProperty);
 
-                listProps.add(hProperty);
+                    listProps.add(hProperty);
+                    mapByName.put(idProp.getName(), hProperty);
+                    }
                 }
+
+            cache.m_mapProperties = mapByName;
+            cache.m_haProperties  = ensurePropertyArrayTemplate().createArrayHandle(
+                    ensurePropertyArray(typeTarget), listProps.toArray(new ObjectHandle[0]));
             }
-        ArrayHandle hArray = ensurePropertyArrayTemplate().createArrayHandle(
-                ensurePropertyArray(typeTarget), listProps.toArray(new ObjectHandle[0]));
-        return frame.assignValue(iReturn, hArray);
+        return cache;
         }
 
     /**
@@ -0,0 +1,1146 @@
+package org.xvm.runtime.template._native.web.json;
+
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xBoolean.BooleanHandle;
+import org.xvm.runtime.template.xConst;
+import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xNullable;
+import org.xvm.runtime.template.xString;
+import org.xvm.runtime.template.xString.StringHandle;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xArray.GenericArrayHandle;
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
+
+import org.xvm.runtime.template.numbers.xFPLiteral;
+import org.xvm.runtime.template.numbers.xFPLiteral.VarFPHandle;
+import org.xvm.runtime.template.numbers.xIntLiteral;
+import org.xvm.runtime.template.numbers.xIntLiteral.VarIntHandle;
+
+import org.xvm.util.PackedInteger;
+
+
+/**
+ * Native RTDocCodec implementation: a JSON parser that produces the Doc values directly from the
+ * document text, and a JSON printer that renders a Doc into a Java StringBuilder.
+ * <p/>
+ * Both are exact equivalents of the natural web.json.Parser and web.json.Printer; any change to
+ * the format produced by the Printer must be mirrored here.
+ */
+public class xRTDocCodec
+        extends xConst
+    {
+    public static xRTDocCodec INSTANCE;
+
+    public xRTDocCodec(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        s_structListMap  = f_templates.getClassStructure("collections.ListMap");
+        s_clzIllegalJSON = f_templates.getTemplate("web.json.IllegalJSON").getCanonicalClass();
+
+        markNativeMethod("parse" , new String[] {"String", "Boolean"}, null);
+        markNativeMethod("parse" , new String[] {"collections.Array<numbers.UInt8>", "Boolean"}, null);
+        markNativeMethod("render", null, null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        switch (method.getName())
+            {
+            case "parse":  // (text | bytes, collateDups)
+                {
+                ObjectHandle hText = ahArg[0];
+                boolean      fDups = isTrue(ahArg[1]);
+                char[]       ach;
+
+                if (hText instanceof StringHandle)
+                    {
+                    ach = ((StringHandle) hText).getValue();
+                    }
+                else
+                    {
+                    ByteArrayHandle hBytes = (ByteArrayHandle) hText;
+                    ach = new String(hBytes.m_abValue, hBytes.m_ofStart, hBytes.m_cSize,
+                                     StandardCharsets.UTF_8).toCharArray();
+                    }
+
+                ensureDocClasses();
+
+                return parse(frame, ach, fDups, iReturn);
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        switch (method.getName())
+            {
+            case "render":  // (doc, showNulls, pretty)
+                {
+                ObjectHandle  hDoc       = ahArg[0];
+                boolean       fShowNulls = isTrue(ahArg[1]);
+                boolean       fPretty    = isTrue(ahArg[2]);
+                StringBuilder sb         = new StringBuilder();
+
+                return print(hDoc, sb, 0, true, fShowNulls, fPretty)
+                        ? frame.assignValues(aiReturn, xBoolean.TRUE, xString.makeHandle(sb.toString()))
+                        : frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                }
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
+
+    /**
+     * @return true iff the specified Boolean argument is True; all the Boolean parameters of the
+     *         codec default to False
+     */
+    private static boolean isTrue(ObjectHandle hArg)
+        {
+        return hArg != ObjectHandle.DEFAULT && ((BooleanHandle) hArg).get();
+        }
+
+
+    // ----- parsing -------------------------------------------------------------------------------
+
+    /**
+     * Resolve the class compositions for the Doc values produced by the parser. This must be
+     * called on a service thread, since it may need to use the current constant pool.
+     */
+    private void ensureDocClasses()
+        {
+        if (s_clzListMap == null)
+            {
+            ConstantPool pool    = pool();
+            TypeConstant typeDoc = f_struct.findMethod("render", 3).getParam(0).getType().
+                                        resolveTypedefs();
+
+            s_clzDocArray    = f_templates.resolveClass(
+                    pool.ensureParameterizedTypeConstant(pool.typeArray(), typeDoc));
+            s_clzStringArray = f_templates.resolveClass(
+                    pool.ensureParameterizedTypeConstant(pool.typeArray(), pool.typeString()));
+            s_clzListMap     = f_templates.resolveClass(
+                    pool.ensureParameterizedTypeConstant(s_structListMap.getIdentityConstant().getType(),
+                        pool.typeString(), typeDoc));
+            s_ctorListMap    = s_structListMap.findMethod("construct", 3);
+            }
+        }
+
+    /**
+     * Parse the specified JSON document text and assign the resulting Doc.
+     */
+    private int parse(Frame frame, char[] ach, boolean fDups, int iReturn)
+        {
+        DocParser      parser = new DocParser(ach, fDups);
+        ObjectHandle[] ahDoc  = new ObjectHandle[1];
+        try
+            {
+            parser.place(parser.parseDoc(), ahDoc, 0);
+            parser.skipWhitespace();
+            if (parser.m_of < ach.length)
+                {
+                throw parser.unexpected();
+                }
+            }
+        catch (IllegalJSON e)
+            {
+            return frame.raiseException(
+                    xException.makeHandle(frame, s_clzIllegalJSON, e.getMessage()));
+            }
+
+        List<PendingObject> listPending = parser.m_listPending;
+        if (listPending.isEmpty())
+            {
+            return frame.assignValue(iReturn, ahDoc[0]);
+            }
+
+        ObjectHandle hMutable = Utils.ensureInitializedEnum(frame,
+                xArray.MUTABILITY.getEnumByOrdinal(Mutability.Mutable.ordinal()));
+        if (Op.isDeferred(hMutable))
+            {
+            ObjectHandle[] ahMutable = new ObjectHandle[] {hMutable};
+            return new Utils.GetArguments(ahMutable, frameCaller ->
+                new ObjectBuilder(listPending, ahMutable[0], ahDoc, iReturn).doNext(frameCaller))
+                    .doNext(frame);
+            }
+        return new ObjectBuilder(listPending, hMutable, ahDoc, iReturn).doNext(frame);
+        }
+
+    /**
+     * A JSON object that has been parsed, but for which the ListMap has not yet been created.
+     */
+    private static class PendingObject
+        {
+        PendingObject(ObjectHandle hKeys, ObjectHandle hVals)
+            {
+            f_hKeys = hKeys;
+            f_hVals = hVals;
+            }
+
+        /**
+         * The keys and the values of the JSON object (String[] and Doc[] handles).
+         */
+        final ObjectHandle f_hKeys;
+        final ObjectHandle f_hVals;
+
+        /**
+         * The location to store the ListMap handle into, once it is created.
+         */
+        ObjectHandle[] m_ahOwner;
+        int            m_iOwner;
+        }
+
+    /**
+     * Creates the ListMap objects for all pending JSON objects using the natural
+     * "ListMap(Mutability, Key[], Value[])" constructor, which takes ownership of the already parsed
+     * keys and values.
+     */
+    private static class ObjectBuilder
+            implements Frame.Continuation
+        {
+        ObjectBuilder(List<PendingObject> listPending, ObjectHandle hMutable, ObjectHandle[] ahDoc,
+                      int iReturn)
+            {
+            f_listPending = listPending;
+            f_hMutable    = hMutable;
+            f_ahDoc       = ahDoc;
+            f_iReturn     = iReturn;
+            }
+
+        int doNext(Frame frameCaller)
+            {
+            ClassComposition clzMap = s_clzListMap;
+            MethodStructure  ctor   = s_ctorListMap;
+
+            while (++m_index < f_listPending.size())
+                {
+                PendingObject  pending = f_listPending.get(m_index);
+                ObjectHandle[] ahVar   = new ObjectHandle[ctor.getMaxVars()];
+                ahVar[0] = f_hMutable;
+                ahVar[1] = pending.f_hKeys;
+                ahVar[2] = pending.f_hVals;
+
+                switch (clzMap.getTemplate().construct(frameCaller, ctor, clzMap, null, ahVar, Op.A_STACK))
+                    {
+                    case Op.R_NEXT:
+                        complete(frameCaller.popStack());
+                        break;
+
+                    case Op.R_CALL:
+                        frameCaller.m_frameNext.addContinuation(this);
+                        return Op.R_CALL;
+
+                    case Op.R_EXCEPTION:
+                        return Op.R_EXCEPTION;
+
+                    default:
+                        throw new IllegalStateException();
+                    }
+                }
+
+            return frameCaller.assignValue(f_iReturn, f_ahDoc[0]);
+            }
+
+        @Override
+        public int proceed(Frame frameCaller)
+            {
+            complete(frameCaller.popStack());
+            return doNext(frameCaller);
+            }
+
+        private void complete(ObjectHandle hMap)
+            {
+            PendingObject pending = f_listPending.get(m_index);
+
+            pending.m_ahOwner[pending.m_iOwner] = hMap;
+            }
+
+        private final List<PendingObject> f_listPending;
+        private final ObjectHandle        f_hMutable;
+        private final ObjectHandle[]      f_ahDoc;
+        private final int                 f_iReturn;
+
+        private int m_index = -1;
+        }
+
+    /**
+     * A recursive descent JSON parser that creates the Doc handles as it goes.
+     */
+    private static class DocParser
+        {
+        DocParser(char[] ach, boolean fDups)
+            {
+            f_ach   = ach;
+            f_fDups = fDups;
+            }
+
+        /**
+         * @return an ObjectHandle for a JSON value, or a PendingObject for a JSON object
+         */
+        Object parseDoc()
+                throws IllegalJSON
+            {
+            skipWhitespace();
+            if (m_of >= f_ach.length)
+                {
+                throw new IllegalJSON("unexpected end of JSON document");
+                }
+
+            switch (f_ach[m_of])
+                {
+                case '{':
+                    {
+                    ++m_of;
+                    enterNested();
+                    PendingObject pending = parseObject();
+                    --m_cDepth;
+                    return pending;
+                    }
+
+                case '[':
+                    {
+                    ++m_of;
+                    enterNested();
+                    ObjectHandle hArray = parseArray();
+                    --m_cDepth;
+                    return hArray;
+                    }
+
+                case '"':
+                    ++m_of;
+                    return xString.makeHandle(parseString());
+
+                case 'n':
+                    require("null");
+                    return xNullable.NULL;
+
+                case 't':
+                    require("true");
+                    return xBoolean.TRUE;
+
+                case 'f':
+                    require("false");
+                    return xBoolean.FALSE;
+
+                case '-': case '0': case '1': case '2': case '3': case '4':
+                case '5': case '6': case '7': case '8': case '9':
+                    return parseNumber();
+
+                default:
+                    throw unexpected();
+                }
+            }
+
+        /**
+         * Account for entering a JSON object or array. The parser is recursive, so the nesting
+         * depth is limited to keep a malicious document from exhausting the thread stack.
+         */
+        void enterNested()
+                throws IllegalJSON
+            {
+            if (++m_cDepth > MAX_DEPTH)
+                {
+                throw new IllegalJSON("JSON document nesting exceeds " + MAX_DEPTH + " levels");
+                }
+            }
+
+        /**
+         * Parse a JSON object; the opening brace has already been eaten.
+         *
+         * @return a PendingObject for a mutable ListMap<String, Doc>
+         */
+        PendingObject parseObject()
+                throws IllegalJSON
+            {
+            List<ObjectHandle>   listKeys = new ArrayList<>();
+            List<Object>         listVals = new ArrayList<>();
+            Map<String, Integer> mapIndex = null;
+            Map<Integer, List<Object>> mapDups = null;
+
+            if (!match('}'))
+                {
+                do
+                    {
+                    skipWhitespace();
+                    expect('"');
+                    char[] achName = parseString();
+                    expect(':');
+                    Object oValue = parseDoc();
+
+                    if (mapIndex == null)
+                        {
+                        mapIndex = new HashMap<>();
+                        }
+
+                    String  sName = new String(achName);
+                    Integer index = mapIndex.putIfAbsent(sName, listKeys.size());
+                    if (index == null)
+                        {
+                        listKeys.add(xString.makeHandle(achName));
+                        listVals.add(oValue);
+                        }
+                    else if (f_fDups)
+                        {
+                        // store the values that share the name in an array
+                        if (mapDups == null)
+                            {
+                            mapDups = new HashMap<>();
+                            }
+                        List<Object> listDups = mapDups.get(index);
+                        if (listDups == null)
+                            {
+                            listDups = new ArrayList<>();
+                            listDups.add(listVals.get(index));
+                            mapDups.put(index, listDups);
+                            }
+                        listDups.add(oValue);
+                        }
+                    else
+                        {
+                        // retain the last value, but at the position of the first one
+                        listVals.set(index, oValue);
+                        }
+                    }
+                while (match(','));
+                expect('}');
+                }
+
+            if (mapDups != null)
+                {
+                for (Map.Entry<Integer, List<Object>> entry : mapDups.entrySet())
+                    {
+                    listVals.set(entry.getKey(), makeArray(entry.getValue()));
+                    }
+                }
+
+            int           cEntries = listKeys.size();
+            PendingObject pending  = new PendingObject(
+                    new GenericArrayHandle(s_clzStringArray,
+                        listKeys.toArray(new ObjectHandle[cEntries]), Mutability.Mutable),
+                    makeArray(listVals));
+            m_listPending.add(pending);
+            return pending;
+            }
+
+        /**
+         * Parse a JSON array; the opening bracket has already been eaten.
+         *
+         * @return a mutable Doc[] handle
+         */
+        ObjectHandle parseArray()
+                throws IllegalJSON
+            {
+            List<Object> listVals = new ArrayList<>();
+            if (!match(']'))
+                {
+                do
+                    {
+                    listVals.add(parseDoc());
+                    }
+                while (match(','));
+                expect(']');
+                }
+            return makeArray(listVals);
+            }
+
+        /**
+         * Parse a JSON string; the opening quote has already been eaten.
+         *
+         * @return the characters of the string
+         */
+        char[] parseString()
+                throws IllegalJSON
+            {
+            char[]        ach     = f_ach;
+            int           cch     = ach.length;
+            int           ofStart = m_of;
+            StringBuilder sb      = null;
+
+            for (int of = ofStart; of < cch; )
+                {
+                char ch = ach[of++];
+                switch (ch)
+                    {
+                    case '"':
+                        m_of = of;
+                        if (sb == null)
+                            {
+                            char[] achValue = new char[of - 1 - ofStart];
+                            System.arraycopy(ach, ofStart, achValue, 0, achValue.length);
+                            return achValue;
+                            }
+                        char[] achValue = new char[sb.length()];
+                        sb.getChars(0, achValue.length, achValue, 0);
+                        return achValue;
+
+                    case '\\':
+                        if (sb == null)
+                            {
+                            sb = new StringBuilder(of - ofStart + 16);
+                            sb.append(ach, ofStart, of - 1 - ofStart);
+                            }
+
+                        if (of >= cch)
+                            {
+                            break;
+                            }
+
+                        switch (ch = ach[of++])
+                            {
+                            case '"':
+                            case '\\':
+                            case '/':
+                                sb.append(ch);
+                                break;
+
+                            case 'b':
+                                sb.append('\b');
+                                break;
+
+                            case 'f':
+                                sb.append('\f');
+                                break;
+
+                            case 'n':
+                                sb.append('\n');
+                                break;
+
+                            case 'r':
+                                sb.append('\r');
+                                break;
+
+                            case 't':
+                                sb.append('\t');
+                                break;
+
+                            case 'u':
+                                {
+                                int nChar = 0;
+                                for (int i = 0; i < 4; ++i)
+                                    {
+                                    int nDigit = of < cch ? Character.digit(ach[of++], 16) : -1;
+                                    if (nDigit < 0)
+                                        {
+                                        m_of = of - 1;
+                                        throw new IllegalJSON("invalid unicode escape");
+                                        }
+                                    nChar = nChar << 4 | nDigit;
+                                    }
+                                // surrogate pairs are simply two consecutive escapes
+                                sb.append((char) nChar);
+                                break;
+                                }
+
+                            default:
+                                m_of = of - 1;
+                                throw new IllegalJSON("invalid escape '\\" + ch + "'");
+                            }
+                        break;
+
+                    default:
+                        if (sb != null)
+                            {
+                            sb.append(ch);
+                            }
+                        break;
+                    }
+                }
+
+            m_of = cch;
+            throw new IllegalJSON("unterminated string");
+            }
+
+        /**
+         * Parse a JSON number.
+         *
+         * @return an IntLiteral or an FPLiteral handle
+         */
+        ObjectHandle parseNumber()
+                throws IllegalJSON
+            {
+            char[]  ach     = f_ach;
+            int     ofStart = m_of;
+            boolean fFP     = false;
+
+            if (peek() == '-')
+                {
+                ++m_of;
+                }
+
+            int ch = peek();
+            if (ch == '0')
+                {
+                ++m_of;
+                }
+            else if (ch >= '1' && ch <= '9')
+                {
+                eatDigits();
+                }
+            else
+                {
+                throw expected("digit");
+                }
+
+            if (peek() == '.')
+                {
+                fFP = true;
+                ++m_of;
+                if (!eatDigits())
+                    {
+                    throw expected("digit");
+                    }
+                }
+
+            ch = peek();
+            if (ch == 'e' || ch == 'E')
+                {
+                fFP = true;
+                ++m_of;
+
+                ch = peek();
+                if (ch == '+' || ch == '-')
+                    {
+                    ++m_of;
+                    }
+                if (!eatDigits())
+                    {
+                    throw expected("digit");
+                    }
+                }
+
+            String       sLit  = new String(ach, ofStart, m_of - ofStart);
+            StringHandle hText = xString.makeHandle(sLit);
+            if (fFP)
+                {
+                return xFPLiteral.INSTANCE.makeFPLiteral(new BigDecimal(sLit), hText);
+                }
+
+            PackedInteger pi = sLit.length() <= 18
+                    ? new PackedInteger(Long.parseLong(sLit))
+                    : new PackedInteger(new BigInteger(sLit));
+            return xIntLiteral.INSTANCE.makeIntLiteral(pi, hText);
+            }
+
+        /**
+         * Eat a sequence of decimal digits.
+         *
+         * @return true iff at least one digit was eaten
+         */
+        boolean eatDigits()
+            {
+            int ofStart = m_of;
+            int ch;
+            while ((ch = peek()) >= '0' && ch <= '9')
+                {
+                ++m_of;
+                }
+            return m_of > ofStart;
+            }
+
+        /**
+         * @return the next character or -1 at the end of the text
+         */
+        int peek()
+            {
+            return m_of < f_ach.length ? f_ach[m_of] : -1;
+            }
+
+        /**
+         * Skip over any JSON white space.
+         */
+        void skipWhitespace()
+            {
+            char[] ach = f_ach;
+            int    cch = ach.length;
+            int    of  = m_of;
+            while (of < cch)
+                {
+                switch (ach[of])
+                    {
+                    case ' ':
+                    case '\r':
+                    case '\n':
+                    case '\t':
+                        ++of;
+                        break;
+
+                    default:
+                        m_of = of;
+                        return;
+                    }
+                }
+            m_of = of;
+            }
+
+        /**
+         * Skip white space and take the next character if it matches the specified one.
+         */
+        boolean match(char ch)
+            {
+            skipWhitespace();
+            if (peek() == ch)
+                {
+                ++m_of;
+                return true;
+                }
+            return false;
+            }
+
+        void expect(char ch)
+                throws IllegalJSON
+            {
+            if (!match(ch))
+                {
+                throw expected("'" + ch + "'");
+                }
+            }
+
+        void require(String s)
+                throws IllegalJSON
+            {
+            for (int i = 0, c = s.length(); i < c; i++)
+                {
+                if (peek() != s.charAt(i))
+                    {
+                    throw expected("'" + s + "'");
+                    }
+                ++m_of;
+                }
+            }
+
+        IllegalJSON expected(String sWhat)
+            {
+            return m_of < f_ach.length
+                    ? new IllegalJSON(sWhat + " expected; found '" + f_ach[m_of] + "'")
+                    : new IllegalJSON(sWhat + " expected; found end of JSON document");
+            }
+
+        IllegalJSON unexpected()
+            {
+            return m_of < f_ach.length
+                    ? new IllegalJSON("unexpected '" + f_ach[m_of] + "'")
+                    : new IllegalJSON("unexpected end of JSON document");
+            }
+
+        /**
+         * @return a mutable Doc[] handle for the specified values
+         */
+        ObjectHandle makeArray(List<Object> listVals)
+            {
+            ObjectHandle[] ahVal = new ObjectHandle[listVals.size()];
+            for (int i = 0, c = ahVal.length; i < c; i++)
+                {
+                place(listVals.get(i), ahVal, i);
+                }
+            return new GenericArrayHandle(s_clzDocArray, ahVal, Mutability.Mutable);
+            }
+
+        /**
+         * Store the specified value into the array; a pending JSON object is stored into the array
+         * once its ListMap has been created.
+         */
+        void place(Object oValue, ObjectHandle[] ahValue, int index)
+            {
+            if (oValue instanceof PendingObject)
+                {
+                PendingObject pending = (PendingObject) oValue;
+                pending.m_ahOwner = ahValue;
+                pending.m_iOwner  = index;
+                }
+            else
+                {
+                ahValue[index] = (ObjectHandle) oValue;
+                }
+            }
+
+        private final char[]  f_ach;
+        private final boolean f_fDups;
+
+        /**
+         * The JSON objects that have been parsed so far.
+         */
+        private final List<PendingObject> m_listPending = new ArrayList<>();
+
+        /**
+         * The current parsing offset.
+         */
+        private int m_of;
+
+        /**
+         * The number of JSON objects and arrays that enclose the current parsing offset.
+         */
+        private int m_cDepth;
+
+        /**
+         * The maximum nesting depth of JSON objects and arrays.
+         */
+        private static final int MAX_DEPTH = 1000;
+        }
+
+    /**
+     * Indicates a malformed JSON document.
+     */
+    private static class IllegalJSON
+            extends Exception
+        {
+        IllegalJSON(String sMsg)
+            {
+            super(sMsg, null, false, false);
+            }
+
+        private static final long serialVersionUID = 1L;
+        }
+
+
+    // ----- printing ------------------------------------------------------------------------------
+
+    /**
+     * Print the specified Doc; this mirrors Printer.printInternal().
+     *
+     * @return false iff the doc contains a value that cannot be rendered natively
+     */
+    private static boolean print(ObjectHandle hDoc, StringBuilder sb, int cIndent,
+                                 boolean fIndented, boolean fShowNulls, boolean fPretty)
+        {
+        if (hDoc == xNullable.NULL)
+            {
+            sb.append("null");
+            }
+        else if (hDoc instanceof BooleanHandle)
+            {
+            sb.append(((BooleanHandle) hDoc).get() ? "true" : "false");
+            }
+        else if (hDoc instanceof StringHandle)
+            {
+            printString(((StringHandle) hDoc).getValue(), sb);
+            }
+        else if (hDoc instanceof VarIntHandle && hDoc.getTemplate() == xIntLiteral.INSTANCE)
+            {
+            sb.append(((VarIntHandle) hDoc).getText().getValue());
+            }
+        else if (hDoc instanceof VarFPHandle && hDoc.getTemplate() == xFPLiteral.INSTANCE)
+            {
+            sb.append(((VarFPHandle) hDoc).getText().getValue());
+            }
+        else if (hDoc instanceof GenericArrayHandle)
+            {
+            GenericArrayHandle hArray = (GenericArrayHandle) hDoc;
+            return fPretty && containsObject(hArray)
+                    ? printMultiLineArray(hArray, sb, cIndent, fIndented, fShowNulls)
+                    : printSingleLineArray(hArray, sb, fPretty);
+            }
+        else if (isListMap(hDoc))
+            {
+            GenericHandle hMap = (GenericHandle) hDoc;
+            if (!(hMap.getField("listKeys") instanceof GenericArrayHandle) ||
+                !(hMap.getField("listVals") instanceof GenericArrayHandle))
+                {
+                return false;
+                }
+
+            if (mapSize(hMap) == 0 || !fShowNulls && containsOnlyNulls(hMap))
+                {
+                sb.append("{}");
+                }
+            else if (fPretty)
+                {
+                return printPrettyObject(hMap, sb, cIndent, fIndented, fShowNulls);
+                }
+            else
+                {
+                return printUglyObject(hMap, sb, fShowNulls);
+                }
+            }
+        else
+            {
+            return false;
+            }
+        return true;
+        }
+
+    private static boolean printSingleLineArray(GenericArrayHandle hArray, StringBuilder sb,
+                                                boolean fPretty)
+        {
+        ObjectHandle[] ahValue = hArray.m_ahValue;
+        sb.append('[');
+        for (int i = 0, of = hArray.m_ofStart, c = hArray.m_cSize; i < c; i++)
+            {
+            if (i > 0)
+                {
+                sb.append(fPretty ? ", " : ",");
+                }
+            if (!print(ahValue[of + i], sb, 0, false, true, fPretty))
+                {
+                return false;
+                }
+            }
+        sb.append(']');
+        return true;
+        }
+
+    private static boolean printMultiLineArray(GenericArrayHandle hArray, StringBuilder sb,
+                                               int cIndent, boolean fIndented, boolean fShowNulls)
+        {
+        if (!fIndented)
+            {
+            indentLine(sb, cIndent);
+            }
+        sb.append('[');
+
+        ObjectHandle[] ahValue = hArray.m_ahValue;
+        for (int i = 0, of = hArray.m_ofStart, c = hArray.m_cSize; i < c; i++)
+            {
+            if (i > 0)
+                {
+                sb.append(',');
+                }
+
+            indentLine(sb, cIndent);
+            if (!print(ahValue[of + i], sb, cIndent, true, fShowNulls, true))
+                {
+                return false;
+                }
+            }
+
+        indentLine(sb, cIndent);
+        sb.append(']');
+        return true;
+        }
+
+    private static boolean printUglyObject(GenericHandle hMap, StringBuilder sb, boolean fShowNulls)
+        {
+        GenericArrayHandle hKeys = (GenericArrayHandle) hMap.getField("listKeys");
+        GenericArrayHandle hVals = (GenericArrayHandle) hMap.getField("listVals");
+
+        sb.append('{');
+        boolean fComma = false;
+        for (int i = 0, c = hKeys.m_cSize; i < c; i++)
+            {
+            ObjectHandle hValue = hVals.m_ahValue[hVals.m_ofStart + i];
+            if (hValue != xNullable.NULL || fShowNulls)
+                {
+                if (fComma)
+                    {
+                    sb.append(',');
+                    }
+                else
+                    {
+                    fComma = true;
+                    }
+
+                printString(((StringHandle) hKeys.m_ahValue[hKeys.m_ofStart + i]).getValue(), sb);
+                sb.append(':');
+                if (!print(hValue, sb, 0, false, fShowNulls, false))
+                    {
+                    return false;
+                    }
+                }
+            }
+        sb.append('}');
+        return true;
+        }
+
+    private static boolean printPrettyObject(GenericHandle hMap, StringBuilder sb, int cIndent,
+                                             boolean fIndented, boolean fShowNulls)
+        {
+        GenericArrayHandle hKeys = (GenericArrayHandle) hMap.getField("listKeys");
+        GenericArrayHandle hVals = (GenericArrayHandle) hMap.getField("listVals");
+
+        if (!fIndented)
+            {
+            indentLine(sb, cIndent);
+            }
+        sb.append('{');
+
+        boolean fComma = false;
+        for (int i = 0, c = hKeys.m_cSize; i < c; i++)
+            {
+            ObjectHandle hValue = hVals.m_ahValue[hVals.m_ofStart + i];
+            if (hValue != xNullable.NULL || fShowNulls)
+                {
+                if (fComma)
+                    {
+                    sb.append(',');
+                    }
+                else
+                    {
+                    fComma = true;
+                    }
+
+                indentLine(sb, cIndent);
+                printString(((StringHandle) hKeys.m_ahValue[hKeys.m_ofStart + i]).getValue(), sb);
+                sb.append(": ");
+                if (!print(hValue, sb, cIndent + 2, false, fShowNulls, true))
+                    {
+                    return false;
+                    }
+                }
+            }
+
+        indentLine(sb, cIndent);
+        sb.append('}');
+        return true;
+        }
+
+    private static void indentLine(StringBuilder sb, int cIndent)
+        {
+        sb.append('\n');
+        for (int i = 0; i < cIndent; ++i)
+            {
+            sb.append(' ');
+            }
+        }
+
+    private static void printString(char[] ach, StringBuilder sb)
+        {
+        sb.append('"');
+        for (char ch : ach)
+            {
+            switch (ch)
+                {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+
+                case '\b':
+                    sb.append("\\b");
+                    break;
+
+                case '\t':
+                    sb.append("\\t");
+                    break;
+
+                case '\n':
+                    sb.append("\\n");
+                    break;
+
+                case '\f':
+                    sb.append("\\f");
+                    break;
+
+                case '\r':
+                    sb.append("\\r");
+                    break;
+
+                default:
+                    if (ch < ' ')
+                        {
+                        sb.append("\\u00").append(HEX[ch >>> 4]).append(HEX[ch & 0xF]);
+                        }
+                    else
+                        {
+                        sb.append(ch);
+                        }
+                    break;
+                }
+            }
+        sb.append('"');
+        }
+
+    /**
+     * Mirrors Printer.containsObject(), including its treatment of nested arrays.
+     */
+    private static boolean containsObject(GenericArrayHandle hArray)
+        {
+        ObjectHandle[] ahValue = hArray.m_ahValue;
+        for (int i = 0, of = hArray.m_ofStart, c = hArray.m_cSize; i < c; i++)
+            {
+            ObjectHandle hDoc = ahValue[of + i];
+            if (isListMap(hDoc) && mapSize((GenericHandle) hDoc) > 0)
+                {
+                return true;
+                }
+
+            if (hDoc instanceof GenericArrayHandle)
+                {
+                return containsObject((GenericArrayHandle) hDoc);
+                }
+            }
+        return false;
+        }
+
+    private static boolean containsOnlyNulls(GenericHandle hMap)
+        {
+        GenericArrayHandle hVals = (GenericArrayHandle) hMap.getField("listVals");
+        for (int i = 0, of = hVals.m_ofStart, c = hVals.m_cSize; i < c; i++)
+            {
+            if (hVals.m_ahValue[of + i] != xNullable.NULL)
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    private static boolean isListMap(ObjectHandle hDoc)
+        {
+        return hDoc instanceof GenericHandle && hDoc.getTemplate().f_struct == s_structListMap;
+        }
+
+    private static int mapSize(GenericHandle hMap)
+        {
+        ObjectHandle hKeys = hMap.getField("listKeys");
+        return hKeys instanceof GenericArrayHandle ? ((GenericArrayHandle) hKeys).m_cSize : 0;
+        }
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static ClassStructure   s_structListMap;
+    private static ClassComposition s_clzIllegalJSON;
+    private static ClassComposition s_clzDocArray;
+    private static ClassComposition s_clzStringArray;
+    private static ClassComposition s_clzListMap;
+    private static MethodStructure  s_ctorListMap;
+    }
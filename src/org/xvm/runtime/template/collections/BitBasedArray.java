@@ -142,6 +142,10 @@ public abstract class BitBasedArray
                     return frame.raiseException(xException.readOnly(frame));
                     }
 
+                if (reserveCapacity(frame, hArray, cSize + 1) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
                 abValue = hArray.m_abValue = grow(abValue, storage(cSize) + 1);
                 }
 
@@ -271,6 +275,22 @@ public abstract class BitBasedArray
 
     // ----- helper methods -----
 
+    @Override
+    protected long getStorageByteSize(long cBits)
+        {
+        return ObjectHandle.BYTES_ARRAY + (cBits + 7) / 8;
+        }
+
+    @Override
+    public int reserveCapacity(Frame frame, ArrayHandle hArray, long cBits)
+        {
+        // the capacity of a bit array is the number of bytes in its storage
+        int cCapacity = hArray.getCapacity();
+        return cBits <= 8L * cCapacity
+                ? Op.R_NEXT
+                : reserveStorage(frame, 8L * calculateCapacity(cCapacity, (int) ((cBits + 7) / 8)));
+        }
+
     private byte[] grow(byte[] abValue, int cSize)
         {
         int cCapacity = calculateCapacity(abValue.length, cSize);
@@ -383,6 +403,12 @@ public abstract class BitBasedArray
             m_abValue = new byte[storage(cCapacity)];
             }
 
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + m_abValue.length;
+            }
+
         @Override
         public int getCapacity()
             {
@@ -398,6 +424,15 @@ public abstract class BitBasedArray
             m_abValue = abNew;
             }
 
+        @Override
+        protected void detach(int cCapacity)
+            {
+            // bit arrays never share their storage
+            byte[] abNew = new byte[storage(cCapacity)];
+            System.arraycopy(m_abValue, 0, abNew, 0, storage(m_cSize));
+            m_abValue = abNew;
+            }
+
         @Override
         public ObjectHandle getElement(int ix)
             {
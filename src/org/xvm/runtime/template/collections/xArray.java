@@ -5,6 +5,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import java.util.function.Consumer;
+
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
@@ -32,10 +34,13 @@ import org.xvm.runtime.template.xBoolean.BooleanHandle;
 import org.xvm.runtime.template.xEnum;
 import org.xvm.runtime.template.xEnum.EnumHandle;
 import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xString.StringHandle;
 
 import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 
+import org.xvm.runtime.template.numbers.BaseBinaryFP;
+import org.xvm.runtime.template.numbers.xConstrainedInteger;
 import org.xvm.runtime.template.numbers.xInt64;
 
 
@@ -79,6 +84,25 @@ public class xArray
         mapTemplates.put(pool.typeBoolean(), xBooleanArray.INSTANCE);
         mapTemplates.put(pool.ensureEcstasyTypeConstant("numbers.Bit"), xBitArray.INSTANCE);
 
+        // the arrays of other fixed-width numbers are held in primitive Java arrays as well
+        for (String sType : new String[] {"Int8", "Int16", "Int32", "UInt16", "UInt32", "UInt64"})
+            {
+            xConstrainedInteger templateEl = (xConstrainedInteger) f_templates.getTemplate("numbers." + sType);
+            xArray              template   = new xIntArray(f_templates, f_struct, templateEl);
+
+            registerNative(template);
+            mapTemplates.put(templateEl.getCanonicalType(), template);
+            }
+
+        for (String sType : new String[] {"Float16", "Float32", "Float64"})
+            {
+            BaseBinaryFP templateEl = (BaseBinaryFP) f_templates.getTemplate("numbers." + sType);
+            xArray       template   = new xFloatArray(f_templates, f_struct, templateEl);
+
+            registerNative(template);
+            mapTemplates.put(templateEl.getCanonicalType(), template);
+            }
+
         ARRAY_TEMPLATES = mapTemplates;
 
         // cache the constructors
@@ -120,8 +144,9 @@ public class xArray
                 }
             }
 
-        // cache "Iterable.toArray()" method
+        // cache "Iterable.toArray()" and "List.sort()" methods
         ITERABLE_TO_ARRAY = f_templates.getClassStructure("Iterable").findMethod("toArray", 1);
+        LIST_SORT         = f_templates.getClassStructure("collections.List").findMethod("sort", 1);
 
         // cache Mutability template
         MUTABILITY = (xEnum) f_templates.getTemplate("collections.VariablyMutable.Mutability");
@@ -140,6 +165,8 @@ public class xArray
         markNativeMethod("slice", new String[] {"Interval<numbers.Int64>"}, ARRAY);
         markNativeMethod("ensureImmutable", BOOLEAN, null);
         markNativeMethod("ensurePersistent", BOOLEAN, null);
+        markNativeMethod("fill", new String[] {"Element", "Interval<numbers.Int64>?"}, ARRAY);
+        markNativeMethod("sort", new String[] {"collections.Orderer?"}, ARRAY);
 
         getCanonicalType().invalidateTypeInfo();
         }
@@ -276,8 +303,14 @@ public class xArray
                         xException.illegalArgument(frame, "Invalid array size: " + cCapacity));
                     }
 
-                xArray      template = (xArray) clzArray.getTemplate();
-                ArrayHandle hArray   = template.createArrayHandle(clzArray, (int) cCapacity, Mutability.Mutable);
+                xArray template = (xArray) clzArray.getTemplate();
+                if (template.reserveStorage(frame, cCapacity) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
+
+                ArrayHandle hArray = template.createArrayHandle(clzArray, (int) cCapacity,
+                                            Mutability.Mutable);
                 return frame.assignValue(iReturn, hArray);
                 }
 
@@ -292,8 +325,14 @@ public class xArray
                         xException.illegalArgument(frame, "Invalid array size: " + cCapacity));
                     }
 
-                xArray      template = (xArray) clzArray.getTemplate();
-                ArrayHandle hArray   = template.createArrayHandle(clzArray, (int) cCapacity, Mutability.FixedSize);
+                xArray template = (xArray) clzArray.getTemplate();
+                if (template.reserveStorage(frame, cCapacity) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
+
+                ArrayHandle hArray = template.createArrayHandle(clzArray, (int) cCapacity,
+                                            Mutability.FixedSize);
 
                 int cSize = (int) cCapacity;
                 if (cSize > 0)
@@ -363,8 +402,64 @@ public class xArray
         {
         GenericArrayHandle hSrc = (GenericArrayHandle) hArray;
 
+        // the copy shares the storage until either side needs to change it
+        hSrc.m_fShared = true;
         return new GenericArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_ahValue, 0, hSrc.m_cSize), mutability);
+            hSrc.m_ahValue, hSrc.m_ofStart, hSrc.m_cSize, mutability);
+        }
+
+    @Override
+    public ObjectHandle createFrozenCopy(ObjectHandle hTarget, Map<ObjectHandle, ObjectHandle> mapCopies)
+        {
+        ArrayHandle hArray = (ArrayHandle) hTarget;
+        if (!(hArray instanceof GenericArrayHandle))
+            {
+            // arrays of primitive values (Int, Byte, Char, Bit, etc.) cannot hold any mutable
+            // references; the constant copy simply shares the storage until the original changes
+            return createCopy(hArray, Mutability.Constant);
+            }
+
+        GenericArrayHandle hSrc    = (GenericArrayHandle) hArray;
+        ObjectHandle[]     ahSrc   = hSrc.m_ahValue;
+        int                ofStart = hSrc.m_ofStart;
+        int                cSize   = hSrc.m_cSize;
+
+        int iFirst = 0;
+        while (iFirst < cSize)
+            {
+            ObjectHandle hValue = ahSrc[ofStart + iFirst];
+            if (hValue != null && hValue.isMutable() && !hValue.isService())
+                {
+                break;
+                }
+            iFirst++;
+            }
+
+        if (iFirst == cSize)
+            {
+            // all the elements are already immutable; share them
+            return createCopy(hSrc, Mutability.Constant);
+            }
+
+        ObjectHandle[]     ahCopy = Arrays.copyOfRange(ahSrc, ofStart, ofStart + cSize);
+        GenericArrayHandle hCopy  = new GenericArrayHandle(hSrc.getComposition(), ahCopy, Mutability.Constant);
+
+        mapCopies.put(hSrc, hCopy);
+
+        for (int i = iFirst; i < cSize; i++)
+            {
+            ObjectHandle hValue = ahCopy[i];
+            if (hValue != null)
+                {
+                hValue = copyForSend(hValue, mapCopies);
+                if (hValue == null)
+                    {
+                    return null;
+                    }
+                ahCopy[i] = hValue;
+                }
+            }
+        return hCopy;
         }
 
     /**
@@ -434,6 +529,10 @@ public class xArray
                 // for now, no trimming
                 if (nCapacityNew > nCapacityOld)
                     {
+                    if (reserveStorage(frame, nCapacityNew) == Op.R_EXCEPTION)
+                        {
+                        return Op.R_EXCEPTION;
+                        }
                     hArray.setCapacity(nCapacityNew);
                     }
                 return Op.R_NEXT;
@@ -477,6 +576,9 @@ public class xArray
                 return slice(frame, hTarget, ixFrom, ixTo, fReverse, iReturn);
                 }
 
+            case "sort": // Array sort(Orderer? order = Null)
+                return sort(frame, hTarget, hArg, iReturn);
+
             case "ensureImmutable": // immutable Array ensureImmutable(Boolean inPlace = False)
                 {
                 ArrayHandle   hArray   = (ArrayHandle) hTarget;
@@ -522,6 +624,9 @@ public class xArray
             {
             case "setElement":
                 return assignArrayValue(frame, hTarget, ((JavaLong) ahArg[0]).getValue(), ahArg[1]);
+
+            case "fill": // Array fill(Element value, Interval<Int>? interval = Null)
+                return fill(frame, hTarget, ahArg[0], ahArg[1], iReturn);
             }
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
         }
@@ -533,12 +638,9 @@ public class xArray
         GenericArrayHandle hArray1 = (GenericArrayHandle) hValue1;
         GenericArrayHandle hArray2 = (GenericArrayHandle) hValue2;
 
-        ObjectHandle[] ah1 = hArray1.m_ahValue;
-        ObjectHandle[] ah2 = hArray2.m_ahValue;
-
         // compare the array dimensions
-        int cElements = ah1.length;
-        if (cElements != ah2.length)
+        int cElements = hArray1.m_cSize;
+        if (cElements != hArray2.m_cSize)
             {
             return frame.assignValue(iReturn, xBoolean.FALSE);
             }
@@ -548,7 +650,7 @@ public class xArray
         TypeConstant typeEl = clazz.getType().getParamType(0);
 
         int[] holder = new int[] {0}; // the index holder
-        return new Equals(ah1, ah2, typeEl, cElements, holder, iReturn).doNext(frame);
+        return new Equals(hArray1, hArray2, typeEl, cElements, holder, iReturn).doNext(frame);
         }
 
     @Override
@@ -564,16 +666,18 @@ public class xArray
 
         ObjectHandle[] ah1 = hArray1.m_ahValue;
         ObjectHandle[] ah2 = hArray2.m_ahValue;
+        int            of1 = hArray1.m_ofStart;
+        int            of2 = hArray2.m_ofStart;
 
-        if (ah1 == ah2)
+        if (ah1 == ah2 && of1 == of2)
             {
             return true;
             }
 
         for (int i = 0, c = hArray1.m_cSize; i < c; i++)
             {
-            ObjectHandle hV1 = ah1[i];
-            ObjectHandle hV2 = ah2[i];
+            ObjectHandle hV1 = ah1[of1 + i];
+            ObjectHandle hV2 = ah2[of2 + i];
 
             ClassTemplate template = hV1.getTemplate();
             if (template != hV2.getTemplate() || !template.compareIdentity(hV1, hV2))
@@ -604,6 +708,11 @@ public class xArray
                 break;
             }
 
+        if (reserveCapacity(frame, hArray, hArray.m_cSize + 1) == Op.R_EXCEPTION)
+            {
+            return Op.R_EXCEPTION;
+            }
+
         addElement(hArray, hValue);
 
         if (mutability != null)
@@ -623,9 +732,12 @@ public class xArray
      */
     protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
         {
-        GenericArrayHandle hArray  = (GenericArrayHandle) hTarget;
-        int                ixNext  = hArray.m_cSize;
-        ObjectHandle[]     ahValue = hArray.m_ahValue;
+        GenericArrayHandle hArray = (GenericArrayHandle) hTarget;
+
+        hArray.ensureExclusive();
+
+        int            ixNext  = hArray.m_cSize;
+        ObjectHandle[] ahValue = hArray.m_ahValue;
 
         if (ixNext == ahValue.length)
             {
@@ -656,6 +768,15 @@ public class xArray
                 break;
             }
 
+        // a Char array can also be appended with a String
+        long cAdd = hValue instanceof ArrayHandle  ? ((ArrayHandle) hValue).m_cSize
+                  : hValue instanceof StringHandle ? ((StringHandle) hValue).getValue().length
+                  : 0;
+        if (reserveCapacity(frame, hArray, hArray.m_cSize + cAdd) == Op.R_EXCEPTION)
+            {
+            return Op.R_EXCEPTION;
+            }
+
         addElements(hArray, hValue);
 
         if (mutability != null)
@@ -682,6 +803,8 @@ public class xArray
         int cThat = hArrayAdd.m_cSize;
         if (cThat > 0)
             {
+            hArray.ensureExclusive();
+
             ObjectHandle[] ahThis = hArray.m_ahValue;
             int            cThis  = hArray.m_cSize;
 
@@ -690,7 +813,7 @@ public class xArray
                 ahThis = hArray.m_ahValue = grow(ahThis, cThis + cThat);
                 }
             hArray.m_cSize += cThat;
-            System.arraycopy(hArrayAdd.m_ahValue, 0, ahThis, cThis, cThat);
+            System.arraycopy(hArrayAdd.m_ahValue, hArrayAdd.m_ofStart, ahThis, cThis, cThat);
             }
         }
 
@@ -730,42 +853,200 @@ public class xArray
         }
 
     /**
-     * slice(Interval<Int>) implementation
+     * fill(Element, Interval<Int>?) implementation
      */
-    protected int slice(Frame frame, ObjectHandle hTarget, long ixFrom, long ixTo, boolean fReverse, int iReturn)
+    protected int fill(Frame frame, ObjectHandle hTarget, ObjectHandle hValue,
+                       ObjectHandle hInterval, int iReturn)
         {
-        GenericArrayHandle hArray = (GenericArrayHandle) hTarget;
+        ArrayHandle hArray = (ArrayHandle) hTarget;
+        int         cSize  = hArray.m_cSize;
+        long        ixFrom;
+        long        ixTo;
 
-        ObjectHandle[] ahValue = hArray.m_ahValue;
-        try
+        if (hInterval == ObjectHandle.DEFAULT || hInterval == xNullable.NULL)
             {
-            ObjectHandle[] ahNew;
-            if (fReverse)
+            if (cSize == 0)
                 {
-                int cNew = (int) (ixTo - ixFrom + 1);
+                return frame.assignValue(iReturn, hArray);
+                }
+            ixFrom = 0;
+            ixTo   = cSize - 1;
+            }
+        else
+            {
+            long lLower = ((JavaLong) ((GenericHandle) hInterval).getField("lowerBound")).getValue();
+            long lUpper = ((JavaLong) ((GenericHandle) hInterval).getField("upperBound")).getValue();
 
-                ahNew = new ObjectHandle[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    ahNew[i] = ahValue[(int) ixTo - i];
-                    }
+            ixFrom = Math.min(lLower, lUpper);
+            ixTo   = Math.max(lLower, lUpper);
+            if (ixFrom < 0 || ixTo >= cSize)
+                {
+                return frame.raiseException(
+                    xException.outOfBounds(frame, ixFrom < 0 ? ixFrom : ixTo, cSize));
                 }
-            else
+            }
+
+        Mutability mutability = hArray.m_mutability;
+        if (mutability.compareTo(Mutability.Persistent) >= 0)
+            {
+            hArray = createCopy(hArray, Mutability.Mutable);
+            }
+
+        hArray.ensureExclusive();
+        fill(frame, hArray, (int) ixFrom, (int) ixTo, hValue);
+
+        return frame.assignValue(iReturn, restoreMutability(hArray, mutability));
+        }
+
+    /**
+     * Fill the specified range of the array elements with the specified value. The array is known
+     * to exclusively own its storage.
+     *
+     * @param frame   the current frame
+     * @param hArray  the array
+     * @param ixFrom  the index of the first element to fill
+     * @param ixTo    the index of the last element to fill
+     * @param hValue  the value
+     */
+    protected void fill(Frame frame, ArrayHandle hArray, int ixFrom, int ixTo, ObjectHandle hValue)
+        {
+        if (hArray instanceof GenericArrayHandle)
+            {
+            GenericArrayHandle ha = (GenericArrayHandle) hArray;
+
+            Arrays.fill(ha.m_ahValue, ha.m_ofStart + ixFrom, ha.m_ofStart + ixTo + 1, hValue);
+            }
+        else
+            {
+            for (int i = ixFrom; i <= ixTo; i++)
                 {
-                ahNew = Arrays.copyOfRange(ahValue, (int) ixFrom, (int) ixTo + 1);
+                assignArrayValue(frame, hArray, i, hValue);
                 }
+            }
+        }
+
+    /**
+     * sort(Orderer?) implementation
+     */
+    protected int sort(Frame frame, ObjectHandle hTarget, ObjectHandle hOrder, int iReturn)
+        {
+        ArrayHandle hArray = (ArrayHandle) hTarget;
+
+        if (hArray.m_cSize <= 1)
+            {
+            return frame.assignValue(iReturn, hArray);
+            }
+
+        return hOrder == ObjectHandle.DEFAULT || hOrder == xNullable.NULL
+                ? sortNatural(frame, hArray, iReturn)
+                : callListSort(frame, hArray, hOrder, iReturn);
+        }
+
+    /**
+     * Sort the elements of the array in their natural order. By default, the array is sorted by the
+     * natural List.sort() implementation; the templates for the arrays of primitive values override
+     * this method to sort natively via {@link #sortNatively}.
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    protected int sortNatural(Frame frame, ArrayHandle hArray, int iReturn)
+        {
+        return callListSort(frame, hArray, xNullable.NULL, iReturn);
+        }
+
+    /**
+     * Sort the array by the natural List.sort() implementation.
+     */
+    private int callListSort(Frame frame, ArrayHandle hArray, ObjectHandle hOrder, int iReturn)
+        {
+        ObjectHandle[] ahVar = new ObjectHandle[LIST_SORT.getMaxVars()];
+        ahVar[0] = hOrder;
 
-            ArrayHandle hArrayNew = new GenericArrayHandle(
-                hArray.getComposition(), ahNew, hArray.m_mutability);
+        return frame.call1(LIST_SORT, hArray, ahVar, iReturn);
+        }
 
-            return frame.assignValue(iReturn, hArrayNew);
+    /**
+     * Sort the array in place using the specified native sort; a persistent or constant array is
+     * copied first.
+     *
+     * @param hArray  the array
+     * @param sorter  the sort that is passed an array that exclusively owns its storage
+     *
+     * @return one of the {@link Op#R_NEXT} or {@link Op#R_EXCEPTION} values
+     */
+    protected int sortNatively(Frame frame, ArrayHandle hArray, Consumer<ArrayHandle> sorter,
+                               int iReturn)
+        {
+        Mutability mutability = hArray.m_mutability;
+        if (mutability.compareTo(Mutability.Persistent) >= 0)
+            {
+            hArray = createCopy(hArray, Mutability.Mutable);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+
+        hArray.ensureExclusive();
+        sorter.accept(hArray);
+
+        return frame.assignValue(iReturn, restoreMutability(hArray, mutability));
+        }
+
+    /**
+     * Apply the specified mutability to an array that was modified on behalf of an operation on an
+     * array of that mutability.
+     *
+     * @return the array
+     */
+    private static ArrayHandle restoreMutability(ArrayHandle hArray, Mutability mutability)
+        {
+        if (mutability == Mutability.Constant)
+            {
+            hArray.makeImmutable();
+            }
+        else
+            {
+            hArray.m_mutability = mutability;
+            }
+        return hArray;
+        }
+
+    /**
+     * slice(Interval<Int>) implementation
+     *
+     * Unless the slice is reversed, the resulting array is a view that shares the storage with the
+     * original array; either of them makes a private copy of the storage before it's modified.
+     */
+    protected int slice(Frame frame, ObjectHandle hTarget, long ixFrom, long ixTo, boolean fReverse, int iReturn)
+        {
+        GenericArrayHandle hArray = (GenericArrayHandle) hTarget;
+
+        long c = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= c || ixTo >= c)
             {
-            long c = ahValue.length;
             return frame.raiseException(
                 xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
             }
+
+        ObjectHandle[]     ahValue = hArray.m_ahValue;
+        int                ofStart = hArray.m_ofStart;
+        int                cNew    = (int) (ixTo - ixFrom + 1);
+        GenericArrayHandle hArrayNew;
+
+        if (fReverse)
+            {
+            ObjectHandle[] ahNew = new ObjectHandle[cNew];
+            for (int i = 0; i < cNew; i++)
+                {
+                ahNew[i] = ahValue[ofStart + (int) ixTo - i];
+                }
+            hArrayNew = new GenericArrayHandle(hArray.getComposition(), ahNew, hArray.m_mutability);
+            }
+        else
+            {
+            hArray.m_fShared = true;
+            hArrayNew = new GenericArrayHandle(hArray.getComposition(),
+                ahValue, ofStart + (int) ixFrom, cNew, hArray.m_mutability);
+            }
+
+        return frame.assignValue(iReturn, hArrayNew);
         }
 
 
@@ -781,7 +1062,7 @@ public class xArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
-        return frame.assignValue(iReturn, hArray.m_ahValue[(int) lIndex]);
+        return frame.assignValue(iReturn, hArray.m_ahValue[hArray.m_ofStart + (int) lIndex]);
         }
 
     @Override
@@ -804,6 +1085,8 @@ public class xArray
                 return frame.raiseException(xException.readOnly(frame));
             }
 
+        hArray.ensureExclusive();
+
         ObjectHandle[] ahValue = hArray.m_ahValue;
         if (lIndex == cSize)
             {
@@ -815,6 +1098,10 @@ public class xArray
                     return frame.raiseException(xException.readOnly(frame));
                     }
 
+                if (reserveCapacity(frame, hArray, cSize + 1) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
                 ahValue = hArray.m_ahValue = grow(ahValue, cSize + 1);
                 }
             hArray.m_cSize++;
@@ -855,6 +1142,61 @@ public class xArray
         return ahNew;
         }
 
+    /**
+     * Reserve the memory for a storage of the specified capacity, which is about to be allocated
+     * on behalf of the current service.
+     *
+     * @param frame      the current frame
+     * @param cCapacity  the capacity of the storage
+     *
+     * @return R_NEXT if the allocation is allowed; R_EXCEPTION if it would exceed the service's
+     *         memory limit
+     */
+    public int reserveStorage(Frame frame, long cCapacity)
+        {
+        return frame.f_context.reserveBytes(getStorageByteSize(cCapacity))
+                ? Op.R_NEXT
+                : frame.raiseException(xException.outOfMemory(frame));
+        }
+
+    /**
+     * Reserve the memory for growing the storage of the specified array, if its current capacity
+     * cannot hold the specified number of elements.
+     *
+     * @param frame   the current frame
+     * @param hArray  the array handle
+     * @param cSize   the required number of elements
+     *
+     * @return R_NEXT if the array doesn't need to grow or the allocation is allowed; R_EXCEPTION
+     *         if it would exceed the service's memory limit
+     */
+    public int reserveCapacity(Frame frame, ArrayHandle hArray, long cSize)
+        {
+        int cCapacity = hArray.getCapacity();
+        if (cSize <= cCapacity)
+            {
+            return Op.R_NEXT;
+            }
+
+        if (cSize > Integer.MAX_VALUE)
+            {
+            return frame.raiseException(xException.outOfMemory(frame));
+            }
+
+        return reserveStorage(frame, calculateCapacity(cCapacity, (int) cSize));
+        }
+
+    /**
+     * @param cCapacity  the storage capacity (the number of elements)
+     *
+     * @return an estimate of the heap memory (in bytes) taken by a storage of the specified
+     *         capacity
+     */
+    protected long getStorageByteSize(long cCapacity)
+        {
+        return ObjectHandle.BYTES_ARRAY + 4L * cCapacity;
+        }
+
     /**
      * Calculate a new capacity based on the current and desired size of an array.
      *
@@ -937,18 +1279,18 @@ public class xArray
     protected static class Equals
             implements Frame.Continuation
         {
-        final private ObjectHandle[] ah1;
-        final private ObjectHandle[] ah2;
+        final private GenericArrayHandle hArray1;
+        final private GenericArrayHandle hArray2;
         final private TypeConstant typeEl;
         final private int cElements;
         final private int[] holder;
         final private int iReturn;
 
-        public Equals(ObjectHandle[] ah1, ObjectHandle[] ah2, TypeConstant typeEl,
+        public Equals(GenericArrayHandle hArray1, GenericArrayHandle hArray2, TypeConstant typeEl,
                       int cElements, int[] holder, int iReturn)
             {
-            this.ah1 = ah1;
-            this.ah2 = ah2;
+            this.hArray1 = hArray1;
+            this.hArray2 = hArray2;
             this.typeEl = typeEl;
             this.cElements = cElements;
             this.holder = holder;
@@ -971,7 +1313,8 @@ public class xArray
             int iEl;
             while ((iEl = holder[0]++) < cElements)
                 {
-                switch (typeEl.callEquals(frameCaller, ah1[iEl], ah2[iEl], Op.A_STACK))
+                switch (typeEl.callEquals(frameCaller,
+                        hArray1.getElement(iEl), hArray2.getElement(iEl), Op.A_STACK))
                     {
                     case Op.R_NEXT:
                         ObjectHandle hResult = frameCaller.popStack();
@@ -1051,6 +1394,20 @@ public class xArray
             m_cSize   = cSize;
             }
 
+        /**
+         * Create a handle that shares the specified storage with another handle.
+         */
+        protected GenericArrayHandle(TypeComposition clzArray, ObjectHandle[] ahValue,
+                                     int ofStart, int cSize, Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_ahValue = ahValue;
+            m_ofStart = ofStart;
+            m_cSize   = cSize;
+            m_fShared = true;
+            }
+
         public GenericArrayHandle(TypeComposition clzArray, long cCapacity, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -1058,30 +1415,66 @@ public class xArray
             m_ahValue = new ObjectHandle[(int) cCapacity];
             }
 
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + 4L * getChargedLength(m_ahValue.length);
+            }
+
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            ObjectHandle[] ahValue = m_ahValue;
+            for (int i = m_ofStart, iEnd = m_ofStart + m_cSize; i < iEnd; i++)
+                {
+                consumer.accept(ahValue[i]);
+                }
+            }
+
         @Override
         public int getCapacity()
             {
-            return m_ahValue.length;
+            return m_ahValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            ObjectHandle[] ahOld = m_ahValue;
-            ObjectHandle[] ahNew = new ObjectHandle[nCapacity];
-            System.arraycopy(ahOld, 0, ahNew, 0, ahOld.length);
+            if (m_fShared)
+                {
+                detach(nCapacity);
+
+                m_ofStart = 0;
+                m_fShared = false;
+                }
+            else
+                {
+                ObjectHandle[] ahOld = m_ahValue;
+                ObjectHandle[] ahNew = new ObjectHandle[nCapacity];
+                System.arraycopy(ahOld, 0, ahNew, 0, ahOld.length);
+                m_ahValue = ahNew;
+                }
+            }
+
+        @Override
+        protected void detach(int cCapacity)
+            {
+            ObjectHandle[] ahNew = new ObjectHandle[cCapacity];
+            System.arraycopy(m_ahValue, m_ofStart, ahNew, 0, m_cSize);
             m_ahValue = ahNew;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return m_ahValue[ix];
+            return m_ahValue[m_ofStart + ix];
             }
 
         @Override
         public void deleteElement(int ix)
             {
+            ensureExclusive();
+
             if (ix < m_cSize - 1)
                 {
                 System.arraycopy(m_ahValue, ix+1, m_ahValue, ix, m_cSize-ix-1);
@@ -1099,6 +1492,7 @@ public class xArray
     // array of constructors
     private static MethodStructure[] CONSTRUCTORS = new MethodStructure[4];
     private static MethodStructure ITERABLE_TO_ARRAY;
+    private static MethodStructure LIST_SORT;
 
     protected static final String[] ELEMENT_TYPE = new String[] {"Element"};
     protected static final String[] ARRAY        = new String[] {"collections.Array!<Element>"};
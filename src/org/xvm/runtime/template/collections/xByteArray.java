@@ -86,8 +86,10 @@ public class xByteArray
         {
         ByteArrayHandle hSrc = (ByteArrayHandle) hArray;
 
+        // the copy shares the storage until either side needs to change it
+        hSrc.m_fShared = true;
         return new ByteArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_abValue, 0, hSrc.m_cSize), mutability);
+            hSrc.m_abValue, hSrc.m_ofStart, hSrc.m_cSize, mutability);
         }
 
     @Override
@@ -99,6 +101,46 @@ public class xByteArray
         ha.m_cSize = cSize;
         }
 
+    @Override
+    protected void fill(Frame frame, ArrayHandle hArray, int ixFrom, int ixTo, ObjectHandle hValue)
+        {
+        ByteArrayHandle ha = (ByteArrayHandle) hArray;
+
+        Arrays.fill(ha.m_abValue, ha.m_ofStart + ixFrom, ha.m_ofStart + ixTo + 1,
+                (byte) ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    protected int sortNatural(Frame frame, ArrayHandle hArray, int iReturn)
+        {
+        return sortNatively(frame, hArray, xByteArray::sortBytes, iReturn);
+        }
+
+    /**
+     * Sort the elements of the array, which exclusively owns its storage, in their natural order.
+     */
+    private static void sortBytes(ArrayHandle hArray)
+        {
+        ByteArrayHandle ha = (ByteArrayHandle) hArray;
+
+        // the bytes are unsigned; count the occurrences of each value and lay them out in order
+        byte[] ab     = ha.m_abValue;
+        int    of     = ha.m_ofStart;
+        int[]  acByte = new int[256];
+        for (int i = of, c = of + ha.m_cSize; i < c; i++)
+            {
+            acByte[ab[i] & 0xFF]++;
+            }
+
+        for (int n = 0, i = of; n < 256; n++)
+            {
+            for (int cn = acByte[n]; cn > 0; cn--)
+                {
+                ab[i++] = (byte) n;
+                }
+            }
+        }
+
     @Override
     public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
         {
@@ -115,7 +157,7 @@ public class xByteArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
-        byte b = hArray.m_abValue[(int) lIndex];
+        byte b = hArray.m_abValue[hArray.m_ofStart + (int) lIndex];
         return frame.assignValue(iReturn, xUInt8.makeHandle(((long) b) & 0xFF));
         }
 
@@ -140,6 +182,8 @@ public class xByteArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.ensureExclusive();
+
         byte[] abValue = hArray.m_abValue;
         if (lIndex == cSize)
             {
@@ -151,6 +195,10 @@ public class xByteArray
                     return frame.raiseException(xException.readOnly(frame));
                     }
 
+                if (reserveCapacity(frame, hArray, cSize + 1) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
                 abValue = hArray.m_abValue = grow(abValue, cSize + 1);
                 }
 
@@ -170,6 +218,8 @@ public class xByteArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        hArray.ensureExclusive();
+
         return frame.assignValue(iReturn,
                 xChar.makeHandle(++hArray.m_abValue[(int) lIndex]));
         }
@@ -181,8 +231,7 @@ public class xByteArray
         ByteArrayHandle h1 = (ByteArrayHandle) hValue1;
         ByteArrayHandle h2 = (ByteArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_abValue, h2.m_abValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equals(h2)));
         }
 
     @Override
@@ -191,20 +240,23 @@ public class xByteArray
         ByteArrayHandle hArray1 = (ByteArrayHandle) hValue1;
         ByteArrayHandle hArray2 = (ByteArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_abValue, hArray2.m_abValue);
+        return hArray1.equals(hArray2);
         }
 
     @Override
     protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
         {
-        ByteArrayHandle hArray  = (ByteArrayHandle) hTarget;
-        int             ixNext  = hArray.m_cSize;
-        byte[]          abValue = hArray.m_abValue;
+        ByteArrayHandle hArray = (ByteArrayHandle) hTarget;
+
+        hArray.ensureExclusive();
+
+        int    ixNext  = hArray.m_cSize;
+        byte[] abValue = hArray.m_abValue;
 
         if (ixNext == abValue.length)
             {
@@ -223,9 +275,12 @@ public class xByteArray
 
         int    cNew  = hArrayAdd.m_cSize;
         byte[] abNew = hArrayAdd.m_abValue;
+        int    ofNew = hArrayAdd.m_ofStart;
 
         if (cNew > 0)
             {
+            hArray.ensureExclusive();
+
             byte[] abArray = hArray.m_abValue;
             int    cArray   = hArray.m_cSize;
 
@@ -234,7 +289,7 @@ public class xByteArray
                 abArray = hArray.m_abValue = grow(abArray, cArray + cNew);
                 }
             hArray.m_cSize += cNew;
-            System.arraycopy(abNew, 0, abArray, cArray, cNew);
+            System.arraycopy(abNew, ofNew, abArray, cArray, cNew);
             }
         }
 
@@ -243,42 +298,68 @@ public class xByteArray
         {
         ByteArrayHandle hArray = (ByteArrayHandle) hTarget;
 
-        byte[] abValue = hArray.m_abValue;
-        try
+        long c = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= c || ixTo >= c)
             {
-            byte[] abNew;
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            }
 
-            if (fReverse)
-                {
-                int cNew = (int) (ixTo - ixFrom + 1);
+        byte[]          abValue = hArray.m_abValue;
+        int             ofStart = hArray.m_ofStart;
+        int             cNew    = (int) (ixTo - ixFrom + 1);
+        ByteArrayHandle hArrayNew;
 
-                abNew = new byte[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    abNew[i] = abNew[(int) ixTo - i];
-                    }
-                }
-            else
+        if (fReverse)
+            {
+            byte[] abNew = new byte[cNew];
+            for (int i = 0; i < cNew; i++)
                 {
-                abNew = Arrays.copyOfRange(abValue, (int) ixFrom, (int) ixTo + 1);
+                abNew[i] = abValue[ofStart + (int) ixTo - i];
                 }
-
-            ByteArrayHandle hArrayNew = new ByteArrayHandle(
-                hArray.getComposition(), abNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
+            hArrayNew = new ByteArrayHandle(hArray.getComposition(), abNew, hArray.m_mutability);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = abValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            // the slice is a view into the same storage
+            hArray.m_fShared = true;
+            hArrayNew = new ByteArrayHandle(hArray.getComposition(),
+                abValue, ofStart + (int) ixFrom, cNew, hArray.m_mutability);
             }
+
+        return frame.assignValue(iReturn, hArrayNew);
         }
 
 
     // ----- helper methods -----
 
+    @Override
+    protected long getStorageByteSize(long cCapacity)
+        {
+        return ObjectHandle.BYTES_ARRAY + cCapacity;
+        }
+
+    /**
+     * Make sure that the specified mutable array exclusively owns its storage and that the storage
+     * can hold at least the specified number of elements.
+     *
+     * @param hArray  the array handle
+     * @param cSize   the required number of elements
+     *
+     * @return the array storage
+     */
+    public byte[] ensureStorage(ByteArrayHandle hArray, int cSize)
+        {
+        hArray.ensureExclusive();
+
+        byte[] abValue = hArray.m_abValue;
+        if (cSize > abValue.length)
+            {
+            abValue = hArray.m_abValue = grow(abValue, cSize);
+            }
+        return abValue;
+        }
+
     private byte[] grow(byte[] abValue, int cSize)
         {
         int cCapacity = calculateCapacity(abValue.length, cSize);
@@ -301,6 +382,20 @@ public class xByteArray
             m_cSize   = abValue.length;
             }
 
+        /**
+         * Create a handle that shares the specified storage with another handle.
+         */
+        protected ByteArrayHandle(TypeComposition clzArray, byte[] abValue, int ofStart, int cSize,
+                                  Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_abValue = abValue;
+            m_ofStart = ofStart;
+            m_cSize   = cSize;
+            m_fShared = true;
+            }
+
         protected ByteArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -308,30 +403,68 @@ public class xByteArray
             m_abValue = new byte[cCapacity];
             }
 
+        /**
+         * @return a byte array with the content of this array handle; could be the backing
+         *         storage itself
+         */
+        public byte[] getBytes()
+            {
+            byte[] ab = m_abValue;
+            int    of = m_ofStart;
+            int    c  = m_cSize;
+            return of == 0 && ab.length == c ? ab : Arrays.copyOfRange(ab, of, of + c);
+            }
+
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + getChargedLength(m_abValue.length);
+            }
+
         @Override
         public int getCapacity()
             {
-            return m_abValue.length;
+            return m_abValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            byte[] abOld = m_abValue;
-            byte[] abNew = new byte[nCapacity];
-            System.arraycopy(abOld, 0, abNew, 0, abOld.length);
+            if (m_fShared)
+                {
+                detach(nCapacity);
+
+                m_ofStart = 0;
+                m_fShared = false;
+                }
+            else
+                {
+                byte[] abOld = m_abValue;
+                byte[] abNew = new byte[nCapacity];
+                System.arraycopy(abOld, 0, abNew, 0, abOld.length);
+                m_abValue = abNew;
+                }
+            }
+
+        @Override
+        protected void detach(int cCapacity)
+            {
+            byte[] abNew = new byte[cCapacity];
+            System.arraycopy(m_abValue, m_ofStart, abNew, 0, m_cSize);
             m_abValue = abNew;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xUInt8.makeHandle(m_abValue[ix]);
+            return xUInt8.makeHandle(m_abValue[m_ofStart + ix]);
             }
 
         @Override
         public void deleteElement(int ix)
             {
+            ensureExclusive();
+
             if (ix < m_cSize - 1)
                 {
                 System.arraycopy(m_abValue, ix+1, m_abValue, ix, m_cSize-ix-1);
@@ -344,10 +477,10 @@ public class xByteArray
             {
             if (isMutable())
                 {
-                // purge the unused space
+                // purge the unused space (unless the storage is shared)
                 byte[] ab = m_abValue;
                 int    c  = m_cSize;
-                if (ab.length != c)
+                if (!m_fShared && ab.length != c)
                     {
                     byte[] abNew = new byte[c];
                     System.arraycopy(ab, 0, abNew, 0, c);
@@ -366,10 +499,14 @@ public class xByteArray
         @Override
         public int compareTo(ObjectHandle that)
             {
+            ByteArrayHandle hThat = (ByteArrayHandle) that;
+
             byte[] abThis = m_abValue;
+            int    ofThis = m_ofStart;
             int    cThis  = m_cSize;
-            byte[] abThat = ((ByteArrayHandle) that).m_abValue;
-            int    cThat  = ((ByteArrayHandle) that).m_cSize;
+            byte[] abThat = hThat.m_abValue;
+            int    ofThat = hThat.m_ofStart;
+            int    cThat  = hThat.m_cSize;
 
             if (cThis != cThat)
                 {
@@ -378,7 +515,7 @@ public class xByteArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                int iDiff = abThis[i] - abThat[i];
+                int iDiff = abThis[ofThis + i] - abThat[ofThat + i];
                 if (iDiff != 0)
                     {
                     return iDiff;
@@ -390,14 +527,27 @@ public class xByteArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_abValue);
+            byte[] ab    = m_abValue;
+            int    of    = m_ofStart;
+            int    nHash = 1;
+            for (int i = of, c = of + m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + ab[i];
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof ByteArrayHandle
-                && Arrays.equals(m_abValue, ((ByteArrayHandle) obj).m_abValue);
+            if (!(obj instanceof ByteArrayHandle))
+                {
+                return false;
+                }
+
+            ByteArrayHandle that = (ByteArrayHandle) obj;
+            return Arrays.equals(this.m_abValue, this.m_ofStart, this.m_ofStart + this.m_cSize,
+                                 that.m_abValue, that.m_ofStart, that.m_ofStart + that.m_cSize);
             }
         }
 
@@ -70,8 +70,10 @@ public class xCharArray
         {
         CharArrayHandle hSrc = (CharArrayHandle) hArray;
 
+        // the copy shares the storage until either side needs to change it
+        hSrc.m_fShared = true;
         return new CharArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_achValue, 0, hSrc.m_cSize), mutability);
+            hSrc.m_achValue, hSrc.m_ofStart, hSrc.m_cSize, mutability);
         }
 
     @Override
@@ -83,6 +85,31 @@ public class xCharArray
         ha.m_cSize = cSize;
         }
 
+    @Override
+    protected void fill(Frame frame, ArrayHandle hArray, int ixFrom, int ixTo, ObjectHandle hValue)
+        {
+        CharArrayHandle ha = (CharArrayHandle) hArray;
+
+        Arrays.fill(ha.m_achValue, ha.m_ofStart + ixFrom, ha.m_ofStart + ixTo + 1,
+                (char) ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    protected int sortNatural(Frame frame, ArrayHandle hArray, int iReturn)
+        {
+        return sortNatively(frame, hArray, xCharArray::sortChars, iReturn);
+        }
+
+    /**
+     * Sort the elements of the array, which exclusively owns its storage, in their natural order.
+     */
+    private static void sortChars(ArrayHandle hArray)
+        {
+        CharArrayHandle ha = (CharArrayHandle) hArray;
+
+        Arrays.sort(ha.m_achValue, ha.m_ofStart, ha.m_ofStart + ha.m_cSize);
+        }
+
     @Override
     public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
         {
@@ -98,7 +125,8 @@ public class xCharArray
             {
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
-        return frame.assignValue(iReturn, xChar.makeHandle(hArray.m_achValue[(int) lIndex]));
+        return frame.assignValue(iReturn,
+                xChar.makeHandle(hArray.m_achValue[hArray.m_ofStart + (int) lIndex]));
         }
 
     @Override
@@ -122,6 +150,8 @@ public class xCharArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.ensureExclusive();
+
         char[] achValue = hArray.m_achValue;
         if (lIndex == cSize)
             {
@@ -133,6 +163,10 @@ public class xCharArray
                     return frame.raiseException(xException.readOnly(frame));
                     }
 
+                if (reserveCapacity(frame, hArray, cSize + 1) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
                 achValue = hArray.m_achValue = grow(achValue, cSize + 1);
                 }
 
@@ -152,6 +186,8 @@ public class xCharArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        hArray.ensureExclusive();
+
         return frame.assignValue(iReturn,
                 xChar.makeHandle(++hArray.m_achValue[(int) lIndex]));
         }
@@ -163,8 +199,7 @@ public class xCharArray
         CharArrayHandle h1 = (CharArrayHandle) hValue1;
         CharArrayHandle h2 = (CharArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_achValue, h2.m_achValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equals(h2)));
         }
 
     @Override
@@ -173,20 +208,23 @@ public class xCharArray
         CharArrayHandle hArray1 = (CharArrayHandle) hValue1;
         CharArrayHandle hArray2 = (CharArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_achValue, hArray2.m_achValue);
+        return hArray1.equals(hArray2);
         }
 
     @Override
     protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
         {
-        CharArrayHandle hArray   = (CharArrayHandle) hTarget;
-        int             ixNext   = hArray.m_cSize;
-        char[]          achValue = hArray.m_achValue;
+        CharArrayHandle hArray = (CharArrayHandle) hTarget;
+
+        hArray.ensureExclusive();
+
+        int    ixNext   = hArray.m_cSize;
+        char[] achValue = hArray.m_achValue;
 
         if (ixNext == achValue.length)
             {
@@ -204,16 +242,19 @@ public class xCharArray
 
         int    cNew;
         char[] achNew;
+        int    ofNew;
         if (hElements instanceof StringHandle)
             {
             achNew = ((StringHandle) hElements).getValue();
             cNew   = achNew.length;
+            ofNew  = 0;
             }
         else if (hElements instanceof CharArrayHandle)
             {
             CharArrayHandle hArrayAdd = (CharArrayHandle) hElements;
             cNew   = hArrayAdd.m_cSize;
             achNew = hArrayAdd.m_achValue;
+            ofNew  = hArrayAdd.m_ofStart;
             }
         else
             {
@@ -223,6 +264,8 @@ public class xCharArray
 
         if (cNew > 0)
             {
+            hArray.ensureExclusive();
+
             char[] achArray = hArray.m_achValue;
             int    cArray   = hArray.m_cSize;
 
@@ -231,7 +274,7 @@ public class xCharArray
                 achArray = hArray.m_achValue = grow(achArray, cArray + cNew);
                 }
             hArray.m_cSize += cNew;
-            System.arraycopy(achNew, 0, achArray, cArray, cNew);
+            System.arraycopy(achNew, ofNew, achArray, cArray, cNew);
             }
         }
 
@@ -240,42 +283,47 @@ public class xCharArray
         {
         CharArrayHandle hArray = (CharArrayHandle) hTarget;
 
-        char[] achValue = hArray.m_achValue;
-        try
+        long c = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= c || ixTo >= c)
             {
-            char[] achNew;
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            }
 
-            if (fReverse)
-                {
-                int cNew = (int) (ixTo - ixFrom + 1);
+        char[]          achValue = hArray.m_achValue;
+        int             ofStart  = hArray.m_ofStart;
+        int             cNew     = (int) (ixTo - ixFrom + 1);
+        CharArrayHandle hArrayNew;
 
-                achNew = new char[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    achNew[i] = achNew[(int) ixTo - i];
-                    }
-                }
-            else
+        if (fReverse)
+            {
+            char[] achNew = new char[cNew];
+            for (int i = 0; i < cNew; i++)
                 {
-                achNew = Arrays.copyOfRange(achValue, (int) ixFrom, (int) ixTo + 1);
+                achNew[i] = achValue[ofStart + (int) ixTo - i];
                 }
-
-            CharArrayHandle  hArrayNew = new CharArrayHandle(
-                hArray.getComposition(), achNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
+            hArrayNew = new CharArrayHandle(hArray.getComposition(), achNew, hArray.m_mutability);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = achValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            // the slice is a view into the same storage
+            hArray.m_fShared = true;
+            hArrayNew = new CharArrayHandle(hArray.getComposition(),
+                achValue, ofStart + (int) ixFrom, cNew, hArray.m_mutability);
             }
+
+        return frame.assignValue(iReturn, hArrayNew);
         }
 
 
     // ----- helper methods -----
 
+    @Override
+    protected long getStorageByteSize(long cCapacity)
+        {
+        return ObjectHandle.BYTES_ARRAY + 2L * cCapacity;
+        }
+
     private char[] grow(char[] achValue, int cSize)
         {
         int cCapacity = calculateCapacity(achValue.length, cSize);
@@ -298,6 +346,20 @@ public class xCharArray
             m_cSize    = achValue.length;
             }
 
+        /**
+         * Create a handle that shares the specified storage with another handle.
+         */
+        protected CharArrayHandle(TypeComposition clzArray, char[] achValue, int ofStart, int cSize,
+                                  Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_achValue = achValue;
+            m_ofStart  = ofStart;
+            m_cSize    = cSize;
+            m_fShared  = true;
+            }
+
         protected CharArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -305,30 +367,68 @@ public class xCharArray
             m_achValue = new char[cCapacity];
             }
 
+        /**
+         * @return a char array with the content of this array handle; could be the backing
+         *         storage itself
+         */
+        public char[] getChars()
+            {
+            char[] ach = m_achValue;
+            int    of  = m_ofStart;
+            int    c   = m_cSize;
+            return of == 0 && ach.length == c ? ach : Arrays.copyOfRange(ach, of, of + c);
+            }
+
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + 2L * getChargedLength(m_achValue.length);
+            }
+
         @Override
         public int getCapacity()
             {
-            return m_achValue.length;
+            return m_achValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            char[] achOld = m_achValue;
-            char[] achNew = new char[nCapacity];
-            System.arraycopy(achOld, 0, achNew, 0, achOld.length);
+            if (m_fShared)
+                {
+                detach(nCapacity);
+
+                m_ofStart = 0;
+                m_fShared = false;
+                }
+            else
+                {
+                char[] achOld = m_achValue;
+                char[] achNew = new char[nCapacity];
+                System.arraycopy(achOld, 0, achNew, 0, achOld.length);
+                m_achValue = achNew;
+                }
+            }
+
+        @Override
+        protected void detach(int cCapacity)
+            {
+            char[] achNew = new char[cCapacity];
+            System.arraycopy(m_achValue, m_ofStart, achNew, 0, m_cSize);
             m_achValue = achNew;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xChar.makeHandle(m_achValue[ix]);
+            return xChar.makeHandle(m_achValue[m_ofStart + ix]);
             }
 
         @Override
         public void deleteElement(int ix)
             {
+            ensureExclusive();
+
             if (ix < m_cSize - 1)
                 {
                 System.arraycopy(m_achValue, ix+1, m_achValue, ix, m_cSize-ix-1);
@@ -341,10 +441,10 @@ public class xCharArray
             {
             if (isMutable())
                 {
-                // purge the unused space
+                // purge the unused space (unless the storage is shared)
                 char[] ach = m_achValue;
                 int    c   = m_cSize;
-                if (ach.length != c)
+                if (!m_fShared && ach.length != c)
                     {
                     char[] achNew = new char[c];
                     System.arraycopy(ach, 0, achNew, 0, c);
@@ -363,10 +463,14 @@ public class xCharArray
         @Override
         public int compareTo(ObjectHandle that)
             {
+            CharArrayHandle hThat = (CharArrayHandle) that;
+
             char[] achThis = m_achValue;
+            int    ofThis  = m_ofStart;
             int    cThis   = m_cSize;
-            char[] achThat = ((CharArrayHandle) that).m_achValue;
-            int    cThat   = ((CharArrayHandle) that).m_cSize;
+            char[] achThat = hThat.m_achValue;
+            int    ofThat  = hThat.m_ofStart;
+            int    cThat   = hThat.m_cSize;
 
             if (cThis != cThat)
                 {
@@ -375,7 +479,7 @@ public class xCharArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                int iDiff = achThis[i] - achThat[i];
+                int iDiff = achThis[ofThis + i] - achThat[ofThat + i];
                 if (iDiff != 0)
                     {
                     return iDiff;
@@ -387,21 +491,34 @@ public class xCharArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_achValue);
+            char[] ach   = m_achValue;
+            int    of    = m_ofStart;
+            int    nHash = 1;
+            for (int i = of, c = of + m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + ach[i];
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof CharArrayHandle
-                && Arrays.equals(m_achValue, ((CharArrayHandle) obj).m_achValue);
+            if (!(obj instanceof CharArrayHandle))
+                {
+                return false;
+                }
+
+            CharArrayHandle that = (CharArrayHandle) obj;
+            return Arrays.equals(this.m_achValue, this.m_ofStart, this.m_ofStart + this.m_cSize,
+                                 that.m_achValue, that.m_ofStart, that.m_ofStart + that.m_cSize);
             }
 
         @Override
         public String toString()
             {
             // for debugging only
-            return String.copyValueOf(m_achValue, 0, m_cSize);
+            return String.copyValueOf(m_achValue, m_ofStart, m_cSize);
             }
         }
 
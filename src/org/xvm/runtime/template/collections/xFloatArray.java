@@ -0,0 +1,485 @@
+package org.xvm.runtime.template.collections;
+
+
+import java.util.Arrays;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ArrayHandle;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.numbers.BaseBinaryFP;
+import org.xvm.runtime.template.numbers.BaseBinaryFP.FloatHandle;
+
+
+/**
+ * Native implementation of the arrays of binary floating point values that fit into 64 bits
+ * (Float16, Float32 and Float64): the elements are held in a double[] storage.
+ */
+public class xFloatArray
+        extends xArray
+    {
+    /**
+     * Construct a template for the arrays of the specified floating point type.
+     *
+     * @param templateEl  the template for the element type
+     */
+    public xFloatArray(TemplateRegistry templates, ClassStructure structure, BaseBinaryFP templateEl)
+        {
+        super(templates, structure, false);
+
+        f_templateEl = templateEl;
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        }
+
+    @Override
+    public TypeConstant getCanonicalType()
+        {
+        ConstantPool pool = pool();
+        return pool.ensureParameterizedTypeConstant(pool.typeArray(), f_templateEl.getCanonicalType());
+        }
+
+    @Override
+    public ArrayHandle createArrayHandle(ClassComposition clzArray, ObjectHandle[] ahArg)
+        {
+        int      c  = ahArg.length;
+        double[] ad = new double[c];
+        for (int i = 0; i < c; i++)
+            {
+            ad[i] = ((FloatHandle) ahArg[i]).getValue();
+            }
+        return new FloatArrayHandle(clzArray, ad, Mutability.Constant);
+        }
+
+    @Override
+    protected ArrayHandle createCopy(ArrayHandle hArray, Mutability mutability)
+        {
+        FloatArrayHandle hSrc = (FloatArrayHandle) hArray;
+
+        // the copy shares the storage until either side needs to change it
+        hSrc.m_fShared = true;
+        return new FloatArrayHandle(hSrc.getComposition(),
+            hSrc.m_adValue, hSrc.m_ofStart, hSrc.m_cSize, mutability);
+        }
+
+    @Override
+    protected void fill(ArrayHandle hArray, int cSize, ObjectHandle hValue)
+        {
+        FloatArrayHandle ha = (FloatArrayHandle) hArray;
+
+        Arrays.fill(ha.m_adValue, 0, cSize, ((FloatHandle) hValue).getValue());
+        ha.m_cSize = cSize;
+        }
+
+    @Override
+    protected void fill(Frame frame, ArrayHandle hArray, int ixFrom, int ixTo, ObjectHandle hValue)
+        {
+        FloatArrayHandle ha = (FloatArrayHandle) hArray;
+
+        Arrays.fill(ha.m_adValue, ha.m_ofStart + ixFrom, ha.m_ofStart + ixTo + 1,
+                ((FloatHandle) hValue).getValue());
+        }
+
+    @Override
+    protected int sortNatural(Frame frame, ArrayHandle hArray, int iReturn)
+        {
+        return sortNatively(frame, hArray, xFloatArray::sortFloats, iReturn);
+        }
+
+    /**
+     * Sort the elements of the array, which exclusively owns its storage, in their natural order.
+     */
+    private static void sortFloats(ArrayHandle hArray)
+        {
+        FloatArrayHandle ha = (FloatArrayHandle) hArray;
+
+        // Arrays.sort() uses the same total order as the Double.compare() used by callCompare()
+        Arrays.sort(ha.m_adValue, ha.m_ofStart, ha.m_ofStart + ha.m_cSize);
+        }
+
+    @Override
+    public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
+        {
+        return new FloatArrayHandle(clzArray, cCapacity, mutability);
+        }
+
+    @Override
+    public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        FloatArrayHandle hArray = (FloatArrayHandle) hTarget;
+
+        if (lIndex < 0 || lIndex >= hArray.m_cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
+            }
+        return frame.assignValue(iReturn,
+                f_templateEl.makeHandle(hArray.m_adValue[hArray.m_ofStart + (int) lIndex]));
+        }
+
+    @Override
+    public int assignArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, ObjectHandle hValue)
+        {
+        FloatArrayHandle hArray = (FloatArrayHandle) hTarget;
+
+        int cSize = hArray.m_cSize;
+
+        if (lIndex < 0 || lIndex > cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, cSize));
+            }
+
+        switch (hArray.m_mutability)
+            {
+            case Constant:
+                return frame.raiseException(xException.immutableObject(frame));
+
+            case Persistent:
+                return frame.raiseException(xException.unsupportedOperation(frame));
+            }
+
+        hArray.ensureExclusive();
+
+        double[] adValue = hArray.m_adValue;
+        if (lIndex == cSize)
+            {
+            // an array can only grow without any "holes"
+            if (cSize == adValue.length)
+                {
+                if (hArray.m_mutability == Mutability.FixedSize)
+                    {
+                    return frame.raiseException(xException.readOnly(frame));
+                    }
+
+                if (reserveCapacity(frame, hArray, cSize + 1) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
+                adValue = hArray.m_adValue = grow(adValue, cSize + 1);
+                }
+
+            hArray.m_cSize++;
+            }
+
+        adValue[(int) lIndex] = ((FloatHandle) hValue).getValue();
+        return Op.R_NEXT;
+        }
+
+    @Override
+    public int callEquals(Frame frame, ClassComposition clazz,
+                          ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
+        {
+        FloatArrayHandle h1 = (FloatArrayHandle) hValue1;
+        FloatArrayHandle h2 = (FloatArrayHandle) hValue2;
+
+        // the elements are compared the same way the BaseBinaryFP.callEquals() compares them
+        if (h1.m_cSize != h2.m_cSize)
+            {
+            return frame.assignValue(iReturn, xBoolean.FALSE);
+            }
+
+        double[] ad1 = h1.m_adValue;
+        double[] ad2 = h2.m_adValue;
+        for (int i = 0, of1 = h1.m_ofStart, of2 = h2.m_ofStart, c = h1.m_cSize; i < c; i++)
+            {
+            if (ad1[of1 + i] != ad2[of2 + i])
+                {
+                return frame.assignValue(iReturn, xBoolean.FALSE);
+                }
+            }
+        return frame.assignValue(iReturn, xBoolean.TRUE);
+        }
+
+    @Override
+    public boolean compareIdentity(ObjectHandle hValue1, ObjectHandle hValue2)
+        {
+        FloatArrayHandle hArray1 = (FloatArrayHandle) hValue1;
+        FloatArrayHandle hArray2 = (FloatArrayHandle) hValue2;
+
+        if (hArray1.isMutable() || hArray2.isMutable())
+            {
+            return false;
+            }
+
+        return hArray1.equals(hArray2);
+        }
+
+    @Override
+    protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
+        {
+        FloatArrayHandle hArray = (FloatArrayHandle) hTarget;
+
+        hArray.ensureExclusive();
+
+        int      ixNext  = hArray.m_cSize;
+        double[] adValue = hArray.m_adValue;
+
+        if (ixNext == adValue.length)
+            {
+            adValue = hArray.m_adValue = grow(hArray.m_adValue, ixNext + 1);
+            }
+        hArray.m_cSize++;
+
+        adValue[ixNext] = ((FloatHandle) hElement).getValue();
+        }
+
+    @Override
+    protected void addElements(ArrayHandle hTarget, ObjectHandle hElements)
+        {
+        FloatArrayHandle hArray    = (FloatArrayHandle) hTarget;
+        FloatArrayHandle hArrayAdd = (FloatArrayHandle) hElements;
+
+        int cAdd = hArrayAdd.m_cSize;
+        if (cAdd > 0)
+            {
+            hArray.ensureExclusive();
+
+            double[] adThis = hArray.m_adValue;
+            int      cThis  = hArray.m_cSize;
+            int      cNew   = cThis + cAdd;
+            if (cNew > adThis.length)
+                {
+                adThis = hArray.m_adValue = grow(adThis, cNew);
+                }
+            hArray.m_cSize = cNew;
+            System.arraycopy(hArrayAdd.m_adValue, hArrayAdd.m_ofStart, adThis, cThis, cAdd);
+            }
+        }
+
+    @Override
+    protected int slice(Frame frame, ObjectHandle hTarget, long ixFrom, long ixTo, boolean fReverse, int iReturn)
+        {
+        FloatArrayHandle hArray = (FloatArrayHandle) hTarget;
+
+        long c = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= c || ixTo >= c)
+            {
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            }
+
+        double[]         adValue = hArray.m_adValue;
+        int              ofStart = hArray.m_ofStart;
+        int              cNew    = (int) (ixTo - ixFrom + 1);
+        FloatArrayHandle hArrayNew;
+
+        if (fReverse)
+            {
+            double[] adNew = new double[cNew];
+            for (int i = 0; i < cNew; i++)
+                {
+                adNew[i] = adValue[ofStart + (int) ixTo - i];
+                }
+            hArrayNew = new FloatArrayHandle(hArray.getComposition(), adNew, hArray.m_mutability);
+            }
+        else
+            {
+            // the slice is a view into the same storage
+            hArray.m_fShared = true;
+            hArrayNew = new FloatArrayHandle(hArray.getComposition(),
+                adValue, ofStart + (int) ixFrom, cNew, hArray.m_mutability);
+            }
+
+        return frame.assignValue(iReturn, hArrayNew);
+        }
+
+
+    // ----- helper methods -----
+
+    @Override
+    protected long getStorageByteSize(long cCapacity)
+        {
+        return ObjectHandle.BYTES_ARRAY + 8L * cCapacity;
+        }
+
+    private double[] grow(double[] adValue, int cSize)
+        {
+        int cCapacity = calculateCapacity(adValue.length, cSize);
+
+        double[] adNew = new double[cCapacity];
+        System.arraycopy(adValue, 0, adNew, 0, adValue.length);
+        return adNew;
+        }
+
+    /**
+     * The template for the element type.
+     */
+    protected final BaseBinaryFP f_templateEl;
+
+
+    // ----- ObjectHandle helpers -----
+
+    public static class FloatArrayHandle
+            extends ArrayHandle
+        {
+        public double[] m_adValue;
+
+        protected FloatArrayHandle(TypeComposition clzArray, double[] adValue, Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_adValue = adValue;
+            m_cSize   = adValue.length;
+            }
+
+        /**
+         * Create a handle that shares the specified storage with another handle.
+         */
+        protected FloatArrayHandle(TypeComposition clzArray, double[] adValue, int ofStart, int cSize,
+                                   Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_adValue = adValue;
+            m_ofStart = ofStart;
+            m_cSize   = cSize;
+            m_fShared = true;
+            }
+
+        protected FloatArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_adValue = new double[cCapacity];
+            }
+
+        /**
+         * @return the value of the element at the specified index
+         */
+        public double getValue(int ix)
+            {
+            return m_adValue[m_ofStart + ix];
+            }
+
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + 8L * getChargedLength(m_adValue.length);
+            }
+
+        @Override
+        public int getCapacity()
+            {
+            return m_adValue.length - m_ofStart;
+            }
+
+        @Override
+        public void setCapacity(int nCapacity)
+            {
+            if (m_fShared)
+                {
+                detach(nCapacity);
+
+                m_ofStart = 0;
+                m_fShared = false;
+                }
+            else
+                {
+                double[] adOld = m_adValue;
+                double[] adNew = new double[nCapacity];
+                System.arraycopy(adOld, 0, adNew, 0, adOld.length);
+                m_adValue = adNew;
+                }
+            }
+
+        @Override
+        protected void detach(int cCapacity)
+            {
+            double[] adNew = new double[cCapacity];
+            System.arraycopy(m_adValue, m_ofStart, adNew, 0, m_cSize);
+            m_adValue = adNew;
+            }
+
+        @Override
+        public ObjectHandle getElement(int ix)
+            {
+            return ((xFloatArray) getTemplate()).f_templateEl.makeHandle(m_adValue[m_ofStart + ix]);
+            }
+
+        @Override
+        public void deleteElement(int ix)
+            {
+            ensureExclusive();
+
+            if (ix < m_cSize - 1)
+                {
+                System.arraycopy(m_adValue, ix+1, m_adValue, ix, m_cSize-ix-1);
+                }
+            m_adValue[--m_cSize] = 0;
+            }
+
+        @Override
+        public boolean isNativeEqual()
+            {
+            return true;
+            }
+
+        @Override
+        public int compareTo(ObjectHandle that)
+            {
+            FloatArrayHandle hThat = (FloatArrayHandle) that;
+
+            double[] adThis = m_adValue;
+            int      ofThis = m_ofStart;
+            int      cThis  = m_cSize;
+            double[] adThat = hThat.m_adValue;
+            int      ofThat = hThat.m_ofStart;
+            int      cThat  = hThat.m_cSize;
+
+            if (cThis != cThat)
+                {
+                return cThis - cThat;
+                }
+
+            for (int i = 0; i < cThis; i++)
+                {
+                int nDiff = Double.compare(adThis[ofThis + i], adThat[ofThat + i]);
+                if (nDiff != 0)
+                    {
+                    return nDiff;
+                    }
+                }
+            return 0;
+            }
+
+        @Override
+        public int hashCode()
+            {
+            double[] ad    = m_adValue;
+            int      of    = m_ofStart;
+            int      nHash = 1;
+            for (int i = of, c = of + m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + Double.hashCode(ad[i]);
+                }
+            return nHash;
+            }
+
+        @Override
+        public boolean equals(Object obj)
+            {
+            if (!(obj instanceof FloatArrayHandle))
+                {
+                return false;
+                }
+
+            FloatArrayHandle that = (FloatArrayHandle) obj;
+            return Arrays.equals(this.m_adValue, this.m_ofStart, this.m_ofStart + this.m_cSize,
+                                 that.m_adValue, that.m_ofStart, that.m_ofStart + that.m_cSize);
+            }
+        }
+    }
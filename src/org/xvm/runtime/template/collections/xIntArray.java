@@ -20,11 +20,14 @@ import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.template.xBoolean;
 import org.xvm.runtime.template.xException;
 
+import org.xvm.runtime.template.numbers.xConstrainedInteger;
 import org.xvm.runtime.template.numbers.xInt64;
+import org.xvm.runtime.template.numbers.xUInt64;
 
 
 /**
- * Native Array<Int> implementation.
+ * Native Array<Int> implementation, which is also used for the arrays of all other integer types
+ * that fit into 64 bits (except Byte): the elements are held in a long[] storage.
  */
 public class xIntArray
         extends xArray
@@ -33,7 +36,7 @@ public class xIntArray
 
     public xIntArray(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
         {
-        super(templates, structure, false);
+        this(templates, structure, (xConstrainedInteger) templates.getTemplate("numbers.Int64"));
 
         if (fInstance)
             {
@@ -41,6 +44,19 @@ public class xIntArray
             }
         }
 
+    /**
+     * Construct a template for the arrays of the specified integer type.
+     *
+     * @param templateEl  the template for the element type
+     */
+    public xIntArray(TemplateRegistry templates, ClassStructure structure,
+                     xConstrainedInteger templateEl)
+        {
+        super(templates, structure, false);
+
+        f_templateEl = templateEl;
+        }
+
     @Override
     public void initDeclared()
         {
@@ -50,7 +66,7 @@ public class xIntArray
     public TypeConstant getCanonicalType()
         {
         ConstantPool pool = pool();
-        return pool.ensureParameterizedTypeConstant(pool.typeArray(), pool.typeInt());
+        return pool.ensureParameterizedTypeConstant(pool.typeArray(), f_templateEl.getCanonicalType());
         }
 
     @Override
@@ -70,8 +86,10 @@ public class xIntArray
         {
         IntArrayHandle hSrc = (IntArrayHandle) hArray;
 
+        // the copy shares the storage until either side needs to change it
+        hSrc.m_fShared = true;
         return new IntArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_alValue, 0, hSrc.m_cSize), mutability);
+            hSrc.m_alValue, hSrc.m_ofStart, hSrc.m_cSize, mutability);
         }
 
     @Override
@@ -83,6 +101,50 @@ public class xIntArray
         ha.m_cSize = cSize;
         }
 
+    @Override
+    protected void fill(Frame frame, ArrayHandle hArray, int ixFrom, int ixTo, ObjectHandle hValue)
+        {
+        IntArrayHandle ha = (IntArrayHandle) hArray;
+
+        Arrays.fill(ha.m_alValue, ha.m_ofStart + ixFrom, ha.m_ofStart + ixTo + 1,
+                ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    protected int sortNatural(Frame frame, ArrayHandle hArray, int iReturn)
+        {
+        return sortNatively(frame, hArray, this::sortLongs, iReturn);
+        }
+
+    /**
+     * Sort the elements of the array, which exclusively owns its storage, in their natural order.
+     */
+    private void sortLongs(ArrayHandle hArray)
+        {
+        IntArrayHandle ha = (IntArrayHandle) hArray;
+
+        long[] al = ha.m_alValue;
+        int    of = ha.m_ofStart;
+        int    c  = ha.m_cSize;
+        if (f_templateEl instanceof xUInt64)
+            {
+            // flip the sign bit to sort the unsigned values using the signed order
+            for (int i = of, cTo = of + c; i < cTo; i++)
+                {
+                al[i] ^= Long.MIN_VALUE;
+                }
+            Arrays.sort(al, of, of + c);
+            for (int i = of, cTo = of + c; i < cTo; i++)
+                {
+                al[i] ^= Long.MIN_VALUE;
+                }
+            }
+        else
+            {
+            Arrays.sort(al, of, of + c);
+            }
+        }
+
     @Override
     public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
         {
@@ -98,7 +160,8 @@ public class xIntArray
             {
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
-        return frame.assignValue(iReturn, xInt64.makeHandle(hArray.m_alValue[(int) lIndex]));
+        return frame.assignValue(iReturn,
+                f_templateEl.makeJavaLong(hArray.m_alValue[hArray.m_ofStart + (int) lIndex]));
         }
 
     @Override
@@ -122,6 +185,8 @@ public class xIntArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.ensureExclusive();
+
         long[] alValue = hArray.m_alValue;
         if (lIndex == cSize)
             {
@@ -133,6 +198,10 @@ public class xIntArray
                     return frame.raiseException(xException.readOnly(frame));
                     }
 
+                if (reserveCapacity(frame, hArray, cSize + 1) == Op.R_EXCEPTION)
+                    {
+                    return Op.R_EXCEPTION;
+                    }
                 alValue = hArray.m_alValue = grow(alValue, cSize + 1);
                 }
 
@@ -143,8 +212,15 @@ public class xIntArray
         return Op.R_NEXT;
         }
 
+    @Override
     public int invokePreInc(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
         {
+        if (this != INSTANCE)
+            {
+            // the narrower types need to be checked for an overflow
+            return super.invokePreInc(frame, hTarget, lIndex, iReturn);
+            }
+
         IntArrayHandle hArray = (IntArrayHandle) hTarget;
 
         if (lIndex < 0 || lIndex >= hArray.m_cSize)
@@ -152,6 +228,8 @@ public class xIntArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        hArray.ensureExclusive();
+
         return frame.assignValue(iReturn,
                 xInt64.makeHandle(++hArray.m_alValue[(int) lIndex]));
         }
@@ -163,8 +241,7 @@ public class xIntArray
         IntArrayHandle h1 = (IntArrayHandle) hValue1;
         IntArrayHandle h2 = (IntArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_alValue, h2.m_alValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equals(h2)));
         }
 
     @Override
@@ -173,20 +250,23 @@ public class xIntArray
         IntArrayHandle hArray1 = (IntArrayHandle) hValue1;
         IntArrayHandle hArray2 = (IntArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_alValue, hArray2.m_alValue);
+        return hArray1.equals(hArray2);
         }
 
     @Override
     protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
         {
-        IntArrayHandle hArray  = (IntArrayHandle) hTarget;
-        int            ixNext  = hArray.m_cSize;
-        long[]         alValue = hArray.m_alValue;
+        IntArrayHandle hArray = (IntArrayHandle) hTarget;
+
+        hArray.ensureExclusive();
+
+        int    ixNext  = hArray.m_cSize;
+        long[] alValue = hArray.m_alValue;
 
         if (ixNext == alValue.length)
             {
@@ -206,6 +286,8 @@ public class xIntArray
         int cAdd = hArrayAdd.m_cSize;
         if (cAdd > 0)
             {
+            hArray.ensureExclusive();
+
             long[] alThis = hArray.m_alValue;
             int    cThis  = hArray.m_cSize;
             int    cNew   = cThis + cAdd;
@@ -214,7 +296,7 @@ public class xIntArray
                 alThis = hArray.m_alValue = grow(alThis, cNew);
                 }
             hArray.m_cSize = cNew;
-            System.arraycopy(hArrayAdd.m_alValue, 0, alThis, cThis, cAdd);
+            System.arraycopy(hArrayAdd.m_alValue, hArrayAdd.m_ofStart, alThis, cThis, cAdd);
             }
         }
 
@@ -223,42 +305,47 @@ public class xIntArray
         {
         IntArrayHandle hArray = (IntArrayHandle) hTarget;
 
-        long[] alValue = hArray.m_alValue;
-        try
+        long c = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= c || ixTo >= c)
             {
-            long[] alNew;
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            }
 
-            if (fReverse)
-                {
-                int cNew = (int) (ixTo - ixFrom + 1);
+        long[]         alValue = hArray.m_alValue;
+        int            ofStart = hArray.m_ofStart;
+        int            cNew    = (int) (ixTo - ixFrom + 1);
+        IntArrayHandle hArrayNew;
 
-                alNew = new long[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    alNew[i] = alNew[(int) ixTo - i];
-                    }
-                }
-            else
+        if (fReverse)
+            {
+            long[] alNew = new long[cNew];
+            for (int i = 0; i < cNew; i++)
                 {
-                alNew = Arrays.copyOfRange(alValue, (int) ixFrom, (int) ixTo + 1);
+                alNew[i] = alValue[ofStart + (int) ixTo - i];
                 }
-
-            IntArrayHandle hArrayNew = new IntArrayHandle(
-                hArray.getComposition(), alNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
+            hArrayNew = new IntArrayHandle(hArray.getComposition(), alNew, hArray.m_mutability);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = alValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            // the slice is a view into the same storage
+            hArray.m_fShared = true;
+            hArrayNew = new IntArrayHandle(hArray.getComposition(),
+                alValue, ofStart + (int) ixFrom, cNew, hArray.m_mutability);
             }
+
+        return frame.assignValue(iReturn, hArrayNew);
         }
 
 
     // ----- helper methods -----
 
+    @Override
+    protected long getStorageByteSize(long cCapacity)
+        {
+        return ObjectHandle.BYTES_ARRAY + 8L * cCapacity;
+        }
+
     private long[] grow(long[] alValue, int cSize)
         {
         int cCapacity = calculateCapacity(alValue.length, cSize);
@@ -268,6 +355,23 @@ public class xIntArray
         return alNew;
         }
 
+
+    /**
+     * The template for the element type.
+     */
+    protected final xConstrainedInteger f_templateEl;
+
+
+    // ----- ObjectHandle helpers -----
+
+    /**
+     * @return an immutable Int array handle
+     */
+    public static ArrayHandle makeIntArrayHandle(long[] alValue)
+        {
+        return new IntArrayHandle(INSTANCE.getCanonicalClass(), alValue, Mutability.Constant);
+        }
+
     public static class IntArrayHandle
             extends ArrayHandle
         {
@@ -281,6 +385,20 @@ public class xIntArray
             m_cSize   = alValue.length;
             }
 
+        /**
+         * Create a handle that shares the specified storage with another handle.
+         */
+        protected IntArrayHandle(TypeComposition clzArray, long[] alValue, int ofStart, int cSize,
+                                 Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_alValue = alValue;
+            m_ofStart = ofStart;
+            m_cSize   = cSize;
+            m_fShared = true;
+            }
+
         protected IntArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -288,30 +406,64 @@ public class xIntArray
             m_alValue = new long[cCapacity];
             }
 
+        /**
+         * @return the value of the element at the specified index
+         */
+        public long getValue(int ix)
+            {
+            return m_alValue[m_ofStart + ix];
+            }
+
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + 8L * getChargedLength(m_alValue.length);
+            }
+
         @Override
         public int getCapacity()
             {
-            return m_alValue.length;
+            return m_alValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            long[] alOld = m_alValue;
-            long[] alNew = new long[nCapacity];
-            System.arraycopy(alOld, 0, alNew, 0, alOld.length);
+            if (m_fShared)
+                {
+                detach(nCapacity);
+
+                m_ofStart = 0;
+                m_fShared = false;
+                }
+            else
+                {
+                long[] alOld = m_alValue;
+                long[] alNew = new long[nCapacity];
+                System.arraycopy(alOld, 0, alNew, 0, alOld.length);
+                m_alValue = alNew;
+                }
+            }
+
+        @Override
+        protected void detach(int cCapacity)
+            {
+            long[] alNew = new long[cCapacity];
+            System.arraycopy(m_alValue, m_ofStart, alNew, 0, m_cSize);
             m_alValue = alNew;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xInt64.makeHandle(m_alValue[ix]);
+            return ((xIntArray) getTemplate()).f_templateEl.makeJavaLong(m_alValue[m_ofStart + ix]);
             }
 
         @Override
         public void deleteElement(int ix)
             {
+            ensureExclusive();
+
             if (ix < m_cSize - 1)
                 {
                 System.arraycopy(m_alValue, ix+1, m_alValue, ix, m_cSize-ix-1);
@@ -328,10 +480,14 @@ public class xIntArray
         @Override
         public int compareTo(ObjectHandle that)
             {
+            IntArrayHandle hThat = (IntArrayHandle) that;
+
             long[] alThis = m_alValue;
+            int    ofThis = m_ofStart;
             int    cThis  = m_cSize;
-            long[] alThat = ((IntArrayHandle) that).m_alValue;
-            int    cThat  = ((IntArrayHandle) that).m_cSize;
+            long[] alThat = hThat.m_alValue;
+            int    ofThat = hThat.m_ofStart;
+            int    cThat  = hThat.m_cSize;
 
             if (cThis != cThat)
                 {
@@ -340,7 +496,7 @@ public class xIntArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                long lDiff = alThis[i] - alThat[i];
+                long lDiff = alThis[ofThis + i] - alThat[ofThat + i];
                 if (lDiff != 0)
                     {
                     return lDiff < 0 ? -1 : 1;
@@ -352,14 +508,27 @@ public class xIntArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_alValue);
+            long[] al    = m_alValue;
+            int    of    = m_ofStart;
+            int    nHash = 1;
+            for (int i = of, c = of + m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + Long.hashCode(al[i]);
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof IntArrayHandle
-                && Arrays.equals(m_alValue, ((IntArrayHandle) obj).m_alValue);
+            if (!(obj instanceof IntArrayHandle))
+                {
+                return false;
+                }
+
+            IntArrayHandle that = (IntArrayHandle) obj;
+            return Arrays.equals(this.m_alValue, this.m_ofStart, this.m_ofStart + this.m_cSize,
+                                 that.m_alValue, that.m_ofStart, that.m_ofStart + that.m_cSize);
             }
         }
     }
@@ -3,6 +3,8 @@ package org.xvm.runtime.template.collections;
 
 import java.util.Arrays;
 
+import java.util.function.Consumer;
+
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constant;
 import org.xvm.asm.MethodStructure;
@@ -338,6 +340,21 @@ public class xTuple
             m_ahValue = ahValue;
             }
 
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + 4L * m_ahValue.length;
+            }
+
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            for (ObjectHandle hValue : m_ahValue)
+                {
+                consumer.accept(hValue);
+                }
+            }
+
         @Override
         public String toString()
             {
@@ -0,0 +1,225 @@
+package org.xvm.runtime.template.io;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.xChar;
+import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xString;
+
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+import org.xvm.runtime.template.numbers.xUInt8;
+
+import org.xvm.util.Handy;
+import org.xvm.util.PackedInteger;
+
+
+/**
+ * Native ByteArrayInputStream support: the packed integers and the UTF-8 encoded characters are
+ * decoded directly from the storage of the underlying byte array.
+ */
+public class xByteArrayInputStream
+        extends ClassTemplate
+    {
+    public static xByteArrayInputStream INSTANCE;
+
+    public xByteArrayInputStream(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        s_clzEndOfFile  = f_templates.getTemplate("io.EndOfFile").getCanonicalClass();
+        s_clzIllegalUTF = f_templates.getTemplate("io.IllegalUTF").getCanonicalClass();
+
+        markNativeMethod("readByte"      , VOID, null);
+        markNativeMethod("readPackedInt" , VOID, null);
+        markNativeMethod("readUTF8Char"  , VOID, null);
+        markNativeMethod("readUTF8String", INT , null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        switch (method.getName())
+            {
+            case "readUTF8String":  // (count)
+                {
+                long cch = ((JavaLong) hArg).getValue();
+                if (cch < 0 || cch > Integer.MAX_VALUE)
+                    {
+                    return frame.raiseException(xException.illegalArgument(frame,
+                            "illegal character count: " + cch));
+                    }
+                return decode(frame, (GenericHandle) hTarget, method.getName(), (int) cch, iReturn);
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        GenericHandle hStream = (GenericHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "readByte":
+                {
+                ByteArrayHandle hBytes = (ByteArrayHandle) hStream.getField("bytes");
+                int             ofRead = (int) ((JavaLong) hStream.getField("offset")).getValue();
+
+                if (ofRead >= hBytes.m_cSize)
+                    {
+                    return frame.raiseException(
+                            xException.makeHandle(frame, s_clzEndOfFile, null));
+                    }
+
+                hStream.setField("offset", xInt64.makeHandle(ofRead + 1));
+                return frame.assignValue(iReturn,
+                        xUInt8.makeHandle(hBytes.m_abValue[hBytes.m_ofStart + ofRead] & 0xFF));
+                }
+
+            case "readPackedInt":
+            case "readUTF8Char":
+                return decode(frame, hStream, method.getName(), 1, iReturn);
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    /**
+     * Decode a value from the byte array of the specified stream, starting at the stream's offset,
+     * and advance the stream's offset past the bytes that were consumed.
+     *
+     * @param frame    the current frame
+     * @param hStream  the ByteArrayInputStream handle
+     * @param sMethod  the name of the decoding method
+     * @param cch      the number of characters to decode (used only by "readUTF8String")
+     * @param iReturn  the register to place the decoded value into
+     *
+     * @return one of R_NEXT or R_EXCEPTION
+     */
+    private int decode(Frame frame, GenericHandle hStream, String sMethod, int cch, int iReturn)
+        {
+        ByteArrayHandle hBytes = (ByteArrayHandle) hStream.getField("bytes");
+        int             ofRead = (int) ((JavaLong) hStream.getField("offset")).getValue();
+        int             ofBase = hBytes.m_ofStart;
+        Source          source = new Source(hBytes.m_abValue, ofBase + ofRead,
+                                            Math.max(0, hBytes.m_cSize - ofRead));
+        DataInputStream in     = new DataInputStream(source);
+
+        ObjectHandle    hValue;
+        ExceptionHandle hException = null;
+        try
+            {
+            switch (sMethod)
+                {
+                case "readPackedInt":
+                    hValue = xInt64.makeHandle(PackedInteger.readLong(in));
+                    break;
+
+                case "readUTF8Char":
+                    hValue = xChar.makeHandle(Handy.readUtf8Char(in));
+                    break;
+
+                case "readUTF8String":
+                    {
+                    // each character takes at least one byte, so a count (e.g. a corrupt length
+                    // prefix) that exceeds the remaining bytes cannot be satisfied
+                    if (cch > source.available())
+                        {
+                        throw new EOFException();
+                        }
+
+                    StringBuilder sb = new StringBuilder(cch);
+                    for (int i = 0; i < cch; i++)
+                        {
+                        sb.appendCodePoint(Handy.readUtf8Char(in));
+                        }
+                    hValue = xString.makeHandle(sb.toString());
+                    break;
+                    }
+
+                default:
+                    throw new IllegalStateException(sMethod);
+                }
+            }
+        catch (EOFException e)
+            {
+            hValue     = null;
+            hException = xException.makeHandle(frame, s_clzEndOfFile, null);
+            }
+        catch (IOException | IllegalArgumentException e)
+            {
+            // the NumberFormatException (an IllegalArgumentException) indicates a packed integer
+            // that does not fit into 64 bits; anything else is a UTF-8 format error
+            hValue     = null;
+            hException = e instanceof NumberFormatException
+                    ? xException.outOfBounds(frame, e.getMessage())
+                    : xException.makeHandle(frame, s_clzIllegalUTF, e.getMessage());
+            }
+
+        // the bytes consumed (including by a failed read) are no longer available from the stream
+        hStream.setField("offset", xInt64.makeHandle(source.getPosition() - ofBase));
+
+        return hException == null
+                ? frame.assignValue(iReturn, hValue)
+                : frame.raiseException(hException);
+        }
+
+    /**
+     * A Java InputStream over a range of a byte array that exposes its read position.
+     */
+    private static class Source
+            extends ByteArrayInputStream
+        {
+        Source(byte[] ab, int of, int cb)
+            {
+            super(ab, of, cb);
+            }
+
+        /**
+         * @return the index in the byte array of the next byte to read
+         */
+        int getPosition()
+            {
+            return pos;
+            }
+        }
+
+    private static ClassComposition s_clzEndOfFile;
+    private static ClassComposition s_clzIllegalUTF;
+    }
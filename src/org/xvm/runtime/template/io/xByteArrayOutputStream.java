@@ -0,0 +1,204 @@
+package org.xvm.runtime.template.io;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xString.StringHandle;
+
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xByteArray;
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+import org.xvm.util.Handy;
+import org.xvm.util.PackedInteger;
+
+
+/**
+ * Native ByteArrayOutputStream support: the packed integers and the UTF-8 encoded characters are
+ * encoded directly into the storage of the underlying byte array.
+ */
+public class xByteArrayOutputStream
+        extends ClassTemplate
+    {
+    public static xByteArrayOutputStream INSTANCE;
+
+    public xByteArrayOutputStream(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        s_clzEndOfFile  = f_templates.getTemplate("io.EndOfFile").getCanonicalClass();
+        s_clzIllegalUTF = f_templates.getTemplate("io.IllegalUTF").getCanonicalClass();
+
+        markNativeMethod("writeByte"      , null, VOID);
+        markNativeMethod("writePackedInt" , null, VOID);
+        markNativeMethod("writeUTF8Char"  , null, VOID);
+        markNativeMethod("writeUTF8String", null, VOID);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        GenericHandle hStream = (GenericHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "writeByte":  // (value)
+                return write(frame, hStream, new byte[] {(byte) ((JavaLong) hArg).getValue()}, 1);
+
+            case "writePackedInt":  // (value)
+            case "writeUTF8Char":   // (value)
+            case "writeUTF8String": // (value)
+                {
+                Sink             sink = new Sink();
+                DataOutputStream out  = new DataOutputStream(sink);
+                try
+                    {
+                    switch (method.getName())
+                        {
+                        case "writePackedInt":
+                            PackedInteger.writeLong(out, ((JavaLong) hArg).getValue());
+                            break;
+
+                        case "writeUTF8Char":
+                            Handy.writeUtf8Char(out, (int) ((JavaLong) hArg).getValue());
+                            break;
+
+                        default:
+                            {
+                            char[] ach = ((StringHandle) hArg).getValue();
+                            for (int of = 0, cch = ach.length; of < cch; )
+                                {
+                                int ch = Character.codePointAt(ach, of);
+                                Handy.writeUtf8Char(out, ch);
+                                of += Character.charCount(ch);
+                                }
+                            break;
+                            }
+                        }
+                    }
+                catch (IOException e)
+                    {
+                    return frame.raiseException(
+                            xException.makeHandle(frame, s_clzIllegalUTF, e.getMessage()));
+                    }
+
+                return write(frame, hStream, sink.getBuffer(), sink.size());
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    /**
+     * Write the specified bytes into the byte array of the specified stream, starting at the
+     * stream's offset, and advance the stream's offset past the bytes that were written. This
+     * follows the same rules as the natural "writeByte" method does for each byte: the existing
+     * bytes are replaced, the mutable array grows as necessary, and it is not possible to write
+     * past the end of a fixed-size array.
+     *
+     * @param frame    the current frame
+     * @param hStream  the ByteArrayOutputStream handle
+     * @param ab       the bytes to write
+     * @param cb       the number of bytes to write
+     *
+     * @return one of R_NEXT or R_EXCEPTION
+     */
+    private int write(Frame frame, GenericHandle hStream, byte[] ab, int cb)
+        {
+        ByteArrayHandle hBytes  = (ByteArrayHandle) hStream.getField("bytes");
+        int             ofWrite = (int) ((JavaLong) hStream.getField("offset")).getValue();
+        int             cSize   = hBytes.m_cSize;
+
+        switch (hBytes.m_mutability)
+            {
+            case Constant:
+                return frame.raiseException(xException.immutableObject(frame));
+
+            case Persistent:
+                return frame.raiseException(xException.unsupportedOperation(frame));
+            }
+
+        boolean fEOF = false;
+        if (ofWrite + cb > cSize && hBytes.m_mutability == Mutability.FixedSize)
+            {
+            // write whatever fits
+            cb   = Math.max(0, cSize - ofWrite);
+            fEOF = true;
+            }
+
+        if (cb > 0)
+            {
+            int cNew = Math.max(cSize, ofWrite + cb);
+            if (xByteArray.INSTANCE.reserveCapacity(frame, hBytes, cNew) == Op.R_EXCEPTION)
+                {
+                return Op.R_EXCEPTION;
+                }
+
+            byte[] abDst = xByteArray.INSTANCE.ensureStorage(hBytes, cNew);
+
+            System.arraycopy(ab, 0, abDst, hBytes.m_ofStart + ofWrite, cb);
+            hBytes.m_cSize = cNew;
+
+            hStream.setField("offset", xInt64.makeHandle(ofWrite + cb));
+            }
+
+        return fEOF
+                ? frame.raiseException(xException.makeHandle(frame, s_clzEndOfFile, null))
+                : Op.R_NEXT;
+        }
+
+    /**
+     * A Java OutputStream that exposes its buffer.
+     */
+    private static class Sink
+            extends ByteArrayOutputStream
+        {
+        Sink()
+            {
+            super(16);
+            }
+
+        /**
+         * @return the underlying buffer, which holds {@link #size()} bytes
+         */
+        byte[] getBuffer()
+            {
+            return buf;
+            }
+        }
+
+    private static ClassComposition s_clzEndOfFile;
+    private static ClassComposition s_clzIllegalUTF;
+    }
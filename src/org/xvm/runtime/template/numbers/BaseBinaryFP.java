@@ -397,12 +397,19 @@ abstract public class BaseBinaryFP
         return makeHandle(fromLong(xConstrainedInteger.fromByteArray(aBytes, cBytes)));
         }
 
-    protected FloatHandle makeHandle(double dValue)
+    /**
+     * Create a handle for the type represented by this template.
+     *
+     * @param dValue  the underlying double value
+     *
+     * @return the corresponding handle
+     */
+    public FloatHandle makeHandle(double dValue)
         {
         return new FloatHandle(getCanonicalClass(), dValue);
         }
 
-    protected static class FloatHandle
+    public static class FloatHandle
             extends ObjectHandle
         {
         protected FloatHandle(ClassComposition clz, double dValue)
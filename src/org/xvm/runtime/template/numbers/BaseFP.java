@@ -107,7 +107,7 @@ abstract public class BaseFP
                 {
                 // construct(Byte[] bytes)
                 ByteArrayHandle hBytes = (ByteArrayHandle) ahVar[0];
-                byte[]          abVal  = hBytes.m_abValue;
+                byte[]          abVal  = hBytes.getBytes();
                 int             cBytes = hBytes.m_cSize;
 
                 return cBytes == f_cBits / 8
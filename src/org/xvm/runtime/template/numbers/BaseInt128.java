@@ -13,6 +13,7 @@ import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.TypeComposition;
 
@@ -84,8 +85,16 @@ public abstract class BaseInt128
             {
             PackedInteger piValue = ((IntConstant) constant).getValue();
 
-            frame.pushStack(makeLongLong(
-                LongLong.fromBigInteger(piValue.getBigInteger())));
+            if (piValue.isBig())
+                {
+                frame.pushStack(makeLongLong(
+                    LongLong.fromBigInteger(piValue.getBigInteger())));
+                }
+            else
+                {
+                long lValue = piValue.getLong();
+                frame.pushStack(makeLongLong(lValue, lValue < 0 ? -1L : 0L));
+                }
             return Op.R_NEXT;
             }
 
@@ -101,13 +110,18 @@ public abstract class BaseInt128
                 {
                 if (f_fSigned)
                     {
-                    LongLong ll = ((LongLongHandle) hTarget).getValue();
-                    if (ll.signum() < 0)
+                    LongLongHandle h = (LongLongHandle) hTarget;
+
+                    long lLow  = h.m_lLow;
+                    long lHigh = h.m_lHigh;
+                    if (lHigh < 0)
                         {
-                        ll = new LongLong(ll.getLowValue(), -ll.getHighValue());
+                        // the magnitude of the minimum value is representable as UInt128
+                        lLow  = -lLow;
+                        lHigh = lLow == 0 ? -lHigh : ~lHigh;
                         }
 
-                    return frame.assignValue(iReturn, xUInt128.INSTANCE.makeLongLong(ll));
+                    return frame.assignValue(iReturn, xUInt128.INSTANCE.makeLongLong(lLow, lHigh));
                     }
                 return frame.assignValue(iReturn, hTarget);
                 }
@@ -122,9 +136,6 @@ public abstract class BaseInt128
         {
         switch (method.getName())
             {
-            case "abs":
-                return invokeAbs(frame, hTarget, iReturn);
-
             case "add":
                 return invokeAdd(frame, hTarget, hArg, iReturn);
 
@@ -137,8 +148,8 @@ public abstract class BaseInt128
             case "div":
                 return invokeDiv(frame, hTarget, hArg, iReturn);
 
-            case "neg":
-                return invokeNeg(frame, hTarget, iReturn);
+            case "mod":
+                return invokeMod(frame, hTarget, hArg, iReturn);
             }
 
         return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
@@ -150,6 +161,12 @@ public abstract class BaseInt128
         {
         switch (method.getName())
             {
+            case "abs":
+                return invokeAbs(frame, hTarget, iReturn);
+
+            case "neg":
+                return invokeNeg(frame, hTarget, iReturn);
+
             case "toUnchecked":
                 {
                 return frame.raiseException(xException.unsupportedOperation(frame, "toUnchecked"));
@@ -181,21 +198,16 @@ public abstract class BaseInt128
 
                 if (template instanceof BaseInt128)
                     {
-                    BaseInt128 templateTo = (BaseInt128) template;
-                    LongLong    llValue    = ((LongLongHandle) hTarget).getValue();
+                    BaseInt128     templateTo = (BaseInt128) template;
+                    LongLongHandle h          = (LongLongHandle) hTarget;
 
-                    if (f_fSigned && llValue.signum() < 0 && !templateTo.f_fSigned)
+                    if (h.m_lHigh < 0 && f_fSigned != templateTo.f_fSigned)
                         {
-                        // cannot assign negative value to the unsigned type
+                        // cannot assign a negative value to the unsigned type, or a value that is
+                        // too large to the signed type
                         return overflow(frame);
                         }
-
-                    if (!f_fSigned && llValue.getHighValue() < 0 && templateTo.f_fSigned)
-                        {
-                        // too large value for signed LongLong
-                        return overflow(frame);
-                        }
-                    return frame.assignValue(iReturn, templateTo.makeLongLong(llValue));
+                    return frame.assignValue(iReturn, templateTo.makeLongLong(h.m_lLow, h.m_lHigh));
                     }
                 break;
                 }
@@ -206,25 +218,12 @@ public abstract class BaseInt128
 
     protected int invokeAbs(Frame frame, ObjectHandle hTarget, int iReturn)
         {
-        if (!f_fSigned)
+        if (!f_fSigned || ((LongLongHandle) hTarget).m_lHigh >= 0)
             {
             return frame.assignValue(iReturn, hTarget);
             }
 
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
-
-        if (ll.signum() >= 0)
-            {
-            frame.assignValue(iReturn, hTarget);
-            }
-
-        LongLong llr = ll.negate();
-        if (llr == LongLong.OVERFLOW)
-            {
-            return overflow(frame);
-            }
-
-        return frame.assignValue(iReturn, makeLongLong(llr));
+        return invokeNeg(frame, hTarget, iReturn);
         }
 
     @Override
@@ -235,220 +234,245 @@ public abstract class BaseInt128
             return overflow(frame);
             }
 
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
-        LongLong llr = ll.negate();
+        LongLongHandle h = (LongLongHandle) hTarget;
 
-        if (llr == LongLong.OVERFLOW)
+        long lLow  = h.m_lLow;
+        long lHigh = h.m_lHigh;
+        if (lLow == 0 && lHigh == Long.MIN_VALUE)
             {
             return overflow(frame);
             }
 
-        return frame.assignValue(iReturn, makeLongLong(llr));
+        lLow  = -lLow;
+        lHigh = lLow == 0 ? -lHigh : ~lHigh;
+        return frame.assignValue(iReturn, makeLongLong(lLow, lHigh));
         }
 
     @Override
     public int invokeAdd(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
-        LongLong llr = f_fSigned ? ll1.add(ll2) : ll1.addUnsigned(ll2);
-
-        if (llr == LongLong.OVERFLOW)
+        LongLongHandle h1 = (LongLongHandle) hTarget;
+        LongLongHandle h2 = (LongLongHandle) hArg;
+
+        long l1L = h1.m_lLow;
+        long l1H = h1.m_lHigh;
+        long l2L = h2.m_lLow;
+        long l2H = h2.m_lHigh;
+        long lrL = l1L + l2L;
+        long lrH = l1H + l2H + (Long.compareUnsigned(lrL, l1L) < 0 ? 1 : 0);
+
+        if (f_fSigned
+                ? ((l1H ^ lrH) & (l2H ^ lrH)) < 0              // same as for signed longs
+                : ((l1H & l2H) | ((l1H | l2H) & ~lrH)) < 0)    // same as for unsigned longs
             {
             return overflow(frame);
             }
 
-        return frame.assignValue(iReturn, makeLongLong(llr));
+        return frame.assignValue(iReturn, makeLongLong(lrL, lrH));
         }
 
     @Override
     public int invokeSub(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
-        LongLong llr = f_fSigned ?  ll1.sub(ll2) : ll1.subUnassigned(ll2);
-
-        if (llr == LongLong.OVERFLOW)
+        LongLongHandle h1 = (LongLongHandle) hTarget;
+        LongLongHandle h2 = (LongLongHandle) hArg;
+
+        long l1L = h1.m_lLow;
+        long l1H = h1.m_lHigh;
+        long l2L = h2.m_lLow;
+        long l2H = h2.m_lHigh;
+        long lrL = l1L - l2L;
+        long lrH = l1H - l2H - (Long.compareUnsigned(l1L, l2L) < 0 ? 1 : 0);
+
+        if (f_fSigned
+                ? ((l1H ^ l2H) & (l1H ^ lrH)) < 0              // same as for signed longs
+                : ((~l1H & l2H) | ((~l1H | l2H) & lrH)) < 0)   // same as for unsigned longs
             {
             return overflow(frame);
             }
 
-        return frame.assignValue(iReturn, makeLongLong(llr));
+        return frame.assignValue(iReturn, makeLongLong(lrL, lrH));
         }
 
     @Override
     public int invokeMul(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
-        LongLong llr = f_fSigned ? ll1.mul(ll2) : ll1.mulUnsigned(ll2);
+        LongLongHandle h1 = (LongLongHandle) hTarget;
+        LongLongHandle h2 = (LongLongHandle) hArg;
+        long[]         al = new long[2];
 
-        if (llr == LongLong.OVERFLOW)
+        if (!LongLong.mul(h1.m_lLow, h1.m_lHigh, h2.m_lLow, h2.m_lHigh, f_fSigned, al))
             {
             return overflow(frame);
             }
 
-        return frame.assignValue(iReturn, makeLongLong(llr));
+        return frame.assignValue(iReturn, makeLongLong(al[0], al[1]));
         }
 
     @Override
     public int invokePrev(Frame frame, ObjectHandle hTarget, int iReturn)
         {
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
-        LongLong llr = ll.prev(f_fSigned);
+        LongLongHandle h = (LongLongHandle) hTarget;
 
-        if (llr == LongLong.OVERFLOW)
+        long lLow  = h.m_lLow;
+        long lHigh = h.m_lHigh;
+        if (lLow == 0)
             {
-            return overflow(frame);
+            if (lHigh == (f_fSigned ? Long.MIN_VALUE : 0))
+                {
+                return overflow(frame);
+                }
+            lHigh--;
             }
 
-        return frame.assignValue(iReturn, makeLongLong(llr));
+        return frame.assignValue(iReturn, makeLongLong(lLow - 1, lHigh));
         }
 
     @Override
     public int invokeNext(Frame frame, ObjectHandle hTarget, int iReturn)
         {
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
-        LongLong llr = ll.next(f_fSigned);
+        LongLongHandle h = (LongLongHandle) hTarget;
 
-        if (llr == LongLong.OVERFLOW)
+        long lLow  = h.m_lLow;
+        long lHigh = h.m_lHigh;
+        if (lLow == -1)
             {
-            return overflow(frame);
+            if (lHigh == (f_fSigned ? Long.MAX_VALUE : -1))
+                {
+                return overflow(frame);
+                }
+            lHigh++;
             }
 
-        return frame.assignValue(iReturn, makeLongLong(llr));
+        return frame.assignValue(iReturn, makeLongLong(lLow + 1, lHigh));
         }
 
     @Override
     public int invokeDiv(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
-
-        LongLong llDiv = f_fSigned
-            ? ll1.div(ll2)
-            : ll1.divUnsigned(ll2);
-
-        if (llDiv == LongLong.OVERFLOW)
-            {
-            return overflow(frame);
-            }
-
-        return frame.assignValue(iReturn, makeLongLong(llDiv));
+        return divMod(frame, hTarget, hArg, iReturn, Op.A_IGNORE);
         }
 
     @Override
     public int invokeMod(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
-
-        LongLong llMod = f_fSigned
-            ? ll1.mod(ll2)
-            : ll1.modUnsigned(ll2);
-
-        if (llMod == LongLong.OVERFLOW)
-            {
-            return overflow(frame);
-            }
-
-        return frame.assignValue(iReturn, makeLongLong(llMod));
+        return divMod(frame, hTarget, hArg, Op.A_IGNORE, iReturn);
         }
 
     @Override
     public int invokeDivMod(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int[] aiReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
-
-        LongLong llDiv;
-        LongLong llMod;
-        if (f_fSigned)
-            {
-            llDiv = ll1.div(ll2);
-            llMod = ll1.mod(ll2);
-            }
-        else
-            {
-            llDiv = ll1.divUnsigned(ll2);
-            llMod = ll1.modUnsigned(ll2);
-            }
-
-        if (llDiv == LongLong.OVERFLOW)
-            {
-            return overflow(frame);
-            }
-        return frame.assignValues(aiReturn, makeLongLong(llDiv), makeLongLong(llMod));
+        return divMod(frame, hTarget, hArg, aiReturn[0], aiReturn[1]);
         }
 
     @Override
     public int invokeShl(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
+        LongLongHandle h = (LongLongHandle) hTarget;
+        int            n = (int) ((JavaLong) hArg).getValue() & 0x7F;
+
+        long lLow  = h.m_lLow;
+        long lHigh = h.m_lHigh;
+        if (n >= 64)
+            {
+            lHigh = lLow << (n - 64);
+            lLow  = 0;
+            }
+        else if (n > 0)
+            {
+            lHigh = (lHigh << n) | (lLow >>> (64 - n));
+            lLow  = lLow << n;
+            }
 
-        return frame.assignValue(iReturn, makeLongLong(ll1.shl(ll2)));
+        return frame.assignValue(iReturn, makeLongLong(lLow, lHigh));
         }
 
     @Override
     public int invokeShr(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
+        LongLongHandle h = (LongLongHandle) hTarget;
+        int            n = (int) ((JavaLong) hArg).getValue() & 0x7F;
 
-        return frame.assignValue(iReturn, makeLongLong(ll1.shr(ll2)));
+        long lLow  = h.m_lLow;
+        long lHigh = h.m_lHigh;
+        if (n >= 64)
+            {
+            lLow  = lHigh >> (n - 64);
+            lHigh = lHigh >> 63;
+            }
+        else if (n > 0)
+            {
+            lLow  = (lLow >>> n) | (lHigh << (64 - n));
+            lHigh = lHigh >> n;
+            }
+
+        return frame.assignValue(iReturn, makeLongLong(lLow, lHigh));
         }
 
     @Override
     public int invokeShrAll(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
+        LongLongHandle h = (LongLongHandle) hTarget;
+        int            n = (int) ((JavaLong) hArg).getValue() & 0x7F;
 
-        return frame.assignValue(iReturn, makeLongLong(ll1.ushr(ll2)));
+        long lLow  = h.m_lLow;
+        long lHigh = h.m_lHigh;
+        if (n >= 64)
+            {
+            lLow  = lHigh >>> (n - 64);
+            lHigh = 0;
+            }
+        else if (n > 0)
+            {
+            lLow  = (lLow >>> n) | (lHigh << (64 - n));
+            lHigh = lHigh >>> n;
+            }
+
+        return frame.assignValue(iReturn, makeLongLong(lLow, lHigh));
         }
 
     @Override
     public int invokeAnd(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
+        LongLongHandle h1 = (LongLongHandle) hTarget;
+        LongLongHandle h2 = (LongLongHandle) hArg;
 
-        return frame.assignValue(iReturn, makeLongLong(ll1.and(ll2)));
+        return frame.assignValue(iReturn,
+            makeLongLong(h1.m_lLow & h2.m_lLow, h1.m_lHigh & h2.m_lHigh));
         }
 
     @Override
     public int invokeOr(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
+        LongLongHandle h1 = (LongLongHandle) hTarget;
+        LongLongHandle h2 = (LongLongHandle) hArg;
 
-        return frame.assignValue(iReturn, makeLongLong(ll1.or(ll2)));
+        return frame.assignValue(iReturn,
+            makeLongLong(h1.m_lLow | h2.m_lLow, h1.m_lHigh | h2.m_lHigh));
         }
 
     @Override
     public int invokeXor(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        LongLong ll1 = ((LongLongHandle) hTarget).getValue();
-        LongLong ll2 = ((LongLongHandle) hArg).getValue();
+        LongLongHandle h1 = (LongLongHandle) hTarget;
+        LongLongHandle h2 = (LongLongHandle) hArg;
 
-        return frame.assignValue(iReturn, makeLongLong(ll1.xor(ll2)));
+        return frame.assignValue(iReturn,
+            makeLongLong(h1.m_lLow ^ h2.m_lLow, h1.m_lHigh ^ h2.m_lHigh));
         }
 
     @Override
     public int invokeCompl(Frame frame, ObjectHandle hTarget, int iReturn)
         {
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
+        LongLongHandle h = (LongLongHandle) hTarget;
 
-        return frame.assignValue(iReturn, makeLongLong(ll.complement()));
+        return frame.assignValue(iReturn, makeLongLong(~h.m_lLow, ~h.m_lHigh));
         }
 
     @Override
     public int buildHashCode(Frame frame, ClassComposition clazz, ObjectHandle hTarget, int iReturn)
         {
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
-
-        return frame.assignValue(iReturn, xInt64.makeHandle(ll.hashCode()));
+        return frame.assignValue(iReturn, xInt64.makeHandle(hTarget.hashCode()));
         }
 
     // ----- comparison support -----
@@ -460,7 +484,8 @@ public abstract class BaseInt128
         LongLongHandle h1 = (LongLongHandle) hValue1;
         LongLongHandle h2 = (LongLongHandle) hValue2;
 
-        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.getValue().equals(h2.getValue())));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(
+            h1.m_lLow == h2.m_lLow && h1.m_lHigh == h2.m_lHigh));
         }
 
     @Override
@@ -470,26 +495,74 @@ public abstract class BaseInt128
         LongLongHandle h1 = (LongLongHandle) hValue1;
         LongLongHandle h2 = (LongLongHandle) hValue2;
 
+        long l1H = h1.m_lHigh;
+        long l2H = h2.m_lHigh;
+
         return frame.assignValue(iReturn, xOrdered.makeHandle(
-            f_fSigned
-                ? h1.getValue().compare(h2.getValue())
-                : h1.getValue().compareUnsigned(h2.getValue())));
+            l1H != l2H
+                ? f_fSigned
+                    ? Long.compare(l1H, l2H)
+                    : Long.compareUnsigned(l1H, l2H)
+                : Long.compareUnsigned(h1.m_lLow, h2.m_lLow)));
         }
 
     @Override
     protected int buildStringValue(Frame frame, ObjectHandle hTarget, int iReturn)
         {
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
+        LongLongHandle h = (LongLongHandle) hTarget;
 
         return frame.assignValue(iReturn, xString.makeHandle(
-            f_fSigned
-                ? ll.toBigInteger().toString()
-                : ll.toUnsignedBigInteger().toString()));
+            LongLong.toString(h.m_lLow, h.m_lHigh, f_fSigned)));
         }
 
 
     // ----- helpers -------------------------------------------------------------------------------
 
+    /**
+     * Divide the specified values, assigning the quotient and/or the remainder.
+     *
+     * @param iDiv  the register for the quotient (or {@link Op#A_IGNORE})
+     * @param iMod  the register for the remainder (or {@link Op#A_IGNORE})
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    protected int divMod(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iDiv, int iMod)
+        {
+        LongLongHandle h1 = (LongLongHandle) hTarget;
+        LongLongHandle h2 = (LongLongHandle) hArg;
+
+        long   vL = h2.m_lLow;
+        long   vH = h2.m_lHigh;
+        long[] al = new long[4];
+
+        if (vL == 0 && vH == 0)
+            {
+            return overflow(frame);
+            }
+
+        if (!LongLong.divMod(h1.m_lLow, h1.m_lHigh, vL, vH, f_fSigned, al) && iDiv != Op.A_IGNORE)
+            {
+            // Int128.minvalue / -1
+            return overflow(frame);
+            }
+
+        long qL = al[0];
+        long qH = al[1];
+        long rL = al[2];
+        long rH = al[3];
+
+        if (iMod == Op.A_IGNORE)
+            {
+            return frame.assignValue(iDiv, makeLongLong(qL, qH));
+            }
+        if (iDiv == Op.A_IGNORE)
+            {
+            return frame.assignValue(iMod, makeLongLong(rL, rH));
+            }
+        return frame.assignValues(new int[] {iDiv, iMod},
+            makeLongLong(qL, qH), makeLongLong(rL, rH));
+        }
+
     /**
      * Convert a long value into a handle for the type represented by this template.
      *
@@ -497,10 +570,8 @@ public abstract class BaseInt128
      */
     protected int convertLong(Frame frame, long lValue, int iReturn)
         {
-        return frame.assignValue(iReturn, makeLongLong(
-            f_fSigned
-                ? new LongLong(lValue)
-                : new LongLong(lValue, 0)));
+        return frame.assignValue(iReturn,
+            makeLongLong(lValue, f_fSigned && lValue < 0 ? -1L : 0L));
         }
 
     /**
@@ -513,42 +584,73 @@ public abstract class BaseInt128
 
     public LongLongHandle makeLongLong(LongLong ll)
         {
-        return new LongLongHandle(getCanonicalClass(), ll);
+        return new LongLongHandle(getCanonicalClass(), ll.getLowValue(), ll.getHighValue());
+        }
+
+    public LongLongHandle makeLongLong(long lLow, long lHigh)
+        {
+        return new LongLongHandle(getCanonicalClass(), lLow, lHigh);
         }
 
+    /**
+     * The handle for Int128 and UInt128 values, which holds the value as a pair of longs, so that
+     * the arithmetic doesn't need any intermediate objects.
+     */
     public static class LongLongHandle
             extends ObjectHandle
         {
-        protected LongLong m_llValue;
+        protected final long m_lLow;
+        protected final long m_lHigh;
 
         public LongLongHandle(TypeComposition clazz, LongLong ll)
+            {
+            this(clazz, ll.getLowValue(), ll.getHighValue());
+            }
+
+        public LongLongHandle(TypeComposition clazz, long lLow, long lHigh)
             {
             super(clazz);
-            m_llValue = ll;
+
+            m_lLow  = lLow;
+            m_lHigh = lHigh;
             }
 
         public LongLong getValue()
             {
-            return m_llValue;
+            return new LongLong(m_lLow, m_lHigh);
+            }
+
+        public long getLowValue()
+            {
+            return m_lLow;
+            }
+
+        public long getHighValue()
+            {
+            return m_lHigh;
             }
 
         @Override
         public int hashCode()
             {
-            return m_llValue.hashCode();
+            return Long.hashCode(m_lLow) ^ Long.hashCode(m_lHigh);
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof LongLongHandle &&
-                m_llValue.equals(((LongLongHandle) obj).getValue());
+            if (obj instanceof LongLongHandle)
+                {
+                LongLongHandle that = (LongLongHandle) obj;
+                return m_lLow == that.m_lLow && m_lHigh == that.m_lHigh;
+                }
+            return false;
             }
 
         @Override
         public String toString()
             {
-            return super.toString() + m_llValue;
+            return super.toString() + LongLong.toString(m_lLow, m_lHigh, true);
             }
         }
     }
@@ -460,8 +460,7 @@ public class LongLong
             return Long.compare(lThisHigh, lThatHigh);
             }
 
-        int nCompare = Long.compareUnsigned(m_lLow, ll.m_lLow);
-        return lThisHigh >= 0 ? nCompare : -nCompare;
+        return Long.compareUnsigned(m_lLow, ll.m_lLow);
         }
 
     public int compareUnsigned(LongLong ll)
@@ -533,7 +532,346 @@ public class LongLong
     @Override
     public String toString()
         {
-        return toBigInteger().toString();
+        return toString(m_lLow, m_lHigh, true);
+        }
+
+
+    // ----- long pair arithmetic ------------------------------------------------------------------
+
+    /**
+     * Compute the high 64 bits of the unsigned 128 bit product of the specified values.
+     *
+     * @param l1  the first unsigned value
+     * @param l2  the second unsigned value
+     *
+     * @return the high 64 bits of the product
+     */
+    public static long mulHighUnsigned(long l1, long l2)
+        {
+        return Math.multiplyHigh(l1, l2) + ((l1 >> 63) & l2) + ((l2 >> 63) & l1);
+        }
+
+    /**
+     * Divide the unsigned 128 bit value by the unsigned 64 bit divisor, for which the quotient
+     * fits into 64 bits (i.e. the high part of the dividend is less than the divisor).
+     *
+     * This is the "divlu" algorithm from "Hacker's Delight" (section 9-4) operating on 32-bit
+     * digits.
+     *
+     * @param lHigh     the high 64 bits of the dividend
+     * @param lLow      the low 64 bits of the dividend
+     * @param lDivisor  the divisor
+     *
+     * @return the unsigned quotient
+     */
+    public static long divideUnsigned(long lHigh, long lLow, long lDivisor)
+        {
+        assert Long.compareUnsigned(lHigh, lDivisor) < 0;
+
+        if (lHigh == 0)
+            {
+            return Long.divideUnsigned(lLow, lDivisor);
+            }
+
+        // normalize the divisor, so that its most significant bit is set
+        int  s   = Long.numberOfLeadingZeros(lDivisor);
+        long v   = lDivisor << s;
+        long vn1 = v >>> 32;
+        long vn0 = v & 0xFFFFFFFFL;
+
+        long un32 = s == 0 ? lHigh : (lHigh << s) | (lLow >>> (64 - s));
+        long un10 = lLow << s;
+        long un1  = un10 >>> 32;
+        long un0  = un10 & 0xFFFFFFFFL;
+
+        // compute the first quotient digit
+        long q1   = Long.divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while (q1 > 0xFFFFFFFFL || Long.compareUnsigned(q1 * vn0, (rhat << 32) | un1) > 0)
+            {
+            q1--;
+            rhat += vn1;
+            if (rhat > 0xFFFFFFFFL)
+                {
+                break;
+                }
+            }
+
+        // compute the second quotient digit
+        long un21 = (un32 << 32) + un1 - q1 * v;
+        long q0   = Long.divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while (q0 > 0xFFFFFFFFL || Long.compareUnsigned(q0 * vn0, (rhat << 32) | un0) > 0)
+            {
+            q0--;
+            rhat += vn1;
+            if (rhat > 0xFFFFFFFFL)
+                {
+                break;
+                }
+            }
+
+        return (q1 << 32) + q0;
+        }
+
+    /**
+     * Multiply the 128 bit values held by the specified long pairs.
+     *
+     * @param l1L       the low 64 bits of the first value
+     * @param l1H       the high 64 bits of the first value
+     * @param l2L       the low 64 bits of the second value
+     * @param l2H       the high 64 bits of the second value
+     * @param fSigned   true iff the values are signed ones
+     * @param alResult  the array to place the low and high 64 bits of the product into
+     *
+     * @return false iff the product overflows
+     */
+    public static boolean mul(long l1L, long l1H, long l2L, long l2H, boolean fSigned,
+                              long[] alResult)
+        {
+        boolean fNeg = false;
+
+        if (fSigned)
+            {
+            // multiply the magnitudes; the magnitude of the minimum value is 2^127 as unsigned
+            if (l1H < 0)
+                {
+                l1L  = -l1L;
+                l1H  = l1L == 0 ? -l1H : ~l1H;
+                fNeg = true;
+                }
+            if (l2H < 0)
+                {
+                l2L  = -l2L;
+                l2H  = l2L == 0 ? -l2H : ~l2H;
+                fNeg = !fNeg;
+                }
+            }
+
+        if (l1H != 0 && l2H != 0)
+            {
+            return false;
+            }
+
+        long lrL = l1L * l2L;
+        long lrH = mulHighUnsigned(l1L, l2L);
+
+        // at most one of the operands has a non-zero high part
+        long lX = l1H | l2H;
+        if (lX != 0)
+            {
+            long lY = l1H == 0 ? l1L : l2L;
+            if (mulHighUnsigned(lX, lY) != 0)
+                {
+                return false;
+                }
+
+            long lCross = lX * lY;
+            lrH += lCross;
+            if (Long.compareUnsigned(lrH, lCross) < 0)
+                {
+                return false;
+                }
+            }
+
+        if (fSigned)
+            {
+            if (fNeg)
+                {
+                if (lrH < 0 && (lrH != Long.MIN_VALUE || lrL != 0))
+                    {
+                    return false;
+                    }
+                lrL = -lrL;
+                lrH = lrL == 0 ? -lrH : ~lrH;
+                }
+            else if (lrH < 0)
+                {
+                return false;
+                }
+            }
+
+        alResult[0] = lrL;
+        alResult[1] = lrH;
+        return true;
+        }
+
+    /**
+     * Divide the 128 bit values held by the specified long pairs. The quotient is rounded toward
+     * zero; the signed modulo is never negative.
+     *
+     * @param uL        the low 64 bits of the dividend
+     * @param uH        the high 64 bits of the dividend
+     * @param vL        the low 64 bits of the divisor
+     * @param vH        the high 64 bits of the divisor (the divisor must not be zero)
+     * @param fSigned   true iff the values are signed ones
+     * @param alResult  the array to place the low and high 64 bits of the quotient, followed by
+     *                  the low and high 64 bits of the modulo into
+     *
+     * @return false iff the quotient overflows (the modulo is still valid)
+     */
+    public static boolean divMod(long uL, long uH, long vL, long vH, boolean fSigned,
+                                 long[] alResult)
+        {
+        assert vL != 0 || vH != 0;
+
+        boolean fNegDiv = false;
+        boolean fNegMod = false;
+
+        if (fSigned)
+            {
+            // divide the magnitudes; the magnitude of the minimum value is 2^127 as unsigned
+            if (uH < 0)
+                {
+                uL      = -uL;
+                uH      = uL == 0 ? -uH : ~uH;
+                fNegDiv = true;
+                fNegMod = true;
+                }
+            if (vH < 0)
+                {
+                vL      = -vL;
+                vH      = vL == 0 ? -vH : ~vH;
+                fNegDiv = !fNegDiv;
+                }
+            }
+
+        long qL, qH, rL, rH;
+        if (vH == 0)
+            {
+            if (Long.compareUnsigned(uH, vL) < 0)
+                {
+                qH = 0;
+                qL = divideUnsigned(uH, uL, vL);
+                }
+            else
+                {
+                qH = Long.divideUnsigned(uH, vL);
+                qL = divideUnsigned(Long.remainderUnsigned(uH, vL), uL, vL);
+                }
+            rL = uL - qL * vL;
+            rH = 0;
+            }
+        else
+            {
+            // the divisor is at least 2^64, so the quotient fits into 64 bits; estimate it using
+            // the normalized high 64 bits of the divisor, which is off by at most one
+            int  n  = Long.numberOfLeadingZeros(vH);
+            long v1 = n == 0 ? vH : (vH << n) | (vL >>> (64 - n));
+            long q  = divideUnsigned(uH >>> 1, (uL >>> 1) | (uH << 63), v1) >>> (63 - n);
+            if (q != 0)
+                {
+                q--;
+                }
+
+            long pL = q * vL;
+            long pH = mulHighUnsigned(q, vL) + q * vH;
+            rL = uL - pL;
+            rH = uH - pH - (Long.compareUnsigned(uL, pL) < 0 ? 1 : 0);
+
+            if (Long.compareUnsigned(rH, vH) > 0 ||
+                    rH == vH && Long.compareUnsigned(rL, vL) >= 0)
+                {
+                q++;
+                rH = rH - vH - (Long.compareUnsigned(rL, vL) < 0 ? 1 : 0);
+                rL = rL - vL;
+                }
+
+            qL = q;
+            qH = 0;
+            }
+
+        boolean fValid = true;
+        if (fSigned)
+            {
+            if (fNegDiv)
+                {
+                qL = -qL;
+                qH = qL == 0 ? -qH : ~qH;
+                }
+            else if (qH < 0)
+                {
+                // minvalue / -1
+                fValid = false;
+                }
+
+            if (fNegMod && (rL != 0 || rH != 0))
+                {
+                // the modulo is never negative: (v - r) is the same as (-r + v)
+                long lL = vL - rL;
+                rH = vH - rH - (Long.compareUnsigned(vL, rL) < 0 ? 1 : 0);
+                rL = lL;
+                }
+            }
+
+        alResult[0] = qL;
+        alResult[1] = qH;
+        alResult[2] = rL;
+        alResult[3] = rH;
+        return fValid;
+        }
+
+    /**
+     * Format the 128 bit value held by the specified long pair as a decimal string.
+     *
+     * @param lLow     the low 64 bits of the value
+     * @param lHigh    the high 64 bits of the value
+     * @param fSigned  true iff the value is a signed one
+     *
+     * @return the decimal representation of the value
+     */
+    public static String toString(long lLow, long lHigh, boolean fSigned)
+        {
+        boolean fNeg = fSigned && lHigh < 0;
+        if (fNeg)
+            {
+            // the magnitude of the minimum value is 2^127 as unsigned
+            lLow  = -lLow;
+            lHigh = lLow == 0 ? -lHigh : ~lHigh;
+            }
+
+        StringBuilder sb = new StringBuilder(40);
+        if (fNeg)
+            {
+            sb.append('-');
+            }
+
+        if (lHigh == 0)
+            {
+            return sb.append(Long.toUnsignedString(lLow)).toString();
+            }
+
+        // split the value into (at most three) base 10^18 digits
+        long lQH   = Long.divideUnsigned(lHigh, E18);
+        long lQL   = divideUnsigned(Long.remainderUnsigned(lHigh, E18), lLow, E18);
+        long lLast = lLow - lQL * E18;
+        long lTop  = divideUnsigned(lQH, lQL, E18);
+        long lMid  = lQL - lTop * E18;
+
+        if (lTop == 0)
+            {
+            sb.append(lMid);
+            }
+        else
+            {
+            sb.append(lTop);
+            appendDigits(sb, lMid);
+            }
+        appendDigits(sb, lLast);
+        return sb.toString();
+        }
+
+    /**
+     * Append the specified base 10^18 digit as 18 decimal digits.
+     */
+    private static void appendDigits(StringBuilder sb, long lDigits)
+        {
+        String s = Long.toString(lDigits);
+        for (int i = s.length(); i < 18; i++)
+            {
+            sb.append('0');
+            }
+        sb.append(s);
         }
 
     public static final LongLong ZERO = new LongLong(0, 0);
@@ -544,6 +882,8 @@ public class LongLong
     public static final LongLong MAX_VALUE_UNSIGNED = new LongLong(-1, -1);
     public static final LongLong OVERFLOW = new Overflow();
 
+    private static final long E18 = 1_000_000_000_000_000_000L;
+
     protected static final BigInteger BIG_MASK64 = new BigInteger("FFFFFFFFFFFFFFFF", 16);
 
     protected final long m_lLow;
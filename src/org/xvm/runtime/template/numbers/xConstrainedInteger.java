@@ -1,6 +1,8 @@
 package org.xvm.runtime.template.numbers;
 
 
+import java.math.BigInteger;
+
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constant;
 import org.xvm.asm.MethodStructure;
@@ -165,7 +167,7 @@ public abstract class xConstrainedInteger
                 {
                 // construct(Byte[] bytes)
                 ByteArrayHandle hBytes = (ByteArrayHandle) ahVar[0];
-                byte[]          abVal  = hBytes.m_abValue;
+                byte[]          abVal  = hBytes.getBytes();
 
                 int cBytes = hBytes.m_cSize;
                 return cBytes == f_cNumBits / 8
@@ -387,6 +389,17 @@ public abstract class xConstrainedInteger
                     return templateTo.convertLong(frame, lValue, iReturn);
                     }
 
+                if (template instanceof xUnconstrainedInteger)
+                    {
+                    long lValue = ((JavaLong) hTarget).getValue();
+
+                    return ((xUnconstrainedInteger) template).convertInteger(frame,
+                        lValue < 0 && this instanceof xUInt64
+                            ? new PackedInteger(BigInteger.valueOf(lValue).add(BigInteger.ONE.shiftLeft(64)))
+                            : PackedInteger.valueOf(lValue),
+                        iReturn);
+                    }
+
                 if (template instanceof xChar)
                     {
                     long l = ((JavaLong) hTarget).getValue();
@@ -182,7 +182,7 @@ public class xFPLiteral
         return new VarFPHandle(getCanonicalClass(), decValue, null);
         }
 
-    protected VarFPHandle makeFPLiteral(BigDecimal decValue, StringHandle hText)
+    public VarFPHandle makeFPLiteral(BigDecimal decValue, StringHandle hText)
         {
         return new VarFPHandle(getCanonicalClass(), decValue, hText);
         }
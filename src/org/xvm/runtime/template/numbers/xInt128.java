@@ -36,10 +36,10 @@ public class xInt128
     protected int convertToConstrainedType(Frame frame, xConstrainedInteger template,
                                            ObjectHandle hTarget, int iReturn)
         {
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
+        LongLongHandle h = (LongLongHandle) hTarget;
 
-        long lHigh = ll.getHighValue();
-        long lLow  = ll.getLowValue();
+        long lHigh = h.getHighValue();
+        long lLow  = h.getLowValue();
 
         if (lHigh > 0 || lHigh < -1 || (lHigh == -1 && lLow >= 0))
             {
@@ -1,8 +1,6 @@
 package org.xvm.runtime.template.numbers;
 
 
-import java.math.BigInteger;
-
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constant;
 import org.xvm.asm.MethodStructure;
@@ -216,9 +214,10 @@ public class xIntLiteral
                     }
                 if (template instanceof BaseInt128)
                     {
-                    BaseInt128  template128 = (BaseInt128) template;
-                    BigInteger  biValue     = piValue.getBigInteger();
-                    LongLong    llValue     = LongLong.fromBigInteger(biValue);
+                    BaseInt128 template128 = (BaseInt128) template;
+                    LongLong   llValue     = piValue.isBig()
+                            ? LongLong.fromBigInteger(piValue.getBigInteger())
+                            : new LongLong(piValue.getLong());
 
                     if (!template128.f_fSigned && llValue.signum() < 0)
                         {
@@ -226,6 +225,10 @@ public class xIntLiteral
                         }
                     return frame.assignValue(iReturn, template128.makeLongLong(llValue));
                     }
+                if (template instanceof xUnconstrainedInteger)
+                    {
+                    return ((xUnconstrainedInteger) template).convertInteger(frame, piValue, iReturn);
+                    }
                 break;
             }
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
@@ -236,7 +239,7 @@ public class xIntLiteral
         return new VarIntHandle(getCanonicalClass(), piValue, null);
         }
 
-    protected VarIntHandle makeIntLiteral(PackedInteger piValue, StringHandle hText)
+    public VarIntHandle makeIntLiteral(PackedInteger piValue, StringHandle hText)
         {
         return new VarIntHandle(getCanonicalClass(), piValue, hText);
         }
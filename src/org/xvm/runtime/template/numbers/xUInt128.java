@@ -36,14 +36,14 @@ public class xUInt128
     protected int convertToConstrainedType(Frame frame, xConstrainedInteger template,
                                            ObjectHandle hTarget, int iReturn)
         {
-        LongLong ll = ((LongLongHandle) hTarget).getValue();
+        LongLongHandle h = (LongLongHandle) hTarget;
 
-        if (ll.getHighValue() != 0)
+        if (h.getHighValue() != 0)
             {
             return overflow(frame);
             }
 
-        long lVal = ll.getLowValue();
+        long lVal = h.getLowValue();
 
         // UInt64 fits always
         if (!(template instanceof xUInt64) &&
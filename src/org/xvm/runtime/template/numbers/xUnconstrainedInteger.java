@@ -2,11 +2,16 @@ package org.xvm.runtime.template.numbers;
 
 
 import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Constant;
 import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.IntConstant;
 
 import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.TemplateRegistry;
 
 import org.xvm.runtime.template.xBoolean;
@@ -25,21 +30,36 @@ import org.xvm.util.PackedInteger;
 public abstract class xUnconstrainedInteger
         extends xConst
     {
-    protected xUnconstrainedInteger(TemplateRegistry templates, ClassStructure structure)
+    public final boolean f_fSigned;
+
+    protected xUnconstrainedInteger(TemplateRegistry templates, ClassStructure structure,
+                                    boolean fSigned)
         {
         super(templates, structure, false);
+
+        f_fSigned = fSigned;
         }
 
     @Override
     public void initDeclared()
         {
         // @Op methods
-        markNativeMethod("add", THIS, THIS);
-        markNativeMethod("sub", THIS, THIS);
-        markNativeMethod("mul", THIS, THIS);
-        markNativeMethod("div", THIS, THIS);
-        markNativeMethod("mod", THIS, THIS);
-        markNativeMethod("neg", VOID, THIS);
+        markNativeMethod("add"          , THIS, THIS);
+        markNativeMethod("sub"          , THIS, THIS);
+        markNativeMethod("mul"          , THIS, THIS);
+        markNativeMethod("div"          , THIS, THIS);
+        markNativeMethod("mod"          , THIS, THIS);
+        markNativeMethod("and"          , THIS, THIS);
+        markNativeMethod("or"           , THIS, THIS);
+        markNativeMethod("xor"          , THIS, THIS);
+        markNativeMethod("not"          , VOID, THIS);
+        markNativeMethod("shiftLeft"    , INT , THIS);
+        markNativeMethod("shiftRight"   , INT , THIS);
+        markNativeMethod("shiftAllRight", INT , THIS);
+
+        // Stringable methods
+        f_struct.findMethod("estimateStringLength", 0).markNative();
+        f_struct.findMethod("appendTo",             1).markNative();
 
         getCanonicalType().invalidateTypeInfo();
         }
@@ -50,6 +70,18 @@ public abstract class xUnconstrainedInteger
         return false;
         }
 
+    @Override
+    public int createConstHandle(Frame frame, Constant constant)
+        {
+        if (constant instanceof IntConstant)
+            {
+            frame.pushStack(makeInt(((IntConstant) constant).getValue()));
+            return Op.R_NEXT;
+            }
+
+        return super.createConstHandle(frame, constant);
+        }
+
     @Override
     public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
                              ObjectHandle hArg, int iReturn)
@@ -70,6 +102,24 @@ public abstract class xUnconstrainedInteger
 
             case "mod":
                 return invokeMod(frame, hTarget, hArg, iReturn);
+
+            case "and":
+                return invokeAnd(frame, hTarget, hArg, iReturn);
+
+            case "or":
+                return invokeOr(frame, hTarget, hArg, iReturn);
+
+            case "xor":
+                return invokeXor(frame, hTarget, hArg, iReturn);
+
+            case "shiftLeft":
+                return invokeShl(frame, hTarget, hArg, iReturn);
+
+            case "shiftRight":
+                return invokeShr(frame, hTarget, hArg, iReturn);
+
+            case "shiftAllRight":
+                return invokeShrAll(frame, hTarget, hArg, iReturn);
             }
 
         return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
@@ -84,12 +134,15 @@ public abstract class xUnconstrainedInteger
             case "abs":
                 {
                 PackedInteger pi = ((VarIntHandle) hTarget).getValue();
-                return frame.assignValue(iReturn, pi.compareTo(PackedInteger.ZERO) >= 0
-                    ? hTarget : makeInt(PackedInteger.NEG_ONE));
+                return frame.assignValue(iReturn, pi.isNegative()
+                    ? makeInt(pi.negate()) : hTarget);
                 }
 
             case "neg":
                 return invokeNeg(frame, hTarget, iReturn);
+
+            case "not":
+                return invokeCompl(frame, hTarget, iReturn);
             }
 
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
@@ -112,6 +165,11 @@ public abstract class xUnconstrainedInteger
         PackedInteger pi2 = ((VarIntHandle) hArg).getValue();
         PackedInteger pir = pi1.sub(pi2);
 
+        if (!f_fSigned && pir.isNegative())
+            {
+            return overflow(frame);
+            }
+
         return frame.assignValue(iReturn, makeInt(pir));
         }
 
@@ -156,6 +214,11 @@ public abstract class xUnconstrainedInteger
         PackedInteger pi1 = ((VarIntHandle) hTarget).getValue();
         PackedInteger pi2 = ((VarIntHandle) hArg).getValue();
 
+        if (pi2.equals(PackedInteger.ZERO))
+            {
+            return overflow(frame);
+            }
+
         return frame.assignValue(iReturn, makeInt(pi1.div(pi2)));
         }
 
@@ -165,20 +228,20 @@ public abstract class xUnconstrainedInteger
         PackedInteger pi1 = ((VarIntHandle) hTarget).getValue();
         PackedInteger pi2 = ((VarIntHandle) hArg).getValue();
 
-        PackedInteger piMod = pi1.mod(pi2);
-        if (piMod.compareTo(PackedInteger.ZERO) < 0)
+        if (pi2.equals(PackedInteger.ZERO))
             {
-            piMod = piMod.add((pi2.compareTo(PackedInteger.ZERO) < 0 ? pi2.negate() : pi2));
+            return overflow(frame);
             }
 
-        return frame.assignValue(iReturn, makeInt(piMod));
+        // the modulo is never negative
+        return frame.assignValue(iReturn, makeInt(pi1.mod(pi2.isNegative() ? pi2.negate() : pi2)));
         }
 
     @Override
     public int invokeShl(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
-        PackedInteger pi1 = ((xIntLiteral.VarIntHandle) hTarget).getValue();
-        PackedInteger pi2 = ((VarIntHandle) hArg).getValue();
+        PackedInteger pi1 = ((VarIntHandle) hTarget).getValue();
+        PackedInteger pi2 = getShiftCount(hArg);
 
         return frame.assignValue(iReturn, makeInt(pi1.shl(pi2)));
         }
@@ -187,7 +250,7 @@ public abstract class xUnconstrainedInteger
     public int invokeShr(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
         PackedInteger pi1 = ((VarIntHandle) hTarget).getValue();
-        PackedInteger pi2 = ((VarIntHandle) hArg).getValue();
+        PackedInteger pi2 = getShiftCount(hArg);
 
         return frame.assignValue(iReturn, makeInt(pi1.shr(pi2)));
         }
@@ -196,7 +259,7 @@ public abstract class xUnconstrainedInteger
     public int invokeShrAll(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
         PackedInteger pi1 = ((VarIntHandle) hTarget).getValue();
-        PackedInteger pi2 = ((VarIntHandle) hArg).getValue();
+        PackedInteger pi2 = getShiftCount(hArg);
 
         return frame.assignValue(iReturn, makeInt(pi1.ushr(pi2)));
         }
@@ -234,21 +297,28 @@ public abstract class xUnconstrainedInteger
         PackedInteger pi1 = ((VarIntHandle) hTarget).getValue();
         PackedInteger pi2 = ((VarIntHandle) hArg).getValue();
 
-        PackedInteger piMod = pi1.mod(pi2);
-        if (piMod.compareTo(PackedInteger.ZERO) < 0)
+        if (pi2.equals(PackedInteger.ZERO))
             {
-            piMod = piMod.add(pi2.compareTo(PackedInteger.ZERO) < 0 ? pi2.negate() : pi2);
+            return overflow(frame);
             }
 
+        PackedInteger piMod = pi1.mod(pi2.isNegative() ? pi2.negate() : pi2);
+
         return frame.assignValues(aiReturn, makeInt(pi1.div(pi2)), makeInt(piMod));
         }
 
     @Override
     public int invokeCompl(Frame frame, ObjectHandle hTarget, int iReturn)
         {
-        PackedInteger pi = ((VarIntHandle) hTarget).getValue();
+        PackedInteger pi  = ((VarIntHandle) hTarget).getValue();
+        PackedInteger pir = pi.complement();
 
-        return frame.assignValue(iReturn, makeInt(pi.complement()));
+        if (!f_fSigned && pir.isNegative())
+            {
+            return overflow(frame);
+            }
+
+        return frame.assignValue(iReturn, makeInt(pir));
         }
 
     @Override
@@ -259,7 +329,7 @@ public abstract class xUnconstrainedInteger
         switch (sPropName)
             {
             case "hash":
-                return frame.assignValue(iReturn, hThis);
+                return frame.assignValue(iReturn, xInt64.makeHandle(hashOf(hThis.getValue())));
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -268,9 +338,9 @@ public abstract class xUnconstrainedInteger
     @Override
     public int buildHashCode(Frame frame, ClassComposition clazz, ObjectHandle hTarget, int iReturn)
         {
-        long l = ((ObjectHandle.JavaLong) hTarget).getValue();
+        PackedInteger pi = ((VarIntHandle) hTarget).getValue();
 
-        return frame.assignValue(iReturn, xInt64.makeHandle(l));
+        return frame.assignValue(iReturn, xInt64.makeHandle(hashOf(pi)));
         }
 
     // ----- comparison support -----
@@ -279,7 +349,7 @@ public abstract class xUnconstrainedInteger
     public int callEquals(Frame frame, ClassComposition clazz,
                           ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
         {
-        VarIntHandle h1 = (xIntLiteral.VarIntHandle) hValue1;
+        VarIntHandle h1 = (VarIntHandle) hValue1;
         VarIntHandle h2 = (VarIntHandle) hValue2;
 
         return frame.assignValue(iReturn, xBoolean.makeHandle(h1.getValue().equals(h2.getValue())));
@@ -305,6 +375,54 @@ public abstract class xUnconstrainedInteger
         return frame.assignValue(iReturn, xString.makeHandle(pi.toString()));
         }
 
+    @Override
+    protected int callEstimateLength(Frame frame, ObjectHandle hTarget, int iReturn)
+        {
+        PackedInteger pi = ((VarIntHandle) hTarget).getValue();
+
+        return frame.assignValue(iReturn, xInt64.makeHandle(pi.toString().length()));
+        }
+
+    @Override
+    protected int callAppendTo(Frame frame, ObjectHandle hTarget, ObjectHandle hAppender, int iReturn)
+        {
+        PackedInteger pi = ((VarIntHandle) hTarget).getValue();
+
+        return xString.callAppendTo(frame, xString.makeHandle(pi.toString()), hAppender, iReturn);
+        }
+
+    /**
+     * Convert an integer value into a handle for the type represented by this template.
+     *
+     * @return one of the {@link Op#R_NEXT} or {@link Op#R_EXCEPTION} values
+     */
+    public int convertInteger(Frame frame, PackedInteger piValue, int iReturn)
+        {
+        if (!f_fSigned && piValue.isNegative())
+            {
+            return overflow(frame);
+            }
+
+        return frame.assignValue(iReturn, makeInt(piValue));
+        }
+
+    /**
+     * @return the shift count held by the specified Int handle
+     */
+    protected static PackedInteger getShiftCount(ObjectHandle hArg)
+        {
+        return PackedInteger.valueOf(((JavaLong) hArg).getValue());
+        }
+
+    /**
+     * @return the hash value for the specified integer value, which is the value itself if it
+     *         fits into an Int
+     */
+    protected static long hashOf(PackedInteger pi)
+        {
+        return pi.isBig() ? pi.getBigInteger().hashCode() : pi.getLong();
+        }
+
     /**
      * NOTE: we are using the VarIntHandle for objects of UnconstrainedInteger types.
      */
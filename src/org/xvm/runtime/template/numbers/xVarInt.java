@@ -16,7 +16,7 @@ public class xVarInt
 
     public xVarInt(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
         {
-        super(templates, structure);
+        super(templates, structure, true);
 
         if (fInstance)
             {
@@ -27,7 +27,10 @@ public class xVarInt
     @Override
     public void initDeclared()
         {
+        super.initDeclared();
+
         markNativeMethod("abs", VOID, THIS);
+        markNativeMethod("neg", VOID, THIS);
 
         getCanonicalType().invalidateTypeInfo();
         }
@@ -16,7 +16,7 @@ public class xVarUInt
 
     public xVarUInt(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
         {
-        super(templates, structure);
+        super(templates, structure, false);
 
         if (fInstance)
             {
@@ -15,6 +15,7 @@ import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.TemplateRegistry;
 
+import org.xvm.runtime.template.numbers.xInt64;
 import org.xvm.runtime.template.numbers.xUInt32;
 
 
@@ -156,6 +157,14 @@ public class xChar
         return ((JavaLong) hValue1).getValue() == ((JavaLong) hValue2).getValue();
         }
 
+    @Override
+    public int buildHashCode(Frame frame, ClassComposition clazz, ObjectHandle hTarget, int iReturn)
+        {
+        long l = ((JavaLong) hTarget).getValue();
+
+        return frame.assignValue(iReturn, xInt64.makeHandle(l));
+        }
+
     // ----- helpers -----
 
     public static JavaLong makeHandle(long chValue)
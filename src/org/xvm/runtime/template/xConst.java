@@ -1,6 +1,7 @@
 package org.xvm.runtime.template;
 
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -36,6 +37,8 @@ import org.xvm.runtime.template.collections.xArray.GenericArrayHandle;
 import org.xvm.runtime.template.collections.xArray.Mutability;
 import org.xvm.runtime.template.collections.xBitArray;
 
+import org.xvm.runtime.template.numbers.xConstrainedInteger;
+import org.xvm.runtime.template.numbers.xUnsignedConstrainedInt;
 import org.xvm.runtime.template.numbers.xInt64;
 
 
@@ -104,6 +107,12 @@ public class xConst
 
             HASH_SIG = f_templates.getClassStructure("collections.Hashable").
                 findMethod("hashCode", 2).getIdentityConstant().getSignature();
+
+            // natural Enum functions that have native equivalents
+            ClassStructure clzEnum = f_templates.getClassStructure("Enum");
+            ENUM_EQUALS   = clzEnum.findMethod("equals",   3);
+            ENUM_COMPARE  = clzEnum.findMethod("compare",  3);
+            ENUM_HASHCODE = clzEnum.findMethod("hashCode", 2);
             }
         }
 
@@ -291,6 +300,16 @@ public class xConst
     protected int callEqualsImpl(Frame frame,  ClassComposition clazz,
                                  ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
         {
+        FieldPlan plan = ensureFieldPlan(clazz);
+        if (plan != null)
+            {
+            int nResult = plan.compare((GenericHandle) hValue1, (GenericHandle) hValue2);
+            if (nResult != FieldPlan.UNASSIGNED)
+                {
+                return frame.assignValue(iReturn, xBoolean.makeHandle(nResult == 0));
+                }
+            }
+
         // Note: the actual types could be subclasses of the specified class
         return new Equals((GenericHandle) hValue1, (GenericHandle) hValue2,
             clazz.getFieldNames().iterator(), iReturn).doNext(frame);
@@ -300,6 +319,16 @@ public class xConst
     protected int callCompareImpl(Frame frame, ClassComposition clazz,
                                   ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
         {
+        FieldPlan plan = ensureFieldPlan(clazz);
+        if (plan != null && plan.isOrderable())
+            {
+            int nResult = plan.compare((GenericHandle) hValue1, (GenericHandle) hValue2);
+            if (nResult != FieldPlan.UNASSIGNED)
+                {
+                return frame.assignValue(iReturn, xOrdered.makeHandle(nResult));
+                }
+            }
+
         // Note: the actual types could be subclasses of the specified class
         return new Compare((GenericHandle) hValue1, (GenericHandle) hValue2,
             clazz.getFieldNames().iterator(), iReturn).doNext(frame);
@@ -315,9 +344,23 @@ public class xConst
         boolean fCache = hConst.getComposition().equals(clazz);
         if (fCache)
             {
-            JavaLong hHash = (JavaLong) hConst.getField(PROP_HASH);
+            JavaLong hHash = hConst.getCachedHash();
+            if (hHash != null)
+                {
+                return frame.assignValue(iReturn, hHash);
+                }
+            }
+
+        FieldPlan plan = ensureFieldPlan(clazz);
+        if (plan != null)
+            {
+            JavaLong hHash = plan.hash(hConst);
             if (hHash != null)
                 {
+                if (fCache)
+                    {
+                    hConst.setCachedHash(hHash);
+                    }
                 return frame.assignValue(iReturn, hHash);
                 }
             }
@@ -325,6 +368,112 @@ public class xConst
         return new HashCode(hConst, clazz.getFieldNames().iterator(), fCache, iReturn).doNext(frame);
         }
 
+    /**
+     * Obtain the native field support for the specified const class.
+     *
+     * @param clazz  the const class
+     *
+     * @return the FieldPlan or null if the fields of the class cannot be compared natively
+     */
+    protected FieldPlan ensureFieldPlan(ClassComposition clazz)
+        {
+        FieldPlan plan = clazz.getConstFieldPlan();
+        if (plan == null)
+            {
+            clazz.setConstFieldPlan(plan = createFieldPlan(clazz));
+            }
+        return plan == FieldPlan.NONE ? null : plan;
+        }
+
+    /**
+     * Create the native field support for the specified const class. The fields could be compared
+     * and hashed natively only if all of them are of "self-contained" types (integers, strings or
+     * enums), whose "equals", "compare" and "hashCode" functions have not been overridden.
+     *
+     * @param clazz  the const class
+     *
+     * @return the FieldPlan or {@link FieldPlan#NONE}
+     */
+    private FieldPlan createFieldPlan(ClassComposition clazz)
+        {
+        ConstantPool pool      = pool();
+        List<String> listNames = clazz.getFieldNames();
+        int          cFields   = listNames.size();
+        String[]     asField   = new String[cFields];
+        int[]        anKind    = new int[cFields];
+        boolean      fOrdered  = true;
+        int          c         = 0;
+
+        for (String sField : listNames)
+            {
+            if (!clazz.isRegular(sField))
+                {
+                continue;
+                }
+
+            TypeConstant type = clazz.getFieldType(sField);
+            if (clazz.isInflated(sField) || type == null || type.isAnnotated() ||
+                    !type.isExplicitClassIdentity(false))
+                {
+                return FieldPlan.NONE;
+                }
+
+            ClassTemplate template = f_templates.getTemplate(type);
+            int           nKind;
+            if (template instanceof xUnsignedConstrainedInt)
+                {
+                nKind = FieldPlan.K_ULONG;
+                }
+            else if (template instanceof xConstrainedInteger)
+                {
+                nKind = FieldPlan.K_LONG;
+                }
+            else if (template instanceof xString)
+                {
+                nKind = FieldPlan.K_STRING;
+                }
+            else if (template instanceof xEnum)
+                {
+                nKind = FieldPlan.K_ENUM;
+                }
+            else
+                {
+                return FieldPlan.NONE;
+                }
+
+            MethodStructure fnEquals  = type.findCallable(pool.sigEquals());
+            MethodStructure fnCompare = type.findCallable(pool.sigCompare());
+            MethodStructure fnHash    = type.findCallable(HASH_SIG);
+            if (fnHash == null ||
+                    !isNativeEquivalent(fnEquals, ENUM_EQUALS,   nKind) ||
+                    !isNativeEquivalent(fnHash,   ENUM_HASHCODE, nKind))
+                {
+                return FieldPlan.NONE;
+                }
+
+            if (fnCompare == null || !isNativeEquivalent(fnCompare, ENUM_COMPARE, nKind))
+                {
+                // let the natural implementation report (or compute) it
+                fOrdered = false;
+                }
+
+            asField[c] = sField;
+            anKind [c] = nKind;
+            c++;
+            }
+
+        return new FieldPlan(Arrays.copyOf(asField, c), Arrays.copyOf(anKind, c), fOrdered);
+        }
+
+    /**
+     * @return true iff the specified function is either native or is a natural Enum function that
+     *         the FieldPlan implements natively
+     */
+    private static boolean isNativeEquivalent(MethodStructure fn, MethodStructure fnEnum, int nKind)
+        {
+        return fn == null || fn.isNative() || nKind == FieldPlan.K_ENUM && fn == fnEnum;
+        }
+
     /**
      * Native implementation of the "estimateStringLength" method.
      *
@@ -653,17 +802,160 @@ public class xConst
             JavaLong hHash = xInt64.makeHandle(lResult);
             if (fCache)
                 {
-                hConst.setField(PROP_HASH, hHash);
+                hConst.setCachedHash(hHash);
                 }
 
             return frameCaller.assignValue(iReturn, hHash);
             }
         }
 
-    // ----- constants -----------------------------------------------------------------------------
+    /**
+     * Native support for the "equals", "compare" and "hashCode" functions of a const class, all of
+     * whose fields hold self-contained values that can be compared and hashed without any frames.
+     */
+    public static class FieldPlan
+        {
+        protected FieldPlan(String[] asField, int[] anKind, boolean fOrderable)
+            {
+            f_asField    = asField;
+            f_anKind     = anKind;
+            f_fOrderable = fOrderable;
+            }
+
+        /**
+         * @return true iff the plan can be used for the "compare" function
+         */
+        public boolean isOrderable()
+            {
+            return f_fOrderable;
+            }
+
+        /**
+         * Compare the fields of the specified values in the same order and with the same results
+         * as the {@link Equals} and {@link Compare} continuations would.
+         *
+         * @return a negative, zero or positive value, or {@link #UNASSIGNED} if any of the fields
+         *         is not assigned
+         */
+        public int compare(GenericHandle hValue1, GenericHandle hValue2)
+            {
+            String[] asField = f_asField;
+            int[]    anKind  = f_anKind;
+            for (int i = 0, c = asField.length; i < c; i++)
+                {
+                ObjectHandle h1 = hValue1.getField(asField[i]);
+                ObjectHandle h2 = hValue2.getField(asField[i]);
+                if (h1 == null || h2 == null)
+                    {
+                    return UNASSIGNED;
+                    }
+
+                if (h1 == h2)
+                    {
+                    continue;
+                    }
+
+                int nResult;
+                switch (anKind[i])
+                    {
+                    case K_LONG:
+                        nResult = Long.compare(((JavaLong) h1).getValue(), ((JavaLong) h2).getValue());
+                        break;
+
+                    case K_ULONG:
+                        nResult = Long.compareUnsigned(((JavaLong) h1).getValue(),
+                                                       ((JavaLong) h2).getValue());
+                        break;
+
+                    case K_STRING:
+                        nResult = xString.INSTANCE.compare((StringHandle) h1, (StringHandle) h2);
+                        break;
 
-    // name of the synthetic property for cached hash value
-    private static final String PROP_HASH = "@hash";
+                    case K_ENUM:
+                        nResult = Integer.compare(((EnumHandle) h1).getOrdinal(),
+                                                  ((EnumHandle) h2).getOrdinal());
+                        break;
+
+                    default:
+                        throw new IllegalStateException();
+                    }
+
+                if (nResult != 0)
+                    {
+                    return nResult;
+                    }
+                }
+            return 0;
+            }
+
+        /**
+         * Compute the hash value for the specified const the same way as the {@link HashCode}
+         * continuation would.
+         *
+         * @return the hash value or null if any of the fields is not assigned
+         */
+        public JavaLong hash(GenericHandle hConst)
+            {
+            String[] asField = f_asField;
+            int[]    anKind  = f_anKind;
+            long     lResult = 0;
+            for (int i = 0, c = asField.length; i < c; i++)
+                {
+                ObjectHandle hField = hConst.getField(asField[i]);
+                if (hField == null)
+                    {
+                    return null;
+                    }
+
+                long lHash;
+                switch (anKind[i])
+                    {
+                    case K_LONG:
+                    case K_ULONG:
+                        lHash = ((JavaLong) hField).getValue();
+                        break;
+
+                    case K_STRING:
+                        lHash = ((StringHandle) hField).getHashCode().getValue();
+                        break;
+
+                    case K_ENUM:
+                        lHash = ((EnumHandle) hField).getOrdinal();
+                        break;
+
+                    default:
+                        throw new IllegalStateException();
+                    }
+                lResult = 37 * lResult + lHash;
+                }
+            return xInt64.makeHandle(lResult);
+            }
+
+        /**
+         * The field kinds.
+         */
+        static final int K_LONG   = 0;
+        static final int K_STRING = 1;
+        static final int K_ENUM   = 2;
+        static final int K_ULONG  = 3;
+
+        /**
+         * The result of {@link #compare} indicating an unassigned field.
+         */
+        public static final int UNASSIGNED = Integer.MIN_VALUE;
+
+        /**
+         * The plan for classes whose fields cannot be compared natively.
+         */
+        public static final FieldPlan NONE = new FieldPlan(new String[0], new int[0], false);
+
+        private final String[] f_asField;
+        private final int[]    f_anKind;
+        private final boolean  f_fOrderable;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
 
     private static MethodStructure FN_ESTIMATE_LENGTH;
     private static MethodStructure FN_APPEND_TO;
@@ -678,4 +970,8 @@ public class xConst
     private static MethodStructure PATH_CONSTRUCT;
 
     private static SignatureConstant HASH_SIG;
+
+    private static MethodStructure ENUM_EQUALS;
+    private static MethodStructure ENUM_COMPARE;
+    private static MethodStructure ENUM_HASHCODE;
     }
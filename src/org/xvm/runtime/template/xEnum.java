@@ -97,7 +97,8 @@ public class xEnum
         if (constant instanceof SingletonConstant)
             {
             SingletonConstant constValue = (SingletonConstant) constant;
-            EnumHandle hValue = (EnumHandle) constValue.getHandle();
+            EnumHandle        hValue     = (EnumHandle)
+                    frame.f_context.f_container.getSingletonHandle(constValue);
 
             if (hValue == null)
                 {
@@ -106,10 +107,18 @@ public class xEnum
                 xEnum templateEnum = (xEnum) getSuper();
 
                 hValue = templateEnum.getEnumByConstant(constValue.getValue());
-                constValue.setHandle(hValue);
 
                 if (hValue.isStruct())
                     {
+                    if (f_struct.getFileStructure().isShared())
+                        {
+                        // the template is shared across Connectors, so each container constructs
+                        // its own value, which the container then keeps (see Utils.initConstants)
+                        TypeConstant type = f_struct.getCanonicalType();
+                        hValue = templateEnum.makeEnumHandle(
+                                templateEnum.ensureClass(type, type), hValue.getOrdinal());
+                        }
+
                     MethodStructure ctor  = f_struct.findConstructor(TypeConstant.NO_TYPES);
                     ObjectHandle[]  ahVar = Utils.ensureSize(Utils.OBJECTS_NONE, ctor.getMaxVars());
 
@@ -40,6 +40,7 @@ public class xException
         s_clzIllegalArgument      = f_templates.getTemplate("IllegalArgument").getCanonicalClass();
         s_clzIllegalState         = f_templates.getTemplate("IllegalState").getCanonicalClass();
         s_clzOutOfBounds          = f_templates.getTemplate("OutOfBounds").getCanonicalClass();
+        s_clzOutOfMemory          = f_templates.getTemplate("OutOfMemory").getCanonicalClass();
         s_clzReadOnly             = f_templates.getTemplate("ReadOnly").getCanonicalClass();
         s_clzTimedOut             = f_templates.getTemplate("TimedOut").getCanonicalClass();
         s_clzTypeMismatch         = f_templates.getTemplate("TypeMismatch").getCanonicalClass();
@@ -114,6 +115,17 @@ public class xException
         return makeHandle(frame, s_clzOutOfBounds, sMsg);
         }
 
+    public static ExceptionHandle outOfMemory(Frame frame)
+        {
+        return outOfMemory(frame, "The service has exceeded its memory limit of "
+                + frame.f_context.getBytesLimit() + " bytes");
+        }
+
+    public static ExceptionHandle outOfMemory(Frame frame, String sMsg)
+        {
+        return makeHandle(frame, s_clzOutOfMemory, sMsg);
+        }
+
     public static ExceptionHandle readOnly(Frame frame)
         {
         return makeHandle(frame, s_clzReadOnly, null);
@@ -195,6 +207,7 @@ public class xException
     private static ClassComposition s_clzIllegalArgument;
     private static ClassComposition s_clzIllegalState;
     private static ClassComposition s_clzOutOfBounds;
+    private static ClassComposition s_clzOutOfMemory;
     private static ClassComposition s_clzReadOnly;
     private static ClassComposition s_clzTimedOut;
     private static ClassComposition s_clzTypeMismatch;
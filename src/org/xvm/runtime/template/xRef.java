@@ -3,6 +3,7 @@ package org.xvm.runtime.template;
 
 import java.util.List;
 
+import java.util.function.Consumer;
 import java.util.function.ToIntFunction;
 
 import org.xvm.asm.ClassStructure;
@@ -306,6 +307,10 @@ public class xRef
                 return hDelegate.getVarSupport().getReferent(frame, hDelegate, iReturn);
                 }
 
+            case RefHandle.REF_CELL:
+                hValue = hRef.m_hReferent;
+                break;
+
             case RefHandle.REF_PROPERTY:
                 {
                 ObjectHandle hDelegate = hRef.getReferentHolder();
@@ -670,6 +675,18 @@ public class xRef
             return frame.callInitialized(frameID);
             }
 
+        @Override
+        public void forEachReferent(Consumer<ObjectHandle> consumer)
+            {
+            super.forEachReferent(consumer);
+
+            consumer.accept(m_hReferent);
+            if (m_frame != null && m_iVar >= 0)
+                {
+                consumer.accept(m_frame.f_ahVar[m_iVar]);
+                }
+            }
+
         public ObjectHandle getReferentHolder()
             {
             assert m_iVar != REF_REFERENT;
@@ -715,6 +732,9 @@ public class xRef
                 case REF_REFERENT:
                     return getReferent() != null;
 
+                case REF_CELL:
+                    return m_hReferent != null;
+
                 case REF_REF:
                     return ((RefHandle) getReferentHolder()).isAssigned();
 
@@ -752,7 +772,55 @@ public class xRef
 
             m_hReferent = m_frame.f_ahVar[m_iVar];
             m_frame     = null;
-            m_iVar      = REF_REFERENT;
+            m_iVar      = REF_CELL;
+            }
+
+        /**
+         * @return true iff the referent is held either by a frame register or by this handle
+         *         itself, which allows it to be accessed directly, bypassing the VarSupport
+         */
+        public boolean isDirect()
+            {
+            return m_iVar >= 0 || m_iVar == REF_CELL;
+            }
+
+        /**
+         * @return the referent of a {@link #isDirect direct} Ref (null if unassigned)
+         */
+        public ObjectHandle getDirectReferent()
+            {
+            return m_iVar == REF_CELL ? m_hReferent : m_frame.f_ahVar[m_iVar];
+            }
+
+        /**
+         * Assign the referent of a {@link #isDirect direct} Var.
+         *
+         * @param hValue  the new referent
+         */
+        public void setDirectReferent(ObjectHandle hValue)
+            {
+            if (m_iVar == REF_CELL)
+                {
+                m_hReferent = hValue;
+                }
+            else
+                {
+                m_frame.f_ahVar[m_iVar] = hValue;
+                }
+            }
+
+        @Override
+        public ObjectHandle cloneAs(TypeComposition clazz)
+            {
+            RefHandle hClone = (RefHandle) super.cloneAs(clazz);
+            if (isDirect())
+                {
+                // the clone must share the register or the cell; chain it to this Ref
+                hClone.m_frame     = null;
+                hClone.m_iVar      = REF_REF;
+                hClone.m_hReferent = this;
+                }
+            return hClone;
             }
 
         @Override
@@ -767,6 +835,9 @@ public class xRef
                 case REF_REF:
                     return s + "--> " + getReferentHolder();
 
+                case REF_CELL:
+                    return s + m_hReferent;
+
                 case REF_PROPERTY:
                     return s + "-> " + getReferentHolder().getComposition() + "#" + m_sName;
 
@@ -785,7 +856,9 @@ public class xRef
          *   <li>a delegation to another RefHandle (m_iVar = REF_REF),
          *   <li>a property container (m_iVar = REF_PROPERTY),
          *   <li>an array holding the referent (IndexRefHandle, m_iVar = REF_ARRAY),
-         *   <li>a delegation to a frame variable (m_frame != null, m_iVar >= 0), or
+         *   <li>a delegation to a frame variable (m_frame != null, m_iVar >= 0),
+         *   <li>the referent itself, after the frame variable has gone out of scope
+         *       (m_iVar = REF_CELL), or
          *   <li>null, for m_iVar = REF_REFERENT, in which case the field REFERENT holds the value
          * </ul>
          *
@@ -811,6 +884,10 @@ public class xRef
         // indicates that the m_hReferent field holds an array target
         protected static final int REF_ARRAY    = -4;
 
+        // indicates that the m_hReferent field holds the referent of a register-bound Ref whose
+        // register has gone out of scope (a single-slot cell)
+        protected static final int REF_CELL     = -5;
+
         /**
          * Synthetic property holding a referent.
          */
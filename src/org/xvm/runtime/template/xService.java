@@ -25,6 +25,10 @@ import org.xvm.runtime.TypeComposition;
 import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.Utils;
 
+import org.xvm.runtime.template.numbers.LongLong;
+import org.xvm.runtime.template.numbers.xInt64;
+import org.xvm.runtime.template.numbers.xUInt128;
+
 import org.xvm.runtime.template._native.reflect.xRTFunction;
 import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 
@@ -55,6 +59,10 @@ public class xService
     @Override
     public void initDeclared()
         {
+        if (this == INSTANCE)
+            {
+            s_clzDuration = f_templates.getTemplate("Duration").getCanonicalClass();
+            }
         }
 
     @Override
@@ -198,6 +206,14 @@ public class xService
             {
             case "yield":
                 return frame.f_context == hService.f_context ? Op.R_YIELD : Op.R_NEXT;
+
+            case "gc":
+                if (frame.f_context != hService.f_context)
+                    {
+                    return frame.raiseException("Call out of context");
+                    }
+                hService.f_context.gc();
+                return Op.R_NEXT;
             }
 
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
@@ -214,10 +230,73 @@ public class xService
 
             case "asyncSection":
                 return frame.assignValue(iReturn, frame.f_fiber.getAsyncSection());
+
+            case "upTime":
+                return frame.assignValue(iReturn,
+                    makeDuration(((ServiceHandle) hTarget).f_context.getUpTimeNanos()));
+
+            case "cpuTime":
+                return frame.assignValue(iReturn,
+                    makeDuration(((ServiceHandle) hTarget).f_context.getRuntimeNanos()));
+
+            case "contended":
+                return frame.assignValue(iReturn,
+                    xBoolean.makeHandle(((ServiceHandle) hTarget).f_context.isContended()));
+
+            case "backlogDepth":
+                return frame.assignValue(iReturn,
+                    xInt64.makeHandle(((ServiceHandle) hTarget).f_context.getBacklogDepth()));
+
+            case "bytesReserved":
+                return frame.assignValue(iReturn,
+                    xInt64.makeHandle(((ServiceHandle) hTarget).f_context.getBytesReserved()));
+
+            case "bytesAllocated":
+                return frame.assignValue(iReturn,
+                    xInt64.makeHandle(((ServiceHandle) hTarget).f_context.getBytesAllocated()));
             }
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
         }
 
+    /**
+     * Check whether the specified property is a native service metric, which could be safely
+     * retrieved from outside of the service context, without a need to wait for the service
+     * to process its backlog.
+     */
+    protected boolean isMetric(ObjectHandle hTarget, PropertyConstant idProp)
+        {
+        switch (idProp.getName())
+            {
+            case "upTime":
+            case "cpuTime":
+            case "contended":
+            case "backlogDepth":
+            case "bytesReserved":
+            case "bytesAllocated":
+                {
+                CallChain chain = hTarget.getComposition().getPropertyGetterChain(idProp);
+                return chain != null && chain.isNative();
+                }
+
+            default:
+                return false;
+            }
+        }
+
+    /**
+     * @return a Duration handle for the specified number of nanoseconds
+     */
+    protected static GenericHandle makeDuration(long cNanos)
+        {
+        GenericHandle hDuration = new GenericHandle(s_clzDuration);
+
+        LongLong llPicos = new LongLong(Math.max(0, cNanos)).mul(PICOS_PER_NANO_LL);
+        hDuration.setField("picoseconds", xUInt128.INSTANCE.makeLongLong(llPicos));
+        hDuration.makeImmutable();
+
+        return hDuration;
+        }
+
     @Override
     public int invokePreInc(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn)
         {
@@ -320,6 +399,11 @@ public class xService
             return super.getPropertyValue(frame, hTarget, idProp, iReturn);
             }
 
+        if (isMetric(hTarget, idProp))
+            {
+            return invokeNativeGet(frame, idProp.getName(), hTarget, iReturn);
+            }
+
         CompletableFuture<ObjectHandle> cfResult = hService.f_context.sendProperty01Request(
                 frame, idProp, this::getPropertyValue);
 
@@ -419,6 +503,15 @@ public class xService
             }
         }
 
+    // ----- constants -----------------------------------------------------------------------------
+
+    protected static final LongLong PICOS_PER_NANO_LL = new LongLong(1_000);
+
+    /**
+     * Cached Duration class.
+     */
+    private static TypeComposition s_clzDuration;
+
     // a tag interface for property operations
     public interface PropertyOperation
         {
@@ -97,7 +97,7 @@ public class xString
         CharArrayHandle hCharArray = (CharArrayHandle) ahVar[0];
         hCharArray.makeImmutable();
 
-        return frame.assignValue(iReturn, makeHandle(hCharArray.m_achValue));
+        return frame.assignValue(iReturn, makeHandle(hCharArray.getChars()));
         }
 
     @Override
@@ -108,11 +108,11 @@ public class xString
         switch (Utils.callToString(frame, hArg))
             {
             case Op.R_NEXT:
-                return frame.assignValue(iReturn, concat(hThis, (StringHandle) frame.popStack()));
+                return concat(frame, hThis, (StringHandle) frame.popStack(), iReturn);
 
             case Op.R_CALL:
                 frame.m_frameNext.addContinuation(frameCaller ->
-                    frameCaller.assignValue(iReturn, concat(hThis, (StringHandle) frame.popStack())));
+                    concat(frameCaller, hThis, (StringHandle) frameCaller.popStack(), iReturn));
                 return Op.R_CALL;
 
             case Op.R_EXCEPTION:
@@ -292,7 +292,12 @@ public class xString
 
     // ----- helpers -------------------------------------------------------------------------------
 
-    protected StringHandle concat(StringHandle h1, StringHandle h2)
+    /**
+     * Concatenate two strings and place the result into the specified register.
+     *
+     * @return R_NEXT, R_CALL or R_EXCEPTION (if the result would exceed the service's memory limit)
+     */
+    protected int concat(Frame frame, StringHandle h1, StringHandle h2, int iReturn)
         {
         char[] ach1 = h1.m_achValue;
         char[] ach2 = h2.m_achValue;
@@ -302,17 +307,24 @@ public class xString
 
         if (c1 == 0)
             {
-            return h2;
+            return frame.assignValue(iReturn, h2);
             }
         if (c2 == 0)
             {
-            return h1;
+            return frame.assignValue(iReturn, h1);
+            }
+
+        long cch = (long) c1 + c2;
+        if (cch > Integer.MAX_VALUE || !frame.f_context.reserveBytes(
+                ObjectHandle.BYTES_HANDLE + ObjectHandle.BYTES_ARRAY + 2L * cch))
+            {
+            return frame.raiseException(xException.outOfMemory(frame));
             }
 
-        char[] ach = new char[c1 + c2];
+        char[] ach = new char[(int) cch];
         System.arraycopy(ach1, 0, ach, 0, c1);
         System.arraycopy(ach2, 0, ach, c1, c2);
-        return makeHandle(ach);
+        return frame.assignValue(iReturn, makeHandle(ach));
         }
 
     protected int indexOf(char[] achSource, char chTarget, int ofStart)
@@ -473,6 +485,12 @@ public class xString
                     : sValue;
             }
 
+        @Override
+        public long getByteSize()
+            {
+            return BYTES_HANDLE + BYTES_ARRAY + 2L * m_achValue.length;
+            }
+
         public JavaLong getHashCode()
             {
             JavaLong hHash = m_hash;
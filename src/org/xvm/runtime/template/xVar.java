@@ -133,6 +133,10 @@ public class xVar
                 return hRef.getVarSupport().setReferent(frame, hDelegate, hValue);
                 }
 
+            case RefHandle.REF_CELL:
+                hRef.m_hReferent = hValue;
+                return Op.R_NEXT;
+
             case RefHandle.REF_PROPERTY:
                 {
                 ObjectHandle hDelegate = hRef.getReferentHolder();
@@ -5,15 +5,22 @@ import java.util.AbstractMap;
 import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 
 /**
  * A simple implementation of a Map on top of an ArrayList to maintain order of
- * insertion. This map should work well for small numbers of entries, but will
- * degrade in performance as it grows in size.
+ * insertion. This map works well for small numbers of entries. An "indexed"
+ * map, once it grows beyond a handful of entries, serves the lookups by a lazily
+ * built hash index instead of a linear scan; the keys of an indexed map must have
+ * a stable hash code (e.g. Strings).
+ * <p/>
+ * The map is not thread-safe for mutations, but once fully populated it can be
+ * safely read by any number of threads.
  */
 public class ListMap<K,V>
         extends AbstractMap<K,V>
@@ -23,7 +30,19 @@ public class ListMap<K,V>
      */
     public ListMap()
         {
-        m_list = new ArrayList<>();
+        this(false);
+        }
+
+    /**
+     * Construct a new ListMap that optionally indexes its entries by key.
+     *
+     * @param fIndexed  true to use a hash index for the lookups once the map grows; this must
+     *                  only be used if the hash codes of the keys never change (e.g. Strings)
+     */
+    public ListMap(boolean fIndexed)
+        {
+        m_list     = new ArrayList<>();
+        f_fIndexed = fIndexed;
         }
 
     /**
@@ -36,6 +55,7 @@ public class ListMap<K,V>
         m_list = cInitSize >= 0
             ? new ArrayList<>(cInitSize)
             : Collections.EMPTY_LIST;
+        f_fIndexed = false;
         }
 
     /**
@@ -45,7 +65,8 @@ public class ListMap<K,V>
      */
     public ListMap(ListMap map)
         {
-        m_list = new ArrayList<>(map.m_list);
+        m_list     = new ArrayList<>(map.m_list);
+        f_fIndexed = map.f_fIndexed;
         }
 
     @Override
@@ -57,10 +78,30 @@ public class ListMap<K,V>
             return entry.setValue(value);
             }
 
-        m_list.add(new SimpleEntry<K, V>(key, value));
+        Entry<K,V> entryNew = new SimpleEntry<>(key, value);
+        m_list.add(entryNew);
+
+        Map<K, Entry<K,V>> mapIndex = m_mapIndex;
+        if (mapIndex != null)
+            {
+            mapIndex.put(key, entryNew);
+            }
         return null;
         }
 
+    @Override
+    public V get(Object key)
+        {
+        Entry<K,V> entry = getEntry(key);
+        return entry == null ? null : entry.getValue();
+        }
+
+    @Override
+    public boolean containsKey(Object key)
+        {
+        return getEntry(key) != null;
+        }
+
     @Override
     public Set<Entry<K, V>> entrySet()
         {
@@ -86,9 +127,25 @@ public class ListMap<K,V>
      *
      * @return the entry if it exists; otherwise null
      */
-    protected Entry<K,V> getEntry(K key)
+    protected Entry<K,V> getEntry(Object key)
         {
-        for (Entry<K,V> entry : m_list)
+        List<Entry<K,V>> list = m_list;
+        if (f_fIndexed && list.size() > INDEX_THRESHOLD)
+            {
+            Map<K, Entry<K,V>> mapIndex = m_mapIndex;
+            if (mapIndex == null)
+                {
+                mapIndex = new HashMap<>(list.size() * 2);
+                for (Entry<K,V> entry : list)
+                    {
+                    mapIndex.putIfAbsent(entry.getKey(), entry);
+                    }
+                m_mapIndex = mapIndex;
+                }
+            return mapIndex.get(key);
+            }
+
+        for (Entry<K,V> entry : list)
             {
             if (Handy.equals(key, entry.getKey()))
                 {
@@ -105,6 +162,17 @@ public class ListMap<K,V>
      */
     private final List<Entry<K, V>> m_list;
 
+    /**
+     * True iff the lookups can use the hash index.
+     */
+    private final boolean f_fIndexed;
+
+    /**
+     * The hash index of the entries by key; built lazily for an indexed map once it grows
+     * beyond {@link #INDEX_THRESHOLD} entries and discarded on any removal.
+     */
+    private volatile Map<K, Entry<K,V>> m_mapIndex;
+
     /**
      * The AbstractMap implementation needs an underlying "entry set" to be
      * provided; this is that set, but just sitting on top of {@link #m_list}.
@@ -114,7 +182,35 @@ public class ListMap<K,V>
         @Override
         public Iterator<Entry<K, V>> iterator()
             {
-            return m_list.iterator();
+            Iterator<Entry<K, V>> iter = m_list.iterator();
+            return new Iterator<Entry<K, V>>()
+                {
+                @Override
+                public boolean hasNext()
+                    {
+                    return iter.hasNext();
+                    }
+
+                @Override
+                public Entry<K, V> next()
+                    {
+                    return iter.next();
+                    }
+
+                @Override
+                public void remove()
+                    {
+                    iter.remove();
+                    m_mapIndex = null;
+                    }
+                };
+            }
+
+        @Override
+        public void clear()
+            {
+            m_list.clear();
+            m_mapIndex = null;
             }
 
         @Override
@@ -124,6 +220,11 @@ public class ListMap<K,V>
             }
         };
 
+    /**
+     * The number of entries above which the lookups use the hash index.
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
     /**
      * An empty ListMap.
      */
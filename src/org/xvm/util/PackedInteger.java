@@ -315,6 +315,10 @@ public class PackedInteger
      */
     public PackedInteger negate()
         {
+        if (!this.isBig() && m_lValue != Long.MIN_VALUE)
+            {
+            return valueOf(-m_lValue);
+            }
         return new PackedInteger(this.getBigInteger().negate());
         }
 
@@ -323,6 +327,10 @@ public class PackedInteger
      */
     public PackedInteger complement()
         {
+        if (!this.isBig())
+            {
+            return valueOf(~m_lValue);
+            }
         return new PackedInteger(this.getBigInteger().not());
         }
 
@@ -352,6 +360,16 @@ public class PackedInteger
      */
     public PackedInteger add(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig())
+            {
+            long l1 = this.m_lValue;
+            long l2 = that.m_lValue;
+            long lr = l1 + l2;
+            if (((l1 ^ lr) & (l2 ^ lr)) >= 0)
+                {
+                return valueOf(lr);
+                }
+            }
         return new PackedInteger(this.getBigInteger().add(that.getBigInteger()));
         }
 
@@ -365,6 +383,16 @@ public class PackedInteger
      */
     public PackedInteger sub(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig())
+            {
+            long l1 = this.m_lValue;
+            long l2 = that.m_lValue;
+            long lr = l1 - l2;
+            if (((l1 ^ l2) & (l1 ^ lr)) >= 0)
+                {
+                return valueOf(lr);
+                }
+            }
         return new PackedInteger(this.getBigInteger().subtract(that.getBigInteger()));
         }
 
@@ -378,6 +406,17 @@ public class PackedInteger
      */
     public PackedInteger mul(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig())
+            {
+            long l1  = this.m_lValue;
+            long l2  = that.m_lValue;
+            long lr  = l1 * l2;
+            long lHi = Math.multiplyHigh(l1, l2);
+            if (lHi == (lr >> 63))
+                {
+                return valueOf(lr);
+                }
+            }
         return new PackedInteger(this.getBigInteger().multiply(that.getBigInteger()));
         }
 
@@ -391,6 +430,15 @@ public class PackedInteger
      */
     public PackedInteger div(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig())
+            {
+            long l1 = this.m_lValue;
+            long l2 = that.m_lValue;
+            if (l2 != 0 && (l1 != Long.MIN_VALUE || l2 != -1))
+                {
+                return valueOf(l1 / l2);
+                }
+            }
         return new PackedInteger(this.getBigInteger().divide(that.getBigInteger()));
         }
 
@@ -404,6 +452,10 @@ public class PackedInteger
      */
     public PackedInteger mod(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig() && that.m_lValue > 0)
+            {
+            return valueOf(Math.floorMod(this.m_lValue, that.m_lValue));
+            }
         return new PackedInteger(this.getBigInteger().mod(that.getBigInteger()));
         }
 
@@ -417,6 +469,10 @@ public class PackedInteger
      */
     public PackedInteger and(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig())
+            {
+            return valueOf(this.m_lValue & that.m_lValue);
+            }
         return new PackedInteger(this.getBigInteger().and(that.getBigInteger()));
         }
 
@@ -430,6 +486,10 @@ public class PackedInteger
      */
     public PackedInteger or(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig())
+            {
+            return valueOf(this.m_lValue | that.m_lValue);
+            }
         return new PackedInteger(this.getBigInteger().or(that.getBigInteger()));
         }
 
@@ -443,6 +503,10 @@ public class PackedInteger
      */
     public PackedInteger xor(PackedInteger that)
         {
+        if (!this.isBig() && !that.isBig())
+            {
+            return valueOf(this.m_lValue ^ that.m_lValue);
+            }
         return new PackedInteger(this.getBigInteger().xor(that.getBigInteger()));
         }
 
@@ -456,7 +520,17 @@ public class PackedInteger
      */
     public PackedInteger shl(PackedInteger that)
         {
-        return new PackedInteger(this.getBigInteger().shiftLeft(that.getInt()));
+        int n = that.getInt();
+        if (!this.isBig() && n >= 0 && n < 64)
+            {
+            long l  = this.m_lValue;
+            long lr = l << n;
+            if (lr >> n == l)
+                {
+                return valueOf(lr);
+                }
+            }
+        return new PackedInteger(this.getBigInteger().shiftLeft(n));
         }
 
     /**
@@ -469,9 +543,16 @@ public class PackedInteger
      */
     public PackedInteger shr(PackedInteger that)
         {
-        return that.isNegative()
-                ? this
-                : new PackedInteger(this.getBigInteger().shiftRight(that.getInt()));
+        if (that.isNegative())
+            {
+            return this;
+            }
+
+        if (!this.isBig() && !that.isBig())
+            {
+            return valueOf(this.m_lValue >> Math.min(that.m_lValue, 63));
+            }
+        return new PackedInteger(this.getBigInteger().shiftRight(that.getInt()));
         }
 
     /**
@@ -484,9 +565,16 @@ public class PackedInteger
      */
     public PackedInteger ushr(PackedInteger that)
         {
-        return that.isNegative()
-                ? this
-                : new PackedInteger(this.getBigInteger().shiftRight(that.getInt()));
+        if (that.isNegative())
+            {
+            return this;
+            }
+
+        if (!this.isBig() && !that.isBig())
+            {
+            return valueOf(this.m_lValue >> Math.min(that.m_lValue, 63));
+            }
+        return new PackedInteger(this.getBigInteger().shiftRight(that.getInt()));
         }
 
     /**
@@ -498,7 +586,7 @@ public class PackedInteger
      */
     public int cmp(PackedInteger that)
         {
-        return this.getBigInteger().compareTo(that.getBigInteger());
+        return compareTo(that);
         }
 
     /**
@@ -0,0 +1,249 @@
+package org.xvm.compiler;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.xvm.api.Connector;
+
+import org.xvm.asm.DirRepository;
+import org.xvm.asm.LinkedRepository;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.ModuleStructure;
+
+import org.xvm.asm.constants.PropertyConstant;
+
+import org.xvm.compiler.ast.MethodDeclarationStatement;
+
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.xString.StringHandle;
+
+
+/**
+ * Tests for the incremental build, which re-uses the code of the unchanged methods from the
+ * previous build of a module.
+ *
+ * The core module is compiled from the "system" directory under the "xsrc" directory, which is
+ * located via the "xvm.xsrc" system property (by default, "xsrc" in the current directory).
+ */
+public class IncrementalBuildTest
+    {
+    /**
+     * Only the changed method is compiled; the code of the unchanged ones is adopted.
+     */
+    @Test
+    public void testAdopt()
+            throws Exception
+        {
+        File dir = Files.createTempDirectory("xvm-incr").toFile();
+
+        build(dir, source("return \"b1\";", "return \"b2\";"), false);
+        Assert.assertTrue(indexFile(dir).exists());
+
+        Set<String> setReused = build(dir, source("return \"b1\";", "return \"b3\";"), true);
+        Assert.assertTrue(setReused.contains("c"));
+        Assert.assertTrue(setReused.contains("b1"));
+        Assert.assertTrue(setReused.contains("a"));
+        Assert.assertFalse(setReused.contains("b2"));
+
+        Assert.assertEquals("c b1 b3 " + A_RESULT, run(dir));
+        }
+
+    /**
+     * The module loses so many constants that the positions of the constants used by the code of
+     * an unchanged method cannot be retained; that method is compiled instead.
+     */
+    @Test
+    public void testFallback()
+            throws Exception
+        {
+        File dir = Files.createTempDirectory("xvm-incr").toFile();
+
+        StringBuilder sb = new StringBuilder("String[] strs = [");
+        for (int i = 0; i < 300; ++i)
+            {
+            sb.append(i == 0 ? "" : ", ")
+              .append("\"b-")
+              .append(i)
+              .append('"');
+            }
+        sb.append("]; return strs[7];");
+
+        build(dir, source(sb.toString(), sb.toString()), false);
+
+        // some of the unchanged methods are compiled, but not all of them
+        Set<String> setReused = build(dir, source("return \"b1\";", "return \"b2\";"), true);
+        Assert.assertFalse(setReused.isEmpty());
+        Assert.assertFalse(setReused.containsAll(Set.of("c", "a", "run")));
+
+        Assert.assertEquals("c b1 b2 " + A_RESULT, run(dir));
+        }
+
+    /**
+     * The build index is neither written nor used with the "-noidx" option.
+     */
+    @Test
+    public void testNoIndex()
+            throws Exception
+        {
+        File dir = Files.createTempDirectory("xvm-incr").toFile();
+
+        build(dir, source("return \"b1\";", "return \"b2\";"), false);
+        Assert.assertTrue(indexFile(dir).exists());
+
+        Set<String> setReused = build(dir, source("return \"b1\";", "return \"b3\";"), true,
+                "-noidx");
+        Assert.assertTrue(setReused.isEmpty());
+        Assert.assertFalse(indexFile(dir).exists());
+
+        Assert.assertEquals("c b1 b3 " + A_RESULT, run(dir));
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * @return the source of the "Incremental" module with the specified bodies for the "b1" and
+     *         the "b2" methods
+     */
+    private static String source(String sB1, String sB2)
+        {
+        return "module Incremental\n"
+             + "    {\n"
+             + "    class Foo\n"
+             + "        {\n"
+             + "        String c()\n"
+             + "            {\n"
+             + "            return \"c\";\n"
+             + "            }\n"
+             + "\n"
+             + "        String b1()\n"
+             + "            {\n"
+             + "            " + sB1 + "\n"
+             + "            }\n"
+             + "\n"
+             + "        String b2()\n"
+             + "            {\n"
+             + "            " + sB2 + "\n"
+             + "            }\n"
+             + "\n"
+             + "        String a()\n"
+             + "            {\n"
+             + "            return \"" + A_RESULT + "\";\n"
+             + "            }\n"
+             + "        }\n"
+             + "\n"
+             + "    static String Result = new Foo().c() + \" \" + new Foo().b1() + \" \"\n"
+             + "            + new Foo().b2() + \" \" + new Foo().a();\n"
+             + "\n"
+             + "    void run()\n"
+             + "        {\n"
+             + "        assert Result.size > 0;\n"
+             + "        }\n"
+             + "    }\n";
+        }
+
+    /**
+     * Write out and compile the source of the "Incremental" module.
+     *
+     * @param dir       the directory to compile in
+     * @param sSource   the module source
+     * @param fChanged  true iff the module has been compiled before
+     * @param asOpt     the additional compiler options
+     *
+     * @return the names of the methods whose code has been re-used from the previous build
+     */
+    private static Set<String> build(File dir, String sSource, boolean fChanged, String... asOpt)
+            throws IOException
+        {
+        File dirXsrc = new File(System.getProperty("xvm.xsrc", "xsrc"));
+        File file    = new File(dir, "Incremental.x");
+        File fileXtc = new File(dir, "Incremental.xtc");
+
+        Files.writeString(file.toPath(), sSource);
+        if (fChanged)
+            {
+            // make sure that the module is seen as out of date
+            file.setLastModified(fileXtc.lastModified() + 10000);
+            }
+
+        String[] asArg = new String[asOpt.length + 2];
+        System.arraycopy(asOpt, 0, asArg, 0, asOpt.length);
+        asArg[asOpt.length]     = new File(dirXsrc, "system").getPath();
+        asArg[asOpt.length + 1] = file.getPath();
+
+        CommandLine cmd = new CommandLine(asArg);
+        cmd.build();
+        Assert.assertTrue(fileXtc.exists());
+
+        Set<String> setReused = new HashSet<>();
+        Compiler    compiler  = cmd.modulesByName.get("Incremental");
+        if (compiler != null)
+            {
+            for (MethodDeclarationStatement stmt : compiler.getReusedMethods())
+                {
+                setReused.add(((MethodStructure) stmt.getComponent()).getName());
+                }
+            }
+        return setReused;
+        }
+
+    /**
+     * @return the build index file for the "Incremental" module in the specified directory
+     */
+    private static File indexFile(File dir)
+        {
+        return CommandLine.BuildIndex.fileFor(new File(dir, "Incremental.xtc"));
+        }
+
+    /**
+     * Run the compiled "Incremental" module.
+     *
+     * @return the value of the module's "Result" property
+     */
+    private static String run(File dir)
+            throws IOException, InterruptedException
+        {
+        File dirXsrc = new File(System.getProperty("xvm.xsrc", "xsrc"));
+        File dirCore = new File(dir, "core");
+
+        dirCore.mkdir();
+        Files.copy(new File(dirXsrc, "Ecstasy.xtc").toPath(),
+                   new File(dirCore, "Ecstasy.xtc").toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        LinkedRepository repo = new LinkedRepository(
+                new DirRepository(dirCore, true), new DirRepository(dir, true));
+
+        ModuleStructure module = repo.loadModule("Incremental");
+        module.getFileStructure().linkModules(repo);
+
+        Connector connector = new Connector(repo);
+        connector.loadModule("Incremental");
+        connector.start();
+
+        Container container = connector.getContainer();
+
+        connector.invoke0("run", Utils.OBJECTS_NONE);
+        connector.join();
+
+        PropertyConstant idProp = (PropertyConstant)
+                module.getChild("Result").getIdentityConstant();
+        StringHandle hValue = (StringHandle) container.getSingletonHandle(
+                module.getConstantPool().ensureSingletonConstConstant(idProp));
+        Assert.assertNotNull(hValue);
+        return hValue.getStringValue();
+        }
+
+    private static final String A_RESULT = "a-0 a-1 a-2 a-3 a-4 a-5 a-6 a-7 a-8 a-9";
+    }
@@ -1,5 +1,9 @@
 package org.xvm.runtime;
 
+import java.math.BigInteger;
+
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -67,6 +71,159 @@ public class TestNumber
         // TODO
         }
 
+    @Test
+    public void test128Mul()
+        {
+        long[] al = new long[2];
+
+        // the product magnitude of 2^127 is only valid for the negative signed result
+        Assert.assertTrue("2^63*-2^64", LongLong.mul(MIN64, 0, 0, -1, true, al));
+        Assert.assertEquals("2^63*-2^64", MIN128, new LongLong(al[0], al[1]));
+        Assert.assertFalse("2^63*2^64", LongLong.mul(MIN64, 0, 0, 1, true, al));
+        Assert.assertTrue("2^63*2^64 unsigned", LongLong.mul(MIN64, 0, 0, 1, false, al));
+        Assert.assertEquals("2^63*2^64 unsigned", MIN128, new LongLong(al[0], al[1]));
+
+        Assert.assertTrue("MIN*1", LongLong.mul(0, MIN64, 1, 0, true, al));
+        Assert.assertEquals("MIN*1", MIN128, new LongLong(al[0], al[1]));
+        Assert.assertFalse("MIN*-1", LongLong.mul(0, MIN64, -1, -1, true, al));
+        Assert.assertFalse("-1*MIN", LongLong.mul(-1, -1, 0, MIN64, true, al));
+        Assert.assertTrue("MAX*-1", LongLong.mul(-1, MAX64, -1, -1, true, al));
+        Assert.assertEquals("MAX*-1", new LongLong(1, MIN64), new LongLong(al[0], al[1]));
+
+        Assert.assertFalse("2^64*2^64", LongLong.mul(0, 1, 0, 1, false, al));
+        Assert.assertFalse("MAX128U*2", LongLong.mul(-1, -1, 2, 0, false, al));
+        Assert.assertFalse("MAX128U*MAX64U", LongLong.mul(-1, -1, -1, 0, false, al));
+        Assert.assertTrue("MAX64U*MAX64U", LongLong.mul(-1, 0, -1, 0, false, al));
+        Assert.assertEquals("MAX64U*MAX64U", new LongLong(1, -2), new LongLong(al[0], al[1]));
+
+        long[] alValue = sampleValues();
+        for (int i = 0; i < alValue.length; i += 2)
+            {
+            for (int j = 0; j < alValue.length; j += 2)
+                {
+                checkMul(alValue[i], alValue[i + 1], alValue[j], alValue[j + 1], true);
+                checkMul(alValue[i], alValue[i + 1], alValue[j], alValue[j + 1], false);
+                }
+            }
+        }
+
+    @Test
+    public void test128DivMod()
+        {
+        long[] al = new long[4];
+
+        // MIN/-1 overflows, but the modulo is still valid
+        Assert.assertFalse("MIN/-1", LongLong.divMod(0, MIN64, -1, -1, true, al));
+        Assert.assertEquals("MIN%-1", LongLong.ZERO, new LongLong(al[2], al[3]));
+        Assert.assertTrue("MIN/1", LongLong.divMod(0, MIN64, 1, 0, true, al));
+        Assert.assertEquals("MIN/1", MIN128, new LongLong(al[0], al[1]));
+        Assert.assertTrue("MIN/MIN", LongLong.divMod(0, MIN64, 0, MIN64, true, al));
+        Assert.assertEquals("MIN/MIN", LongLong.ONE, new LongLong(al[0], al[1]));
+
+        // the signed modulo is never negative
+        Assert.assertTrue("-7/2", LongLong.divMod(-7, -1, 2, 0, true, al));
+        Assert.assertEquals("-7/2", new LongLong(-3), new LongLong(al[0], al[1]));
+        Assert.assertEquals("-7%2", new LongLong(1), new LongLong(al[2], al[3]));
+        Assert.assertTrue("-7/-2", LongLong.divMod(-7, -1, -2, -1, true, al));
+        Assert.assertEquals("-7/-2", new LongLong(3), new LongLong(al[0], al[1]));
+        Assert.assertEquals("-7%-2", new LongLong(1), new LongLong(al[2], al[3]));
+
+        // divisors of at least 2^64
+        Assert.assertTrue("MAX128U/(2^64+1)", LongLong.divMod(-1, -1, 1, 1, false, al));
+        Assert.assertEquals("MAX128U/(2^64+1)", new LongLong(-1, 0), new LongLong(al[0], al[1]));
+        Assert.assertEquals("MAX128U%(2^64+1)", LongLong.ZERO, new LongLong(al[2], al[3]));
+        Assert.assertTrue("MAX128U/MAX128U", LongLong.divMod(-1, -1, -1, -1, false, al));
+        Assert.assertEquals("MAX128U/MAX128U", LongLong.ONE, new LongLong(al[0], al[1]));
+        Assert.assertTrue("(2^64-1)/2^64", LongLong.divMod(-1, 0, 0, 1, false, al));
+        Assert.assertEquals("(2^64-1)/2^64", LongLong.ZERO, new LongLong(al[0], al[1]));
+        Assert.assertEquals("(2^64-1)%2^64", new LongLong(-1, 0), new LongLong(al[2], al[3]));
+
+        long[] alValue = sampleValues();
+        for (int i = 0; i < alValue.length; i += 2)
+            {
+            for (int j = 0; j < alValue.length; j += 2)
+                {
+                if (alValue[j] != 0 || alValue[j + 1] != 0)
+                    {
+                    checkDivMod(alValue[i], alValue[i + 1], alValue[j], alValue[j + 1], true);
+                    checkDivMod(alValue[i], alValue[i + 1], alValue[j], alValue[j + 1], false);
+                    }
+                }
+            }
+        }
+
+    @Test
+    public void test128DivideUnsigned()
+        {
+        Assert.assertEquals("0:MAX64U/MAX64U", 1, LongLong.divideUnsigned(0, -1, -1));
+        Assert.assertEquals("(MAX64U-1):MAX64U/MAX64U", -1,
+                LongLong.divideUnsigned(-2, -1, -1));
+        Assert.assertEquals("1:0/2", MIN64, LongLong.divideUnsigned(1, 0, 2));
+        Assert.assertEquals("(2^63-1):MAX64U/2^63", -1,
+                LongLong.divideUnsigned(MAX64, -1, MIN64));
+
+        Random rnd = new Random(42);
+        for (int i = 0; i < 10_000; i++)
+            {
+            long lDivisor = rnd.nextLong() >>> rnd.nextInt(64);
+            if (lDivisor == 0)
+                {
+                continue;
+                }
+            long lHigh = Long.remainderUnsigned(rnd.nextLong(), lDivisor);
+            long lLow  = rnd.nextLong();
+
+            BigInteger biExpect = new LongLong(lLow, lHigh).toUnsignedBigInteger()
+                    .divide(new LongLong(lDivisor, 0).toUnsignedBigInteger());
+            Assert.assertEquals(lHigh + ":" + lLow + "/" + lDivisor,
+                    biExpect.longValue(), LongLong.divideUnsigned(lHigh, lLow, lDivisor));
+            }
+        }
+
+    @Test
+    public void test128ToString()
+        {
+        BigInteger biE18 = BigInteger.TEN.pow(18);
+        BigInteger[] abi =
+            {
+            BigInteger.ZERO,
+            biE18.subtract(BigInteger.ONE),
+            biE18,
+            biE18.add(BigInteger.ONE),
+            BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE),
+            BigInteger.ONE.shiftLeft(64),
+            biE18.pow(2).subtract(BigInteger.ONE),
+            biE18.pow(2),
+            biE18.pow(2).add(BigInteger.ONE),
+            biE18.pow(2).add(biE18),
+            biE18.pow(2).multiply(BigInteger.valueOf(170)),
+            BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE),
+            };
+
+        for (BigInteger bi : abi)
+            {
+            checkToString(bi);
+            checkToString(bi.negate());
+            }
+
+        // the signed minimum value and the unsigned maximum value
+        Assert.assertEquals("MIN", "-170141183460469231731687303715884105728",
+                LongLong.toString(0, MIN64, true));
+        Assert.assertEquals("MAX128U", "340282366920938463463374607431768211455",
+                LongLong.toString(-1, -1, false));
+        Assert.assertEquals("-1", "-1", LongLong.toString(-1, -1, true));
+
+        long[] alValue = sampleValues();
+        for (int i = 0; i < alValue.length; i += 2)
+            {
+            LongLong ll = new LongLong(alValue[i], alValue[i + 1]);
+            Assert.assertEquals(ll.toBigInteger().toString(),
+                    LongLong.toString(alValue[i], alValue[i + 1], true));
+            Assert.assertEquals(ll.toUnsignedBigInteger().toString(),
+                    LongLong.toString(alValue[i], alValue[i + 1], false));
+            }
+        }
+
     @Test
     public void test64Signed()
         {
@@ -239,6 +396,92 @@ public class TestNumber
         }
 
 
+    // ----- 128 bit helpers -----------------------------------------------------------------------
+
+    /**
+     * @return the boundary values and a set of random values as (low, high) long pairs
+     */
+    private static long[] sampleValues()
+        {
+        long[] alEdge = {0, 1, -1, 2, MAX64, MIN64, MAX64 - 1, MIN64 + 1, 0xFFFF_FFFFL, 1L << 32};
+
+        int    cEdge = alEdge.length;
+        int    cRnd  = 64;
+        long[] al    = new long[(cEdge * cEdge + cRnd) * 2];
+        int    i     = 0;
+        for (long lHigh : alEdge)
+            {
+            for (long lLow : alEdge)
+                {
+                al[i++] = lLow;
+                al[i++] = lHigh;
+                }
+            }
+
+        Random rnd = new Random(128);
+        for (int j = 0; j < cRnd; j++)
+            {
+            al[i++] = rnd.nextLong();
+            al[i++] = rnd.nextLong() >> rnd.nextInt(64);
+            }
+        return al;
+        }
+
+    private static BigInteger toBigInteger(long lLow, long lHigh, boolean fSigned)
+        {
+        LongLong ll = new LongLong(lLow, lHigh);
+        return fSigned ? ll.toBigInteger() : ll.toUnsignedBigInteger();
+        }
+
+    private static boolean fits(BigInteger bi, boolean fSigned)
+        {
+        return fSigned
+                ? bi.bitLength() <= 127
+                : bi.signum() >= 0 && bi.bitLength() <= 128;
+        }
+
+    private static void checkMul(long l1L, long l1H, long l2L, long l2H, boolean fSigned)
+        {
+        BigInteger bi1      = toBigInteger(l1L, l1H, fSigned);
+        BigInteger bi2      = toBigInteger(l2L, l2H, fSigned);
+        BigInteger biExpect = bi1.multiply(bi2);
+        String     sTest    = bi1 + "*" + bi2;
+        long[]     al       = new long[2];
+
+        boolean fValid = LongLong.mul(l1L, l1H, l2L, l2H, fSigned, al);
+        Assert.assertEquals(sTest, fits(biExpect, fSigned), fValid);
+        if (fValid)
+            {
+            Assert.assertEquals(sTest, biExpect, toBigInteger(al[0], al[1], fSigned));
+            }
+        }
+
+    private static void checkDivMod(long uL, long uH, long vL, long vH, boolean fSigned)
+        {
+        BigInteger bi1   = toBigInteger(uL, uH, fSigned);
+        BigInteger bi2   = toBigInteger(vL, vH, fSigned);
+        BigInteger biDiv = bi1.divide(bi2);
+        BigInteger biMod = bi1.mod(bi2.abs());
+        String     sTest = bi1 + "/" + bi2;
+        long[]     al    = new long[4];
+
+        boolean fValid = LongLong.divMod(uL, uH, vL, vH, fSigned, al);
+        Assert.assertEquals(sTest, fits(biDiv, fSigned), fValid);
+        if (fValid)
+            {
+            Assert.assertEquals(sTest, biDiv, toBigInteger(al[0], al[1], fSigned));
+            }
+        Assert.assertEquals(sTest, biMod, toBigInteger(al[2], al[3], fSigned));
+        }
+
+    private static void checkToString(BigInteger bi)
+        {
+        LongLong ll = LongLong.fromBigInteger(bi);
+        Assert.assertEquals(bi.toString(),
+                LongLong.toString(ll.getLowValue(), ll.getHighValue(), true));
+        }
+
+
     // ----- the algorithms used by native code ----------------------------------------------------
 
     private long longAdd(long l1, long l2, int nShift)
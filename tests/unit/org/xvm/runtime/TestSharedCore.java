@@ -0,0 +1,182 @@
+package org.xvm.runtime;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.xvm.api.Connector;
+
+import org.xvm.asm.Constants;
+import org.xvm.asm.DirRepository;
+import org.xvm.asm.LinkedRepository;
+import org.xvm.asm.ModuleStructure;
+
+import org.xvm.asm.constants.PropertyConstant;
+
+import org.xvm.compiler.CommandLine;
+
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+
+import org.xvm.runtime.template.xEnum;
+import org.xvm.runtime.template.xEnum.EnumHandle;
+import org.xvm.runtime.template.xString.StringHandle;
+
+
+/**
+ * Runs two Connectors over the same (shared) core module, each with its own version of a module
+ * that has the same name, and verifies that the Connectors don't see each other's classes and
+ * singletons.
+ *
+ * The core module is compiled from the "system" directory under the "xsrc" directory, which is
+ * located via the "xvm.xsrc" system property (by default, "xsrc" in the current directory).
+ */
+public class TestSharedCore
+    {
+    @Test
+    public void testTwoConnectors()
+            throws Exception
+        {
+        File dirXsrc = new File(System.getProperty("xvm.xsrc", "xsrc"));
+        File dirTemp = Files.createTempDirectory("xvm-shared").toFile();
+        File dirCore = new File(dirTemp, "core");
+        File dirA    = new File(dirTemp, "a");
+        File dirB    = new File(dirTemp, "b");
+
+        compile(dirXsrc, dirA, "A");
+        compile(dirXsrc, dirB, "B");
+
+        dirCore.mkdir();
+        Files.copy(new File(dirXsrc, "Ecstasy.xtc").toPath(),
+                   new File(dirCore, "Ecstasy.xtc").toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        Tenant tenantA = new Tenant(dirCore, dirA);
+        Tenant tenantB = new Tenant(dirCore, dirB);
+
+        // the core module is loaded only once
+        Assert.assertSame(tenantA.f_moduleCore, tenantB.f_moduleCore);
+        Assert.assertTrue(tenantA.f_moduleCore.getFileStructure().isShared());
+        Assert.assertNotSame(tenantA.f_moduleApp, tenantB.f_moduleApp);
+
+        tenantA.run();
+        tenantB.run();
+
+        // each Connector sees its own class and its own static property
+        Assert.assertEquals("A tag-A", tenantA.getString("Tag"));
+        Assert.assertEquals("B tag-B", tenantB.getString("Tag"));
+
+        // the values of the (non-native) core enums are constructed by each container
+        ObjectHandle hSignA = tenantA.getValue("Sign");
+        ObjectHandle hSignB = tenantB.getValue("Sign");
+        Assert.assertNotSame(hSignA, hSignB);
+        Assert.assertFalse(hSignA.isStruct());
+        Assert.assertFalse(hSignB.isStruct());
+        Assert.assertEquals("+", ((StringHandle)
+                ((GenericHandle) hSignA).getField("prefix")).getStringValue());
+        Assert.assertEquals("+", ((StringHandle)
+                ((GenericHandle) hSignB).getField("prefix")).getStringValue());
+
+        // ... and never by constructing the enum values held by the shared template
+        xEnum templateSignum = (xEnum)
+                tenantA.m_container.f_templates.getTemplate("numbers.Number.Signum");
+        Assert.assertSame(templateSignum,
+                tenantB.m_container.f_templates.getTemplate("numbers.Number.Signum"));
+
+        EnumHandle hPositive = templateSignum.getEnumByName("Positive");
+        Assert.assertTrue(hPositive.isStruct());
+        Assert.assertNull(hPositive.getField("prefix"));
+        }
+
+    /**
+     * Write out and compile the source of the "TenantApp" module.
+     */
+    private static void compile(File dirXsrc, File dir, String sTag)
+            throws IOException
+        {
+        dir.mkdir();
+
+        File file = new File(dir, "TenantApp.x");
+        Files.writeString(file.toPath(),
+                "module TenantApp\n"
+              + "    {\n"
+              + "    class Foo\n"
+              + "        {\n"
+              + "        String hi()\n"
+              + "            {\n"
+              + "            return \"" + sTag + "\";\n"
+              + "            }\n"
+              + "        }\n"
+              + "\n"
+              + "    static String Tag = new Foo().hi() + \" tag-" + sTag + "\";\n"
+              + "\n"
+              + "    static Number.Signum Sign = Tag.size > 0 ? Positive : Negative;\n"
+              + "\n"
+              + "    void run()\n"
+              + "        {\n"
+              + "        assert Tag.size > 0 && Sign.prefix == \"+\";\n"
+              + "        }\n"
+              + "    }\n");
+
+        new CommandLine(new String[] {new File(dirXsrc, "system").getPath(), file.getPath()})
+                .build();
+
+        Assert.assertTrue(new File(dir, "TenantApp.xtc").exists());
+        }
+
+    /**
+     * A Connector for one of the "TenantApp" modules.
+     */
+    private static class Tenant
+        {
+        Tenant(File dirCore, File dirApp)
+            {
+            LinkedRepository repo = new LinkedRepository(
+                    new DirRepository(dirCore, true), new DirRepository(dirApp, true));
+
+            f_moduleApp  = repo.loadModule("TenantApp");
+            f_moduleCore = repo.loadModule(Constants.ECSTASY_MODULE);
+            f_moduleApp.getFileStructure().linkModules(repo);
+            f_connector  = new Connector(repo);
+            }
+
+        void run()
+                throws InterruptedException
+            {
+            Connector connector = f_connector;
+            connector.loadModule("TenantApp");
+            connector.start();
+
+            m_container = connector.getContainer();
+
+            connector.invoke0("run", Utils.OBJECTS_NONE);
+            connector.join();
+            }
+
+        ObjectHandle getValue(String sProp)
+            {
+            PropertyConstant idProp = (PropertyConstant)
+                    f_moduleApp.getChild(sProp).getIdentityConstant();
+
+            ObjectHandle hValue = m_container.getSingletonHandle(
+                    f_moduleApp.getConstantPool().ensureSingletonConstConstant(idProp));
+            Assert.assertNotNull(sProp, hValue);
+            return hValue;
+            }
+
+        String getString(String sProp)
+            {
+            return ((StringHandle) getValue(sProp)).getStringValue();
+            }
+
+        final ModuleStructure f_moduleApp;
+        final ModuleStructure f_moduleCore;
+        final Connector       f_connector;
+
+        Container m_container;
+        }
+    }
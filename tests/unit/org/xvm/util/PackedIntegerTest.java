@@ -216,6 +216,110 @@ public class PackedIntegerTest
         }
 
 
+    @Test
+    public void testArithmeticOverflow()
+        {
+        PackedInteger pintMin = PackedInteger.valueOf(Long.MIN_VALUE);
+        PackedInteger pintMax = PackedInteger.valueOf(Long.MAX_VALUE);
+        BigInteger    bigMin  = BigInteger.valueOf(Long.MIN_VALUE);
+
+        Assert.assertEquals(new PackedInteger(bigMin.negate()), pintMin.negate());
+        Assert.assertEquals(new PackedInteger(bigMin.negate()), pintMin.mul(PackedInteger.NEG_ONE));
+        Assert.assertEquals(new PackedInteger(bigMin.negate()), PackedInteger.NEG_ONE.mul(pintMin));
+        Assert.assertEquals(new PackedInteger(bigMin.negate()), pintMin.div(PackedInteger.NEG_ONE));
+        Assert.assertEquals(PackedInteger.ZERO, pintMin.mod(PackedInteger.ONE));
+        Assert.assertEquals(new PackedInteger(bigMin.subtract(BigInteger.ONE)), pintMin.previous());
+        Assert.assertEquals(new PackedInteger(bigMin.negate()), pintMax.next());
+        Assert.assertEquals(new PackedInteger(bigMin.multiply(bigMin)), pintMin.mul(pintMin));
+        Assert.assertTrue(pintMin.negate().isBig());
+        Assert.assertFalse(pintMin.negate().negate().isBig());
+        }
+
+    @Test
+    public void testShiftBoundaries()
+        {
+        // shifting into (and past) the sign bit of the long representation
+        Assert.assertEquals(new PackedInteger(BigInteger.ONE.shiftLeft(63)),
+                PackedInteger.ONE.shl(PackedInteger.valueOf(63)));
+        Assert.assertEquals(new PackedInteger(BigInteger.ONE.shiftLeft(64)),
+                PackedInteger.ONE.shl(PackedInteger.valueOf(64)));
+        Assert.assertEquals(PackedInteger.valueOf(Long.MIN_VALUE),
+                PackedInteger.NEG_ONE.shl(PackedInteger.valueOf(63)));
+        Assert.assertEquals(new PackedInteger(BigInteger.ONE.shiftLeft(64).negate()),
+                PackedInteger.NEG_ONE.shl(PackedInteger.valueOf(64)));
+
+        // shifting right by 63 and more yields the sign
+        Assert.assertEquals(PackedInteger.NEG_ONE,
+                PackedInteger.valueOf(Long.MIN_VALUE).shr(PackedInteger.valueOf(63)));
+        Assert.assertEquals(PackedInteger.NEG_ONE,
+                PackedInteger.valueOf(Long.MIN_VALUE).shr(PackedInteger.valueOf(64)));
+        Assert.assertEquals(PackedInteger.ZERO,
+                PackedInteger.valueOf(Long.MAX_VALUE).shr(PackedInteger.valueOf(63)));
+        Assert.assertEquals(PackedInteger.ZERO,
+                PackedInteger.valueOf(Long.MAX_VALUE).ushr(PackedInteger.valueOf(64)));
+        }
+
+    @Test
+    public void testArithmeticBoundaries()
+        {
+        long[] al =
+            {
+            0, 1, -1, 2, -2, 3, -7, 63, 64, 65,
+            Integer.MAX_VALUE, Integer.MIN_VALUE, 1L << 32, 1L << 62, -(1L << 62),
+            Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1,
+            0x7FFF_FFFF_FFFF_FFFL, 0xB504_F333L, -0xB504_F334L,
+            };
+
+        for (long l1 : al)
+            {
+            PackedInteger pint1 = PackedInteger.valueOf(l1);
+            BigInteger    big1  = BigInteger.valueOf(l1);
+
+            Assert.assertEquals(new PackedInteger(big1.negate()), pint1.negate());
+            Assert.assertEquals(new PackedInteger(big1.not()), pint1.complement());
+
+            for (long l2 : al)
+                {
+                PackedInteger pint2 = PackedInteger.valueOf(l2);
+                BigInteger    big2  = BigInteger.valueOf(l2);
+                String        sMsg  = l1 + ", " + l2;
+
+                Assert.assertEquals(sMsg, new PackedInteger(big1.add(big2)), pint1.add(pint2));
+                Assert.assertEquals(sMsg, new PackedInteger(big1.subtract(big2)), pint1.sub(pint2));
+                Assert.assertEquals(sMsg, new PackedInteger(big1.multiply(big2)), pint1.mul(pint2));
+                Assert.assertEquals(sMsg, new PackedInteger(big1.and(big2)), pint1.and(pint2));
+                Assert.assertEquals(sMsg, new PackedInteger(big1.or(big2)), pint1.or(pint2));
+                Assert.assertEquals(sMsg, new PackedInteger(big1.xor(big2)), pint1.xor(pint2));
+                Assert.assertEquals(sMsg, big1.compareTo(big2), pint1.cmp(pint2));
+
+                if (l2 != 0)
+                    {
+                    Assert.assertEquals(sMsg, new PackedInteger(big1.divide(big2)),
+                            pint1.div(pint2));
+                    }
+
+                if (l2 > 0)
+                    {
+                    // the modulo of a negative dividend is never negative
+                    Assert.assertEquals(sMsg, new PackedInteger(big1.mod(big2)), pint1.mod(pint2));
+                    Assert.assertFalse(sMsg, pint1.mod(pint2).isNegative());
+                    }
+
+                if (l2 >= 0 && l2 <= 130)
+                    {
+                    int n = (int) l2;
+                    Assert.assertEquals(sMsg, new PackedInteger(big1.shiftLeft(n)),
+                            pint1.shl(pint2));
+                    Assert.assertEquals(sMsg, new PackedInteger(big1.shiftRight(n)),
+                            pint1.shr(pint2));
+                    Assert.assertEquals(sMsg, new PackedInteger(big1.shiftRight(n)),
+                            pint1.ushr(pint2));
+                    }
+                }
+            }
+        }
+
+
     // ----- helpers -------------------------------------------------------------------------------
 
     private static void testSer(String s)
@@ -17,8 +17,12 @@ const CPFile(Object cookie, Path path, DateTime created, DateTime modified, Int
         construct CPFileNode(cookie);
         }
 
+    /**
+     * The contents are not cached by the CPFile; the file store holds on to recently used file
+     * contents, and allows the rest to be reclaimed.
+     */
     @Override
-    @Lazy immutable Byte[] contents.calc()
+    immutable Byte[] contents.get()
         {
         if (!exists)
             {
@@ -0,0 +1,125 @@
+import Ecstasy.fs.FileChannel;
+
+import Ecstasy.io.Buffer;
+
+/**
+ * Native OS FileChannel implementation.
+ */
+class OSFileChannel
+        implements FileChannel
+    {
+    @Override
+    conditional Int read(Buffer<Byte> buffer, Int minBytes = Int.maxvalue)
+        {
+        if ((Int count, Int index) := read([buffer], minBytes))
+            {
+            return True, count;
+            }
+        return False;
+        }
+
+    @Override
+    conditional (Int, Int) read(Buffer<Byte>[] buffers, Int minBytes = Int.maxvalue)
+        {
+        Int total = 0;
+        Int index = 0;
+        Int count = buffers.size;
+        while (index < count)
+            {
+            Buffer<Byte> buffer    = buffers[index];
+            Int          remaining = buffer.remaining;
+            if (remaining == 0)
+                {
+                ++index;
+                continue;
+                }
+
+            if (total >= minBytes)
+                {
+                break;
+                }
+
+            // a positional read only returns fewer bytes than requested at the end of file
+            Byte[] bytes = new Array<Byte>(remaining.minOf(ChunkSize), i -> 0);
+            if (Int n := readAt(position, bytes))
+                {
+                for (Int i = 0; i < n; ++i)
+                    {
+                    buffer.put(bytes[i]);
+                    }
+                position += n;
+                total    += n;
+                }
+            else if (total == 0)
+                {
+                return False;
+                }
+            else
+                {
+                break;
+                }
+            }
+        return True, total, index;
+        }
+
+    @Override
+    Int write(Buffer<Byte> buffer)
+        {
+        (Int count, Int index) = write([buffer]);
+        return count;
+        }
+
+    @Override
+    (Int, Int) write(Buffer<Byte>[] buffers)
+        {
+        Int total = 0;
+        for (Buffer<Byte> buffer : buffers)
+            {
+            while (buffer.remaining > 0)
+                {
+                Int    size  = buffer.remaining.minOf(ChunkSize);
+                Byte[] bytes = new Array<Byte>(size, i -> buffer.get());
+                Int    count = writeAt(position, [bytes]);
+                position += count;
+                total    += count;
+                }
+            }
+        return total, buffers.size;
+        }
+
+    /**
+     * The maximum number of bytes transferred between a buffer and the file by a single I/O
+     * operation.
+     */
+    static Int ChunkSize = 0x10000;
+
+
+    // ----- native --------------------------------------------------------------------------------
+
+    @Override
+    @RO Boolean readable;
+
+    @Override
+    @RO Boolean writable;
+
+    @Override
+    @Abstract Int size;
+
+    @Override
+    @Abstract Int position;
+
+    @Override
+    conditional Int readAt(Int position, Byte[] bytes);
+
+    @Override
+    Buffer<Byte> map(Int position, Int count);
+
+    @Override
+    Int writeAt(Int position, Byte[]... arrays);
+
+    @Override
+    void flush();
+
+    @Override
+    void close();
+    }
@@ -0,0 +1,108 @@
+import Ecstasy.io.Buffer;
+
+/**
+ * Native read-only Buffer over a memory-mapped region of an OS file.
+ */
+class OSMappedBuffer
+        implements Buffer<Byte>
+    {
+    @Override
+    Boolean readOnly.get()
+        {
+        return True;
+        }
+
+    @Override
+    Int limit
+        {
+        @Override
+        void set(Int newLimit)
+            {
+            assert:bounds 0 <= newLimit && newLimit <= capacity;
+            super(newLimit);
+            if (position > newLimit)
+                {
+                position = newLimit;
+                }
+            }
+        }
+
+    @Override
+    Int position
+        {
+        @Override
+        void set(Int newPosition)
+            {
+            assert:bounds 0 <= newPosition && newPosition <= limit;
+            super(newPosition);
+            }
+        }
+
+    @Override
+    Int mark;
+
+    @Override
+    Byte get()
+        {
+        Int ix = position;
+        assert:bounds ix < limit;
+        position = ix + 1;
+        return byteAt(ix);
+        }
+
+    @Override
+    Byte getElement(Int ix)
+        {
+        assert:bounds 0 <= ix && ix < limit;
+        return byteAt(ix);
+        }
+
+    @Override
+    void put(Byte el)
+        {
+        throw new ReadOnly();
+        }
+
+    @Override
+    void put(Int ix, Byte el)
+        {
+        throw new ReadOnly();
+        }
+
+    @Override
+    OSMappedBuffer clear()
+        {
+        limit    = capacity;
+        position = 0;
+        mark     = -1;
+        return this;
+        }
+
+    @Override
+    OSMappedBuffer rewind()
+        {
+        position = 0;
+        mark     = -1;
+        return this;
+        }
+
+    @Override
+    OSMappedBuffer flip()
+        {
+        limit    = position;
+        position = 0;
+        mark     = -1;
+        return this;
+        }
+
+
+    // ----- native --------------------------------------------------------------------------------
+
+    @Override
+    @RO Int capacity;
+
+    /**
+     * Read the byte at the specified index of the mapped region.
+     */
+    Byte byteAt(Int ix);
+    }
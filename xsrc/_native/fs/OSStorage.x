@@ -50,6 +50,14 @@ service OSStorage
                         }
                     return false;
                     }
+
+                @Override
+                Boolean eventsDiscarded()
+                    {
+                    // stay asynchronous
+                    @Future Boolean cancel = watcher.eventsDiscarded();
+                    return cancel;
+                    }
                 };
 
             return watchDir(parentDir.path, dirWatcher);
@@ -112,7 +120,44 @@ service OSStorage
             }
         }
 
-    // called natively
+    /**
+     * Called natively with all the events collected for the specified directory during a single
+     * debounce window. The events are de-duplicated per path (the last event kind wins); if any
+     * events were lost, the watchers are notified via a single call to `eventsDiscarded()`.
+     */
+    private void onEvents(String pathStringDir, String[] pathStringNodes, Int[] eventIds, Boolean overflow)
+        {
+        if (overflow)
+            {
+            if (FileWatcher?[] watchers := allWatchers.get(pathStringDir))
+                {
+                findWatcher:
+                for (FileWatcher? watcher : watchers)
+                    {
+                    if (watcher != null)
+                        {
+                        @Future Boolean cancel = watcher.eventsDiscarded();
+
+                        Int index = findWatcher.count;
+                        &cancel.whenComplete((cancelled, exception) ->
+                            {
+                            assert FileWatcher w ?= watcher;
+                            if (cancelled? || exception != null)
+                                {
+                                removeWatch(pathStringDir, index, w);
+                                }
+                            });
+                        }
+                    }
+                }
+            }
+
+        for (Int i = 0, Int c = pathStringNodes.size; i < c; ++i)
+            {
+            onEvent(pathStringDir, pathStringNodes[i], True, eventIds[i]);
+            }
+        }
+
     private void onEvent(String pathStringDir, String pathStringNode, Boolean isFile, Int eventId)
         {
         // FileWatcher.Event event = FileWatcher.Event.values[eventId]; TODO: restore when Enumeration works again
@@ -0,0 +1,18 @@
+import Ecstasy.web.json.Doc;
+import Ecstasy.web.json.DocCodec;
+
+/**
+ * Native JSON DocCodec implementation.
+ */
+const RTDocCodec
+        implements DocCodec
+    {
+    @Override
+    Doc parse(String text, Boolean collateDups = False);
+
+    @Override
+    Doc parse(Byte[] bytes, Boolean collateDups = False);
+
+    @Override
+    conditional String render(Doc doc, Boolean showNulls = False, Boolean pretty = False);
+    }
@@ -910,6 +910,13 @@ class Array<Element>
             }
         }
 
+    @Override
+    Array sort(collections.Orderer? order = Null)
+        {
+        // the runtime sorts the arrays of primitive values in their natural order natively
+        return super(order);
+        }
+
 
     // ----- internal implementation details -------------------------------------------------------
 
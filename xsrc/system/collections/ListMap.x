@@ -62,6 +62,26 @@ class ListMap<Key, Value>
             }
         }
 
+    /**
+     * Construct a Mutable or Persistent ListMap that takes ownership of the specified arrays of
+     * unique keys and their corresponding values, as if the entries had been added one at a time.
+     *
+     * @param mutability  the mutability setting for the map
+     * @param keys        the keys for the map, which must be unique
+     * @param vals        the values for the map
+     */
+    construct(Mutability mutability, Key[] keys, Value[] vals)
+        {
+        assert mutability == Mutable || mutability == Persistent;
+        assert keys.size == vals.size;
+
+        listKeys = keys;
+        listVals = vals;
+        appends  = keys.size;
+
+        this.mutability = mutability;
+        }
+
 
     // ----- internal ------------------------------------------------------------------------------
 
@@ -120,7 +120,8 @@ interface File
         Truncate,
 
         /**
-         * Indicate that all writes should occur at the end of the file.
+         * Indicate that all writes should occur at the end of the file; the position specified to
+         * [FileChannel.writeAt] is ignored.
          */
         Append,
 
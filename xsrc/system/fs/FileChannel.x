@@ -25,6 +25,49 @@ interface FileChannel
         return size - position;
         }
 
+    /**
+     * Read a sequence of bytes from the specified file position into the specified array, without
+     * modifying the channel's position. The array is filled from the beginning.
+     *
+     * @param position  the file position to read from
+     * @param bytes     the array to read into; its size determines the maximum number of bytes read
+     *
+     * @return the number of bytes read or false if the position is at or past the end of file
+     *
+     * @throws IOException if the operation fails to complete due to an unrecoverable IO error
+     */
+    conditional Int readAt(Int position, Byte[] bytes);
+
+    /**
+     * Obtain a read-only buffer over the specified region of the file. The file system may
+     * implement this by mapping the region into memory, which is the most efficient way to access
+     * a large, append-only file: the contents are not copied, and the region may be larger than
+     * the available heap.
+     *
+     * @param position  the file position of the region
+     * @param count     the size of the region
+     *
+     * @return a read-only buffer over the contents of the region
+     *
+     * @throws OutOfBounds  if the region is not within the file
+     * @throws IOException  if the operation fails to complete due to an unrecoverable IO error
+     */
+    Buffer<Byte> map(Int position, Int count);
+
+    /**
+     * Write the content of the specified arrays (a "gathering" write) at the specified file
+     * position, without modifying the channel's position. If the file was opened with the
+     * [File.WriteOption.Append] option, the content is written at the end of the file instead.
+     *
+     * @param position  the file position to write to
+     * @param arrays    the arrays to write
+     *
+     * @return the number of bytes written
+     *
+     * @throws IOException if the operation fails to complete due to an unrecoverable IO error
+     */
+    Int writeAt(Int position, Byte[]... arrays);
+
     /**
      * Ensure all the changes are written to the underlying storage medium.
      */
@@ -121,4 +121,75 @@ class ByteArrayInputStream
 
         super(out, count);
         }
+
+
+    // ----- bulk decoding -------------------------------------------------------------------------
+
+    /**
+     * Read an integer value that is formatted using the packed integer format (see
+     * [DataInput.readPackedInt]) directly from the underlying byte array.
+     *
+     * @return the Int value read from the stream
+     *
+     * @throws EndOfFile  if the end of the stream has been reached
+     */
+    Int readPackedInt()
+        {
+        @PackedDataInput ByteArrayInputStream in =
+                new @PackedDataInput ByteArrayInputStream(bytes, offset);
+        try
+            {
+            return DataInput.readPackedInt(in);
+            }
+        finally
+            {
+            offset = in.offset;
+            }
+        }
+
+    /**
+     * Read a single UTF-8 encoded character (see [DataInput.readUTF8Char]) directly from the
+     * underlying byte array.
+     *
+     * @return the character read from the stream
+     *
+     * @throws EndOfFile   if the end of the stream has been reached
+     * @throws IllegalUTF  if there is a flaw in the UTF-8 encoding
+     */
+    Char readUTF8Char()
+        {
+        return DataInput.readUTF8Char(this);
+        }
+
+    /**
+     * Read the specified number of UTF-8 encoded characters directly from the underlying byte
+     * array. Note that, unlike [DataInput.readString], this method does not read the length of the
+     * String from the stream.
+     *
+     * @param count  the number of characters to read
+     *
+     * @return a String of the specified size
+     *
+     * @throws EndOfFile   if the end of the stream has been reached (including if fewer bytes
+     *                     remain than the number of characters to read)
+     * @throws IllegalUTF  if there is a flaw in the UTF-8 encoding
+     */
+    String readUTF8String(Int count)
+        {
+        assert:arg count >= 0;
+
+        // each character takes at least one byte; don't allocate for a count (e.g. a corrupt
+        // length prefix) that the stream cannot possibly satisfy
+        if (count > remaining)
+            {
+            throw new EndOfFile();
+            }
+
+        Char[] chars = new Char[count];
+        for (Int i = 0; i < count; ++i)
+            {
+            chars[i] = readUTF8Char();
+            }
+        return new String(chars);
+        }
     }
\ No newline at end of file
@@ -145,4 +145,84 @@
         this.bytes.addAll(bytes[offset..offset+count-1]);
         this.offset += count;
         }
+
+
+    // ----- bulk encoding -------------------------------------------------------------------------
+
+    /**
+     * Write an integer value using the packed integer format (see [DataOutput.writePackedInt])
+     * directly into the underlying byte array.
+     *
+     * @param value  the Int value to write to the stream
+     */
+    void writePackedInt(Int value)
+        {
+        @PackedDataOutput ByteArrayOutputStream out = wrap();
+        try
+            {
+            DataOutput.writePackedInt(out, value);
+            }
+        finally
+            {
+            offset = out.offset;
+            }
+        }
+
+    /**
+     * Write a single character using the UTF-8 format (see [DataOutput.writeUTF8Char]) directly
+     * into the underlying byte array.
+     *
+     * @param value  the character to write to the stream
+     *
+     * @throws IllegalUTF  if the character cannot be written as valid UTF-8 data
+     */
+    void writeUTF8Char(Char value)
+        {
+        @PackedDataOutput ByteArrayOutputStream out = wrap();
+        try
+            {
+            DataOutput.writeUTF8Char(out, value);
+            }
+        finally
+            {
+            offset = out.offset;
+            }
+        }
+
+    /**
+     * Write the characters of the specified String using the UTF-8 format directly into the
+     * underlying byte array. Note that, unlike [DataOutput.writeString], this method does not write
+     * the length of the String to the stream.
+     *
+     * @param value  the String to write to the stream
+     *
+     * @throws IllegalUTF  if the String cannot be written as valid UTF-8 data
+     */
+    void writeUTF8String(String value)
+        {
+        @PackedDataOutput ByteArrayOutputStream out = wrap();
+        try
+            {
+            for (Char ch : value)
+                {
+                DataOutput.writeUTF8Char(out, ch);
+                }
+            }
+        finally
+            {
+            offset = out.offset;
+            }
+        }
+
+    /**
+     * @return a DataOutput stream that shares the underlying byte array and the current offset
+     *         with this stream
+     */
+    private @PackedDataOutput ByteArrayOutputStream wrap()
+        {
+        @PackedDataOutput ByteArrayOutputStream out =
+                new @PackedDataOutput ByteArrayOutputStream(bytes);
+        out.offset = offset;
+        return out;
+        }
     }
\ No newline at end of file
@@ -18,9 +18,28 @@ mixin PackedDataInput
     @Override
     Char readChar()
         {
+        BinaryInput in = this;
+        if (in.is(ByteArrayInputStream))
+            {
+            return in.readUTF8Char();
+            }
+
         return readUTF8Char(this);
         }
 
+    @Override
+    String readString()
+        {
+        BinaryInput in = this;
+        if (in.is(ByteArrayInputStream))
+            {
+            // decode the entire run of characters directly from the underlying byte array
+            return in.readUTF8String(readInt());
+            }
+
+        return super();
+        }
+
     @Override
     Int16 readInt16()
         {
@@ -48,6 +67,12 @@ mixin PackedDataInput
     @Override
     Int readInt()
         {
+        BinaryInput in = this;
+        if (in.is(ByteArrayInputStream))
+            {
+            return in.readPackedInt();
+            }
+
         return readPackedInt(this);
         }
 
@@ -20,9 +20,31 @@ mixin PackedDataOutput
     @Override
     void writeChar(Char value)
         {
+        BinaryOutput out = this;
+        if (out.is(ByteArrayOutputStream))
+            {
+            out.writeUTF8Char(value);
+            return;
+            }
+
         writeUTF8Char(this, value);
         }
 
+    @Override
+    void writeString(String value)
+        {
+        BinaryOutput out = this;
+        if (out.is(ByteArrayOutputStream))
+            {
+            // encode the entire run of characters directly into the underlying byte array
+            writeInt(value.size);
+            out.writeUTF8String(value);
+            return;
+            }
+
+        super(value);
+        }
+
     @Override
     void writeInt16(Int16 value)
         {
@@ -50,6 +72,13 @@ mixin PackedDataOutput
     @Override
     void writeInt(Int value)
         {
+        BinaryOutput out = this;
+        if (out.is(ByteArrayOutputStream))
+            {
+            out.writePackedInt(value);
+            return;
+            }
+
         writePackedInt(this, value);
         }
 
@@ -173,7 +173,7 @@ class UTF8Reader
     @Override
     Char nextChar()
         {
-        Char ch = DataInput.readUTF8Char(in);
+        Char ch = readUTF8Char(in);
         ++offset;
 
         HandleTerminator: if (ch.isLineTerminator())
@@ -187,7 +187,7 @@ class UTF8Reader
                 // we have to ignore the preceding CR (as if it were a regular character), because
                 // it's followed by something that will actually act as a for-real line terminator
                 Int  ofNext = in.offset;
-                Char chNext = DataInput.readUTF8Char(in);
+                Char chNext = readUTF8Char(in);
                 in.offset = ofNext;
                 if (chNext == '\n')
                     {
@@ -259,7 +259,7 @@ class UTF8Reader
                     {
                     return False;
                     }
-                DataInput.readUTF8Char(in);
+                readUTF8Char(in);
                 --count;
                 }
             }
@@ -287,6 +287,24 @@ class UTF8Reader
         }
 
 
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Read a single UTF-8 encoded character from the specified stream. A `ByteArrayInputStream` is
+     * asked to decode the character directly from its underlying byte array.
+     *
+     * @param in  the InputStream to read from
+     *
+     * @return the character read from the stream
+     */
+    private static Char readUTF8Char(InputStream in)
+        {
+        return in.is(ByteArrayInputStream)
+                ? in.readUTF8Char()
+                : DataInput.readUTF8Char(in);
+        }
+
+
     // ----- Closeable -----------------------------------------------------------------------------
 
     @Override
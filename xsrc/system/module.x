@@ -44,6 +44,13 @@ module Ecstasy.xtclang.org
     const TimedOut(Timeout timeout, String? text = null, Exception? cause = null)
             extends Exception(text, cause);
 
+    /**
+     * An OutOfMemory exception is raised by the runtime in response to a service exceeding the
+     * memory limitation within which it was running.
+     */
+    const OutOfMemory(String? text = null, Exception? cause = null)
+            extends Exception(text, cause);
+
     /**
      * A ReadOnly exception is raised when an attempt is made to modify a read-only value.
      */
@@ -369,4 +369,19 @@ const VarInt
         {
         TODO
         }
-    }
\ No newline at end of file
+
+
+    // ----- Stringable implementation -------------------------------------------------------------
+
+    @Override
+    Int estimateStringLength()
+        {
+        TODO
+        }
+
+    @Override
+    void appendTo(Appender<Char> appender)
+        {
+        TODO
+        }
+    }
@@ -372,4 +372,19 @@ const VarUInt
         {
         TODO
         }
+
+
+    // ----- Stringable implementation -------------------------------------------------------------
+
+    @Override
+    Int estimateStringLength()
+        {
+        TODO
+        }
+
+    @Override
+    void appendTo(Appender<Char> appender)
+        {
+        TODO
+        }
     }
@@ -0,0 +1,53 @@
+/**
+ * A `DocCodec` converts JSON text directly to and from a JSON [Doc], without producing a stream of
+ * [Lexer] tokens and without going through the general purpose [Parser] and [Printer] logic. The
+ * runtime provides a native implementation, which is obtained via injection:
+ *
+ *     @Inject json.DocCodec jsonCodec;
+ *
+ * The `Doc` values produced by a `DocCodec` are the same as the values produced by the [Parser]:
+ * a JSON object is represented by a mutable [ListMap], a JSON array by a mutable `Doc[]`, and a
+ * JSON number by either an [IntLiteral] or an [FPLiteral].
+ */
+interface DocCodec
+    {
+    /**
+     * Parse a JSON document from the specified text.
+     *
+     * @param text         the JSON document text
+     * @param collateDups  pass True to allow duplicate names in JSON objects (see
+     *                     [Parser.collateDups])
+     *
+     * @return the JSON document
+     *
+     * @throws IllegalJSON if the text is not a single well-formed JSON document
+     */
+    Doc parse(String text, Boolean collateDups = False);
+
+    /**
+     * Parse a JSON document from the specified UTF-8 encoded text.
+     *
+     * @param bytes        the UTF-8 encoded JSON document text
+     * @param collateDups  pass True to allow duplicate names in JSON objects (see
+     *                     [Parser.collateDups])
+     *
+     * @return the JSON document
+     *
+     * @throws IllegalJSON if the text is not a single well-formed JSON document
+     */
+    Doc parse(Byte[] bytes, Boolean collateDups = False);
+
+    /**
+     * Render the specified JSON document exactly as the [Printer] with the same options would.
+     *
+     * @param doc        the JSON document to render
+     * @param showNulls  pass `True` to always show null JSON values as "null"
+     * @param pretty     pass `True` to render the JSON document in a human-readable form
+     *
+     * @return True iff the document was rendered; False if the document contains a value that the
+     *         codec does not know how to render, such as a `Map` implementation other than
+     *         `ListMap`, in which case the caller is expected to use the [Printer] logic instead
+     * @return (conditional) the rendered document
+     */
+    conditional String render(Doc doc, Boolean showNulls = False, Boolean pretty = False);
+    }
@@ -1,6 +1,10 @@
 /**
  * A mapping represents the ability to read and/or write objects of a certain serializable type
  * from/to a JSON document format.
+ *
+ * A mapping that needs to convert between JSON text and a [Doc] (for example, for a value that is
+ * stored as a JSON string) should use the injectable [DocCodec] instead of the [Parser] and the
+ * [Printer]. Note that a `Doc` written via [ElementOutput.add] is already rendered by the codec.
  */
 interface Mapping<Serializable>
     {
@@ -10,6 +10,9 @@ import Lexer.Token;
 
 /**
  * A parser for a JSON document. Turns the output of a JSON Lexer into a JSON Doc.
+ *
+ * When the entire JSON document is already available as a `String` or a `Byte[]`, the injectable
+ * [DocCodec] produces the same `Doc` without the overhead of the token stream.
  */
 class Parser
         implements Iterator<Doc>
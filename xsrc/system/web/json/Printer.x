@@ -34,6 +34,12 @@ const Printer(Boolean showNulls = False, Boolean pretty = False)
      */
     String render(Doc doc)
         {
+        @Inject DocCodec jsonCodec;
+        if (String result := jsonCodec.render(doc, showNulls, pretty))
+            {
+            return result;
+            }
+
         StringBuffer buf = new StringBuffer(estimatePrintLength(doc));
         print(doc, buf);
         return buf.toString();
@@ -58,7 +64,15 @@ const Printer(Boolean showNulls = False, Boolean pretty = False)
      */
     void print(Doc doc, Appender<Char> appender)
         {
-        printInternal(doc, appender, alreadyIndented=True, showNulls=showNulls, pretty=pretty);
+        @Inject DocCodec jsonCodec;
+        if (String result := jsonCodec.render(doc, showNulls, pretty))
+            {
+            result.appendTo(appender);
+            }
+        else
+            {
+            printInternal(doc, appender, alreadyIndented=True, showNulls=showNulls, pretty=pretty);
+            }
         }
 
 
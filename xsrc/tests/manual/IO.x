@@ -3,10 +3,12 @@ module TestIO
     import Ecstasy.io.ByteArrayInputStream;
     import Ecstasy.io.CharArrayReader;
     import Ecstasy.io.DataInputStream;
+    import Ecstasy.io.EndOfFile;
     import Ecstasy.io.InputStream;
     import Ecstasy.io.JavaDataInput;
     import Ecstasy.io.ObjectInput;
     import Ecstasy.io.ObjectOutput;
+    import Ecstasy.io.PackedDataInput;
     import Ecstasy.io.Reader;
     import Ecstasy.io.StringWriter;
     import Ecstasy.io.Writer;
@@ -29,6 +31,7 @@ module TestIO
         {
         testInputStream();
         testJavaUTF();
+        testPackedString();
         testUTF8Reader();
         testJSONLex();
         testJSONParse();
@@ -68,6 +71,26 @@ module TestIO
         console.println($"string={in.readString()}");
         }
 
+    void testPackedString()
+        {
+        console.println("\n*** testPackedString()");
+
+        PackedDataInput in = new @PackedDataInput ByteArrayInputStream([0x07, 0x43, 0x61, 0x6D]);
+        console.println($"string={in.readString()}");
+
+        // a length prefix of 63 with only one byte of data left
+        in = new @PackedDataInput ByteArrayInputStream([0x7F, 0x43]);
+        try
+            {
+            console.println($"string={in.readString()}");
+            assert;
+            }
+        catch (EndOfFile e)
+            {
+            console.println("(eof)");
+            }
+        }
+
     void testUTF8Reader()
         {
         console.println("\n*** testUTF8Reader()");
@@ -23,6 +23,8 @@ module TestArray.xqiz.it
         testComparable();
 
         testIterators();
+
+        testFloats();
         }
 
     void testSimple()
@@ -322,4 +324,46 @@ module TestArray.xqiz.it
         console.println($"min={min}; max={max}");
         console.println($"range={range}");
         }
-    }
\ No newline at end of file
+
+    void testFloats()
+        {
+        console.println("\n** testFloats()");
+
+        Float[] values = [3.5, -1.25, 2.0, 0.0, -7.75];
+
+        // a constant array is sorted into a copy
+        Float[] sorted = values.sort();
+        console.println($"sorted={sorted}");
+        Float[] expect1 = [-7.75, -1.25, 0.0, 2.0, 3.5];
+        assert sorted == expect1;
+        assert values[0] == 3.5;
+
+        // a fixed size array is sorted in place
+        Float[] floats = new Array<Float>(values.size, i -> values[i]);
+        floats.sort();
+        assert floats == sorted;
+
+        floats.sort((o1, o2) -> o2.as(Float) <=> o1.as(Float));
+        console.println($"reversed={floats}");
+        Float[] expect2 = [3.5, 2.0, 0.0, -1.25, -7.75];
+        assert floats == expect2;
+
+        floats.fill(9.5, 1..2);
+        console.println($"filled={floats}");
+        Float[] expect3 = [3.5, 9.5, 9.5, -1.25, -7.75];
+        assert floats == expect3;
+
+        Float[] slice = floats[1..3];
+        console.println($"slice={slice}");
+        Float[] expect4 = [9.5, 9.5, -1.25];
+        assert slice == expect4;
+
+        Float[] reverse = floats[3..1];
+        Float[] expect5 = [-1.25, 9.5, 9.5];
+        assert reverse == expect5;
+
+        floats.fill(0.5);
+        Float[] expect6 = [0.5, 0.5, 0.5, 0.5, 0.5];
+        assert floats == expect6;
+        }
+    }
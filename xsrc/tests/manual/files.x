@@ -2,6 +2,7 @@ module TestFiles.xqiz.it
     {
     import X.fs.Directory;
     import X.fs.File;
+    import X.fs.FileChannel;
     import X.fs.FileWatcher;
     import X.fs.Path;
     import X.fs.FileStore;
@@ -13,6 +14,7 @@ module TestFiles.xqiz.it
         {
         testPaths();
         testInject();
+        testAppend();
         testModify();
         }
 
@@ -80,6 +82,63 @@ module TestFiles.xqiz.it
             }
         }
 
+    void testAppend()
+        {
+        console.println("\n** testAppend()");
+
+        @Inject Directory tmpDir;
+
+        File file = tmpDir.fileFor("append.dat");
+        if (file.exists)
+            {
+            file.delete();
+            }
+
+        using (FileChannel channel = file.open(NoRead, [Create]))
+            {
+            Byte[] bytes = [1, 2, 3];
+            channel.writeAt(0, [bytes]);
+            }
+
+        // the positional writes of a write-only "Append" channel go to the end of the file
+        using (FileChannel channel = file.open(NoRead, [Append]))
+            {
+            Byte[] bytes4 = [4];
+            Byte[] bytes5 = [5, 6];
+            channel.writeAt(0, [bytes4]);
+            channel.writeAt(1, [bytes5]);
+            }
+        console.println($"contents={file.contents}");
+
+        // ... and so do the writes of a readable one
+        using (FileChannel channel = file.open(Read, [Append]))
+            {
+            Int position = channel.position;
+            Byte[] bytes = [7];
+            channel.writeAt(0, [bytes]);
+            assert channel.position == position;
+            }
+        console.println($"contents={file.contents}");
+
+        using (FileChannel channel = file.open(Read, [NoWrite]))
+            {
+            Byte[] bytes = new Byte[4];
+            assert Int count := channel.readAt(5, bytes);
+            console.println($"read {count} bytes at 5: {bytes[0..count-1]}");
+            }
+
+        file.delete();
+        try
+            {
+            Byte[] bytes = file.contents;
+            assert;
+            }
+        catch (Exception e)
+            {
+            console.println("no contents after delete");
+            }
+        }
+
     void testModify()
         {
         console.println("\n** testModify()");
@@ -13,6 +13,9 @@ module TestLambda.xqiz.it
         testRefCapture();
         testVarCapture();
         testComplexCapture();
+        testCaptureAfterAssignment();
+        testSharedCapture();
+        testOverloads();
         }
 
     void testVoid()
@@ -101,4 +104,78 @@ module TestLambda.xqiz.it
             console.println("result=" + f2());
             }
         }
-    }
\ No newline at end of file
+
+    void testCaptureAfterAssignment()
+        {
+        console.println("\n** testCaptureAfterAssignment()");
+
+        // not assigned after the capture: captured by value
+        Int i = 1;
+        i = 2;
+        function Int() f1 = () -> i;
+        assert f1() == 2;
+
+        // assigned after the capture: the lambda sees the new value
+        Int j = 1;
+        function Int() f2 = () -> j;
+        j = 5;
+        assert f2() == 5;
+
+        console.println($"results={f1()}, {f2()}");
+        }
+
+    void testSharedCapture()
+        {
+        console.println("\n** testSharedCapture()");
+
+        // the captured variable outlives the frame that declared it, and is shared by both lambdas
+        (function Int() get, function void(Int) add) = makeCounter();
+        add(3);
+        add(4);
+        assert get() == 7;
+
+        // each call makes a new variable
+        (function Int() get2, function void(Int) add2) = makeCounter();
+        add2(1);
+        assert get2() == 1 && get() == 7;
+
+        console.println($"results={get()}, {get2()}");
+        }
+
+    static (function Int(), function void(Int)) makeCounter()
+        {
+        Int count = 0;
+        return () -> count, (n) -> {count += n;};
+        }
+
+    void testOverloads()
+        {
+        console.println("\n** testOverloads()");
+
+        // the lambda's parameter count or type picks the method
+        assert apply((Int n) -> n + 1)          == "Int 2";
+        assert apply((String s) -> s + "!")     == "String x!";
+        assert apply((a, b) -> a < b)           == "Boolean True";
+
+        // nested lambdas, each passed to an overloaded method
+        String s = apply((Int n) -> apply((Int m) -> m * n).size + n);
+        assert s == "Int 6";
+
+        console.println($"result={s}");
+        }
+
+    static String apply(function Int(Int) f)
+        {
+        return $"Int {f(1)}";
+        }
+
+    static String apply(function String(String) f)
+        {
+        return $"String {f("x")}";
+        }
+
+    static String apply(function Boolean(Int, Int) f)
+        {
+        return $"Boolean {f(1, 2)}";
+        }
+    }
@@ -0,0 +1,67 @@
+/**
+ * The memory limit tests; these need to run with a service memory limit, for example:
+ *
+ *   java -Dxvm.service.memoryLimit=268435456 org.xvm.runtime.TestConnector TestMemory.xqiz.it tests/manual/memory.x
+ */
+module TestMemory.xqiz.it
+    {
+    import Ecstasy.OutOfMemory;
+
+    @Inject Console console;
+
+    void run()
+        {
+        console.println("*** memory limit tests ***\n");
+
+        Hog hog = new Hog();
+        console.println($"huge array: {hog.allocateHuge()}");
+        console.println($"many arrays: {hog.allocateMany()}");
+        console.println($"after release: {hog.allocateSmall()}");
+        }
+
+    service Hog
+        {
+        Array<Int[]> hoard = new Array<Int[]>();
+
+        String allocateHuge()
+            {
+            try
+                {
+                Int[] ints = new Array<Int>(1 << 30, 0);
+                return $"allocated {ints.size}";
+                }
+            catch (OutOfMemory e)
+                {
+                return "OutOfMemory";
+                }
+            }
+
+        String allocateMany()
+            {
+            try
+                {
+                for (Int i = 0; i < 100_000; ++i)
+                    {
+                    hoard.add(new Array<Int>(100_000, 0));
+                    }
+                return $"allocated {hoard.size} arrays";
+                }
+            catch (OutOfMemory e)
+                {
+                assert hoard.size > 0;
+                return "OutOfMemory";
+                }
+            }
+
+        String allocateSmall()
+            {
+            // once the memory is released, the service can allocate again
+            hoard = new Array<Int[]>();
+            gc();
+
+            Int[] ints = new Array<Int>(1000, 0);
+            assert bytesReserved > 0;
+            return $"allocated {ints.size}";
+            }
+        }
+    }
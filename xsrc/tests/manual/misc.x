@@ -33,6 +33,7 @@ module TestMisc.xqiz.it
         testConditional();
         testBind();
         testConstants();
+        testConstFields();
         testImport();
         testRecursiveType();
         testChild();
@@ -562,6 +563,54 @@ module TestMisc.xqiz.it
         assert Point.compare(point1, point3) == Equal;
         }
 
+    void testConstFields()
+        {
+        console.println("\n** testConstFields()");
+
+        UInt small = 1;
+        UInt big   = 0xFFFF_FFFF_FFFF_FFFF;
+
+        // Simple is compared and hashed natively; the Char field makes Other use the
+        // Equals/Compare/HashCode continuations instead, but the results must be the same
+        Simple[] simple =
+            [
+            new Simple(1, "a", small, False),
+            new Simple(1, "a", big,   False),
+            new Simple(-1, "b", small, True),
+            new Simple(1, "a", small, False),
+            ];
+        Other[] other =
+            [
+            new Other(1, "a", small, False, 'x'),
+            new Other(1, "a", big,   False, 'x'),
+            new Other(-1, "b", small, True, 'x'),
+            new Other(1, "a", small, False, 'x'),
+            ];
+
+        for (Int i = 0; i < 4; ++i)
+            {
+            for (Int j = 0; j < 4; ++j)
+                {
+                assert simple[i] <=> simple[j] == other[i] <=> other[j];
+                assert (simple[i] == simple[j]) == (other[i] == other[j]);
+                if (simple[i] == simple[j])
+                    {
+                    assert Simple.hashCode(simple[i]) == Simple.hashCode(simple[j]);
+                    assert Other.hashCode(other[i])   == Other.hashCode(other[j]);
+                    }
+                }
+            }
+
+        // a UInt above Int.maxvalue is ordered after the smaller values
+        assert simple[0] <=> simple[1] == small <=> big;
+        assert simple[0] < simple[1];
+        console.println($"small <=> big: {simple[0] <=> simple[1]}");
+        }
+
+    const Simple(Int n, String s, UInt u, Boolean f);
+
+    const Other(Int n, String s, UInt u, Boolean f, Char c);
+
     const Point(Int x, Int y);
 
     const NamedPoint(String name, Int x, Int y)
@@ -3,6 +3,7 @@ module TestNumbers.xqiz.it
     import Ecstasy.numbers.Int8;
     import Ecstasy.numbers.Int128;
     import Ecstasy.numbers.UInt128;
+    import Ecstasy.numbers.VarUInt;
 
     @Inject Ecstasy.io.Console console;
 
@@ -12,6 +13,7 @@ module TestNumbers.xqiz.it
         testByte();
         testInt128();
         testUInt128();
+        testVarUInt();
         testFloat64();
         testFloat32();
         testFloat16();
@@ -167,6 +169,34 @@ module TestNumbers.xqiz.it
             }
         }
 
+    void testVarUInt()
+        {
+        console.println("\n** testVarUInt()");
+
+        VarUInt n1 = 42;
+        VarUInt n2 = n1 * n1 * n1;
+        console.println("n2=" + n2);
+        console.println("n3=" + (n2 - n1));
+
+        try
+            {
+            n1 -= n2;
+            assert;
+            }
+        catch (OutOfBounds e)
+            {
+            }
+
+        try
+            {
+            n1 = ~n1;
+            assert;
+            }
+        catch (OutOfBounds e)
+            {
+            }
+        }
+
     void testFloat64()
         {
         console.println("\n** testFloat64()");
@@ -20,6 +20,7 @@ module TestReflection.xqiz.it
         testTypeTemplate();
         testEnum();
         testStruct();
+        testAccessViews();
         }
 
     Function<<Int, String>, <Int>> foo()
@@ -547,4 +548,54 @@ module TestReflection.xqiz.it
         // TODO
         return type.toString();
         }
+
+    class Counter
+        {
+        private Int count;
+        protected Int step = 1;
+
+        void bump()
+            {
+            this:private.count += this:protected.step;
+            }
+
+        Int peek()
+            {
+            return this:struct.count;
+            }
+        }
+
+    void testAccessViews()
+        {
+        console.println("\n** testAccessViews");
+
+        Counter c = new Counter();
+        for (Int i = 0; i < 5; ++i)
+            {
+            c.bump();
+            assert c.peek() == i + 1;
+            }
+
+        // all the views of an object share its fields
+        assert Counter:struct s := &c.revealAs(Counter:struct);
+        s.count = 10;
+        assert c.peek() == 10;
+        c.bump();
+        assert s.count == 11;
+        console.println($"count={c.peek()}");
+
+        // making the object immutable makes all of its views immutable
+        c.makeImmutable();
+        assert &s.isImmutable;
+        try
+            {
+            c.bump();
+            assert;
+            }
+        catch (Exception e)
+            {
+            console.println($"expected - {e.text}");
+            }
+        assert c.peek() == 11;
+        }
     }
@@ -79,9 +79,47 @@ module TestServices.xqiz.it
                 });
             }
 
+        testCopyOnSend(svc);
+
         console.println($"{tag()} done {r}");
         }
 
+    void testCopyOnSend(TestService svc)
+        {
+        Node a = new Node("a");
+        Node b = new Node("b");
+        a.next = b;
+        b.next = a;
+
+        Int[] values = new Int[];
+        values.add(1);
+        values.add(2);
+        a.values = values;
+        b.values = values;
+
+        // the cyclic graph is copied (not frozen in place) as it crosses the service boundary
+        String s = svc.walk(a);
+        console.println($"{tag()} walked the copy: {s}");
+        assert s == "a[1, 2] b[1, 2] a[1, 2]";
+
+        assert !a.is(immutable Object) && !values.is(immutable Object);
+        b.name = "c";
+        values.add(3);
+        console.println($"{tag()} the original is still mutable: {a.next?.name} {values}");
+        }
+
+    class Node
+        {
+        construct(String name)
+            {
+            this.name = name;
+            }
+
+        String name;
+        Node?  next;
+        Int[]  values = [];
+        }
+
     service TestService
         {
         Int calcSomethingBig(Duration delay)
@@ -112,6 +150,16 @@ module TestServices.xqiz.it
             return sum;
             }
 
+        String walk(Node node)
+            {
+            assert node.is(immutable Object) && node.values.is(immutable Object);
+
+            Node second = node.next ?: assert;
+            Node third  = second.next ?: assert;
+            assert second.is(immutable Object);
+            return $"{node.name}{node.values} {second.name}{second.values} {third.name}{third.values}";
+            }
+
         Int terminateExceptionally(String message)
             {
             throw new Exception(message);